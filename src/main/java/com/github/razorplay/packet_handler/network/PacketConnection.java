@@ -0,0 +1,320 @@
+package com.github.razorplay.packet_handler.network;
+
+import com.github.razorplay.packet_handler.exceptions.PacketInstantiationException;
+import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.network_util.ByteBufferDataInput;
+import com.github.razorplay.packet_handler.network.network_util.ByteBufferDataOutput;
+import com.github.razorplay.packet_handler.network.network_util.StringTable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Holds the per-connection state used to encode and decode packets with {@link PacketTCP}.
+ * Every string written by a packet goes through a {@link StringTable}: the first occurrence is sent in full,
+ * and later occurrences are sent as a short slot reference.
+ *
+ * <p>Each peer creates one instance per connection, with the same table bounds on both sides, and must decode
+ * packets in the order they were encoded. Packets encoded by a connection can only be decoded by its peer's
+ * connection, never by the static {@link PacketTCP#read(ByteBuffer)}. If encoding fails, the outbound table and
+ * stream are reset right away, and the peer must be {@link #reset()} as well (or the connection dropped); if decoding
+ * fails, both sides must be reset.</p>
+ *
+ * <p>Writing and reading use separate tables and separate locks, so one thread may send while another receives.</p>
+ *
+ * <p>{@link #writeCompressed(IPacket)} and {@link #readCompressed(byte[])} additionally share one deflate stream per
+ * direction for the whole connection, flushed after every packet, so that a packet can refer back to everything sent
+ * before it: a run of similar packets, such as entity updates, compresses to a fraction of what
+ * {@link PacketTCP#writeCompressed(IPacket)} produces for each one alone. Compressed packets must likewise be decoded
+ * in order, and the streams are reset along with the string tables.</p>
+ *
+ * <pre>{@code
+ * PacketConnection connection = new PacketConnection();
+ * byte[] data = connection.write(new WorldPacket("world_nether"));
+ * // on the other side, with its own PacketConnection
+ * WorldPacket packet = connection.read(data);
+ * }</pre>
+ */
+public final class PacketConnection implements AutoCloseable {
+    private static final int INITIAL_WRITE_CAPACITY = 256;
+    private static final int MIN_BUFFER_SIZE = 64;
+
+    // Every sync flush ends with this empty stored block: it is left out of the data and restored when reading
+    private static final byte[] SYNC_FLUSH_TRAILER = {0x00, 0x00, (byte) 0xFF, (byte) 0xFF};
+
+    private final StringTable outboundStrings;
+    private final StringTable inboundStrings;
+    private final int compressionLevel;
+
+    // Created on first use, guarded by the lock of the matching string table
+    private Deflater deflater;
+    private Inflater inflater;
+
+    /**
+     * Creates a connection whose string tables use the default bounds.
+     */
+    public PacketConnection() {
+        this(StringTable.DEFAULT_CAPACITY, StringTable.DEFAULT_MAX_ENTRY_LENGTH);
+    }
+
+    /**
+     * Creates a connection whose string tables use the given bounds. The peer must use the same values.
+     *
+     * @param stringTableCapacity the maximum number of strings remembered in each direction
+     * @param maxStringLength     the maximum length, in chars, of a remembered string
+     * @throws IllegalArgumentException if stringTableCapacity is not positive or maxStringLength is negative
+     */
+    public PacketConnection(int stringTableCapacity, int maxStringLength) {
+        this(stringTableCapacity, maxStringLength, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a connection whose string tables use the given bounds, compressing with the given level.
+     * The peer must use the same table bounds, but may use any level.
+     *
+     * @param stringTableCapacity the maximum number of strings remembered in each direction
+     * @param maxStringLength     the maximum length, in chars, of a remembered string
+     * @param compressionLevel    the deflate level used by {@link #writeCompressed(IPacket)}, from 0 to 9,
+     *                            or {@link Deflater#DEFAULT_COMPRESSION}
+     * @throws IllegalArgumentException if stringTableCapacity is not positive, maxStringLength is negative
+     *                                  or compressionLevel is invalid
+     */
+    public PacketConnection(int stringTableCapacity, int maxStringLength, int compressionLevel) {
+        if (compressionLevel != Deflater.DEFAULT_COMPRESSION
+                && (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+        }
+        this.outboundStrings = new StringTable(stringTableCapacity, maxStringLength);
+        this.inboundStrings = new StringTable(stringTableCapacity, maxStringLength);
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Serializes a packet into a byte array.
+     *
+     * @param packet The packet to serialize
+     * @return byte array containing the serialized packet data
+     * @throws PacketSerializationException if there's an error during serialization
+     */
+    public byte[] write(IPacket packet) throws PacketSerializationException {
+        synchronized (outboundStrings) {
+            try (ByteBufferDataOutput out = new ByteBufferDataOutput(PacketTCP.getBufferPool(), INITIAL_WRITE_CAPACITY)) {
+                encode(packet, out);
+                return out.toByteArray();
+            }
+        }
+    }
+
+    /**
+     * Serializes a packet into a pooled buffer and hands the encoded data to the given consumer.
+     * The buffer goes back to the pool once the consumer returns, so it must not be retained.
+     *
+     * @param packet The packet to serialize
+     * @param sink   The consumer receiving the encoded packet
+     * @throws PacketSerializationException if there's an error during serialization
+     * @see PacketTCP#writeTo(IPacket, Consumer)
+     */
+    public void writeTo(IPacket packet, Consumer<ByteBuffer> sink) throws PacketSerializationException {
+        synchronized (outboundStrings) {
+            try (ByteBufferDataOutput out = new ByteBufferDataOutput(PacketTCP.getBufferPool(), INITIAL_WRITE_CAPACITY)) {
+                encode(packet, out);
+                ByteBuffer data = out.buffer().duplicate();
+                data.flip();
+                sink.accept(data);
+            }
+        }
+    }
+
+    /**
+     * Deserializes a packet written by the peer connection.
+     *
+     * @param data The serialized packet data
+     * @return The deserialized packet instance
+     * @throws PacketInstantiationException if there's an error creating the packet instance
+     * @throws PacketSerializationException if there's an error during deserialization
+     */
+    public <T extends IPacket> T read(byte[] data) throws PacketInstantiationException, PacketSerializationException {
+        return read(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Deserializes a packet written by the peer connection, starting at the current position of the buffer.
+     *
+     * @param buffer The heap or direct buffer containing the packet data
+     * @return The deserialized packet instance
+     * @throws PacketInstantiationException if there's an error creating the packet instance
+     * @throws PacketSerializationException if there's an error during deserialization
+     */
+    public <T extends IPacket> T read(ByteBuffer buffer) throws PacketInstantiationException, PacketSerializationException {
+        synchronized (inboundStrings) {
+            return PacketTCP.read(new ByteBufferDataInput(buffer), inboundStrings);
+        }
+    }
+
+    /**
+     * Serializes a packet and compresses it with the outbound deflate stream of this connection.
+     * The result can only be decoded by {@link #readCompressed(byte[])} on the peer connection.
+     *
+     * @param packet The packet to serialize and compress
+     * @return byte array containing the compressed packet data
+     * @throws PacketSerializationException if there's an error during serialization, or the compressed packet
+     *                                      exceeds {@link PacketTCP#MAX_COMPRESSED_SIZE}; the outbound stream
+     *                                      has then been reset, and so must the peer connection
+     */
+    public byte[] writeCompressed(IPacket packet) throws PacketSerializationException {
+        synchronized (outboundStrings) {
+            try (ByteBufferDataOutput out = new ByteBufferDataOutput(PacketTCP.getBufferPool(), INITIAL_WRITE_CAPACITY)) {
+                encode(packet, out);
+                ByteBuffer data = out.buffer();
+                try {
+                    if (data.hasArray()) {
+                        return deflate(data.array(), data.arrayOffset() + data.position() - out.size(), out.size());
+                    }
+                    byte[] uncompressedData = out.toByteArray();
+                    return deflate(uncompressedData, 0, uncompressedData.length);
+                } catch (PacketSerializationException | RuntimeException e) {
+                    throw outboundFailure(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes a packet with the outbound string table, resetting the outbound state if it fails part way.
+     */
+    private void encode(IPacket packet, ByteBufferDataOutput out) throws PacketSerializationException {
+        try {
+            PacketTCP.write(packet, out, outboundStrings);
+        } catch (PacketSerializationException | RuntimeException e) {
+            throw outboundFailure(e);
+        }
+    }
+
+    /**
+     * Resets the outbound string table and deflate stream after a failed write, which may have left them ahead
+     * of what the peer has seen.
+     */
+    private PacketSerializationException outboundFailure(Exception cause) {
+        resetOutbound();
+        return new PacketSerializationException("Error encoding packet, the outbound stream was reset and the peer connection must be reset too", cause);
+    }
+
+    private byte[] deflate(byte[] data, int offset, int length) throws PacketSerializationException {
+        if (deflater == null) {
+            deflater = new Deflater(compressionLevel, true);
+        }
+        deflater.setInput(data, offset, length);
+        byte[] output = new byte[Math.max(MIN_BUFFER_SIZE, length + (length >>> 8) + 16)];
+        int size = 0;
+        while (true) {
+            size += deflater.deflate(output, size, output.length - size, Deflater.SYNC_FLUSH);
+            // The flush is complete once the deflater leaves room in the output
+            if (size < output.length) {
+                break;
+            }
+            output = Arrays.copyOf(output, output.length << 1);
+        }
+
+        int compressedSize = size - SYNC_FLUSH_TRAILER.length;
+        if (compressedSize > PacketTCP.MAX_COMPRESSED_SIZE) {
+            throw new PacketSerializationException("Compressed packet size exceeds limit: " + compressedSize + " bytes (max: " + PacketTCP.MAX_COMPRESSED_SIZE + " bytes)");
+        }
+        return Arrays.copyOf(output, compressedSize);
+    }
+
+    /**
+     * Decompresses a packet with the inbound inflate stream of this connection and deserializes it.
+     * Decompression fails once the packet exceeds {@link PacketTCP#getMaxDecompressedSize()}.
+     *
+     * @param compressedData The compressed packet data written by the peer connection
+     * @return The deserialized packet instance
+     * @throws PacketInstantiationException if there's an error creating the packet instance
+     * @throws PacketSerializationException if there's an error during deserialization or decompression
+     */
+    public <T extends IPacket> T readCompressed(byte[] compressedData) throws PacketInstantiationException, PacketSerializationException {
+        synchronized (inboundStrings) {
+            if (inflater == null) {
+                inflater = new Inflater(true);
+            }
+            int maxLength = PacketTCP.getMaxDecompressedSize();
+            byte[] output = new byte[(int) Math.min(maxLength + 1L, Math.max(MIN_BUFFER_SIZE, compressedData.length * 4L))];
+            int size = 0;
+            try {
+                for (byte[] input : new byte[][]{compressedData, SYNC_FLUSH_TRAILER}) {
+                    inflater.setInput(input);
+                    while (true) {
+                        if (size == output.length) {
+                            output = Arrays.copyOf(output, (int) Math.min(maxLength + 1L, (long) output.length << 1));
+                        }
+                        int inflated = inflater.inflate(output, size, output.length - size);
+                        size += inflated;
+                        if (size > maxLength) {
+                            throw new DataFormatException("Decompressed data exceeds " + maxLength + " bytes");
+                        }
+                        // Stop once the input is used up and nothing is left buffered
+                        if (inflated == 0) {
+                            if (inflater.finished() || inflater.needsDictionary()) {
+                                throw new DataFormatException("Unexpected end of compression stream");
+                            }
+                            if (inflater.needsInput()) {
+                                break;
+                            }
+                        }
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new PacketSerializationException("Error decompressing packet data", e);
+            }
+            return PacketTCP.read(new ByteBufferDataInput(ByteBuffer.wrap(output, 0, size)), inboundStrings);
+        }
+    }
+
+    /**
+     * Forgets every remembered string and restarts both compression streams.
+     * The peer must be reset at the same point of the stream.
+     */
+    public void reset() {
+        synchronized (outboundStrings) {
+            resetOutbound();
+        }
+        synchronized (inboundStrings) {
+            inboundStrings.clear();
+            if (inflater != null) {
+                inflater.reset();
+            }
+        }
+    }
+
+    private void resetOutbound() {
+        outboundStrings.clear();
+        if (deflater != null) {
+            deflater.reset();
+        }
+    }
+
+    /**
+     * Releases the native compression state of this connection. The connection may still be used afterwards,
+     * as if it had been {@link #reset()}.
+     */
+    @Override
+    public void close() {
+        synchronized (outboundStrings) {
+            outboundStrings.clear();
+            if (deflater != null) {
+                deflater.end();
+                deflater = null;
+            }
+        }
+        synchronized (inboundStrings) {
+            inboundStrings.clear();
+            if (inflater != null) {
+                inflater.end();
+                inflater = null;
+            }
+        }
+    }
+}
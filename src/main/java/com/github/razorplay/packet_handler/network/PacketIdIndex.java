@@ -0,0 +1,205 @@
+package com.github.razorplay.packet_handler.network;
+
+import com.github.razorplay.packet_handler.exceptions.PacketInstantiationException;
+import com.github.razorplay.packet_handler.exceptions.PacketRegistrationException;
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.io.ByteArrayDataInput;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable snapshot of the packet registry. {@link PacketTCP} publishes a new snapshot atomically whenever
+ * packets are registered, so that threads encoding and decoding packets never lock or see a partial update.
+ *
+ * <p>Packet types are indexed by their numeric ID, that is in the order of their sorted packet IDs.
+ * Each string ID is also kept pre-encoded in modified UTF-8, with its 2-byte length prefix, so that writing it is
+ * a single bulk copy. Reading a string ID walks the encoded IDs, sorted by bytes, as an implicit trie: every byte
+ * read narrows the range of candidates with two binary searches, without creating a String.</p>
+ */
+final class PacketIdIndex {
+    static final PacketIdIndex EMPTY = new PacketIdIndex(ImmutableBiMap.of());
+
+    private final ImmutableBiMap<String, Class<? extends IPacket>> registry;
+    private final String[] packetIds;
+    private final Class<?>[] packetClasses;
+    private final byte[][] encodedIds;
+    private final Map<Class<?>, Integer> indexes = new HashMap<>();
+    // Numeric IDs sorted by the unsigned bytes of their encoded string ID, skipping IDs too long to encode
+    private final int[] byteOrder;
+
+    PacketIdIndex(ImmutableBiMap<String, Class<? extends IPacket>> registry) {
+        this.registry = registry;
+        this.packetIds = new TreeSet<>(registry.keySet()).toArray(new String[0]);
+        this.packetClasses = new Class<?>[packetIds.length];
+        this.encodedIds = new byte[packetIds.length][];
+        for (int i = 0; i < packetIds.length; i++) {
+            packetClasses[i] = registry.get(packetIds[i]);
+            encodedIds[i] = encode(packetIds[i]);
+            indexes.put(packetClasses[i], i);
+        }
+        this.byteOrder = IntStream.range(0, packetIds.length)
+                .filter(i -> encodedIds[i] != null)
+                .boxed()
+                .sorted((a, b) -> compareUnsigned(encodedIds[a], encodedIds[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Returns a snapshot with the given packets added.
+     *
+     * @param packets the packets to add, by ID
+     * @return the new snapshot
+     * @throws PacketRegistrationException if a packet ID or class is already registered
+     */
+    PacketIdIndex with(Map<String, Class<? extends IPacket>> packets) {
+        for (Map.Entry<String, Class<? extends IPacket>> entry : packets.entrySet()) {
+            if (registry.containsKey(entry.getKey())) {
+                throw new PacketRegistrationException("Packet ID \"" + entry.getKey() + "\" is already registered.");
+            }
+            String existingId = registry.inverse().get(entry.getValue());
+            if (existingId != null) {
+                throw new PacketRegistrationException("Class " + entry.getValue().getName() + " is already registered with ID \"" + existingId + "\".");
+            }
+        }
+        return new PacketIdIndex(ImmutableBiMap.<String, Class<? extends IPacket>>builder()
+                .putAll(registry)
+                .putAll(packets)
+                .build());
+    }
+
+    /**
+     * Returns the registered packets, by ID.
+     */
+    ImmutableBiMap<String, Class<? extends IPacket>> registry() {
+        return registry;
+    }
+
+    int size() {
+        return packetIds.length;
+    }
+
+    String packetId(int index) {
+        return packetIds[index];
+    }
+
+    Class<?> packetClass(int index) {
+        return packetClasses[index];
+    }
+
+    /**
+     * Returns the numeric ID of a packet class, or -1 if it is not registered.
+     */
+    int indexOf(Class<?> packetClass) {
+        Integer index = indexes.get(packetClass);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns the string ID of a packet encoded as by {@link java.io.DataOutput#writeUTF(String)},
+     * or {@code null} if it is longer than 65535 bytes. The array must not be modified.
+     */
+    byte[] encodedId(int index) {
+        return encodedIds[index];
+    }
+
+    /**
+     * Reads a string ID written by {@link java.io.DataOutput#writeUTF(String)} and returns its numeric ID.
+     *
+     * @param in the input to read from
+     * @return the numeric ID of the packet
+     * @throws PacketInstantiationException if no packet is registered with the ID read
+     */
+    int readStringId(ByteArrayDataInput in) throws PacketInstantiationException {
+        int length = in.readUnsignedShort();
+        int low = 0;
+        int high = byteOrder.length;
+        for (int position = Short.BYTES; position < Short.BYTES + length; position++) {
+            int value = in.readUnsignedByte();
+            int newLow = lowerBound(low, high, position, value);
+            int newHigh = lowerBound(newLow, high, position, value + 1);
+            if (newLow == newHigh) {
+                throw unknownId(in, length, position, value, low < high ? encodedIds[byteOrder[low]] : null);
+            }
+            low = newLow;
+            high = newHigh;
+        }
+        // Every candidate left shares the bytes read, and an ID ending here sorts first
+        if (low < high && encodedIds[byteOrder[low]].length == Short.BYTES + length) {
+            return byteOrder[low];
+        }
+        throw unknownId(in, length, Short.BYTES + length, -1, low < high ? encodedIds[byteOrder[low]] : null);
+    }
+
+    /**
+     * Returns the first candidate in [low, high) whose byte at the given position is at least the given value,
+     * counting the end of an encoded ID as -1.
+     */
+    private int lowerBound(int low, int high, int position, int value) {
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            byte[] encoded = encodedIds[byteOrder[middle]];
+            int current = position < encoded.length ? encoded[position] & 0xFF : -1;
+            if (current < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Builds the exception for an unregistered ID. The bytes matched so far are those of the last candidate,
+     * the remaining ones are read from the input so that the ID can be reported.
+     */
+    private static PacketInstantiationException unknownId(ByteArrayDataInput in, int length, int position, int value, byte[] prefix) {
+        byte[] encoded = new byte[Short.BYTES + length];
+        encoded[0] = (byte) (length >>> 8);
+        encoded[1] = (byte) length;
+        if (prefix != null) {
+            System.arraycopy(prefix, Short.BYTES, encoded, Short.BYTES, Math.min(position, prefix.length) - Short.BYTES);
+        }
+        if (value >= 0) {
+            encoded[position] = (byte) value;
+            in.readFully(encoded, position + 1, encoded.length - position - 1);
+        }
+        String packetId;
+        try {
+            packetId = new DataInputStream(new ByteArrayInputStream(encoded)).readUTF();
+        } catch (IOException e) {
+            return new PacketInstantiationException("Could not find packet with malformed ID", e);
+        }
+        return new PacketInstantiationException("Could not find packet with ID " + packetId, null);
+    }
+
+    private static byte[] encode(String packetId) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Short.BYTES + packetId.length());
+        try {
+            new DataOutputStream(bytes).writeUTF(packetId);
+        } catch (IOException e) {
+            // Longer than 65535 bytes, rejected when written
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int compareUnsigned(byte[] first, byte[] second) {
+        int length = Math.min(first.length, second.length);
+        for (int i = Short.BYTES; i < length; i++) {
+            int difference = (first[i] & 0xFF) - (second[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return first.length - second.length;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.razorplay.packet_handler.network;
+
+/**
+ * Defines how {@link PacketTCP} identifies the type of each packet on the wire.
+ * Both sides of a connection must use the same mode.
+ */
+public enum PacketIdMode {
+
+    /**
+     * Every packet starts with its string ID, such as {@code "example:my_packet"}, in modified UTF-8
+     * with a 2-byte length prefix. This is the original wire format and the default.
+     */
+    STRING,
+
+    /**
+     * Every packet starts with the position of its ID in the sorted registry, as a VarInt
+     * (1 byte for the first 128 packet types, 2 bytes up to 16384).
+     * Both peers must have registered exactly the same packet IDs, which they should check once by exchanging
+     * {@link PacketTCP#getSchemaFingerprint()} before switching to this mode.
+     */
+    NUMERIC
+}
@@ -0,0 +1,232 @@
+package com.github.razorplay.packet_handler.network;
+
+import com.github.razorplay.packet_handler.exceptions.PacketInstantiationException;
+import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.network_util.ByteBufferDataInput;
+import com.github.razorplay.packet_handler.network.network_util.PacketDataSerializer;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Reassembles the frames written by {@link PacketTCP#writeFragmented(IPacket)} into packets.
+ *
+ * <p>Each frame starts with a type byte. A whole packet follows {@value #FRAME_COMPLETE} directly; a fragment
+ * follows {@value #FRAME_FRAGMENT} with the ID of its packet, its index and the number of fragments, as VarInts.
+ * Fragments of different packets may arrive interleaved with each other and with whole packets, but the
+ * fragments of one packet must arrive in order, as they do over a single TCP connection.</p>
+ *
+ * <p>Incomplete packets are bounded in number and in total size, and dropped once they have been pending for
+ * longer than the timeout, so a peer cannot make the reassembler hold on to unbounded memory. A frame breaking
+ * these bounds fails with a {@link PacketSerializationException} and discards its packet; later fragments of a
+ * discarded packet fail as well.</p>
+ *
+ * <p>Each receiver creates one instance per connection. Instances are thread-safe.</p>
+ *
+ * <pre>{@code
+ * PacketReassembler reassembler = new PacketReassembler();
+ * // for every plugin message received on the channel
+ * IPacket packet = reassembler.read(message);
+ * if (packet != null) {
+ *     handle(packet);
+ * }
+ * }</pre>
+ */
+public final class PacketReassembler {
+    /**
+     * The default maximum number of packets being reassembled at once.
+     */
+    public static final int DEFAULT_MAX_PENDING_PACKETS = 16;
+    /**
+     * The default time after which an incomplete packet is dropped: 30 seconds.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+    /**
+     * The frame type of a packet sent whole.
+     */
+    static final byte FRAME_COMPLETE = 0;
+    /**
+     * The frame type of a fragment.
+     */
+    static final byte FRAME_FRAGMENT = 1;
+    /**
+     * The largest header of a fragment: the frame type, then three VarInts of at most 5 bytes.
+     */
+    static final int MAX_FRAGMENT_HEADER_SIZE = 1 + 3 * 5;
+
+    private final int maxPendingPackets;
+    private final int maxPendingBytes;
+    private final long timeoutNanos;
+    private final LongSupplier nanoClock;
+    // In arrival order, which is also the order in which the packets expire
+    private final Map<Integer, PendingPacket> pending = new LinkedHashMap<>();
+    private int pendingBytes;
+
+    /**
+     * Creates a reassembler with the default bounds: {@value #DEFAULT_MAX_PENDING_PACKETS} pending packets of
+     * together at most {@link PacketTCP#DEFAULT_MAX_DECOMPRESSED_SIZE} bytes, dropped after
+     * {@value #DEFAULT_TIMEOUT_MILLIS} milliseconds.
+     */
+    public PacketReassembler() {
+        this(DEFAULT_MAX_PENDING_PACKETS, PacketTCP.DEFAULT_MAX_DECOMPRESSED_SIZE, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a reassembler with the given bounds.
+     *
+     * @param maxPendingPackets the maximum number of packets being reassembled at once
+     * @param maxPendingBytes   the maximum number of bytes held by all incomplete packets together,
+     *                          which also bounds the size of a single fragmented packet
+     * @param timeoutMillis     the time after which an incomplete packet is dropped, in milliseconds
+     * @throws IllegalArgumentException if any bound is not positive
+     */
+    public PacketReassembler(int maxPendingPackets, int maxPendingBytes, long timeoutMillis) {
+        this(maxPendingPackets, maxPendingBytes, timeoutMillis, System::nanoTime);
+    }
+
+    PacketReassembler(int maxPendingPackets, int maxPendingBytes, long timeoutMillis, LongSupplier nanoClock) {
+        if (maxPendingPackets <= 0) {
+            throw new IllegalArgumentException("Invalid max pending packets: " + maxPendingPackets);
+        }
+        if (maxPendingBytes <= 0) {
+            throw new IllegalArgumentException("Invalid max pending bytes: " + maxPendingBytes);
+        }
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid timeout: " + timeoutMillis);
+        }
+        this.maxPendingPackets = maxPendingPackets;
+        this.maxPendingBytes = maxPendingBytes;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Reads a frame. A packet sent whole is decoded right away; a fragment is buffered, and its packet is
+     * decoded once its last fragment arrives. Packets are decoded with {@link PacketTCP#readCompressed(byte[])}.
+     *
+     * @param frame the frame, as written by {@link PacketTCP#writeFragmented(IPacket)}
+     * @return the completed packet, or {@code null} if the frame was a fragment of a packet still incomplete
+     * @throws PacketInstantiationException if there's an error creating the packet instance
+     * @throws PacketSerializationException if the frame is invalid, breaks the reassembly bounds,
+     *                                      or its packet cannot be decoded
+     */
+    @Nullable
+    public synchronized IPacket read(byte[] frame) throws PacketInstantiationException, PacketSerializationException {
+        long now = nanoClock.getAsLong();
+        expire(now);
+        if (frame.length == 0) {
+            throw new PacketSerializationException("Empty frame");
+        }
+        if (frame[0] == FRAME_COMPLETE) {
+            return PacketTCP.readCompressed(frame, 1, frame.length - 1);
+        }
+        if (frame[0] != FRAME_FRAGMENT) {
+            throw new PacketSerializationException("Invalid frame type: " + frame[0]);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(frame, 1, frame.length - 1);
+        PacketDataSerializer serializer = new PacketDataSerializer(new ByteBufferDataInput(buffer));
+        int packetId = serializer.readVarInt();
+        int index = serializer.readVarInt();
+        int count = serializer.readVarInt();
+        if (count <= 0 || index < 0 || index >= count) {
+            throw new PacketSerializationException("Invalid fragment " + index + " of " + count);
+        }
+
+        PendingPacket packet = pending.get(packetId);
+        if (packet == null) {
+            if (index != 0) {
+                throw new PacketSerializationException("Missing fragments of packet " + packetId + " before fragment " + index);
+            }
+            if (pending.size() >= maxPendingPackets) {
+                throw new PacketSerializationException("Too many packets being reassembled (max: " + maxPendingPackets + ")");
+            }
+            packet = new PendingPacket(count, now + timeoutNanos);
+            pending.put(packetId, packet);
+        } else if (count != packet.count || index != packet.received) {
+            discard(packetId);
+            throw new PacketSerializationException("Unexpected fragment " + index + " of " + count + " for packet " + packetId);
+        }
+
+        int length = buffer.remaining();
+        if (length > maxPendingBytes - pendingBytes) {
+            discard(packetId);
+            throw new PacketSerializationException("Reassembly buffers exceed limit (max: " + maxPendingBytes + " bytes)");
+        }
+        packet.append(frame, buffer.position(), length, maxPendingBytes);
+        pendingBytes += length;
+        if (packet.received < count) {
+            return null;
+        }
+        discard(packetId);
+        return PacketTCP.readCompressed(packet.data, 0, packet.size);
+    }
+
+    /**
+     * Returns the number of packets currently being reassembled, dropping those that timed out.
+     *
+     * @return the number of incomplete packets
+     */
+    public synchronized int pendingPackets() {
+        expire(nanoClock.getAsLong());
+        return pending.size();
+    }
+
+    /**
+     * Drops every incomplete packet, for instance when the connection is lost.
+     */
+    public synchronized void clear() {
+        pending.clear();
+        pendingBytes = 0;
+    }
+
+    private void expire(long now) {
+        Iterator<Map.Entry<Integer, PendingPacket>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, PendingPacket> entry = iterator.next();
+            PendingPacket packet = entry.getValue();
+            if (now - packet.deadline < 0) {
+                break;
+            }
+            iterator.remove();
+            pendingBytes -= packet.size;
+            PacketTCP.LOGGER.debug("Dropped incomplete packet {} after {} of {} fragments", entry.getKey(), packet.received, packet.count);
+        }
+    }
+
+    private void discard(int packetId) {
+        PendingPacket packet = pending.remove(packetId);
+        if (packet != null) {
+            pendingBytes -= packet.size;
+        }
+    }
+
+    private static final class PendingPacket {
+        private final int count;
+        private final long deadline;
+        private byte[] data = new byte[0];
+        private int size;
+        private int received;
+
+        private PendingPacket(int count, long deadline) {
+            this.count = count;
+            this.deadline = deadline;
+        }
+
+        private void append(byte[] bytes, int offset, int length, int maxSize) {
+            if (size + length > data.length) {
+                // Grow geometrically, but never past what the bounds allow
+                data = Arrays.copyOf(data, (int) Math.min(maxSize, Math.max(size + length, 2L * data.length)));
+            }
+            System.arraycopy(bytes, offset, data, size, length);
+            size += length;
+            received++;
+        }
+    }
+}
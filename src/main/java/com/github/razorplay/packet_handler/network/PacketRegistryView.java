@@ -0,0 +1,83 @@
+package com.github.razorplay.packet_handler.network;
+
+import com.github.razorplay.packet_handler.exceptions.PacketRegistrationException;
+import com.google.common.collect.BiMap;
+import com.google.common.collect.ForwardingMap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The live, read-only view of the packet registry exposed as {@link PacketTCP#PACKET_REGISTRY}.
+ * Every call reads the snapshot current at that time. {@link #put(String, Class)} and {@link #clear()} go through
+ * {@link PacketTCP#registerPacket(String, Class)} and {@link PacketTCP#clearRegisteredPackets()}, and
+ * {@link #putAll(Map)} publishes all its packets in one snapshot; any other modification throws
+ * {@link UnsupportedOperationException}.
+ */
+final class PacketRegistryView extends ForwardingMap<String, Class<? extends IPacket>> implements BiMap<String, Class<? extends IPacket>> {
+
+    @Override
+    protected BiMap<String, Class<? extends IPacket>> delegate() {
+        return PacketTCP.getPacketIdIndex().registry();
+    }
+
+    /**
+     * Registers a packet, see {@link PacketTCP#registerPacket(String, Class)}.
+     *
+     * @return always {@code null}, since an ID cannot be registered twice
+     * @throws PacketRegistrationException if the ID or the class is already registered
+     */
+    @Override
+    public Class<? extends IPacket> put(String id, Class<? extends IPacket> packetClass) {
+        PacketTCP.registerPacket(id, packetClass);
+        return null;
+    }
+
+    /**
+     * Registers packets together, like {@link PacketTCP#registerPackets(Class[])}:
+     * if any of them cannot be registered, none is.
+     *
+     * @throws PacketRegistrationException if an ID or a class is already registered, or appears twice
+     * @throws IllegalArgumentException    if a class doesn't implement IPacket
+     */
+    @Override
+    public void putAll(Map<? extends String, ? extends Class<? extends IPacket>> packets) {
+        Map<String, Class<? extends IPacket>> copy = new LinkedHashMap<>();
+        for (Map.Entry<? extends String, ? extends Class<? extends IPacket>> entry : packets.entrySet()) {
+            String id = entry.getKey();
+            Class<? extends IPacket> packetClass = entry.getValue();
+            if (containsKey(id)) {
+                throw new PacketRegistrationException("Packet ID \"" + id + "\" is already registered.");
+            }
+            if (!IPacket.class.isAssignableFrom(packetClass)) {
+                throw new IllegalArgumentException("Class " + packetClass.getName() + " does not implement IPacket.");
+            }
+            if (copy.containsValue(packetClass)) {
+                throw new PacketRegistrationException("Class " + packetClass.getName() + " appears more than once.");
+            }
+            copy.put(id, packetClass);
+        }
+        PacketTCP.register(copy);
+    }
+
+    @Override
+    public void clear() {
+        PacketTCP.clearRegisteredPackets();
+    }
+
+    @Override
+    public Class<? extends IPacket> forcePut(String id, Class<? extends IPacket> packetClass) {
+        throw new UnsupportedOperationException("Registered packets cannot be replaced");
+    }
+
+    @Override
+    public Set<Class<? extends IPacket>> values() {
+        return delegate().values();
+    }
+
+    @Override
+    public BiMap<Class<? extends IPacket>, String> inverse() {
+        return delegate().inverse();
+    }
+}
@@ -4,26 +4,48 @@ import com.github.razorplay.packet_handler.exceptions.PacketInstantiationExcepti
 import com.github.razorplay.packet_handler.exceptions.PacketNotFoundException;
 import com.github.razorplay.packet_handler.exceptions.PacketRegistrationException;
 import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.compression.CompressionCodec;
+import com.github.razorplay.packet_handler.network.compression.CompressionDictionary;
+import com.github.razorplay.packet_handler.network.compression.DeflateCodec;
+import com.github.razorplay.packet_handler.network.compression.DictionaryTrainer;
+import com.github.razorplay.packet_handler.network.compression.GzipCodec;
+import com.github.razorplay.packet_handler.network.compression.InflaterDataInput;
+import com.github.razorplay.packet_handler.network.compression.StreamingCompressionCodec;
+import com.github.razorplay.packet_handler.network.network_util.BufferPool;
+import com.github.razorplay.packet_handler.network.network_util.ByteBufferDataInput;
+import com.github.razorplay.packet_handler.network.network_util.ByteBufferDataOutput;
+import com.github.razorplay.packet_handler.network.network_util.CountingDataOutput;
 import com.github.razorplay.packet_handler.network.network_util.PacketDataSerializer;
+import com.github.razorplay.packet_handler.network.network_util.ReadLimits;
+import com.github.razorplay.packet_handler.network.network_util.StringTable;
+import com.github.razorplay.packet_handler.network.network_util.WireProfile;
 import com.github.razorplay.packet_handler.network.packet.SimplePacket;
 import com.github.razorplay.packet_handler.network.packet.annotation.PacketIdentifier;
 import com.github.razorplay.packet_handler.network.reflection.ClassSerializer;
+import com.github.razorplay.packet_handler.network.reflection.util.InstanceFactory;
+import com.github.razorplay.packet_handler.network.reflection.util.SchemaFingerprint;
 import com.github.razorplay.packet_handler.util.StringUtil;
 import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 import com.google.common.io.ByteArrayDataInput;
-import com.google.common.io.ByteArrayDataOutput;
-import com.google.common.io.ByteStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.lang.reflect.Constructor;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 
 /**
  * Handles TCP packet registration, serialization, and deserialization for network communication.
@@ -32,8 +54,41 @@ import java.util.zip.GZIPOutputStream;
  */
 public class PacketTCP {
     public static final Logger LOGGER = LoggerFactory.getLogger("PacketTCP");
-    public static final BiMap<String, Class<? extends IPacket>> PACKET_REGISTRY = HashBiMap.create();
+    private static final AtomicReference<PacketIdIndex> REGISTRY = new AtomicReference<>(PacketIdIndex.EMPTY);
+    /**
+     * A live, read-only view of the registered packets, by ID. Lookups are lock-free and always see a complete
+     * registry; packets are added with {@link #registerPacket(String, Class)} or {@link #registerPackets(Class[])}.
+     */
+    public static final BiMap<String, Class<? extends IPacket>> PACKET_REGISTRY = new PacketRegistryView();
     public static final int MAX_COMPRESSED_SIZE = 1024 * 1024; // 1MB límite por defecto para paquetes comprimidos
+    /**
+     * The default limit of the decompressed size of a packet, see {@link #setMaxDecompressedSize(int)}: 16 MB.
+     */
+    public static final int DEFAULT_MAX_DECOMPRESSED_SIZE = 16 * 1024 * 1024;
+    /**
+     * The default maximum size of a frame written by {@link #writeFragmented(IPacket)}: 32767 bytes,
+     * the largest plugin message a client may send.
+     */
+    public static final int DEFAULT_MAX_FRAGMENT_SIZE = 32767;
+    /**
+     * The smallest accepted maximum fragment size, see {@link #setMaxFragmentSize(int)}.
+     */
+    public static final int MIN_FRAGMENT_SIZE = 64;
+    private static final int INITIAL_WRITE_CAPACITY = 256;
+    private static final byte FLAG_UNCOMPRESSED = 0;
+    private static final byte FLAG_COMPRESSED = 1;
+    private static final byte FLAG_DICTIONARY = 2;
+    private static volatile WireProfile wireProfile = WireProfile.FIXED;
+    private static volatile PacketIdMode packetIdMode = PacketIdMode.STRING;
+    private static volatile BufferPool bufferPool = new BufferPool(false);
+    private static volatile CompressionCodec compressionCodec = new GzipCodec();
+    private static volatile int compressionThreshold = -1;
+    private static volatile int maxDecompressedSize = DEFAULT_MAX_DECOMPRESSED_SIZE;
+    private static volatile int maxFragmentSize = DEFAULT_MAX_FRAGMENT_SIZE;
+    private static final AtomicInteger FRAGMENTED_PACKET_IDS = new AtomicInteger();
+    private static volatile ReadLimits defaultReadLimits = ReadLimits.DEFAULT;
+    private static final Map<String, ReadLimits> READ_LIMITS = new ConcurrentHashMap<>();
+    private static final Map<String, DeflateCodec> DICTIONARY_CODECS = new ConcurrentHashMap<>();
 
     /**
      * Private constructor to prevent instantiation of utility class
@@ -43,10 +98,12 @@ public class PacketTCP {
     }
 
     /**
-     * Registers all packet classes provided explicitly.
+     * Registers all packet classes provided explicitly. The packets are registered together:
+     * if any of them cannot be registered, none is.
      *
      * @param packetClasses Array of packet classes to register
-     * @throws IllegalArgumentException if packetClasses is null or empty
+     * @throws IllegalArgumentException    if packetClasses is null or empty
+     * @throws PacketRegistrationException if a packet ID or class is already registered
      */
     @SafeVarargs
     public static void registerPackets(Class<? extends IPacket>... packetClasses) {
@@ -54,19 +111,21 @@ public class PacketTCP {
             throw new IllegalArgumentException("Packet classes cannot be null or empty.");
         }
 
+        Map<String, Class<? extends IPacket>> packets = new LinkedHashMap<>();
         for (Class<? extends IPacket> packetClass : packetClasses) {
             if (!IPacket.class.isAssignableFrom(packetClass)) {
                 throw new PacketRegistrationException("Class " + packetClass.getName() + " does not implement IPacket.");
             }
 
             String packetId = PacketTCP.getPacketId(packetClass);
-            if (PACKET_REGISTRY.containsKey(packetId)) {
+            if (packets.containsKey(packetId) || PACKET_REGISTRY.containsKey(packetId)) {
                 throw new PacketRegistrationException("Duplicate Packet ID \"" + packetId + "\" found in " + packetClass.getName());
             }
-
-            registerPacket(packetId, packetClass);
-            LOGGER.info("Registered packet: {} with ID \"{}\"", packetClass.getSimpleName(), packetId);
+            packets.put(packetId, packetClass);
         }
+
+        register(packets);
+        packets.forEach((packetId, packetClass) -> LOGGER.info("Registered packet: {} with ID \"{}\"", packetClass.getSimpleName(), packetId));
     }
 
     /**
@@ -74,7 +133,7 @@ public class PacketTCP {
      *
      * @param id          The unique identifier for the packet type
      * @param packetClass The class of the packet to register
-     * @throws PacketRegistrationException if the packet ID is already registered
+     * @throws PacketRegistrationException if the packet ID or the packet class is already registered
      * @throws IllegalArgumentException    if the packet class doesn't implement IPacket
      */
     public static void registerPacket(String id, Class<? extends IPacket> packetClass) {
@@ -86,7 +145,322 @@ public class PacketTCP {
             throw new IllegalArgumentException("Class " + packetClass.getName() + " does not implement IPacket.");
         }
 
-        PACKET_REGISTRY.put(id, packetClass);
+        register(Collections.singletonMap(id, packetClass));
+    }
+
+    /**
+     * Publishes a new registry snapshot containing the given packets, retrying if another thread
+     * registered packets in the meantime. Readers keep using the previous snapshot until then.
+     *
+     * @param packets the packets to add, by ID
+     * @throws PacketRegistrationException if a packet ID or class is already registered
+     */
+    static void register(Map<String, Class<? extends IPacket>> packets) {
+        // Computed eagerly so that the reflection cost is paid at registration time
+        packets.values().forEach(SchemaFingerprint::ofClass);
+        while (true) {
+            PacketIdIndex current = REGISTRY.get();
+            if (REGISTRY.compareAndSet(current, current.with(packets))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Computes a fingerprint of the registered packet schema: the packet IDs, the constants, in order,
+     * of every enum reachable from the packet fields, and the IDs of the compression dictionaries.
+     * Enums are encoded by ordinal, so peers should exchange this value during their handshake and
+     * refuse to talk if it differs, see {@link #verifySchemaFingerprint(long)}.
+     *
+     * @return the fingerprint of the registered packets
+     */
+    public static long getSchemaFingerprint() {
+        PacketIdIndex index = getPacketIdIndex();
+        long hash = 0;
+        for (int i = 0; i < index.size(); i++) {
+            hash = SchemaFingerprint.mix(hash, index.packetId(i));
+            hash = SchemaFingerprint.mix(hash, SchemaFingerprint.ofClass(index.packetClass(i)));
+            CompressionDictionary dictionary = getCompressionDictionary(index.packetId(i));
+            if (dictionary != null) {
+                hash = SchemaFingerprint.mix(hash, dictionary.getId());
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Checks the schema fingerprint received from a peer against the local one.
+     *
+     * @param remoteFingerprint the fingerprint computed by the peer with {@link #getSchemaFingerprint()}
+     * @throws PacketRegistrationException if the fingerprints differ
+     */
+    public static void verifySchemaFingerprint(long remoteFingerprint) {
+        long localFingerprint = getSchemaFingerprint();
+        if (localFingerprint != remoteFingerprint) {
+            throw new PacketRegistrationException(String.format("Packet schema mismatch: local fingerprint %016x, remote fingerprint %016x", localFingerprint, remoteFingerprint));
+        }
+    }
+
+    /**
+     * Returns the {@link WireProfile} used to encode and decode packet data.
+     *
+     * @return the current wire profile
+     */
+    public static WireProfile getWireProfile() {
+        return wireProfile;
+    }
+
+    /**
+     * Sets the {@link WireProfile} used to encode and decode packet data.<br>
+     * Both sides of a connection must use the same profile, so this should be configured
+     * before any packet is sent or received.
+     *
+     * @param profile the wire profile to use
+     * @throws NullPointerException if the profile is null
+     */
+    public static void setWireProfile(WireProfile profile) {
+        wireProfile = Objects.requireNonNull(profile, "Wire profile cannot be null");
+    }
+
+    /**
+     * Returns the {@link PacketIdMode} used to identify packet types on the wire.
+     *
+     * @return the current packet ID mode
+     */
+    public static PacketIdMode getPacketIdMode() {
+        return packetIdMode;
+    }
+
+    /**
+     * Sets the {@link PacketIdMode} used to identify packet types on the wire.<br>
+     * With {@link PacketIdMode#NUMERIC}, numeric IDs are assigned from the registry sorted by packet ID, so
+     * both sides must register the same packets: exchange {@link #getSchemaFingerprint()} once, check it with
+     * {@link #verifySchemaFingerprint(long)}, and only then switch modes.
+     *
+     * @param mode the packet ID mode to use
+     * @throws NullPointerException if the mode is null
+     */
+    public static void setPacketIdMode(PacketIdMode mode) {
+        packetIdMode = Objects.requireNonNull(mode, "Packet ID mode cannot be null");
+    }
+
+    /**
+     * Returns the numeric ID of a registered packet, as sent in {@link PacketIdMode#NUMERIC} mode:
+     * the position of the packet ID in the sorted registry.
+     *
+     * @param packetId the packet ID
+     * @return the numeric ID of the packet
+     * @throws PacketNotFoundException if no packet is registered with this ID
+     */
+    public static int getNumericPacketId(String packetId) {
+        PacketIdIndex index = getPacketIdIndex();
+        Class<? extends IPacket> packetClass = index.registry().get(packetId);
+        if (packetClass == null) {
+            throw new PacketNotFoundException("Packet ID not registered: " + packetId);
+        }
+        return index.indexOf(packetClass);
+    }
+
+    /**
+     * Returns the current snapshot of the registry.
+     */
+    static PacketIdIndex getPacketIdIndex() {
+        return REGISTRY.get();
+    }
+
+    /**
+     * Returns the {@link BufferPool} providing the scratch buffers used to encode packets.
+     *
+     * @return the current buffer pool
+     */
+    public static BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Sets the {@link BufferPool} providing the scratch buffers used to encode packets.
+     *
+     * @param pool the buffer pool to use
+     * @throws NullPointerException if the pool is null
+     */
+    public static void setBufferPool(BufferPool pool) {
+        bufferPool = Objects.requireNonNull(pool, "Buffer pool cannot be null");
+    }
+
+    /**
+     * Returns the {@link CompressionCodec} used by {@link #writeCompressed(IPacket)} and {@link #readCompressed(byte[])}.
+     *
+     * @return the current compression codec
+     */
+    public static CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    /**
+     * Sets the {@link CompressionCodec} used by {@link #writeCompressed(IPacket)} and {@link #readCompressed(byte[])}.
+     * Defaults to a {@link GzipCodec}. Both sides of a connection must use the same codec.
+     *
+     * @param codec the compression codec to use
+     * @throws NullPointerException if the codec is null
+     */
+    public static void setCompressionCodec(CompressionCodec codec) {
+        compressionCodec = Objects.requireNonNull(codec, "Compression codec cannot be null");
+    }
+
+    /**
+     * Returns the size from which {@link #writeCompressed(IPacket)} compresses packets.
+     *
+     * @return the compression threshold in bytes, or -1 if every packet is compressed without a flag byte
+     */
+    public static int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Sets the size from which {@link #writeCompressed(IPacket)} compresses packets. When a threshold is set,
+     * every packet starts with a flag byte telling whether it is compressed, so small packets are sent as is
+     * and packets that compression would not shrink are never inflated by it. Both sides of a connection must
+     * enable the threshold, though only the writer's value matters. Defaults to -1.
+     *
+     * @param threshold the minimum encoded size of the packets to compress, or -1 to compress every packet
+     *                  without a flag byte, as in previous versions
+     * @throws IllegalArgumentException if the threshold is below -1
+     */
+    public static void setCompressionThreshold(int threshold) {
+        if (threshold < -1) {
+            throw new IllegalArgumentException("Invalid compression threshold: " + threshold);
+        }
+        compressionThreshold = threshold;
+    }
+
+    /**
+     * Returns the maximum number of bytes a packet read by {@link #readCompressed(byte[])} may decompress to.
+     *
+     * @return the decompressed size limit in bytes
+     */
+    public static int getMaxDecompressedSize() {
+        return maxDecompressedSize;
+    }
+
+    /**
+     * Sets the maximum number of bytes a packet read by {@link #readCompressed(byte[])} may decompress to.
+     * {@link #MAX_COMPRESSED_SIZE} only bounds the compressed data, which can expand a thousandfold, so this
+     * limit protects receivers against decompression bombs. Defaults to {@link #DEFAULT_MAX_DECOMPRESSED_SIZE}.
+     *
+     * @param maxSize the decompressed size limit in bytes
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public static void setMaxDecompressedSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid max decompressed size: " + maxSize);
+        }
+        maxDecompressedSize = maxSize;
+    }
+
+    /**
+     * Returns the maximum size of a frame written by {@link #writeFragmented(IPacket)}.
+     *
+     * @return the maximum fragment size in bytes
+     */
+    public static int getMaxFragmentSize() {
+        return maxFragmentSize;
+    }
+
+    /**
+     * Sets the maximum size of a frame written by {@link #writeFragmented(IPacket)}. Smaller fragments let small
+     * packets through sooner while a large packet is being sent, at the cost of a few header bytes per fragment.
+     * Only the writer's value matters. Defaults to {@link #DEFAULT_MAX_FRAGMENT_SIZE}.
+     *
+     * @param maxSize the maximum fragment size in bytes
+     * @throws IllegalArgumentException if the size is below {@link #MIN_FRAGMENT_SIZE}
+     */
+    public static void setMaxFragmentSize(int maxSize) {
+        if (maxSize < MIN_FRAGMENT_SIZE) {
+            throw new IllegalArgumentException("Invalid max fragment size: " + maxSize);
+        }
+        maxFragmentSize = maxSize;
+    }
+
+    /**
+     * Returns the compression dictionary used for packets with the given ID.
+     *
+     * @param packetId the packet ID
+     * @return the dictionary, or {@code null} if packets with this ID are compressed without one
+     */
+    public static CompressionDictionary getCompressionDictionary(String packetId) {
+        DeflateCodec codec = DICTIONARY_CODECS.get(packetId);
+        return codec != null ? codec.getDictionary() : null;
+    }
+
+    /**
+     * Sets the preset dictionary used to compress packets with the given ID, see {@link DictionaryTrainer}.
+     * Dictionaries only apply when a compression threshold is set, see {@link #setCompressionThreshold(int)}:
+     * the flag byte of a packet then tells which dictionary it was compressed with, by ID.
+     *
+     * <p>The receiver must set the same dictionary to decode these packets. The dictionary IDs are part of
+     * the {@link #getSchemaFingerprint() schema fingerprint}, so peers verifying it during their handshake
+     * also agree on their dictionaries.</p>
+     *
+     * @param packetId   the packet ID
+     * @param dictionary the dictionary to use, or {@code null} to compress packets with this ID without one
+     */
+    public static void setCompressionDictionary(String packetId, CompressionDictionary dictionary) {
+        if (dictionary == null) {
+            DICTIONARY_CODECS.remove(packetId);
+        } else {
+            DICTIONARY_CODECS.put(packetId, new DeflateCodec(Deflater.DEFAULT_COMPRESSION, dictionary));
+        }
+    }
+
+    /**
+     * Returns the codec compressing with the dictionary of the given ID.
+     *
+     * @param dictionaryId the dictionary ID
+     * @return the codec, or {@code null} if no packet uses this dictionary
+     */
+    private static DeflateCodec getDictionaryCodec(int dictionaryId) {
+        for (DeflateCodec codec : DICTIONARY_CODECS.values()) {
+            if (codec.getDictionary().getId() == dictionaryId) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the {@link ReadLimits} applied when decoding packets with the given ID.
+     *
+     * @param packetId the packet ID
+     * @return the limits set for this packet ID, or the default read limits
+     */
+    public static ReadLimits getReadLimits(String packetId) {
+        return READ_LIMITS.getOrDefault(packetId, defaultReadLimits);
+    }
+
+    /**
+     * Sets the {@link ReadLimits} applied when decoding packets with the given ID, so that a malformed or
+     * hostile packet cannot make the receiver allocate more than the packet may legitimately need.
+     *
+     * @param packetId the packet ID
+     * @param limits   the limits to apply, or {@code null} to use the default read limits again
+     */
+    public static void setReadLimits(String packetId, ReadLimits limits) {
+        if (limits == null) {
+            READ_LIMITS.remove(packetId);
+        } else {
+            READ_LIMITS.put(packetId, limits);
+        }
+    }
+
+    /**
+     * Sets the {@link ReadLimits} applied when decoding packets without limits of their own.
+     * Defaults to {@link ReadLimits#DEFAULT}.
+     *
+     * @param limits the limits to apply
+     * @throws NullPointerException if the limits are null
+     */
+    public static void setDefaultReadLimits(ReadLimits limits) {
+        defaultReadLimits = Objects.requireNonNull(limits, "Read limits cannot be null");
     }
 
     /**
@@ -97,7 +471,7 @@ public class PacketTCP {
      * @throws PacketNotFoundException if the packet class is not registered
      */
     private static String getPacketType(IPacket packet) {
-        return Optional.ofNullable(PACKET_REGISTRY.inverse().get(packet.getClass()))
+        return Optional.ofNullable(getPacketIdIndex().registry().inverse().get(packet.getClass()))
                 .orElseThrow(() -> new PacketNotFoundException("Packet class not registered: " + packet.getClass().getName()));
     }
 
@@ -109,72 +483,277 @@ public class PacketTCP {
      * @throws PacketSerializationException if there's an error during serialization
      */
     public static byte[] write(IPacket packet) throws PacketSerializationException {
-        ByteArrayDataOutput out = ByteStreams.newDataOutput();
-        String packetType = getPacketType(packet);
-        out.writeUTF(packetType);
-        PacketDataSerializer serializer = new PacketDataSerializer(out);
+        try (ByteBufferDataOutput out = new ByteBufferDataOutput(bufferPool, INITIAL_WRITE_CAPACITY)) {
+            write(packet, out, null);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Serializes a packet directly into the given buffer, starting at its current position.
+     * On success the position of the buffer is advanced past the packet data; on failure it is left unchanged.
+     *
+     * @param packet The packet to serialize
+     * @param target The heap or direct buffer to write into
+     * @return the number of bytes written
+     * @throws PacketSerializationException if there's an error during serialization or the packet does not fit in the buffer
+     */
+    public static int write(IPacket packet, ByteBuffer target) throws PacketSerializationException {
+        int start = target.position();
+        ByteBufferDataOutput out = new ByteBufferDataOutput(target);
+        try {
+            write(packet, out, null);
+        } catch (BufferOverflowException e) {
+            target.position(start);
+            throw new PacketSerializationException("Packet does not fit in the buffer (" + (target.limit() - start) + " bytes available)", e);
+        } catch (PacketSerializationException | RuntimeException e) {
+            target.position(start);
+            throw e;
+        }
+        return out.size();
+    }
+
+    /**
+     * Serializes a packet into a pooled buffer and hands the encoded data to the given consumer,
+     * without any intermediate copy. The buffer passed to the consumer is positioned at the start of
+     * the packet data and limited to its end. It goes back to the pool once the consumer returns,
+     * so it must not be retained.
+     *
+     * @param packet The packet to serialize
+     * @param sink   The consumer receiving the encoded packet
+     * @throws PacketSerializationException if there's an error during serialization
+     */
+    public static void writeTo(IPacket packet, Consumer<ByteBuffer> sink) throws PacketSerializationException {
+        try (ByteBufferDataOutput out = new ByteBufferDataOutput(bufferPool, INITIAL_WRITE_CAPACITY)) {
+            write(packet, out, null);
+            ByteBuffer data = out.buffer().duplicate();
+            data.flip();
+            sink.accept(data);
+        }
+    }
+
+    /**
+     * Serializes a packet into the given output, writing the packet ID followed by the packet data.
+     *
+     * @param packet      The packet to serialize
+     * @param out         The output to write to
+     * @param stringTable The string table of the connection, or {@code null} to write plain strings
+     * @throws PacketSerializationException if there's an error during serialization
+     */
+    static void write(IPacket packet, ByteBufferDataOutput out, StringTable stringTable) throws PacketSerializationException {
+        PacketDataSerializer serializer = new PacketDataSerializer(out, wireProfile);
+        writePacketType(packet, serializer);
+        serializer.setStringTable(stringTable);
+        packet.write(serializer);
+    }
+
+    /**
+     * Writes the type of a packet according to the {@link PacketIdMode}: its numeric ID as a VarInt,
+     * or its string ID copied from the bytes encoded at registration.
+     *
+     * @param packet     The packet being written
+     * @param serializer The serializer writing to the output
+     * @throws PacketNotFoundException      if the packet class is not registered
+     * @throws PacketSerializationException if the string ID is too long to be encoded
+     */
+    private static void writePacketType(IPacket packet, PacketDataSerializer serializer) throws PacketSerializationException {
+        PacketIdIndex index = getPacketIdIndex();
+        int numericId = index.indexOf(packet.getClass());
+        if (numericId < 0) {
+            throw new PacketNotFoundException("Packet class not registered: " + packet.getClass().getName());
+        }
+        if (packetIdMode == PacketIdMode.NUMERIC) {
+            serializer.writeVarInt(numericId);
+            return;
+        }
+        byte[] encodedId = index.encodedId(numericId);
+        if (encodedId == null) {
+            throw new PacketSerializationException("Invalid packet ID " + index.packetId(numericId) + ": encoded ID longer than 65535 bytes");
+        }
+        serializer.write(encodedId);
+    }
+
+    /**
+     * Computes the exact number of bytes {@link #write(IPacket)} would produce for a packet, without encoding it.
+     * This allows rejecting oversized packets up front, or allocating a buffer of the exact size for
+     * {@link #write(IPacket, ByteBuffer)}. The packet's {@code write} method is run against a counting output,
+     * so it must write the same data every time it is called.
+     *
+     * <pre>{@code
+     * ByteBuffer buffer = ByteBuffer.allocateDirect(PacketTCP.sizeOf(packet));
+     * PacketTCP.write(packet, buffer);
+     * }</pre>
+     *
+     * @param packet The packet to measure
+     * @return the encoded size of the packet, in bytes
+     * @throws PacketSerializationException if there's an error during serialization
+     */
+    public static int sizeOf(IPacket packet) throws PacketSerializationException {
+        CountingDataOutput counter = new CountingDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(counter, wireProfile);
+        writePacketType(packet, serializer);
         packet.write(serializer);
-        return out.toByteArray();
+        try {
+            return counter.size();
+        } catch (ArithmeticException e) {
+            throw new PacketSerializationException("Packet with ID " + getPacketType(packet) + " is too large", e);
+        }
     }
 
     /**
-     * Serializes a packet into a compressed byte array using GZIP
+     * Serializes a packet into a compressed byte array using the current {@link CompressionCodec}.
+     *
+     * <p>If a compression threshold is set, see {@link #setCompressionThreshold(int)}, the data starts with a flag
+     * byte and is only compressed when the packet is at least as large as the threshold and compression makes it
+     * smaller; otherwise the packet follows the flag as is. Packets with a compression dictionary, see
+     * {@link #setCompressionDictionary(String, CompressionDictionary)}, are then compressed with it.</p>
      *
      * @param packet The packet to serialize and compress
      * @return byte array containing the compressed serialized packet data
      * @throws PacketSerializationException if there's an error during serialization or compression
      */
     public static byte[] writeCompressed(IPacket packet) throws PacketSerializationException {
-        try {
-            // Serializar el paquete normalmente
-            byte[] uncompressedData = write(packet);
+        byte[] compressedData = compress(packet);
 
-            // Comprimir los datos
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            try (GZIPOutputStream gzip = new GZIPOutputStream(baos)) {
-                gzip.write(uncompressedData);
-            }
-            byte[] compressedData = baos.toByteArray();
+        // Verificar tamaño
+        if (compressedData.length > MAX_COMPRESSED_SIZE) {
+            throw new PacketSerializationException("Compressed packet size exceeds limit: " + compressedData.length + " bytes (max: " + MAX_COMPRESSED_SIZE + " bytes)");
+        }
+        return compressedData;
+    }
 
-            // Verificar tamaño
-            if (compressedData.length > MAX_COMPRESSED_SIZE) {
-                throw new PacketSerializationException("Compressed packet size exceeds limit: " + compressedData.length + " bytes (max: " + MAX_COMPRESSED_SIZE + " bytes)");
-            }
+    /**
+     * Serializes a packet with the encoding of {@link #writeCompressed(IPacket)} and splits it into frames of at
+     * most {@link #getMaxFragmentSize()} bytes, to be read by a {@link PacketReassembler} on the other side.
+     * Packets that fit in one frame are sent whole; larger ones are split into numbered fragments, so they are not
+     * bound by {@link #MAX_COMPRESSED_SIZE}. Frames of different packets may be sent interleaved, letting small
+     * packets through while a large one is being sent, but the fragments of one packet must stay in order.
+     *
+     * <pre>{@code
+     * for (byte[] frame : PacketTCP.writeFragmented(new SchematicPacket(blocks))) {
+     *     player.sendPluginMessage(plugin, "your:channel", frame);
+     * }
+     * }</pre>
+     *
+     * @param packet The packet to serialize and compress
+     * @return the frames to send, in order
+     * @throws PacketSerializationException if there's an error during serialization or compression
+     */
+    public static List<byte[]> writeFragmented(IPacket packet) throws PacketSerializationException {
+        byte[] data = compress(packet);
+        int maxSize = maxFragmentSize;
+        if (1 + data.length <= maxSize) {
+            byte[] frame = new byte[1 + data.length];
+            frame[0] = PacketReassembler.FRAME_COMPLETE;
+            System.arraycopy(data, 0, frame, 1, data.length);
+            return Collections.singletonList(frame);
+        }
 
-            return compressedData;
-        } catch (IOException e) {
-            throw new PacketSerializationException("Error compressing packet with ID " + getPacketType(packet), e);
+        int packetId = FRAGMENTED_PACKET_IDS.getAndIncrement() & Integer.MAX_VALUE;
+        int chunkSize = maxSize - PacketReassembler.MAX_FRAGMENT_HEADER_SIZE;
+        int count = (data.length + chunkSize - 1) / chunkSize;
+        List<byte[]> frames = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            int offset = index * chunkSize;
+            int length = Math.min(chunkSize, data.length - offset);
+            int headerSize = 1 + PacketDataSerializer.varIntSize(packetId) + PacketDataSerializer.varIntSize(index)
+                    + PacketDataSerializer.varIntSize(count);
+            byte[] frame = new byte[headerSize + length];
+            ByteBufferDataOutput out = new ByteBufferDataOutput(ByteBuffer.wrap(frame));
+            PacketDataSerializer serializer = new PacketDataSerializer(out);
+            out.writeByte(PacketReassembler.FRAME_FRAGMENT);
+            serializer.writeVarInt(packetId);
+            serializer.writeVarInt(index);
+            serializer.writeVarInt(count);
+            out.write(data, offset, length);
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private static byte[] compress(IPacket packet) throws PacketSerializationException {
+        int threshold = compressionThreshold;
+        byte[] compressedData;
+        if (threshold < 0) {
+            byte[] uncompressedData = write(packet);
+            compressedData = compressionCodec.compress(uncompressedData, 0, uncompressedData.length);
+        } else {
+            byte[] framedData;
+            try (ByteBufferDataOutput out = new ByteBufferDataOutput(bufferPool, INITIAL_WRITE_CAPACITY)) {
+                out.writeByte(FLAG_UNCOMPRESSED);
+                write(packet, out, null);
+                framedData = out.toByteArray();
+            }
+            int length = framedData.length - 1;
+            compressedData = framedData;
+            if (length >= threshold) {
+                DeflateCodec dictionaryCodec = DICTIONARY_CODECS.get(getPacketType(packet));
+                int headerSize = dictionaryCodec != null ? 1 + Integer.BYTES : 1;
+                byte[] compressed = (dictionaryCodec != null ? dictionaryCodec : compressionCodec).compress(framedData, 1, length);
+                if (headerSize + compressed.length < framedData.length) {
+                    compressedData = new byte[headerSize + compressed.length];
+                    if (dictionaryCodec != null) {
+                        compressedData[0] = FLAG_DICTIONARY;
+                        ByteBuffer.wrap(compressedData, 1, Integer.BYTES).putInt(dictionaryCodec.getDictionary().getId());
+                    } else {
+                        compressedData[0] = FLAG_COMPRESSED;
+                    }
+                    System.arraycopy(compressed, 0, compressedData, headerSize, compressed.length);
+                }
+            }
         }
+        return compressedData;
     }
 
     /**
-     * Deserializes a packet from a byte array input
+     * Deserializes a packet from a byte array input.
+     * Allocations made while decoding are bounded by the read limits of the packet ID,
+     * see {@link #setReadLimits(String, ReadLimits)}.
      *
      * @param buf The input buffer containing the packet data
      * @return The deserialized packet instance
      * @throws PacketInstantiationException if there's an error creating the packet instance
      * @throws PacketSerializationException if there's an error during deserialization
      */
-    @SuppressWarnings("unchecked")
     public static <T extends IPacket> T read(ByteArrayDataInput buf) throws PacketInstantiationException, PacketSerializationException {
-        String packetType = buf.readUTF();
-        Class<T> packetClass = (Class<T>) PACKET_REGISTRY.get(packetType);
+        return read(buf, null);
+    }
 
-        if (packetClass == null) {
-            throw new PacketInstantiationException("Could not find packet with ID " + packetType, null);
+    /**
+     * Deserializes a packet from a byte array input, resolving string references against the given table.
+     *
+     * @param buf         The input buffer containing the packet data
+     * @param stringTable The string table of the connection, or {@code null} if strings are plain literals
+     * @return The deserialized packet instance
+     * @throws PacketInstantiationException if there's an error creating the packet instance
+     * @throws PacketSerializationException if there's an error during deserialization
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends IPacket> T read(ByteArrayDataInput buf, StringTable stringTable) throws PacketInstantiationException, PacketSerializationException {
+        PacketDataSerializer serializer = new PacketDataSerializer(buf, wireProfile);
+        PacketIdIndex index = getPacketIdIndex();
+        int numericId;
+        if (packetIdMode == PacketIdMode.NUMERIC) {
+            numericId = serializer.readVarInt();
+            if (numericId < 0 || numericId >= index.size()) {
+                throw new PacketInstantiationException("Could not find packet with numeric ID " + numericId, null);
+            }
+        } else {
+            numericId = index.readStringId(buf);
         }
+        String packetType = index.packetId(numericId);
+        Class<T> packetClass = (Class<T>) index.packetClass(numericId);
 
-        PacketDataSerializer serializer = new PacketDataSerializer(buf);
-        if (packetClass.isAssignableFrom(SimplePacket.class)) {
+        serializer.setStringTable(stringTable);
+        serializer.setReadLimits(getReadLimits(packetType));
+        if (SimplePacket.class.isAssignableFrom(packetClass)) {
             // Handle custom deserialization process for SimplePacket
             return ClassSerializer.decode(serializer, packetClass);
         }
 
         try {
-            Constructor<T> declaredConstructor = packetClass.getDeclaredConstructor();
-            declaredConstructor.setAccessible(true);
-            T packet = declaredConstructor.newInstance();
-            
+            T packet = InstanceFactory.of(packetClass).newInstance();
+
             packet.read(serializer);
             return packet;
         } catch (ReflectiveOperationException e) {
@@ -185,7 +764,24 @@ public class PacketTCP {
     }
 
     /**
-     * Deserializes a packet from a compressed byte array input using GZIP
+     * Deserializes a packet from a {@link ByteBuffer}, starting at its current position.
+     * The position of the buffer is advanced past the packet data.
+     *
+     * @param buffer The heap or direct buffer containing the packet data
+     * @return The deserialized packet instance
+     * @throws PacketInstantiationException if there's an error creating the packet instance
+     * @throws PacketSerializationException if there's an error during deserialization
+     */
+    public static <T extends IPacket> T read(ByteBuffer buffer) throws PacketInstantiationException, PacketSerializationException {
+        return read(new ByteBufferDataInput(buffer));
+    }
+
+    /**
+     * Deserializes a packet from a compressed byte array input using the current {@link CompressionCodec}.
+     * If a compression threshold is set, the flag byte written by {@link #writeCompressed(IPacket)} tells
+     * whether the packet is compressed, and with which dictionary. Codecs supporting it decompress the packet
+     * as it is decoded, without an intermediate copy; decompression fails once the data exceeds
+     * {@link #getMaxDecompressedSize()}.
      *
      * @param compressedData The compressed input buffer containing the packet data
      * @return The deserialized packet instance
@@ -193,23 +789,62 @@ public class PacketTCP {
      * @throws PacketSerializationException if there's an error during deserialization or decompression
      */
     public static IPacket readCompressed(byte[] compressedData) throws PacketInstantiationException, PacketSerializationException {
-        try {
-            // Descomprimir los datos
-            ByteArrayInputStream bais = new ByteArrayInputStream(compressedData);
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            try (GZIPInputStream gzip = new GZIPInputStream(bais)) {
-                byte[] buffer = new byte[1024];
-                int len;
-                while ((len = gzip.read(buffer)) > 0) {
-                    baos.write(buffer, 0, len);
+        return readCompressed(compressedData, 0, compressedData.length);
+    }
+
+    static IPacket readCompressed(byte[] compressedData, int offset, int length) throws PacketInstantiationException, PacketSerializationException {
+        CompressionCodec codec = compressionCodec;
+        if (compressionThreshold >= 0) {
+            if (length == 0) {
+                throw new PacketSerializationException("Missing compression flag");
+            }
+            byte flag = compressedData[offset];
+            if (flag == FLAG_UNCOMPRESSED) {
+                return read(ByteBuffer.wrap(compressedData, offset + 1, length - 1));
+            }
+            int headerSize;
+            if (flag == FLAG_DICTIONARY) {
+                if (length < 1 + Integer.BYTES) {
+                    throw new PacketSerializationException("Missing compression dictionary ID");
                 }
+                int dictionaryId = ByteBuffer.wrap(compressedData, offset + 1, Integer.BYTES).getInt();
+                codec = getDictionaryCodec(dictionaryId);
+                if (codec == null) {
+                    throw new PacketSerializationException(String.format("Unknown compression dictionary %08x", dictionaryId));
+                }
+                headerSize = 1 + Integer.BYTES;
+            } else if (flag == FLAG_COMPRESSED) {
+                headerSize = 1;
+            } else {
+                throw new PacketSerializationException("Invalid compression flag: " + flag);
             }
-            byte[] uncompressedData = baos.toByteArray();
+            offset += headerSize;
+            length -= headerSize;
+        }
 
-            // Deserializar el paquete
-            ByteArrayDataInput input = ByteStreams.newDataInput(uncompressedData);
-            return read(input);
-        } catch (IOException e) {
+        try {
+            if (codec instanceof StreamingCompressionCodec) {
+                // Decode straight from the inflater, then check the end of the stream and its checksum
+                try (InflaterDataInput in = ((StreamingCompressionCodec) codec).openInput(compressedData, offset, length, maxDecompressedSize)) {
+                    IPacket packet;
+                    try {
+                        packet = read(in);
+                    } catch (PacketInstantiationException | PacketSerializationException e) {
+                        // Corrupted data usually shows up as an invalid packet first: report the corruption instead
+                        try {
+                            in.finish();
+                        } catch (DataFormatException | IllegalStateException corruption) {
+                            corruption.addSuppressed(e);
+                            throw new PacketSerializationException("Error decompressing packet data", corruption);
+                        }
+                        throw e;
+                    }
+                    in.finish();
+                    return packet;
+                }
+            }
+            return read(ByteBuffer.wrap(codec.decompress(compressedData, offset, length, maxDecompressedSize)));
+        } catch (DataFormatException | IllegalStateException | BufferUnderflowException e) {
             throw new PacketSerializationException("Error decompressing packet data", e);
         }
     }
@@ -250,6 +885,6 @@ public class PacketTCP {
      * This method should be used with caution as it may cause issues with packet handling.
      */
     public static void clearRegisteredPackets() {
-        PACKET_REGISTRY.clear();
+        REGISTRY.set(PacketIdIndex.EMPTY);
     }
 }
\ No newline at end of file
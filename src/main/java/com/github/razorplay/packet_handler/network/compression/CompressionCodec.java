@@ -0,0 +1,43 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import java.util.zip.DataFormatException;
+
+/**
+ * A compression algorithm used by {@link com.github.razorplay.packet_handler.network.PacketTCP} to compress
+ * encoded packets. Implementations must be thread-safe, and the output of {@link #compress(byte[], int, int)}
+ * must be self-contained: both sides of a connection only need to use the same codec.
+ *
+ * <pre>{@code
+ * PacketTCP.setCompressionCodec(new DeflateCodec(Deflater.BEST_SPEED));
+ * byte[] compressed = PacketTCP.writeCompressed(packet);
+ * }</pre>
+ *
+ * @see DeflateCodec
+ * @see GzipCodec
+ * @see LzCodec
+ * @see ParallelCodec
+ */
+public interface CompressionCodec {
+
+    /**
+     * Compresses a range of bytes.
+     *
+     * @param data   the array containing the data to compress
+     * @param offset the start of the data in the array
+     * @param length the number of bytes to compress
+     * @return the compressed bytes
+     */
+    byte[] compress(byte[] data, int offset, int length);
+
+    /**
+     * Decompresses a range of bytes produced by {@link #compress(byte[], int, int)}.
+     *
+     * @param data      the array containing the compressed data
+     * @param offset    the start of the compressed data in the array
+     * @param length    the number of compressed bytes
+     * @param maxLength the maximum number of decompressed bytes accepted
+     * @return the decompressed bytes
+     * @throws DataFormatException if the data is corrupted or truncated, or decompresses to more than maxLength bytes
+     */
+    byte[] decompress(byte[] data, int offset, int length, int maxLength) throws DataFormatException;
+}
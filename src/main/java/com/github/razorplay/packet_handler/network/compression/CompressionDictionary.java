@@ -0,0 +1,89 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import java.util.Arrays;
+import java.util.zip.Adler32;
+
+/**
+ * A preset dictionary for deflate: content that compressed packets are likely to repeat, such as the field
+ * layout and common strings of a packet type. Starting from a dictionary lets small packets compress well
+ * from their first byte, where plain deflate starts cold every time.
+ *
+ * <p>Dictionaries are identified by the Adler-32 checksum of their content, like the DICTID of the zlib format,
+ * so that peers can check they use the same one. Use {@link DictionaryTrainer} to build one from sample packets.</p>
+ *
+ * <pre>{@code
+ * CompressionDictionary dictionary = new CompressionDictionary(Files.readAllBytes(path));
+ * PacketTCP.setCompressionDictionary("inventory_sync", dictionary);
+ * }</pre>
+ */
+public final class CompressionDictionary {
+    /**
+     * The maximum size of a dictionary, in bytes: the deflate window, beyond which content cannot be referenced.
+     */
+    public static final int MAX_SIZE = 32 * 1024;
+
+    private final byte[] content;
+    private final int id;
+
+    /**
+     * Creates a dictionary. The most common content should come last, where it is cheapest to reference.
+     *
+     * @param content the content of the dictionary, which is copied
+     * @throws IllegalArgumentException if the content is empty or larger than {@link #MAX_SIZE}
+     */
+    public CompressionDictionary(byte[] content) {
+        if (content.length == 0 || content.length > MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid dictionary size: " + content.length + " bytes (max: " + MAX_SIZE + " bytes)");
+        }
+        this.content = content.clone();
+        Adler32 adler = new Adler32();
+        adler.update(this.content, 0, this.content.length);
+        this.id = (int) adler.getValue();
+    }
+
+    /**
+     * Returns the ID of this dictionary: the Adler-32 checksum of its content.
+     *
+     * @return the dictionary ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the size of this dictionary.
+     *
+     * @return the size in bytes
+     */
+    public int size() {
+        return content.length;
+    }
+
+    /**
+     * Returns a copy of the content of this dictionary.
+     *
+     * @return the content
+     */
+    public byte[] getContent() {
+        return content.clone();
+    }
+
+    byte[] content() {
+        return content;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof CompressionDictionary && Arrays.equals(content, ((CompressionDictionary) other).content);
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompressionDictionary{id=%08x, size=%d}", id, content.length);
+    }
+}
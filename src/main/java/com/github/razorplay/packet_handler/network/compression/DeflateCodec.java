@@ -0,0 +1,93 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import javax.annotation.Nullable;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses with raw deflate: the deflate stream alone, without the GZIP or zlib header, trailer and checksum.
+ * Deflaters and inflaters are pooled and reset instead of being created for each packet.
+ *
+ * <p>With a {@link CompressionDictionary}, every stream starts as if the dictionary had just been compressed,
+ * so that small packets can refer to its content from their first byte. Data compressed with a dictionary can
+ * only be decompressed with the same dictionary.</p>
+ *
+ * <pre>{@code
+ * PacketTCP.setCompressionCodec(new DeflateCodec(Deflater.BEST_SPEED));
+ * }</pre>
+ */
+public final class DeflateCodec implements StreamingCompressionCodec {
+    private final ZlibPool pool;
+    @Nullable
+    private final CompressionDictionary dictionary;
+
+    /**
+     * Creates a codec using the default zlib compression level.
+     */
+    public DeflateCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a codec using the given compression level.
+     *
+     * @param level the compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION},
+     *              or {@link Deflater#DEFAULT_COMPRESSION}
+     * @throws IllegalArgumentException if the level is invalid
+     */
+    public DeflateCodec(int level) {
+        this(level, null);
+    }
+
+    /**
+     * Creates a codec using the given compression level and preset dictionary.
+     *
+     * @param level      the compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION},
+     *                   or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param dictionary the preset dictionary, or {@code null} for none
+     * @throws IllegalArgumentException if the level is invalid
+     */
+    public DeflateCodec(int level, @Nullable CompressionDictionary dictionary) {
+        this.pool = new ZlibPool(level, dictionary != null ? dictionary.content() : null);
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Returns the compression level of this codec.
+     *
+     * @return the zlib compression level
+     */
+    public int getLevel() {
+        return pool.level();
+    }
+
+    /**
+     * Returns the preset dictionary of this codec.
+     *
+     * @return the dictionary, or {@code null} if there is none
+     */
+    @Nullable
+    public CompressionDictionary getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int offset, int length) {
+        return pool.deflate(data, offset, length, 0, 0);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int maxLength) throws DataFormatException {
+        return pool.inflate(data, offset, length, maxLength);
+    }
+
+    @Override
+    public InflaterDataInput openInput(byte[] data, int offset, int length, int maxLength) {
+        return new InflaterDataInput(pool, data, offset, length, maxLength, false);
+    }
+
+    @Override
+    public String toString() {
+        return "DeflateCodec{level=" + pool.level() + (dictionary != null ? ", dictionary=" + dictionary : "") + "}";
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a {@link CompressionDictionary} from sample packets, typically captured with
+ * {@link com.github.razorplay.packet_handler.network.PacketTCP#write(com.github.razorplay.packet_handler.network.IPacket)}.
+ *
+ * <p>The trainer looks for the byte sequences shared by several samples: every 8-byte sequence is scored by the
+ * number of samples containing it, and the longest runs of shared sequences become candidate segments. The best
+ * segments fill the dictionary, the most valuable last, where deflate references them most cheaply. Samples should
+ * be representative of the traffic of one packet type; a few dozen are usually enough.</p>
+ *
+ * <pre>{@code
+ * DictionaryTrainer trainer = new DictionaryTrainer(8 * 1024);
+ * for (IPacket sample : capturedPackets) {
+ *     trainer.addSample(PacketTCP.write(sample));
+ * }
+ * PacketTCP.setCompressionDictionary("inventory_sync", trainer.train());
+ * }</pre>
+ */
+public final class DictionaryTrainer {
+    private static final int KEY_LENGTH = Long.BYTES;
+
+    private final int maxSize;
+    private final List<byte[]> samples = new ArrayList<>();
+
+    /**
+     * Creates a trainer building dictionaries of up to {@link CompressionDictionary#MAX_SIZE} bytes.
+     */
+    public DictionaryTrainer() {
+        this(CompressionDictionary.MAX_SIZE);
+    }
+
+    /**
+     * Creates a trainer building dictionaries of up to the given size. Smaller dictionaries are faster to set up
+     * for each packet.
+     *
+     * @param maxSize the maximum size of the dictionary, in bytes
+     * @throws IllegalArgumentException if the size is not positive or larger than {@link CompressionDictionary#MAX_SIZE}
+     */
+    public DictionaryTrainer(int maxSize) {
+        if (maxSize <= 0 || maxSize > CompressionDictionary.MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid dictionary size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Adds a sample. The array is kept, not copied, until the trainer is discarded.
+     *
+     * @param sample an encoded packet
+     * @return this trainer
+     */
+    public DictionaryTrainer addSample(byte[] sample) {
+        samples.add(sample);
+        return this;
+    }
+
+    /**
+     * Returns the number of samples added so far.
+     *
+     * @return the sample count
+     */
+    public int sampleCount() {
+        return samples.size();
+    }
+
+    /**
+     * Builds a dictionary from the samples added so far.
+     *
+     * @return the trained dictionary
+     * @throws IllegalStateException if the samples share no content
+     */
+    public CompressionDictionary train() {
+        // Number of samples containing each 8-byte sequence
+        Map<Long, int[]> frequencies = new HashMap<>();
+        for (int sample = 0; sample < samples.size(); sample++) {
+            byte[] data = samples.get(sample);
+            for (int i = 0; i + KEY_LENGTH <= data.length; i++) {
+                int[] frequency = frequencies.computeIfAbsent(readKey(data, i), key -> new int[]{0, -1});
+                if (frequency[1] != sample) {
+                    frequency[0]++;
+                    frequency[1] = sample;
+                }
+            }
+        }
+
+        // A single sample has nothing to share, so it is then taken as a whole
+        int minFrequency = Math.min(2, samples.size());
+        Map<ByteBuffer, Long> segments = new HashMap<>();
+        for (byte[] data : samples) {
+            int i = 0;
+            while (i + KEY_LENGTH <= data.length) {
+                int start = i;
+                long score = 0;
+                int frequency;
+                while (i + KEY_LENGTH <= data.length && (frequency = frequencies.get(readKey(data, i))[0]) >= minFrequency) {
+                    score += frequency;
+                    i++;
+                }
+                if (i == start) {
+                    i++;
+                    continue;
+                }
+                int end = Math.min(i - 1 + KEY_LENGTH, start + maxSize);
+                segments.merge(ByteBuffer.wrap(data, start, end - start).slice(), score, Math::max);
+            }
+        }
+
+        List<Map.Entry<ByteBuffer, Long>> ranked = new ArrayList<>(segments.entrySet());
+        ranked.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+
+        List<ByteBuffer> selected = new ArrayList<>();
+        Set<Long> covered = new HashSet<>();
+        int size = 0;
+        for (Map.Entry<ByteBuffer, Long> entry : ranked) {
+            ByteBuffer segment = entry.getKey();
+            if (size + segment.remaining() > maxSize) {
+                continue;
+            }
+            // Skip segments whose content is already in the dictionary
+            boolean redundant = true;
+            for (int i = 0; i + KEY_LENGTH <= segment.remaining(); i++) {
+                if (!covered.contains(segment.getLong(i))) {
+                    redundant = false;
+                    break;
+                }
+            }
+            if (redundant) {
+                continue;
+            }
+            for (int i = 0; i + KEY_LENGTH <= segment.remaining(); i++) {
+                covered.add(segment.getLong(i));
+            }
+            selected.add(segment);
+            size += segment.remaining();
+        }
+        if (size == 0) {
+            throw new IllegalStateException("The " + samples.size() + " samples share no content");
+        }
+
+        // Most valuable segments last, closest to the data being compressed
+        byte[] content = new byte[size];
+        int position = size;
+        for (ByteBuffer segment : selected) {
+            position -= segment.remaining();
+            segment.duplicate().get(content, position, segment.remaining());
+        }
+        return new CompressionDictionary(content);
+    }
+
+    private static long readKey(byte[] data, int position) {
+        long key = 0;
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            key = key << 8 | (data[position + i] & 0xFF);
+        }
+        return key;
+    }
+}
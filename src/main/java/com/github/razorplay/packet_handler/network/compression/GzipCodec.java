@@ -0,0 +1,171 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses in the GZIP format, as {@link java.util.zip.GZIPOutputStream} does, but with pooled deflaters and
+ * inflaters. This is the default codec, so that peers using the original GZIP streams can still decode packets.
+ * It adds 18 bytes and a CRC-32 pass to every packet; prefer {@link DeflateCodec} when both sides are up to date.
+ */
+public final class GzipCodec implements StreamingCompressionCodec {
+    private static final int HEADER_SIZE = 10;
+    static final int TRAILER_SIZE = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private final ZlibPool pool;
+
+    /**
+     * Creates a codec using the default zlib compression level.
+     */
+    public GzipCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a codec using the given compression level.
+     *
+     * @param level the compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION},
+     *              or {@link Deflater#DEFAULT_COMPRESSION}
+     * @throws IllegalArgumentException if the level is invalid
+     */
+    public GzipCodec(int level) {
+        this.pool = new ZlibPool(level, null);
+    }
+
+    /**
+     * Returns the compression level of this codec.
+     *
+     * @return the zlib compression level
+     */
+    public int getLevel() {
+        return pool.level();
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int offset, int length) {
+        byte[] out = pool.deflate(data, offset, length, HEADER_SIZE, TRAILER_SIZE);
+        // Magic number, deflate method, no flags, no modification time, unknown OS: the header of GZIPOutputStream
+        out[0] = (byte) 0x1F;
+        out[1] = (byte) 0x8B;
+        out[2] = Deflater.DEFLATED;
+
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        int trailer = out.length - TRAILER_SIZE;
+        writeIntLE(out, trailer, (int) crc.getValue());
+        writeIntLE(out, trailer + 4, length);
+        return out;
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int maxLength) throws DataFormatException {
+        int start = deflateStart(data, offset, length);
+        int trailer = offset + length - TRAILER_SIZE;
+
+        byte[] out = pool.inflate(data, start, trailer - start, maxLength);
+        CRC32 crc = new CRC32();
+        crc.update(out, 0, out.length);
+        checkTrailer(data, trailer, (int) crc.getValue(), out.length);
+        return out;
+    }
+
+    @Override
+    public InflaterDataInput openInput(byte[] data, int offset, int length, int maxLength) throws DataFormatException {
+        int start = deflateStart(data, offset, length);
+        return new InflaterDataInput(pool, data, start, offset + length - start, maxLength, true);
+    }
+
+    /**
+     * Checks the GZIP header at the start of a range of bytes and skips it.
+     *
+     * @param data   the array containing the GZIP data
+     * @param offset the start of the GZIP data in the array
+     * @param length the number of GZIP bytes, trailer included
+     * @return the position of the deflate stream in the array
+     * @throws DataFormatException if the header is invalid or the data too short
+     */
+    static int deflateStart(byte[] data, int offset, int length) throws DataFormatException {
+        int end = offset + length;
+        if (length < HEADER_SIZE + TRAILER_SIZE) {
+            throw new DataFormatException("Truncated GZIP data");
+        }
+        if ((data[offset] & 0xFF) != 0x1F || (data[offset + 1] & 0xFF) != 0x8B) {
+            throw new DataFormatException("Not in GZIP format");
+        }
+        if (data[offset + 2] != Deflater.DEFLATED) {
+            throw new DataFormatException("Unsupported GZIP compression method: " + data[offset + 2]);
+        }
+
+        int flags = data[offset + 3] & 0xFF;
+        int position = offset + HEADER_SIZE;
+        if ((flags & FEXTRA) != 0) {
+            position = checkHeader(position + 2, end) + ((data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8);
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(data, position, end);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            position = skipZeroTerminated(data, position, end);
+        }
+        if ((flags & FHCRC) != 0) {
+            position += 2;
+        }
+        return checkHeader(position, end - TRAILER_SIZE);
+    }
+
+    /**
+     * Checks the CRC-32 and size stored in a GZIP trailer.
+     *
+     * @param data     the array containing the trailer
+     * @param position the position of the trailer in the array
+     * @param crc      the CRC-32 of the decompressed data
+     * @param size     the number of decompressed bytes
+     * @throws DataFormatException if the trailer does not match
+     */
+    static void checkTrailer(byte[] data, int position, int crc, long size) throws DataFormatException {
+        if (readIntLE(data, position) != crc) {
+            throw new DataFormatException("Corrupt GZIP trailer: CRC mismatch");
+        }
+        if (readIntLE(data, position + 4) != (int) size) {
+            throw new DataFormatException("Corrupt GZIP trailer: size mismatch");
+        }
+    }
+
+    private static int checkHeader(int position, int end) throws DataFormatException {
+        if (position > end) {
+            throw new DataFormatException("Truncated GZIP header");
+        }
+        return position;
+    }
+
+    private static int skipZeroTerminated(byte[] data, int position, int end) throws DataFormatException {
+        while (position < end) {
+            if (data[position++] == 0) {
+                return position;
+            }
+        }
+        throw new DataFormatException("Truncated GZIP header");
+    }
+
+    private static void writeIntLE(byte[] out, int position, int value) {
+        out[position] = (byte) value;
+        out[position + 1] = (byte) (value >>> 8);
+        out[position + 2] = (byte) (value >>> 16);
+        out[position + 3] = (byte) (value >>> 24);
+    }
+
+    private static int readIntLE(byte[] data, int position) {
+        return (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8
+                | (data[position + 2] & 0xFF) << 16 | (data[position + 3] & 0xFF) << 24;
+    }
+
+    @Override
+    public String toString() {
+        return "GzipCodec{level=" + pool.level() + "}";
+    }
+}
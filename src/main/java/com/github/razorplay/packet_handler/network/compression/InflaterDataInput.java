@@ -0,0 +1,291 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import com.google.common.io.ByteArrayDataInput;
+
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link ByteArrayDataInput} decompressing a deflate stream as it is read, through a small pooled window,
+ * see {@link StreamingCompressionCodec#openInput(byte[], int, int, int)}. Reading past the end of the
+ * decompressed data throws a {@link BufferUnderflowException}, like {@code ByteBufferDataInput}.
+ *
+ * <p>The total decompressed size is checked while inflating, so a small input expanding to more than the
+ * allowed size fails as soon as it crosses the limit instead of exhausting the heap. Corrupted data and
+ * exceeded limits are reported as an {@link IllegalStateException} caused by a {@link DataFormatException}.</p>
+ *
+ * <p>Closing the input returns its inflater and window to the pool of the codec.</p>
+ */
+public final class InflaterDataInput implements ByteArrayDataInput, AutoCloseable {
+    private final ZlibPool pool;
+    private final byte[] data;
+    private final int end;
+    private final int maxLength;
+    @Nullable
+    private final CRC32 crc;
+    private Inflater inflater;
+    private byte[] window;
+    private int position;
+    private int limit;
+    private long total;
+
+    /**
+     * Creates an input.
+     *
+     * @param pool      the pool providing the inflater and the window
+     * @param data      the array containing the compressed data
+     * @param offset    the start of the deflate stream in the array
+     * @param length    the number of bytes of the deflate stream, followed by the GZIP trailer if gzip is set
+     * @param maxLength the maximum number of decompressed bytes accepted
+     * @param gzip      whether the stream is followed by a GZIP trailer to check in {@link #finish()}
+     */
+    InflaterDataInput(ZlibPool pool, byte[] data, int offset, int length, int maxLength, boolean gzip) {
+        this.pool = pool;
+        this.data = data;
+        this.end = offset + length;
+        this.maxLength = maxLength;
+        this.crc = gzip ? new CRC32() : null;
+        this.inflater = pool.acquireInflater();
+        this.window = pool.acquireWindow();
+        inflater.setInput(data, offset, gzip ? length - GzipCodec.TRAILER_SIZE : length);
+    }
+
+    /**
+     * Returns the number of bytes decompressed so far, read or not.
+     *
+     * @return the decompressed size so far
+     */
+    public long decompressedSize() {
+        return total;
+    }
+
+    /**
+     * Returns the most bytes that can still be read before the stream exceeds its maximum length.
+     * A length prefix claiming more than this cannot be valid.
+     *
+     * @return the remaining read budget, in bytes
+     */
+    public long maxRemaining() {
+        return maxLength - total + (limit - position);
+    }
+
+    /**
+     * Decompresses and discards the rest of the stream, then checks that it ended properly: the stream must be
+     * complete, followed by nothing but its GZIP trailer if any, and match the checksum of that trailer.
+     *
+     * @throws DataFormatException if the stream is corrupted or truncated, or exceeds the maximum length
+     */
+    public void finish() throws DataFormatException {
+        ensureOpen();
+        while (!inflater.finished()) {
+            position = limit;
+            inflate();
+        }
+        int trailer = crc != null ? GzipCodec.TRAILER_SIZE : 0;
+        if (inflater.getRemaining() != 0) {
+            throw new DataFormatException(inflater.getRemaining() + " bytes after the end of the compressed data");
+        }
+        if (crc != null) {
+            GzipCodec.checkTrailer(data, end - trailer, (int) crc.getValue(), total);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (inflater != null) {
+            pool.release(inflater);
+            pool.release(window);
+            inflater = null;
+            window = null;
+        }
+    }
+
+    /**
+     * Refills the window, unless the stream is finished.
+     *
+     * @return {@code false} at the end of the stream
+     */
+    private boolean inflate() throws DataFormatException {
+        while (!inflater.finished()) {
+            int inflated = inflater.inflate(window, 0, window.length);
+            if (inflated > 0) {
+                total += inflated;
+                if (total > maxLength) {
+                    throw new DataFormatException("Decompressed data exceeds " + maxLength + " bytes");
+                }
+                if (crc != null) {
+                    crc.update(window, 0, inflated);
+                }
+                position = 0;
+                limit = inflated;
+                return true;
+            }
+            if (inflater.needsInput() || inflater.needsDictionary()) {
+                throw new DataFormatException("Truncated compressed data");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes at least one byte available in the window.
+     *
+     * @return {@code false} at the end of the stream
+     */
+    private boolean fill() {
+        if (position < limit) {
+            return true;
+        }
+        ensureOpen();
+        try {
+            return inflate();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void require() {
+        if (!fill()) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    private void ensureOpen() {
+        if (inflater == null) {
+            throw new IllegalStateException("Input closed");
+        }
+    }
+
+    @Override
+    public void readFully(byte[] bytes) {
+        readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            require();
+            int count = Math.min(length, limit - position);
+            System.arraycopy(window, position, bytes, offset, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public int skipBytes(int count) {
+        int skipped = 0;
+        while (skipped < count && fill()) {
+            int step = Math.min(count - skipped, limit - position);
+            position += step;
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() {
+        require();
+        return window[position++];
+    }
+
+    @Override
+    public int readUnsignedByte() {
+        return readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() {
+        return (short) readUnsignedShort();
+    }
+
+    @Override
+    public int readUnsignedShort() {
+        if (limit - position >= Short.BYTES) {
+            int value = (window[position] & 0xFF) << 8 | (window[position + 1] & 0xFF);
+            position += Short.BYTES;
+            return value;
+        }
+        return readUnsignedByte() << 8 | readUnsignedByte();
+    }
+
+    @Override
+    public char readChar() {
+        return (char) readUnsignedShort();
+    }
+
+    @Override
+    public int readInt() {
+        if (limit - position >= Integer.BYTES) {
+            int value = (window[position] & 0xFF) << 24 | (window[position + 1] & 0xFF) << 16
+                    | (window[position + 2] & 0xFF) << 8 | (window[position + 3] & 0xFF);
+            position += Integer.BYTES;
+            return value;
+        }
+        return readUnsignedByte() << 24 | readUnsignedByte() << 16 | readUnsignedByte() << 8 | readUnsignedByte();
+    }
+
+    @Override
+    public long readLong() {
+        return (long) readInt() << 32 | (readInt() & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    @Override
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    @Nullable
+    @Override
+    public String readLine() {
+        if (!fill()) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (fill()) {
+            char c = (char) (window[position++] & 0xFF);
+            if (c == '\n') {
+                break;
+            }
+            if (c == '\r') {
+                if (fill() && window[position] == '\n') {
+                    position++;
+                }
+                break;
+            }
+            line.append(c);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Reads a string encoded with the modified UTF-8 format of {@link java.io.DataInput#readUTF()}.
+     *
+     * @return the decoded string
+     * @throws IllegalStateException if the encoded bytes are malformed
+     */
+    @Override
+    public String readUTF() {
+        try {
+            return DataInputStream.readUTF(this);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * A fast, pure-Java LZ77 codec writing the LZ4 block format, preceded by the decompressed size as a VarInt.
+ * It needs no native state and decompresses several times faster than deflate, at the cost of a lower ratio.
+ *
+ * <p>The level sets how many earlier occurrences of each 4-byte sequence are searched for the longest match:
+ * level 1 only checks the latest one, like LZ4, while each further level doubles the search depth.</p>
+ *
+ * <pre>{@code
+ * PacketTCP.setCompressionCodec(new LzCodec(3));
+ * }</pre>
+ */
+public final class LzCodec implements CompressionCodec {
+    /**
+     * The fastest level, with the lowest ratio.
+     */
+    public static final int MIN_LEVEL = 1;
+    /**
+     * The slowest level, with the best ratio.
+     */
+    public static final int MAX_LEVEL = 9;
+
+    private static final int MIN_MATCH = 4;
+    // The format requires the last 5 bytes to be literals and the last match to start 12 bytes before the end
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int MIN_HASH_LOG = 8;
+    private static final int MAX_HASH_LOG = 16;
+    private static final int RUN_MASK = 15;
+
+    private final int level;
+    private final int maxAttempts;
+
+    /**
+     * Creates a codec using the fastest level.
+     */
+    public LzCodec() {
+        this(MIN_LEVEL);
+    }
+
+    /**
+     * Creates a codec using the given level.
+     *
+     * @param level the compression level, from {@link #MIN_LEVEL} to {@link #MAX_LEVEL}
+     * @throws IllegalArgumentException if the level is invalid
+     */
+    public LzCodec(int level) {
+        if (level < MIN_LEVEL || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.level = level;
+        this.maxAttempts = 1 << (level - 1);
+    }
+
+    /**
+     * Returns the compression level of this codec.
+     *
+     * @return the level, from {@link #MIN_LEVEL} to {@link #MAX_LEVEL}
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int offset, int length) {
+        byte[] out = new byte[5 + length + length / 255 + 16];
+        int position = writeVarInt(out, 0, length);
+        int anchor = 0;
+
+        if (length > MF_LIMIT) {
+            int hashLog = Math.max(MIN_HASH_LOG, Math.min(MAX_HASH_LOG, 33 - Integer.numberOfLeadingZeros(length)));
+            int[] head = new int[1 << hashLog];
+            Arrays.fill(head, -1);
+            // Older occurrences, by position modulo the window; only needed when searching more than one
+            int[] chain = maxAttempts > 1 ? new int[Math.min(length, MAX_OFFSET + 1)] : null;
+            int matchLimit = length - LAST_LITERALS;
+            int matchStartLimit = length - MF_LIMIT;
+
+            int index = 0;
+            while (index < matchStartLimit) {
+                int candidate = insert(data, offset, index, head, chain, hashLog);
+                int bestLength = 0;
+                int bestPosition = 0;
+                for (int attempts = maxAttempts; candidate >= 0 && index - candidate <= MAX_OFFSET && attempts > 0; attempts--) {
+                    if (readInt(data, offset + candidate) == readInt(data, offset + index)) {
+                        int matchLength = MIN_MATCH;
+                        while (index + matchLength < matchLimit && data[offset + candidate + matchLength] == data[offset + index + matchLength]) {
+                            matchLength++;
+                        }
+                        if (matchLength > bestLength) {
+                            bestLength = matchLength;
+                            bestPosition = candidate;
+                        }
+                    }
+                    candidate = chain != null ? chain[candidate % chain.length] : -1;
+                }
+
+                if (bestLength == 0) {
+                    index++;
+                    continue;
+                }
+                int nextInsert = index + 1;
+                // Extend the match backward over the pending literals
+                while (index > anchor && bestPosition > 0 && data[offset + index - 1] == data[offset + bestPosition - 1]) {
+                    index--;
+                    bestPosition--;
+                    bestLength++;
+                }
+
+                position = writeSequence(out, position, data, offset + anchor, index - anchor, index - bestPosition, bestLength);
+                int matchEnd = index + bestLength;
+                if (chain != null) {
+                    for (int i = nextInsert; i < matchEnd && i < matchStartLimit; i++) {
+                        insert(data, offset, i, head, chain, hashLog);
+                    }
+                } else if (matchEnd - 2 < matchStartLimit) {
+                    insert(data, offset, matchEnd - 2, head, null, hashLog);
+                }
+                index = matchEnd;
+                anchor = index;
+            }
+        }
+
+        position = writeLiterals(out, position, data, offset + anchor, length - anchor);
+        return Arrays.copyOf(out, position);
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int maxLength) throws DataFormatException {
+        int end = offset + length;
+        int size = 0;
+        int input = offset;
+        for (int shift = 0; ; shift += 7) {
+            if (input == end || shift > 28) {
+                throw new DataFormatException("Invalid decompressed size");
+            }
+            byte b = data[input++];
+            size |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        if (size < 0 || size > maxLength) {
+            throw new DataFormatException("Decompressed data exceeds " + maxLength + " bytes");
+        }
+        // Each byte of a sequence expands to at most 255 bytes, so a larger size cannot be genuine
+        if (size > (long) (end - input) * 255) {
+            throw new DataFormatException("Decompressed size " + size + " exceeds what " + (end - input) + " bytes can hold");
+        }
+
+        byte[] out = new byte[size];
+        int output = 0;
+        while (true) {
+            if (input == end) {
+                throw new DataFormatException("Truncated compressed data");
+            }
+            int token = data[input++] & 0xFF;
+
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    if (input == end) {
+                        throw new DataFormatException("Truncated compressed data");
+                    }
+                    b = data[input++] & 0xFF;
+                    literalLength += b;
+                } while (b == 255 && literalLength <= size);
+            }
+            if (literalLength > size - output || literalLength > end - input) {
+                throw new DataFormatException("Literals overflow the block");
+            }
+            System.arraycopy(data, input, out, output, literalLength);
+            input += literalLength;
+            output += literalLength;
+            if (input == end) {
+                break;
+            }
+
+            if (end - input < 2) {
+                throw new DataFormatException("Truncated compressed data");
+            }
+            int matchOffset = (data[input] & 0xFF) | (data[input + 1] & 0xFF) << 8;
+            input += 2;
+            if (matchOffset == 0 || matchOffset > output) {
+                throw new DataFormatException("Invalid match offset: " + matchOffset);
+            }
+
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int b;
+                do {
+                    if (input == end) {
+                        throw new DataFormatException("Truncated compressed data");
+                    }
+                    b = data[input++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255 && matchLength <= size);
+            }
+            matchLength += MIN_MATCH;
+            if (matchLength > size - output) {
+                throw new DataFormatException("Match overflows the block");
+            }
+            int source = output - matchOffset;
+            if (matchOffset >= matchLength) {
+                System.arraycopy(out, source, out, output, matchLength);
+                output += matchLength;
+            } else {
+                // Overlapping copy, repeating the last matchOffset bytes
+                for (int i = 0; i < matchLength; i++) {
+                    out[output++] = out[source + i];
+                }
+            }
+        }
+        if (output != size) {
+            throw new DataFormatException("Decompressed " + output + " bytes instead of " + size);
+        }
+        return out;
+    }
+
+    /**
+     * Records a position in the hash table and returns the previous position with the same hash, or -1.
+     */
+    private static int insert(byte[] data, int offset, int index, int[] head, int[] chain, int hashLog) {
+        int hash = (readInt(data, offset + index) * -1640531535) >>> (32 - hashLog);
+        int previous = head[hash];
+        head[hash] = index;
+        if (chain != null) {
+            chain[index % chain.length] = previous;
+        }
+        return previous;
+    }
+
+    private static int writeSequence(byte[] out, int position, byte[] data, int literalStart, int literalLength, int matchOffset, int matchLength) {
+        int token = position;
+        position = writeLiterals(out, position, data, literalStart, literalLength);
+        out[position++] = (byte) matchOffset;
+        out[position++] = (byte) (matchOffset >>> 8);
+        int code = matchLength - MIN_MATCH;
+        if (code >= RUN_MASK) {
+            out[token] |= RUN_MASK;
+            position = writeLength(out, position, code - RUN_MASK);
+        } else {
+            out[token] |= (byte) code;
+        }
+        return position;
+    }
+
+    private static int writeLiterals(byte[] out, int position, byte[] data, int start, int length) {
+        if (length >= RUN_MASK) {
+            out[position++] = (byte) (RUN_MASK << 4);
+            position = writeLength(out, position, length - RUN_MASK);
+        } else {
+            out[position++] = (byte) (length << 4);
+        }
+        System.arraycopy(data, start, out, position, length);
+        return position + length;
+    }
+
+    private static int writeLength(byte[] out, int position, int length) {
+        while (length >= 255) {
+            out[position++] = (byte) 255;
+            length -= 255;
+        }
+        out[position++] = (byte) length;
+        return position;
+    }
+
+    private static int writeVarInt(byte[] out, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    private static int readInt(byte[] data, int position) {
+        return (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8
+                | (data[position + 2] & 0xFF) << 16 | (data[position + 3] & 0xFF) << 24;
+    }
+
+    @Override
+    public String toString() {
+        return "LzCodec{level=" + level + "}";
+    }
+}
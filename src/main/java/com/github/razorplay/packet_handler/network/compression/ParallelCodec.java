@@ -0,0 +1,283 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.DataFormatException;
+
+/**
+ * Splits large data into independent blocks and compresses them in parallel with another codec, in the
+ * manner of pigz. Decompression inflates the blocks in parallel as well, so large transfers scale with the
+ * number of cores instead of keeping one thread busy.
+ *
+ * <p>The compressed data starts with a block index: the number of blocks as a VarInt, then the decompressed
+ * and compressed size of each block as VarInts, followed by the compressed blocks one after the other. Blocks
+ * do not share any history, so each one costs a little compression ratio; data smaller than the block size is
+ * compressed as a single block on the calling thread.</p>
+ *
+ * <pre>{@code
+ * // 256 KB blocks of raw deflate, compressed on the common fork-join pool
+ * PacketTCP.setCompressionCodec(new ParallelCodec(new DeflateCodec(), 256 * 1024));
+ * }</pre>
+ */
+public final class ParallelCodec implements CompressionCodec {
+    /**
+     * The default size of a block, in bytes.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private final CompressionCodec codec;
+    private final int blockSize;
+    private final Executor executor;
+
+    /**
+     * Creates a codec compressing blocks of the default size with the given codec, on the common fork-join pool.
+     *
+     * @param codec the codec compressing each block
+     */
+    public ParallelCodec(CompressionCodec codec) {
+        this(codec, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a codec compressing blocks of the given size with the given codec, on the common fork-join pool.
+     *
+     * @param codec     the codec compressing each block
+     * @param blockSize the number of bytes of each block
+     * @throws IllegalArgumentException if blockSize is not positive
+     */
+    public ParallelCodec(CompressionCodec codec, int blockSize) {
+        this(codec, blockSize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a codec compressing blocks of the given size with the given codec, on the given executor.
+     * The calling thread compresses the first block itself while the executor handles the others.
+     *
+     * @param codec     the codec compressing each block
+     * @param blockSize the number of bytes of each block
+     * @param executor  the executor running the blocks in parallel
+     * @throws IllegalArgumentException if blockSize is not positive
+     */
+    public ParallelCodec(CompressionCodec codec, int blockSize, Executor executor) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+        this.codec = Objects.requireNonNull(codec, "Codec cannot be null");
+        this.blockSize = blockSize;
+        this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+    }
+
+    /**
+     * Returns the codec compressing each block.
+     *
+     * @return the block codec
+     */
+    public CompressionCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Returns the size of the blocks.
+     *
+     * @return the number of bytes of each block
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int offset, int length) {
+        int blockCount = (int) ((length + (long) blockSize - 1) / blockSize);
+        byte[][] blocks = new byte[blockCount][];
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[blockCount];
+        for (int i = 1; i < blockCount; i++) {
+            int block = i;
+            int start = offset + block * blockSize;
+            int end = Math.min(offset + length, start + blockSize);
+            tasks[i] = CompletableFuture.runAsync(() -> blocks[block] = codec.compress(data, start, end - start), executor);
+        }
+        try {
+            if (blockCount > 0) {
+                blocks[0] = codec.compress(data, offset, Math.min(length, blockSize));
+            }
+            join(tasks);
+        } finally {
+            cancel(tasks);
+        }
+
+        int indexSize = varIntSize(blockCount);
+        long totalSize = 0;
+        for (int i = 0; i < blockCount; i++) {
+            indexSize += varIntSize(blockLength(i, length)) + varIntSize(blocks[i].length);
+            totalSize += blocks[i].length;
+        }
+        totalSize += indexSize;
+        if (totalSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Compressed data too large: " + totalSize + " bytes");
+        }
+
+        byte[] out = new byte[(int) totalSize];
+        int position = writeVarInt(out, 0, blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            position = writeVarInt(out, position, blockLength(i, length));
+            position = writeVarInt(out, position, blocks[i].length);
+        }
+        for (byte[] block : blocks) {
+            System.arraycopy(block, 0, out, position, block.length);
+            position += block.length;
+        }
+        return out;
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int offset, int length, int maxLength) throws DataFormatException {
+        int end = offset + length;
+        int[] position = {offset};
+        int blockCount = readVarInt(data, position, end);
+        // Every block takes at least two bytes of index
+        if (blockCount > (end - position[0]) / 2) {
+            throw new DataFormatException("Invalid block count: " + blockCount);
+        }
+
+        int[] rawLengths = new int[blockCount];
+        int[] compressedLengths = new int[blockCount];
+        long totalSize = 0;
+        long compressedSize = 0;
+        for (int i = 0; i < blockCount; i++) {
+            rawLengths[i] = readVarInt(data, position, end);
+            compressedLengths[i] = readVarInt(data, position, end);
+            // No block is empty, and every block but the last has the size of the first
+            boolean last = i == blockCount - 1;
+            if (rawLengths[i] == 0 || compressedLengths[i] == 0
+                    || i > 0 && (last ? rawLengths[i] > rawLengths[0] : rawLengths[i] != rawLengths[0])) {
+                throw new DataFormatException("Invalid size of block " + i + ": " + rawLengths[i]);
+            }
+            totalSize += rawLengths[i];
+            compressedSize += compressedLengths[i];
+        }
+        if (totalSize > maxLength) {
+            throw new DataFormatException("Decompressed data exceeds " + maxLength + " bytes");
+        }
+        if (compressedSize != end - position[0]) {
+            throw new DataFormatException("Block sizes do not match the compressed data");
+        }
+        if (blockCount == 0) {
+            return new byte[0];
+        }
+
+        byte[] out = new byte[(int) totalSize];
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[blockCount];
+        int input = position[0] + compressedLengths[0];
+        int output = rawLengths[0];
+        for (int i = 1; i < blockCount; i++) {
+            int blockInput = input;
+            int blockOutput = output;
+            int compressedLength = compressedLengths[i];
+            int rawLength = rawLengths[i];
+            tasks[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    inflateBlock(data, blockInput, compressedLength, out, blockOutput, rawLength);
+                } catch (DataFormatException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+            input += compressedLength;
+            output += rawLength;
+        }
+
+        try {
+            inflateBlock(data, position[0], compressedLengths[0], out, 0, rawLengths[0]);
+            join(tasks);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DataFormatException) {
+                throw (DataFormatException) e.getCause();
+            }
+            throw e;
+        } finally {
+            cancel(tasks);
+        }
+        return out;
+    }
+
+    private void inflateBlock(byte[] data, int offset, int length, byte[] out, int outOffset, int rawLength) throws DataFormatException {
+        byte[] block = codec.decompress(data, offset, length, rawLength);
+        if (block.length != rawLength) {
+            throw new DataFormatException("Block decompressed to " + block.length + " bytes instead of " + rawLength);
+        }
+        System.arraycopy(block, 0, out, outOffset, rawLength);
+    }
+
+    private int blockLength(int block, int length) {
+        return Math.min(blockSize, length - block * blockSize);
+    }
+
+    private static void join(CompletableFuture<?>[] tasks) {
+        for (CompletableFuture<?> task : tasks) {
+            if (task == null) {
+                continue;
+            }
+            try {
+                task.join();
+            } catch (CompletionException e) {
+                // Report failures of the block codec as if it had run on the calling thread
+                if (e.getCause() instanceof RuntimeException && !(e.getCause() instanceof CompletionException)) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Cancels the blocks that have not run yet, so that the executor skips them when another block failed.
+     * Blocks that already completed are left as they are.
+     */
+    private static void cancel(CompletableFuture<?>[] tasks) {
+        for (CompletableFuture<?> task : tasks) {
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    private static int varIntSize(int value) {
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    private static int writeVarInt(byte[] out, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    private static int readVarInt(byte[] data, int[] cursor, int end) throws DataFormatException {
+        int position = cursor[0];
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (position == end || shift > 28) {
+                throw new DataFormatException("Invalid block index");
+            }
+            byte b = data[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        if (value < 0) {
+            throw new DataFormatException("Invalid block index");
+        }
+        cursor[0] = position;
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelCodec{codec=" + codec + ", blockSize=" + blockSize + "}";
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import java.util.zip.DataFormatException;
+
+/**
+ * A {@link CompressionCodec} that can also decompress data as it is read, so that a packet is decoded straight
+ * from the decompressor without ever holding the whole decompressed packet in memory.
+ *
+ * <pre>{@code
+ * try (InflaterDataInput in = codec.openInput(data, 0, data.length, maxLength)) {
+ *     IPacket packet = PacketTCP.read(in);
+ *     in.finish();
+ * }
+ * }</pre>
+ */
+public interface StreamingCompressionCodec extends CompressionCodec {
+
+    /**
+     * Opens an input decompressing a range of bytes produced by {@link #compress(byte[], int, int)} as it is read.
+     * The array must not be modified until the input is closed.
+     *
+     * @param data      the array containing the compressed data
+     * @param offset    the start of the compressed data in the array
+     * @param length    the number of compressed bytes
+     * @param maxLength the maximum number of decompressed bytes accepted
+     * @return the decompressing input, which must be closed
+     * @throws DataFormatException if the data does not start with a valid header
+     */
+    InflaterDataInput openInput(byte[] data, int offset, int length, int maxLength) throws DataFormatException;
+}
@@ -0,0 +1,187 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A thread-safe pool of raw (headerless) {@link Deflater}s and {@link Inflater}s sharing one compression level and
+ * preset dictionary, and of the windows that {@link InflaterDataInput} decompresses into. Creating them allocates native zlib state,
+ * which costs more than compressing a mid-size packet, so they are reset and reused. Idle objects beyond a bound
+ * are ended and dropped.
+ */
+final class ZlibPool {
+    private static final int MAX_POOLED = 16;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    static final int WINDOW_SIZE = 8192;
+
+    private final int level;
+    @Nullable
+    private final byte[] dictionary;
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledDeflaters = new AtomicInteger();
+    private final AtomicInteger pooledInflaters = new AtomicInteger();
+    private final Queue<byte[]> windows = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledWindows = new AtomicInteger();
+
+    /**
+     * Creates a pool.
+     *
+     * @param level      the compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION},
+     *                   or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param dictionary the preset dictionary of every stream, or {@code null}
+     * @throws IllegalArgumentException if the level is invalid
+     */
+    ZlibPool(int level, @Nullable byte[] dictionary) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.level = level;
+        this.dictionary = dictionary;
+    }
+
+    int level() {
+        return level;
+    }
+
+    Deflater acquireDeflater() {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        } else {
+            pooledDeflaters.decrementAndGet();
+        }
+        // Resetting clears the dictionary, so it is set again for every stream
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary);
+        }
+        return deflater;
+    }
+
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (pooledDeflaters.incrementAndGet() > MAX_POOLED) {
+            pooledDeflaters.decrementAndGet();
+            deflater.end();
+            return;
+        }
+        deflaters.offer(deflater);
+    }
+
+    Inflater acquireInflater() {
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        } else {
+            pooledInflaters.decrementAndGet();
+        }
+        if (dictionary != null) {
+            inflater.setDictionary(dictionary);
+        }
+        return inflater;
+    }
+
+    void release(Inflater inflater) {
+        inflater.reset();
+        if (pooledInflaters.incrementAndGet() > MAX_POOLED) {
+            pooledInflaters.decrementAndGet();
+            inflater.end();
+            return;
+        }
+        inflaters.offer(inflater);
+    }
+
+    byte[] acquireWindow() {
+        byte[] window = windows.poll();
+        if (window == null) {
+            return new byte[WINDOW_SIZE];
+        }
+        pooledWindows.decrementAndGet();
+        return window;
+    }
+
+    void release(byte[] window) {
+        if (pooledWindows.incrementAndGet() > MAX_POOLED) {
+            pooledWindows.decrementAndGet();
+            return;
+        }
+        windows.offer(window);
+    }
+
+    /**
+     * Compresses a range of bytes as a raw deflate stream, leaving room for a header and a trailer.
+     *
+     * @param data        the array containing the data to compress
+     * @param offset      the start of the data in the array
+     * @param length      the number of bytes to compress
+     * @param headerSize  the number of bytes left free before the compressed data
+     * @param trailerSize the number of bytes left free after the compressed data
+     * @return an array of exactly headerSize + compressed size + trailerSize bytes
+     */
+    byte[] deflate(byte[] data, int offset, int length, int headerSize, int trailerSize) {
+        Deflater deflater = acquireDeflater();
+        try {
+            deflater.setInput(data, offset, length);
+            deflater.finish();
+            // Stored blocks add 5 bytes per 16 KB, so this is enough for incompressible data in one pass
+            byte[] out = new byte[headerSize + length + (length >>> 12) + 16 + trailerSize];
+            int size = headerSize;
+            while (!deflater.finished()) {
+                if (size == out.length - trailerSize) {
+                    out = Arrays.copyOf(out, out.length + Math.max(out.length >>> 1, 64));
+                }
+                size += deflater.deflate(out, size, out.length - trailerSize - size);
+            }
+            return Arrays.copyOf(out, size + trailerSize);
+        } finally {
+            release(deflater);
+        }
+    }
+
+    /**
+     * Decompresses a range of bytes holding exactly one raw deflate stream.
+     *
+     * @param data      the array containing the compressed data
+     * @param offset    the start of the compressed data in the array
+     * @param length    the number of compressed bytes
+     * @param maxLength the maximum number of decompressed bytes accepted
+     * @return the decompressed bytes
+     * @throws DataFormatException if the stream is corrupted, truncated, followed by other data,
+     *                             or decompresses to more than maxLength bytes
+     */
+    byte[] inflate(byte[] data, int offset, int length, int maxLength) throws DataFormatException {
+        Inflater inflater = acquireInflater();
+        try {
+            inflater.setInput(data, offset, length);
+            // The output may not exceed maxLength, so one extra byte is enough to detect an oversized stream
+            long capacityLimit = Math.min(maxLength + 1L, MAX_ARRAY_LENGTH);
+            byte[] out = new byte[(int) Math.min(capacityLimit, Math.max(64L, length * 4L))];
+            int size = 0;
+            while (!inflater.finished()) {
+                if (size == out.length) {
+                    out = Arrays.copyOf(out, (int) Math.min(capacityLimit, out.length * 2L));
+                }
+                int inflated = inflater.inflate(out, size, out.length - size);
+                if (inflated == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed data");
+                }
+                size += inflated;
+                if (size > maxLength) {
+                    throw new DataFormatException("Decompressed data exceeds " + maxLength + " bytes");
+                }
+            }
+            if (inflater.getRemaining() != 0) {
+                throw new DataFormatException(inflater.getRemaining() + " bytes after the end of the compressed data");
+            }
+            return size == out.length ? out : Arrays.copyOf(out, size);
+        } finally {
+            release(inflater);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+
+/**
+ * Reads values packed by a {@link BitWriter} from a {@link PacketReader}.
+ * Bytes are consumed only when their bits are needed, and the padding bits of the last byte are discarded
+ * together with the reader, so the next read on the {@link PacketReader} starts at the next whole byte.
+ */
+public final class BitReader {
+    private final PacketReader reader;
+    private long buffer;
+    private int count;
+
+    BitReader(PacketReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads an unsigned value of the given width.
+     *
+     * @param bits The number of bits to read, from 0 to 64
+     * @return The value read, zero-extended
+     * @throws IllegalArgumentException     if the number of bits is out of range
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public long readBits(int bits) throws PacketSerializationException {
+        BitWriter.checkBits(bits);
+        if (bits > 32) {
+            long low = readBits(32);
+            return low | (readBits(bits - 32) << 32);
+        }
+        while (count < bits) {
+            buffer |= (reader.readByte() & 0xFFL) << count;
+            count += Byte.SIZE;
+        }
+        long value = buffer & ((1L << bits) - 1);
+        buffer >>>= bits;
+        count -= bits;
+        return value;
+    }
+
+    /**
+     * Reads a signed value of the given width, written in two's complement.
+     *
+     * @param bits The number of bits to read, from 0 to 64
+     * @return The value read, sign-extended
+     * @throws IllegalArgumentException     if the number of bits is out of range
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public long readSignedBits(int bits) throws PacketSerializationException {
+        if (bits == 0) {
+            return readBits(0);
+        }
+        int shift = Long.SIZE - bits;
+        return (readBits(bits) << shift) >> shift;
+    }
+
+    /**
+     * Reads a boolean written as a single bit.
+     *
+     * @return The boolean value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public boolean readBoolean() throws PacketSerializationException {
+        return readBits(1) != 0;
+    }
+}
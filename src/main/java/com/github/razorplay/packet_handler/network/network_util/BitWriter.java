@@ -0,0 +1,74 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+/**
+ * Packs values of arbitrary bit widths into consecutive bytes of a {@link PacketWriter}.
+ * Bits are filled from the least significant bit of each byte, and {@link #flush()} pads the last byte with zeros.
+ * The values must be read back in the same order and with the same widths by a {@link BitReader}.
+ *
+ * <pre>{@code
+ * BitWriter bits = serializer.bitWriter();
+ * bits.writeBoolean(sneaking);
+ * bits.writeBoolean(sprinting);
+ * bits.writeBits(hotbarSlot, 4);
+ * bits.flush(); // 6 bits, one byte
+ * }</pre>
+ */
+public final class BitWriter {
+    private final PacketWriter writer;
+    private long buffer;
+    private int count;
+
+    BitWriter(PacketWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes the low bits of a value. Higher bits are ignored, so negative values are written in two's complement.
+     *
+     * @param value The value to write
+     * @param bits  The number of bits to write, from 0 to 64
+     * @throws IllegalArgumentException if the number of bits is out of range
+     */
+    public void writeBits(long value, int bits) {
+        checkBits(bits);
+        if (bits > 32) {
+            writeBits(value, 32);
+            writeBits(value >>> 32, bits - 32);
+            return;
+        }
+        // At most 7 pending bits, so 32 more always fit in the buffer
+        buffer |= (value & ((1L << bits) - 1)) << count;
+        count += bits;
+        while (count >= Byte.SIZE) {
+            writer.writeByte((byte) buffer);
+            buffer >>>= Byte.SIZE;
+            count -= Byte.SIZE;
+        }
+    }
+
+    /**
+     * Writes a boolean as a single bit.
+     *
+     * @param value The boolean value to write
+     */
+    public void writeBoolean(boolean value) {
+        writeBits(value ? 1 : 0, 1);
+    }
+
+    /**
+     * Writes the pending bits, padded with zeros to a whole byte. Must be called once all values are written.
+     */
+    public void flush() {
+        if (count > 0) {
+            writer.writeByte((byte) buffer);
+            buffer = 0;
+            count = 0;
+        }
+    }
+
+    static void checkBits(int bits) {
+        if (bits < 0 || bits > Long.SIZE) {
+            throw new IllegalArgumentException("Invalid bit count: " + bits);
+        }
+    }
+}
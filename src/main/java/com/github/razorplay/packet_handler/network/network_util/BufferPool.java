@@ -0,0 +1,181 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe pool of reusable {@link ByteBuffer}s organized in power-of-two size classes,
+ * from 256 bytes up to 4 MB. Requests larger than the biggest class are served with
+ * unpooled buffers of the exact requested size.
+ *
+ * <p>Each size class retains a bounded number of idle buffers, and all classes together retain a
+ * bounded number of bytes; buffers released beyond either bound are simply dropped and left to the
+ * garbage collector.</p>
+ *
+ * <pre>{@code
+ * BufferPool pool = new BufferPool(true);
+ * ByteBuffer buffer = pool.acquire(1000); // capacity 1024
+ * try {
+ *     // use the buffer
+ * } finally {
+ *     pool.release(buffer);
+ * }
+ * }</pre>
+ */
+public final class BufferPool {
+    private static final int MIN_SHIFT = 8; // 256 B
+    private static final int MAX_SHIFT = 22; // 4 MB
+    private static final int DEFAULT_MAX_POOLED_PER_CLASS = 32;
+    /**
+     * The default maximum number of bytes held by idle buffers across all size classes: 16 MB.
+     */
+    public static final long DEFAULT_MAX_POOLED_BYTES = 16L * 1024 * 1024;
+
+    private final boolean direct;
+    private final int maxPooledPerClass;
+    private final long maxPooledBytes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final Queue<ByteBuffer>[] sizeClasses;
+    private final AtomicInteger[] pooledCounts;
+
+    /**
+     * Creates a pool retaining up to 32 idle buffers per size class, and up to
+     * {@link #DEFAULT_MAX_POOLED_BYTES} bytes in total.
+     *
+     * @param direct {@code true} to pool direct buffers, {@code false} for heap buffers
+     */
+    public BufferPool(boolean direct) {
+        this(direct, DEFAULT_MAX_POOLED_PER_CLASS);
+    }
+
+    /**
+     * Creates a pool with the given retention bound per size class, retaining up to
+     * {@link #DEFAULT_MAX_POOLED_BYTES} bytes in total.
+     *
+     * @param direct            {@code true} to pool direct buffers, {@code false} for heap buffers
+     * @param maxPooledPerClass the maximum number of idle buffers kept per size class
+     * @throws IllegalArgumentException if maxPooledPerClass is negative
+     */
+    public BufferPool(boolean direct, int maxPooledPerClass) {
+        this(direct, maxPooledPerClass, DEFAULT_MAX_POOLED_BYTES);
+    }
+
+    /**
+     * Creates a pool with the given retention bounds.
+     *
+     * @param direct            {@code true} to pool direct buffers, {@code false} for heap buffers
+     * @param maxPooledPerClass the maximum number of idle buffers kept per size class
+     * @param maxPooledBytes    the maximum number of bytes held by idle buffers across all size classes
+     * @throws IllegalArgumentException if maxPooledPerClass or maxPooledBytes is negative
+     */
+    @SuppressWarnings("unchecked")
+    public BufferPool(boolean direct, int maxPooledPerClass, long maxPooledBytes) {
+        if (maxPooledPerClass < 0) {
+            throw new IllegalArgumentException("Invalid pool size: " + maxPooledPerClass);
+        }
+        if (maxPooledBytes < 0) {
+            throw new IllegalArgumentException("Invalid pooled bytes: " + maxPooledBytes);
+        }
+        this.direct = direct;
+        this.maxPooledPerClass = maxPooledPerClass;
+        this.maxPooledBytes = maxPooledBytes;
+
+        int classCount = MAX_SHIFT - MIN_SHIFT + 1;
+        this.sizeClasses = (Queue<ByteBuffer>[]) new Queue<?>[classCount];
+        this.pooledCounts = new AtomicInteger[classCount];
+        for (int i = 0; i < classCount; i++) {
+            this.sizeClasses[i] = new ConcurrentLinkedQueue<>();
+            this.pooledCounts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Returns the size class index for the given capacity, or -1 if it is too large to be pooled.
+     *
+     * @param capacity the requested capacity
+     * @return the size class index
+     */
+    private static int sizeClassOf(int capacity) {
+        int shift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(capacity, 1) - 1));
+        return shift > MAX_SHIFT ? -1 : shift - MIN_SHIFT;
+    }
+
+    /**
+     * Returns whether this pool hands out direct buffers.
+     *
+     * @return {@code true} for direct buffers
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Returns the number of bytes currently held by idle buffers in this pool.
+     *
+     * @return the pooled bytes
+     */
+    public long pooledBytes() {
+        return pooledBytes.get();
+    }
+
+    /**
+     * Acquires a cleared, big-endian buffer with at least the given capacity.
+     *
+     * @param minCapacity the minimum capacity required
+     * @return a buffer ready to be written, positioned at 0
+     * @throws IllegalArgumentException if minCapacity is negative
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + minCapacity);
+        }
+        int sizeClass = sizeClassOf(minCapacity);
+        if (sizeClass < 0) {
+            return allocate(minCapacity);
+        }
+
+        ByteBuffer buffer = sizeClasses[sizeClass].poll();
+        if (buffer == null) {
+            return allocate(1 << (sizeClass + MIN_SHIFT));
+        }
+        pooledCounts[sizeClass].decrementAndGet();
+        pooledBytes.addAndGet(-buffer.capacity());
+        buffer.clear();
+        return buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used by the caller afterward.
+     * Buffers that do not belong to a size class of this pool are ignored.
+     *
+     * @param buffer the buffer to release
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.isDirect() != direct || buffer.isReadOnly()) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        int sizeClass = sizeClassOf(capacity);
+        if (sizeClass < 0 || capacity != 1 << (sizeClass + MIN_SHIFT)) {
+            return;
+        }
+        if (pooledCounts[sizeClass].incrementAndGet() > maxPooledPerClass) {
+            pooledCounts[sizeClass].decrementAndGet();
+            return;
+        }
+        if (pooledBytes.addAndGet(capacity) > maxPooledBytes) {
+            pooledBytes.addAndGet(-capacity);
+            pooledCounts[sizeClass].decrementAndGet();
+            return;
+        }
+        sizeClasses[sizeClass].offer(buffer);
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
@@ -0,0 +1,269 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+import com.google.common.io.ByteArrayDataInput;
+
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link ByteArrayDataInput} that reads straight from a heap or direct {@link ByteBuffer}.
+ * It understands the format produced by {@link java.io.DataOutputStream} and {@link ByteBufferDataOutput}
+ * (big-endian primitives and modified UTF-8 for {@link #readUTF()}).
+ *
+ * <p>Reading starts at the current position of the buffer and advances it. Reading past the limit
+ * throws a {@link BufferUnderflowException}.</p>
+ *
+ * <pre>{@code
+ * ByteBufferDataInput in = new ByteBufferDataInput(ByteBuffer.wrap(data));
+ * PacketDataSerializer serializer = new PacketDataSerializer(in);
+ * int value = serializer.readInt();
+ * }</pre>
+ */
+public final class ByteBufferDataInput implements ByteArrayDataInput {
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates an input reading from the given buffer. The byte order of the buffer is set to big-endian.
+     *
+     * @param buffer the buffer to read from
+     */
+    public ByteBufferDataInput(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Creates an input reading from the whole given array, without copying it.
+     *
+     * @param bytes the array to read from
+     */
+    public ByteBufferDataInput(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Returns the number of bytes that can still be read.
+     *
+     * @return the number of remaining bytes
+     */
+    public int remaining() {
+        return buffer.remaining();
+    }
+
+    /**
+     * Returns the buffer this input reads from.
+     *
+     * @return the backing buffer
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    @Override
+    public void readFully(byte[] bytes) {
+        buffer.get(bytes);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) {
+        buffer.get(bytes, offset, length);
+    }
+
+    @Override
+    public int skipBytes(int count) {
+        int skipped = Math.max(0, Math.min(count, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    @Override
+    public byte readByte() {
+        return buffer.get();
+    }
+
+    @Override
+    public int readUnsignedByte() {
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public short readShort() {
+        return buffer.getShort();
+    }
+
+    @Override
+    public int readUnsignedShort() {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() {
+        return buffer.getChar();
+    }
+
+    @Override
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    @Override
+    public long readLong() {
+        return buffer.getLong();
+    }
+
+    @Override
+    public float readFloat() {
+        return buffer.getFloat();
+    }
+
+    @Override
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    /**
+     * Reads a range of short values in bulk, through a {@link java.nio.ShortBuffer} view of the buffer.
+     *
+     * @param values the array to copy into
+     * @param offset the index of the first value to read
+     * @param length the number of values to read
+     * @throws BufferUnderflowException if fewer than length values remain
+     */
+    public void readShorts(short[] values, int offset, int length) {
+        int bytes = Math.multiplyExact(length, Short.BYTES);
+        if (buffer.remaining() < bytes) {
+            throw new BufferUnderflowException();
+        }
+        buffer.asShortBuffer().get(values, offset, length);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Reads a range of int values in bulk, through a {@link java.nio.IntBuffer} view of the buffer.
+     *
+     * @param values the array to copy into
+     * @param offset the index of the first value to read
+     * @param length the number of values to read
+     * @throws BufferUnderflowException if fewer than length values remain
+     */
+    public void readInts(int[] values, int offset, int length) {
+        int bytes = Math.multiplyExact(length, Integer.BYTES);
+        if (buffer.remaining() < bytes) {
+            throw new BufferUnderflowException();
+        }
+        buffer.asIntBuffer().get(values, offset, length);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Reads a range of long values in bulk, through a {@link java.nio.LongBuffer} view of the buffer.
+     *
+     * @param values the array to copy into
+     * @param offset the index of the first value to read
+     * @param length the number of values to read
+     * @throws BufferUnderflowException if fewer than length values remain
+     */
+    public void readLongs(long[] values, int offset, int length) {
+        int bytes = Math.multiplyExact(length, Long.BYTES);
+        if (buffer.remaining() < bytes) {
+            throw new BufferUnderflowException();
+        }
+        buffer.asLongBuffer().get(values, offset, length);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Reads a range of float values in bulk, through a {@link java.nio.FloatBuffer} view of the buffer.
+     *
+     * @param values the array to copy into
+     * @param offset the index of the first value to read
+     * @param length the number of values to read
+     * @throws BufferUnderflowException if fewer than length values remain
+     */
+    public void readFloats(float[] values, int offset, int length) {
+        int bytes = Math.multiplyExact(length, Float.BYTES);
+        if (buffer.remaining() < bytes) {
+            throw new BufferUnderflowException();
+        }
+        buffer.asFloatBuffer().get(values, offset, length);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Reads a range of double values in bulk, through a {@link java.nio.DoubleBuffer} view of the buffer.
+     *
+     * @param values the array to copy into
+     * @param offset the index of the first value to read
+     * @param length the number of values to read
+     * @throws BufferUnderflowException if fewer than length values remain
+     */
+    public void readDoubles(double[] values, int offset, int length) {
+        int bytes = Math.multiplyExact(length, Double.BYTES);
+        if (buffer.remaining() < bytes) {
+            throw new BufferUnderflowException();
+        }
+        buffer.asDoubleBuffer().get(values, offset, length);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    @Nullable
+    @Override
+    public String readLine() {
+        if (!buffer.hasRemaining()) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (buffer.hasRemaining()) {
+            char c = (char) (buffer.get() & 0xFF);
+            if (c == '\n') {
+                break;
+            }
+            if (c == '\r') {
+                if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n') {
+                    buffer.get();
+                }
+                break;
+            }
+            line.append(c);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Reads {@code length} bytes of standard UTF-8 and decodes them into a string.
+     * Heap buffers are decoded in place, without an intermediate copy.
+     *
+     * @param length the number of bytes to decode
+     * @return the decoded string
+     * @throws BufferUnderflowException if fewer than length bytes remain
+     */
+    public String readUtf8(int length) {
+        if (buffer.remaining() < length) {
+            throw new BufferUnderflowException();
+        }
+        return Utf8.decode(buffer, length);
+    }
+
+    /**
+     * Reads a string encoded with the modified UTF-8 format of {@link java.io.DataInput#readUTF()}.
+     *
+     * @return the decoded string
+     * @throws IllegalStateException if the encoded bytes are malformed
+     */
+    @Override
+    public String readUTF() {
+        try {
+            return DataInputStream.readUTF(this);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
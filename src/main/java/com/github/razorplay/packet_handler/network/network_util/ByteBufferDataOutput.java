@@ -0,0 +1,426 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+import com.google.common.io.ByteArrayDataOutput;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link ByteArrayDataOutput} that writes straight into a heap or direct {@link ByteBuffer}.
+ * The produced bytes are identical to the ones written by {@link java.io.DataOutputStream}
+ * (big-endian primitives and modified UTF-8 for {@link #writeUTF(String)}).
+ *
+ * <p>When created through one of the allocating constructors the buffer grows on demand.
+ * When wrapping a caller-provided buffer, writes start at the current position of that buffer
+ * and a {@link BufferOverflowException} is thrown once it is full.</p>
+ *
+ * <p>An output created over a {@link BufferPool} takes its buffers from the pool, returns outgrown
+ * buffers to it, and hands the last one back on {@link #close()}.</p>
+ *
+ * <pre>{@code
+ * ByteBufferDataOutput out = new ByteBufferDataOutput(512, true); // direct, growable
+ * PacketDataSerializer serializer = new PacketDataSerializer(out);
+ * serializer.writeInt(42);
+ * byte[] data = out.toByteArray();
+ * }</pre>
+ */
+public final class ByteBufferDataOutput implements ByteArrayDataOutput, AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private final boolean direct;
+    private final boolean growable;
+    private final int start;
+    private final BufferPool pool;
+    private ByteBuffer buffer;
+
+    /**
+     * Creates a growable output backed by a heap buffer with the default initial capacity.
+     */
+    public ByteBufferDataOutput() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Creates a growable output backed by a newly allocated buffer.
+     *
+     * @param initialCapacity the initial capacity of the buffer, in bytes
+     * @param direct          {@code true} to allocate a direct buffer, {@code false} for a heap buffer
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public ByteBufferDataOutput(int initialCapacity, boolean direct) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Invalid initial capacity: " + initialCapacity);
+        }
+        this.direct = direct;
+        this.growable = true;
+        this.start = 0;
+        this.pool = null;
+        this.buffer = allocate(initialCapacity, direct);
+    }
+
+    /**
+     * Creates a growable output whose buffers are taken from, and returned to, the given pool.
+     * The output must be {@link #close() closed} once its content is no longer needed.
+     *
+     * @param pool            the pool to take buffers from
+     * @param initialCapacity the minimum initial capacity of the buffer, in bytes
+     */
+    public ByteBufferDataOutput(BufferPool pool, int initialCapacity) {
+        this.direct = pool.isDirect();
+        this.growable = true;
+        this.start = 0;
+        this.pool = pool;
+        this.buffer = pool.acquire(initialCapacity);
+    }
+
+    /**
+     * Creates a fixed-size output that writes into the given buffer, starting at its current position.
+     * The position of the buffer is advanced as data is written and its byte order is set to big-endian.
+     *
+     * @param target the buffer to write into
+     */
+    public ByteBufferDataOutput(ByteBuffer target) {
+        this.direct = target.isDirect();
+        this.growable = false;
+        this.start = target.position();
+        this.pool = null;
+        this.buffer = target.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean direct) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * Makes sure at least {@code bytes} more bytes can be written, growing the buffer if allowed.
+     *
+     * @param bytes the number of bytes about to be written
+     * @throws BufferOverflowException if the buffer is fixed-size and has not enough space left
+     */
+    public void ensureWritable(int bytes) {
+        if (buffer.remaining() < bytes) {
+            grow(bytes);
+        }
+    }
+
+    private void grow(int bytes) {
+        if (!growable) {
+            throw new BufferOverflowException();
+        }
+        int required = buffer.position() + bytes;
+        if (required < 0) {
+            throw new OutOfMemoryError("Required buffer size is too large");
+        }
+        int newCapacity = Math.max(required, buffer.capacity() << 1);
+        if (newCapacity < 0) {
+            newCapacity = Integer.MAX_VALUE;
+        }
+        ByteBuffer grown = pool != null ? pool.acquire(newCapacity) : allocate(newCapacity, direct);
+        buffer.flip();
+        grown.put(buffer);
+        if (pool != null) {
+            pool.release(buffer);
+        }
+        buffer = grown;
+    }
+
+    /**
+     * Returns the number of bytes written so far.
+     *
+     * @return the number of bytes written
+     */
+    public int size() {
+        return buffer.position() - start;
+    }
+
+    /**
+     * Returns the buffer currently backing this output. The written data spans from the
+     * position the output started at up to the buffer's current position.
+     * Note that a growable output replaces its buffer when it grows.
+     *
+     * @return the backing buffer
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Discards everything written so far, keeping the allocated buffer for reuse.
+     */
+    public void reset() {
+        buffer.position(start);
+    }
+
+    @Override
+    public void write(int value) {
+        ensureWritable(1);
+        buffer.put((byte) value);
+    }
+
+    @Override
+    public void write(byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        ensureWritable(length);
+        buffer.put(bytes, offset, length);
+    }
+
+    /**
+     * Writes the remaining bytes of the given buffer, advancing its position.
+     *
+     * @param source the buffer to copy from
+     */
+    public void write(ByteBuffer source) {
+        ensureWritable(source.remaining());
+        buffer.put(source);
+    }
+
+    @Override
+    public void writeBoolean(boolean value) {
+        ensureWritable(1);
+        buffer.put(value ? (byte) 1 : (byte) 0);
+    }
+
+    @Override
+    public void writeByte(int value) {
+        ensureWritable(1);
+        buffer.put((byte) value);
+    }
+
+    @Override
+    public void writeShort(int value) {
+        ensureWritable(Short.BYTES);
+        buffer.putShort((short) value);
+    }
+
+    @Override
+    public void writeChar(int value) {
+        ensureWritable(Character.BYTES);
+        buffer.putChar((char) value);
+    }
+
+    @Override
+    public void writeInt(int value) {
+        ensureWritable(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    @Override
+    public void writeLong(long value) {
+        ensureWritable(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    @Override
+    public void writeFloat(float value) {
+        ensureWritable(Float.BYTES);
+        buffer.putFloat(value);
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        ensureWritable(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Writes an int as a variable-length integer (7 bits per byte, least significant group first).
+     *
+     * @param value the value to write
+     */
+    public void writeVarInt(int value) {
+        ensureWritable(PacketWriter.varIntSize(value));
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes a long as a variable-length integer (7 bits per byte, least significant group first).
+     *
+     * @param value the value to write
+     */
+    public void writeVarLong(long value) {
+        ensureWritable(PacketWriter.varLongSize(value));
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes a range of short values in bulk, through a {@link java.nio.ShortBuffer} view of the buffer.
+     *
+     * @param values the array to copy from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     */
+    public void writeShorts(short[] values, int offset, int length) {
+        int bytes = Math.multiplyExact(length, Short.BYTES);
+        ensureWritable(bytes);
+        buffer.asShortBuffer().put(values, offset, length);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Writes a range of int values in bulk, through a {@link java.nio.IntBuffer} view of the buffer.
+     *
+     * @param values the array to copy from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     */
+    public void writeInts(int[] values, int offset, int length) {
+        int bytes = Math.multiplyExact(length, Integer.BYTES);
+        ensureWritable(bytes);
+        buffer.asIntBuffer().put(values, offset, length);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Writes a range of long values in bulk, through a {@link java.nio.LongBuffer} view of the buffer.
+     *
+     * @param values the array to copy from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     */
+    public void writeLongs(long[] values, int offset, int length) {
+        int bytes = Math.multiplyExact(length, Long.BYTES);
+        ensureWritable(bytes);
+        buffer.asLongBuffer().put(values, offset, length);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Writes a range of float values in bulk, through a {@link java.nio.FloatBuffer} view of the buffer.
+     *
+     * @param values the array to copy from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     */
+    public void writeFloats(float[] values, int offset, int length) {
+        int bytes = Math.multiplyExact(length, Float.BYTES);
+        ensureWritable(bytes);
+        buffer.asFloatBuffer().put(values, offset, length);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    /**
+     * Writes a range of double values in bulk, through a {@link java.nio.DoubleBuffer} view of the buffer.
+     *
+     * @param values the array to copy from
+     * @param offset the index of the first value to write
+     * @param length the number of values to write
+     */
+    public void writeDoubles(double[] values, int offset, int length) {
+        int bytes = Math.multiplyExact(length, Double.BYTES);
+        ensureWritable(bytes);
+        buffer.asDoubleBuffer().put(values, offset, length);
+        buffer.position(buffer.position() + bytes);
+    }
+
+    @Override
+    public void writeChars(String value) {
+        int length = value.length();
+        ensureWritable(length * Character.BYTES);
+        for (int i = 0; i < length; i++) {
+            buffer.putChar(value.charAt(i));
+        }
+    }
+
+    @Deprecated
+    @Override
+    public void writeBytes(String value) {
+        int length = value.length();
+        ensureWritable(length);
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    /**
+     * Writes a string using the modified UTF-8 encoding of {@link java.io.DataOutput#writeUTF(String)}.
+     *
+     * @param value the string to write
+     * @throws IllegalArgumentException if the encoded string is longer than 65535 bytes
+     */
+    @Override
+    public void writeUTF(String value) {
+        int length = value.length();
+        int utfLength = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                utfLength++;
+            } else if (c > 0x07FF) {
+                utfLength += 3;
+            } else {
+                utfLength += 2;
+            }
+        }
+        if (utfLength > 0xFFFF) {
+            throw new IllegalArgumentException("Encoded string too long: " + utfLength + " bytes");
+        }
+
+        ensureWritable(Short.BYTES + utfLength);
+        buffer.putShort((short) utfLength);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buffer.put((byte) c);
+            } else if (c > 0x07FF) {
+                buffer.put((byte) (0xE0 | ((c >> 12) & 0x0F)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else {
+                buffer.put((byte) (0xC0 | ((c >> 6) & 0x1F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Writes the standard UTF-8 bytes of a string, without any length prefix, encoding them straight
+     * into the buffer. The bytes are identical to {@code value.getBytes(StandardCharsets.UTF_8)}.
+     *
+     * @param value         the string to write
+     * @param encodedLength the UTF-8 length of the string, as returned by {@link Utf8#encodedLength(String)}
+     */
+    public void writeUtf8(String value, int encodedLength) {
+        ensureWritable(encodedLength);
+        Utf8.encode(value, encodedLength, buffer);
+    }
+
+    /**
+     * Copies the written bytes into a new array.
+     *
+     * @return a byte array containing everything written so far
+     */
+    @Override
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[size()];
+        ByteBuffer view = buffer.duplicate();
+        view.flip();
+        view.position(start);
+        view.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns the current buffer to the pool this output was created with. Nothing happens for
+     * outputs that are not pooled. The output, and any view of its buffer, must not be used afterward.
+     */
+    @Override
+    public void close() {
+        if (pool != null && buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+}
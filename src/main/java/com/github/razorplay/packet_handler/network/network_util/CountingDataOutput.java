@@ -0,0 +1,136 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+import java.io.DataOutput;
+
+/**
+ * A {@link DataOutput} that discards everything written to it and only counts the bytes,
+ * so that the exact encoded size of some data can be computed without producing it.
+ * The count matches the number of bytes {@link ByteBufferDataOutput} or {@link java.io.DataOutputStream}
+ * would have written.
+ *
+ * <pre>{@code
+ * CountingDataOutput counter = new CountingDataOutput();
+ * packet.write(new PacketDataSerializer(counter));
+ * int size = counter.size();
+ * }</pre>
+ */
+public final class CountingDataOutput implements DataOutput {
+    private long size;
+
+    /**
+     * Returns the number of bytes counted so far.
+     *
+     * @return the number of bytes written
+     * @throws ArithmeticException if the count does not fit in an int
+     */
+    public int size() {
+        return Math.toIntExact(size);
+    }
+
+    /**
+     * Counts the given number of bytes as written, without providing them.
+     *
+     * @param bytes the number of bytes to count
+     */
+    public void skip(int bytes) {
+        size += bytes;
+    }
+
+    /**
+     * Resets the count to zero.
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    @Override
+    public void write(int value) {
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes) {
+        size += bytes.length;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        size += length;
+    }
+
+    @Override
+    public void writeBoolean(boolean value) {
+        size++;
+    }
+
+    @Override
+    public void writeByte(int value) {
+        size++;
+    }
+
+    @Override
+    public void writeShort(int value) {
+        size += Short.BYTES;
+    }
+
+    @Override
+    public void writeChar(int value) {
+        size += Character.BYTES;
+    }
+
+    @Override
+    public void writeInt(int value) {
+        size += Integer.BYTES;
+    }
+
+    @Override
+    public void writeLong(long value) {
+        size += Long.BYTES;
+    }
+
+    @Override
+    public void writeFloat(float value) {
+        size += Float.BYTES;
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        size += Double.BYTES;
+    }
+
+    @Override
+    public void writeBytes(String value) {
+        size += value.length();
+    }
+
+    @Override
+    public void writeChars(String value) {
+        size += (long) value.length() * Character.BYTES;
+    }
+
+    /**
+     * Counts a string encoded with the modified UTF-8 format of {@link DataOutput#writeUTF(String)}.
+     *
+     * @param value the string to count
+     * @throws IllegalArgumentException if the encoded string is longer than 65535 bytes
+     */
+    @Override
+    public void writeUTF(String value) {
+        int length = value.length();
+        int utfLength = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                utfLength++;
+            } else if (c > 0x07FF) {
+                utfLength += 3;
+            } else {
+                utfLength += 2;
+            }
+        }
+        if (utfLength > 0xFFFF) {
+            throw new IllegalArgumentException("Encoded string too long: " + utfLength + " bytes");
+        }
+        size += Short.BYTES + utfLength;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+/**
+ * Defines how {@link PacketDataSerializer#writeDeltaLongArray(long[], DeltaEncoding)} and the related methods
+ * encode a sequence of integers. Every encoded value is a ZigZag VarInt or VarLong, so the smaller the
+ * encoded values, the fewer bytes they take.
+ */
+public enum DeltaEncoding {
+
+    /**
+     * The first value, then the difference between each value and the previous one.
+     * Best for sorted values with small gaps, such as entity IDs.
+     */
+    DELTA,
+
+    /**
+     * The first value, the first difference, then the change between consecutive differences.
+     * Best for values growing at a steady rate, such as timestamps or tick counters, which encode to
+     * runs of zeros taking one byte each.
+     */
+    DELTA_OF_DELTA
+}
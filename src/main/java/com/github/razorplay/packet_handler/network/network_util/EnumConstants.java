@@ -0,0 +1,24 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+/**
+ * Caches the constants of enum classes, since {@link Class#getEnumConstants()} clones the array on every call.
+ */
+final class EnumConstants {
+    private static final ClassValue<Object[]> CONSTANTS = new ClassValue<Object[]>() {
+        @Override
+        protected Object[] computeValue(Class<?> type) {
+            return type.getEnumConstants();
+        }
+    };
+
+    private EnumConstants() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Returns the constants of an enum class, in declaration order. The array must not be modified.
+     */
+    static Object[] get(Class<?> enumClass) {
+        return CONSTANTS.get(enumClass);
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+/**
+ * Utility class converting between {@code float} values and IEEE 754 half-precision (binary16) values,
+ * stored in the low 16 bits of a {@code short}.
+ *
+ * <p>Half-precision floats have 11 significant bits (about 3 decimal digits) and cover magnitudes up to 65504.
+ * Larger values become infinities, and values below 2<sup>-24</sup> become zero.</p>
+ */
+public final class Float16 {
+
+    private Float16() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Converts a float to the nearest half-precision value, rounding ties to even.
+     *
+     * @param value the value to convert
+     * @return the half-precision bits
+     */
+    public static short fromFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int exponent = (bits >>> 23) & 0xFF;
+        int mantissa = bits & 0x7FFFFF;
+
+        if (exponent == 0xFF) {
+            // Infinity stays infinity, NaN stays a quiet NaN
+            return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));
+        }
+        int halfExponent = exponent - 127 + 15;
+        if (halfExponent >= 0x1F) {
+            return (short) (sign | 0x7C00);
+        }
+        if (halfExponent <= 0) {
+            if (halfExponent < -10) {
+                return (short) sign;
+            }
+            // Subnormal half: shift the mantissa, with its implicit bit, into place
+            return (short) (sign | roundShift(mantissa | 0x800000, 14 - halfExponent));
+        }
+        // A carry out of the mantissa correctly bumps the exponent, up to infinity
+        return (short) (sign | ((halfExponent << 10) + roundShift(mantissa, 13)));
+    }
+
+    /**
+     * Converts half-precision bits to a float. The conversion is exact.
+     *
+     * @param half the half-precision bits
+     * @return the float value
+     */
+    public static float toFloat(short half) {
+        int bits = half & 0xFFFF;
+        int sign = (bits & 0x8000) << 16;
+        int exponent = (bits >>> 10) & 0x1F;
+        int mantissa = bits & 0x3FF;
+
+        if (exponent == 0x1F) {
+            return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+        }
+        if (exponent == 0) {
+            // Zero or subnormal: mantissa * 2^-24
+            float magnitude = mantissa * 0x1p-24f;
+            return sign != 0 ? -magnitude : magnitude;
+        }
+        return Float.intBitsToFloat(sign | ((exponent + 127 - 15) << 23) | (mantissa << 13));
+    }
+
+    private static int roundShift(int value, int shift) {
+        int result = value >>> shift;
+        int remainder = value & ((1 << shift) - 1);
+        int halfway = 1 << (shift - 1);
+        if (remainder > halfway || (remainder == halfway && (result & 1) != 0)) {
+            result++;
+        }
+        return result;
+    }
+}
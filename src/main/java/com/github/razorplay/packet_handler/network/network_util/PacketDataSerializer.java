@@ -1,42 +1,167 @@
 package com.github.razorplay.packet_handler.network.network_util;
 
 import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.reflection.util.InstanceFactory;
+import com.github.razorplay.packet_handler.util.collection.IntList;
+import com.github.razorplay.packet_handler.util.collection.IntSet;
+import com.github.razorplay.packet_handler.util.collection.LongList;
+import com.github.razorplay.packet_handler.util.collection.LongObjectMap;
+import lombok.Getter;
 
 import java.io.DataInput;
 import java.io.DataOutput;
-import java.io.EOFException;
-import java.io.IOException;
-import java.lang.reflect.Constructor;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.BiConsumer;
 
 /**
  * Utility class for advanced serialization and deserialization of complex data types,
  * including all primitive types, collections, maps, and custom serializable objects.
+ *
+ * <p>Any {@link DataOutput}/{@link DataInput} can be used as the underlying engine. When the serializer is
+ * built over a {@link ByteBufferDataOutput} or {@link ByteBufferDataInput}, primitives are written to and read
+ * from the {@link java.nio.ByteBuffer} directly. Both engines produce the same wire format.</p>
+ *
+ * <p>The {@link WireProfile} chosen at construction decides how length prefixes of strings, byte arrays
+ * and collections are encoded; both sides must agree on it. An optional {@link StringTable} replaces
+ * repeated strings with short references.</p>
+ *
+ * <p>Over a {@link CountingDataOutput} nothing is produced and only the encoded size is computed.</p>
+ *
+ * <p>When reading, every length prefix is checked against the {@link ReadLimits} of the serializer before
+ * anything is allocated, and collections start no larger than the remaining input, growing as elements
+ * are actually read.</p>
+ *
+ * <p>A serializer is either in writing or in reading mode, and delegates every call to a {@link PacketWriter}
+ * or a {@link PacketReader}. Code encoding or decoding in a hot loop can fetch them once with {@link #writer()}
+ * and {@link #reader()} and call them directly.</p>
  */
 public class PacketDataSerializer {
     private static final String NOT_WRITING_ERROR = "Not in writing mode";
     private static final String NOT_READING_ERROR = "Not in reading mode";
-    private final DataOutput output;
-    private final DataInput input;
+    private final PacketWriter writer;
+    private final PacketReader reader;
+    @Getter
+    private final WireProfile wireProfile;
 
     public PacketDataSerializer(DataOutput output) {
-        this.output = output;
-        this.input = null;
+        this(output, WireProfile.FIXED);
+    }
+
+    public PacketDataSerializer(DataOutput output, WireProfile wireProfile) {
+        this(new PacketWriter(output, wireProfile));
     }
 
     public PacketDataSerializer(DataInput input) {
-        this.input = input;
-        this.output = null;
+        this(input, WireProfile.FIXED);
     }
 
-    private boolean isNotWriting() {
-        return output == null;
+    public PacketDataSerializer(DataInput input, WireProfile wireProfile) {
+        this(new PacketReader(input, wireProfile));
     }
 
-    private boolean isNotReading() {
-        return input == null;
+    /**
+     * Creates a serializer in writing mode, delegating to the given writer.
+     *
+     * @param writer The writer to delegate to
+     */
+    public PacketDataSerializer(PacketWriter writer) {
+        this.writer = Objects.requireNonNull(writer, "Writer cannot be null");
+        this.reader = null;
+        this.wireProfile = writer.getWireProfile();
+    }
+
+    /**
+     * Creates a serializer in reading mode, delegating to the given reader.
+     *
+     * @param reader The reader to delegate to
+     */
+    public PacketDataSerializer(PacketReader reader) {
+        this.reader = Objects.requireNonNull(reader, "Reader cannot be null");
+        this.writer = null;
+        this.wireProfile = reader.getWireProfile();
+    }
+
+    /**
+     * Returns the writer this serializer delegates to. Hot encoding loops can use it directly to avoid
+     * the mode check of every call.
+     *
+     * @return The writer
+     * @throws IllegalStateException if not in writing mode
+     */
+    public PacketWriter writer() {
+        if (writer == null) throw new IllegalStateException(NOT_WRITING_ERROR);
+        return writer;
+    }
+
+    /**
+     * Returns the reader this serializer delegates to. Hot decoding loops can use it directly to avoid
+     * the mode check of every call.
+     *
+     * @return The reader
+     * @throws IllegalStateException if not in reading mode
+     */
+    public PacketReader reader() {
+        if (reader == null) throw new IllegalStateException(NOT_READING_ERROR);
+        return reader;
+    }
+
+    /**
+     * Returns the string table used to deduplicate strings, if any.
+     *
+     * @return The string table, or {@code null} if strings are always written as literals
+     */
+    public StringTable getStringTable() {
+        return writer != null ? writer.getStringTable() : reader.getStringTable();
+    }
+
+    /**
+     * Enables or disables string deduplication. With a table set, {@link #writeString(String)} and
+     * {@link #readString()} prefix every string with a VarInt tag: {@code 0} is followed by a literal
+     * string, while {@code n > 0} refers to the string stored in slot {@code n - 1} of the table.
+     * Both sides must use tables with the same bounds and feed them the same sequence of strings.
+     *
+     * @param stringTable The string table to use, or {@code null} to write plain literals
+     */
+    public void setStringTable(StringTable stringTable) {
+        if (writer != null) {
+            writer.setStringTable(stringTable);
+        } else {
+            reader.setStringTable(stringTable);
+        }
+    }
+
+    /**
+     * Returns the limits checked while reading.
+     *
+     * @return The read limits, {@link ReadLimits#UNLIMITED} by default or when in writing mode
+     */
+    public ReadLimits getReadLimits() {
+        return reader != null ? reader.getReadLimits() : ReadLimits.UNLIMITED;
+    }
+
+    /**
+     * Sets the limits checked while reading. The allocation budget covers everything read by this serializer
+     * from now on.
+     *
+     * @param readLimits The read limits to apply
+     * @throws IllegalStateException if not in reading mode
+     */
+    public void setReadLimits(ReadLimits readLimits) {
+        reader().setReadLimits(readLimits);
+    }
+
+    /**
+     * Charges the allocation of {@code count} elements of {@code elementSize} bytes against the read limits.
+     * Readers of custom structures should call this before allocating anything sized by a length read from the input.
+     *
+     * @param count       The number of elements about to be allocated
+     * @param elementSize The estimated size of one element, in bytes
+     * @param description What is being read, for the error message
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if the count or the total allocation exceeds the read limits
+     */
+    public void checkAllocation(long count, int elementSize, String description) throws PacketSerializationException {
+        reader().checkAllocation(count, elementSize, description);
     }
 
     /**
@@ -46,12 +171,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if not in writing mode
      */
     public void writeByte(byte value) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        try {
-            output.writeByte(value);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().writeByte(value);
     }
 
     /**
@@ -62,15 +182,7 @@ public class PacketDataSerializer {
      * @throws PacketSerializationException if an error occurs during reading
      */
     public byte readByte() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        try {
-            return input.readByte();
-        } catch (Exception e) {
-            if (e instanceof EOFException) {
-                throw new PacketSerializationException("Unexpected end of input while reading byte", e);
-            }
-            throw new PacketSerializationException("Error reading byte", e);
-        }
+        return reader().readByte();
     }
 
     /**
@@ -80,12 +192,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if not in writing mode
      */
     public void writeShort(short value) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        try {
-            output.writeShort(value);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().writeShort(value);
     }
 
     /**
@@ -96,15 +203,7 @@ public class PacketDataSerializer {
      * @throws PacketSerializationException if an error occurs during reading
      */
     public short readShort() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        try {
-            return input.readShort();
-        } catch (Exception e) {
-            if (e instanceof EOFException) {
-                throw new PacketSerializationException("Unexpected end of input while reading short", e);
-            }
-            throw new PacketSerializationException("Error reading short", e);
-        }
+        return reader().readShort();
     }
 
     /**
@@ -114,12 +213,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if not in writing mode
      */
     public void writeInt(int value) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        try {
-            output.writeInt(value);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().writeInt(value);
     }
 
     /**
@@ -130,15 +224,7 @@ public class PacketDataSerializer {
      * @throws PacketSerializationException if an error occurs during reading
      */
     public int readInt() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        try {
-            return input.readInt();
-        } catch (Exception e) {
-            if (e instanceof EOFException) {
-                throw new PacketSerializationException("Unexpected end of input while reading int", e);
-            }
-            throw new PacketSerializationException("Error reading int", e);
-        }
+        return reader().readInt();
     }
 
     /**
@@ -148,12 +234,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if not in writing mode
      */
     public void writeLong(long value) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        try {
-            output.writeLong(value);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().writeLong(value);
     }
 
     /**
@@ -164,15 +245,7 @@ public class PacketDataSerializer {
      * @throws PacketSerializationException if an error occurs during reading
      */
     public long readLong() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        try {
-            return input.readLong();
-        } catch (Exception e) {
-            if (e instanceof EOFException) {
-                throw new PacketSerializationException("Unexpected end of input while reading long", e);
-            }
-            throw new PacketSerializationException("Error reading long", e);
-        }
+        return reader().readLong();
     }
 
     /**
@@ -182,12 +255,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if not in writing mode
      */
     public void writeFloat(float value) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        try {
-            output.writeFloat(value);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().writeFloat(value);
     }
 
     /**
@@ -198,15 +266,7 @@ public class PacketDataSerializer {
      * @throws PacketSerializationException if an error occurs during reading
      */
     public float readFloat() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        try {
-            return input.readFloat();
-        } catch (Exception e) {
-            if (e instanceof EOFException) {
-                throw new PacketSerializationException("Unexpected end of input while reading float", e);
-            }
-            throw new PacketSerializationException("Error reading float", e);
-        }
+        return reader().readFloat();
     }
 
     /**
@@ -216,12 +276,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if not in writing mode
      */
     public void writeDouble(double value) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        try {
-            output.writeDouble(value);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().writeDouble(value);
     }
 
     /**
@@ -232,15 +287,7 @@ public class PacketDataSerializer {
      * @throws PacketSerializationException if an error occurs during reading
      */
     public double readDouble() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        try {
-            return input.readDouble();
-        } catch (Exception e) {
-            if (e instanceof EOFException) {
-                throw new PacketSerializationException("Unexpected end of input while reading double", e);
-            }
-            throw new PacketSerializationException("Error reading double", e);
-        }
+        return reader().readDouble();
     }
 
     /**
@@ -250,12 +297,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if not in writing mode
      */
     public void writeChar(char value) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        try {
-            output.writeChar(value);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().writeChar(value);
     }
 
     /**
@@ -266,15 +308,7 @@ public class PacketDataSerializer {
      * @throws PacketSerializationException if an error occurs during reading
      */
     public char readChar() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        try {
-            return input.readChar();
-        } catch (Exception e) {
-            if (e instanceof EOFException) {
-                throw new PacketSerializationException("Unexpected end of input while reading char", e);
-            }
-            throw new PacketSerializationException("Error reading char", e);
-        }
+        return reader().readChar();
     }
 
     /**
@@ -284,12 +318,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if not in writing mode
      */
     public void writeBoolean(boolean value) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        try {
-            output.writeBoolean(value);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().writeBoolean(value);
     }
 
     /**
@@ -300,34 +329,241 @@ public class PacketDataSerializer {
      * @throws PacketSerializationException if an error occurs during reading
      */
     public boolean readBoolean() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        try {
-            return input.readBoolean();
-        } catch (Exception e) {
-            if (e instanceof EOFException) {
-                throw new PacketSerializationException("Unexpected end of input while reading boolean", e);
-            }
-            throw new PacketSerializationException("Error reading boolean", e);
-        }
+        return reader().readBoolean();
+    }
+
+    /**
+     * Starts a block of bit-packed values, such as flags or small counters, written to this serializer.
+     * The returned {@link BitWriter} must be flushed before anything else is written.
+     *
+     * @return A new bit writer
+     * @throws IllegalStateException if not in writing mode
+     */
+    public BitWriter bitWriter() {
+        return writer().bitWriter();
+    }
+
+    /**
+     * Starts reading a block of bit-packed values written by a {@link BitWriter}.
+     *
+     * @return A new bit reader
+     * @throws IllegalStateException if not in reading mode
+     */
+    public BitReader bitReader() {
+        return reader().bitReader();
+    }
+
+    /**
+     * Writes an int as a variable-length integer: 7 bits per byte, least significant group first,
+     * with the high bit of each byte set when more bytes follow. Values below 128 take a single byte,
+     * negative values always take 5 bytes (use {@link #writeZigZagVarInt(int)} for signed values).
+     *
+     * @param value The int value to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeVarInt(int value) {
+        writer().writeVarInt(value);
+    }
+
+    /**
+     * Returns the number of bytes {@link #writeVarInt(int)} uses to encode a value.
+     *
+     * @param value The value to encode
+     * @return the encoded size, from 1 to 5 bytes
+     */
+    public static int varIntSize(int value) {
+        return PacketWriter.varIntSize(value);
+    }
+
+    /**
+     * Returns the number of bytes {@link #writeVarLong(long)} uses to encode a value.
+     *
+     * @param value The value to encode
+     * @return the encoded size, from 1 to 10 bytes
+     */
+    public static int varLongSize(long value) {
+        return PacketWriter.varLongSize(value);
+    }
+
+    /**
+     * Reads a variable-length int written by {@link #writeVarInt(int)}.
+     *
+     * @return The int value read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if the input ends early or the value is longer than 5 bytes
+     */
+    public int readVarInt() throws PacketSerializationException {
+        return reader().readVarInt();
+    }
+
+    /**
+     * Writes a long as a variable-length integer, using the same layout as {@link #writeVarInt(int)}.
+     * Values below 128 take a single byte, negative values always take 10 bytes.
+     *
+     * @param value The long value to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeVarLong(long value) {
+        writer().writeVarLong(value);
+    }
+
+    /**
+     * Reads a variable-length long written by {@link #writeVarLong(long)}.
+     *
+     * @return The long value read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if the input ends early or the value is longer than 10 bytes
+     */
+    public long readVarLong() throws PacketSerializationException {
+        return reader().readVarLong();
+    }
+
+    /**
+     * Writes a signed int as a ZigZag-encoded variable-length integer, so that values close to zero
+     * (positive or negative) take few bytes: 0 → 0, -1 → 1, 1 → 2, -2 → 3, ...
+     *
+     * @param value The int value to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeZigZagVarInt(int value) {
+        writer().writeZigZagVarInt(value);
+    }
+
+    /**
+     * Reads a signed int written by {@link #writeZigZagVarInt(int)}.
+     *
+     * @return The int value read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public int readZigZagVarInt() throws PacketSerializationException {
+        return reader().readZigZagVarInt();
+    }
+
+    /**
+     * Writes a signed long as a ZigZag-encoded variable-length integer.
+     *
+     * @param value The long value to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeZigZagVarLong(long value) {
+        writer().writeZigZagVarLong(value);
+    }
+
+    /**
+     * Reads a signed long written by {@link #writeZigZagVarLong(long)}.
+     *
+     * @return The long value read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public long readZigZagVarLong() throws PacketSerializationException {
+        return reader().readZigZagVarLong();
+    }
+
+    /**
+     * Writes a decimal value as a fixed-point number: {@code Math.round(value * scale)} is written as a ZigZag VarLong.
+     * With a scale of 4096, a coordinate keeps a precision of 1/4096 and a small value such as a velocity
+     * takes 2 or 3 bytes. Values beyond the range of a long after scaling are clamped, and NaN becomes zero.
+     *
+     * @param value The value to write
+     * @param scale The number of steps per unit, which must be the same when reading
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeFixedPoint(double value, double scale) {
+        writer().writeFixedPoint(value, scale);
+    }
+
+    /**
+     * Reads a fixed-point number written by {@link #writeFixedPoint(double, double)}.
+     *
+     * @param scale The number of steps per unit used when writing
+     * @return The value read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public double readFixedPoint(double scale) throws PacketSerializationException {
+        return reader().readFixedPoint(scale);
+    }
+
+    /**
+     * Writes a float as an IEEE 754 half-precision value, in 2 bytes. About 3 significant decimal digits are kept,
+     * and magnitudes above 65504 become infinite, see {@link Float16}.
+     *
+     * @param value The value to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeHalfFloat(float value) {
+        writer().writeHalfFloat(value);
+    }
+
+    /**
+     * Reads a half-precision float written by {@link #writeHalfFloat(float)}.
+     *
+     * @return The value read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public float readHalfFloat() throws PacketSerializationException {
+        return reader().readHalfFloat();
+    }
+
+    /**
+     * Writes an angle in degrees as a single byte, in steps of 360/256 degrees. Any angle is accepted
+     * and wrapped around a full turn.
+     *
+     * @param degrees The angle to write, in degrees
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeAngle(float degrees) {
+        writer().writeAngle(degrees);
+    }
+
+    /**
+     * Reads an angle written by {@link #writeAngle(float)}, normalized to [-180, 180) degrees.
+     *
+     * @return The angle read, in degrees
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public float readAngle() throws PacketSerializationException {
+        return reader().readAngle();
+    }
+
+    /**
+     * Writes a size or count prefix using the encoding of the {@link WireProfile} of this serializer:
+     * a fixed 4-byte int for {@link WireProfile#FIXED}, a VarInt for {@link WireProfile#COMPACT}.
+     *
+     * @param length The non-negative length to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeLength(int length) {
+        writer().writeLength(length);
+    }
+
+    /**
+     * Reads a size or count prefix written by {@link #writeLength(int)}.
+     *
+     * @return The length read, which may be negative if the data is corrupted
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public int readLength() throws PacketSerializationException {
+        return reader().readLength();
     }
 
     /**
      * Writes a String value to the output buffer.
-     * The length of the string's UTF-8 encoded bytes is written as an integer,
-     * followed by the raw bytes of the string.
+     * The length of the string's UTF-8 encoded bytes is written as a length prefix,
+     * followed by the raw bytes of the string. With a {@link ByteBufferDataOutput} engine the
+     * bytes are encoded straight into the buffer, without an intermediate array.
+     * If a {@link StringTable} is set, strings already in the table are written as a slot reference instead.
      *
      * @param value The String value to write
      * @throws IllegalStateException if not in writing mode
      */
     public void writeString(String value) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
-        writeInt(bytes.length);
-        try {
-            output.write(bytes);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().writeString(value);
     }
 
     /**
@@ -338,21 +574,7 @@ public class PacketDataSerializer {
      * @throws PacketSerializationException if an error occurs during reading
      */
     public String readString() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        int length = readInt();
-        if (length < 0) {
-            throw new PacketSerializationException("Invalid string length: " + length);
-        }
-        byte[] bytes = new byte[length];
-        try {
-            input.readFully(bytes);
-        } catch (Exception e) {
-            if (e instanceof EOFException) {
-                throw new PacketSerializationException("Unexpected end of input while reading string", e);
-            }
-            throw new PacketSerializationException("Error reading string", e);
-        }
-        return new String(bytes, StandardCharsets.UTF_8);
+        return reader().readString();
     }
 
     /**
@@ -363,8 +585,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in writing mode
      */
     public <T extends Enum<T>> void writeEnum(T enumValue) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        writeString(enumValue != null ? enumValue.name() : "null");
+        writer().writeEnum(enumValue);
     }
 
     /**
@@ -377,22 +598,66 @@ public class PacketDataSerializer {
      * @throws IllegalArgumentException if the enum name is invalid for the provided enum class
      */
     public <T extends Enum<T>> T readEnum(Class<T> enumClass) throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        String name = readString();
-        if ("null".equals(name)) {
-            return null; // Maneja el caso de null
-        }
-        try {
-            return Enum.valueOf(enumClass, name);
-        } catch (IllegalArgumentException e) {
-            throw new PacketSerializationException("Invalid enum value '" + name + "' for " + enumClass.getSimpleName(), e);
-        }
+        return reader().readEnum(enumClass);
     }
 
+    /**
+     * Writes an enum value as a VarInt holding its ordinal plus one, {@code 0} being {@code null}.
+     * Most enums take a single byte. Both sides must declare the enum constants in the same order,
+     * which can be checked with {@link com.github.razorplay.packet_handler.network.reflection.util.SchemaFingerprint}.
+     *
+     * @param enumValue The enum value to write, may be null
+     * @param <T>       The type of the enum
+     * @throws IllegalStateException if not in writing mode
+     */
+    public <T extends Enum<T>> void writeEnumOrdinal(T enumValue) {
+        writer().writeEnumOrdinal(enumValue);
+    }
+
+    /**
+     * Reads an enum value written by {@link #writeEnumOrdinal(Enum)}.
+     *
+     * @param enumClass The class of the enum
+     * @param <T>       The type of the enum
+     * @return The enum value read, or null
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if the ordinal is out of range or an error occurs during reading
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Enum<T>> T readEnumOrdinal(Class<T> enumClass) throws PacketSerializationException {
+        return reader().readEnumOrdinal(enumClass);
+    }
+
+    /**
+     * Writes a set of enum values as a bitmask indexed by ordinal. Enums with up to 64 constants use a
+     * single VarLong; larger enums write the number of 64-bit words followed by each word as a VarLong.
+     *
+     * @param values    The set to write
+     * @param enumClass The class of the enum
+     * @param <T>       The type of the enum
+     * @throws IllegalStateException if not in writing mode
+     */
+    public <T extends Enum<T>> void writeEnumSet(Set<T> values, Class<T> enumClass) {
+        writer().writeEnumSet(values, enumClass);
+    }
+
+    /**
+     * Reads a set of enum values written by {@link #writeEnumSet(Set, Class)}.
+     *
+     * @param enumClass The class of the enum
+     * @param <T>       The type of the enum
+     * @return A new {@link EnumSet} with the values read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if the bitmask refers to unknown constants or an error occurs during reading
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Enum<T>> EnumSet<T> readEnumSet(Class<T> enumClass) throws PacketSerializationException {
+        return reader().readEnumSet(enumClass);
+    }
 
     /**
      * Writes a list to the output buffer using the provided element writer.
-     * The size of the list is written first as an integer, followed by each element
+     * The size of the list is written first as a length prefix, followed by each element
      * serialized using the provided {@code elementWriter}.
      * <p>
      * Example usage:
@@ -407,16 +672,12 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in writing mode
      */
     public <T> void writeList(List<T> list, BiConsumer<PacketDataSerializer, T> elementWriter) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        writeInt(list.size());
-        for (T element : list) {
-            elementWriter.accept(this, element);
-        }
+        writer().writeList(list, (ignored, element) -> elementWriter.accept(this, element));
     }
 
     /**
      * Reads a list from the input buffer using the provided element reader.
-     * The size of the list is read first as an integer, followed by each element
+     * The size of the list is read first as a length prefix, followed by each element
      * deserialized using the provided {@code elementReader}.
      * <p>
      * Example usage:
@@ -431,22 +692,12 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in reading mode
      */
     public <T> List<T> readList(ThrowingFunction<PacketDataSerializer, T> elementReader) throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        int size = readInt();
-        if (size < 0) {
-            throw new PacketSerializationException("Invalid list size: " + size);
-        }
-        List<T> list = new ArrayList<>(size);
-        for (int i = 0; i < size; i++) {
-            list.add(elementReader.apply(this));
-        }
-        return list;
+        return reader().readList(ignored -> elementReader.apply(this));
     }
 
-
     /**
      * Writes a set to the output buffer using the provided element writer.
-     * The size of the set is written first as an integer, followed by each element
+     * The size of the set is written first as a length prefix, followed by each element
      * serialized using the provided {@code elementWriter}.
      * <p>
      * Example usage:
@@ -461,16 +712,12 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in writing mode
      */
     public <T> void writeSet(Set<T> set, BiConsumer<PacketDataSerializer, T> elementWriter) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        writeInt(set.size());
-        for (T element : set) {
-            elementWriter.accept(this, element);
-        }
+        writer().writeSet(set, (ignored, element) -> elementWriter.accept(this, element));
     }
 
     /**
      * Reads a set from the input buffer using the provided element reader.
-     * The size of the set is read first as an integer, followed by each element
+     * The size of the set is read first as a length prefix, followed by each element
      * deserialized using the provided {@code elementReader}.
      * <p>
      * Example usage:
@@ -485,21 +732,12 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in reading mode
      */
     public <T> Set<T> readSet(ThrowingFunction<PacketDataSerializer, T> elementReader) throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        int size = readInt();
-        if (size < 0) {
-            throw new PacketSerializationException("Invalid set size: " + size);
-        }
-        Set<T> set = new HashSet<>(size);
-        for (int i = 0; i < size; i++) {
-            set.add(elementReader.apply(this));
-        }
-        return set;
+        return reader().readSet(ignored -> elementReader.apply(this));
     }
 
     /**
      * Writes a map to the output buffer using the provided key and value writers.
-     * The size of the map is written first as an integer, followed by each key-value pair
+     * The size of the map is written first as a length prefix, followed by each key-value pair
      * serialized using the provided {@code keyWriter} and {@code valueWriter}.
      * <p>
      * Example usage:
@@ -520,17 +758,12 @@ public class PacketDataSerializer {
     public <K, V> void writeMap(Map<K, V> map,
                                 BiConsumer<PacketDataSerializer, K> keyWriter,
                                 BiConsumer<PacketDataSerializer, V> valueWriter) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        writeInt(map.size());
-        for (Map.Entry<K, V> entry : map.entrySet()) {
-            keyWriter.accept(this, entry.getKey());
-            valueWriter.accept(this, entry.getValue());
-        }
+        writer().writeMap(map, (ignored, key) -> keyWriter.accept(this, key), (ignored, element) -> valueWriter.accept(this, element));
     }
 
     /**
      * Reads a map from the input buffer using the provided key and value readers.
-     * The size of the map is read first as an integer, followed by each key-value pair
+     * The size of the map is read first as a length prefix, followed by each key-value pair
      * deserialized using the provided {@code keyReader} and {@code valueReader}.
      * <p>
      * Example usage:
@@ -550,21 +783,9 @@ public class PacketDataSerializer {
      */
     public <K, V> Map<K, V> readMap(ThrowingFunction<PacketDataSerializer, K> keyReader,
                                     ThrowingFunction<PacketDataSerializer, V> valueReader) throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        int size = readInt();
-        if (size < 0) {
-            throw new PacketSerializationException("Invalid map size: " + size);
-        }
-        Map<K, V> map = new HashMap<>(size);
-        for (int i = 0; i < size; i++) {
-            K key = keyReader.apply(this);
-            V value = valueReader.apply(this);
-            map.put(key, value);
-        }
-        return map;
+        return reader().readMap(ignored -> keyReader.apply(this), ignored -> valueReader.apply(this));
     }
 
-
     /**
      * Writes a UUID to the output buffer.
      * The UUID is serialized by writing its most significant bits and least significant bits
@@ -580,9 +801,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in writing mode
      */
     public void writeUUID(UUID uuid) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        writeLong(uuid.getMostSignificantBits());
-        writeLong(uuid.getLeastSignificantBits());
+        writer().writeUUID(uuid);
     }
 
     /**
@@ -600,10 +819,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in reading mode
      */
     public UUID readUUID() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        long mostSigBits = readLong();
-        long leastSigBits = readLong();
-        return new UUID(mostSigBits, leastSigBits);
+        return reader().readUUID();
     }
 
     /**
@@ -623,9 +839,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in writing mode
      */
     public <T> void writeOptional(@SuppressWarnings("all") Optional<T> optional, BiConsumer<PacketDataSerializer, T> valueWriter) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        writeBoolean(optional.isPresent());
-        optional.ifPresent(t -> valueWriter.accept(this, t));
+        writer().writeOptional(optional, (ignored, element) -> valueWriter.accept(this, element));
     }
 
     /**
@@ -645,14 +859,12 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in reading mode
      */
     public <T> Optional<T> readOptional(ThrowingFunction<PacketDataSerializer, T> valueReader) throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        boolean isPresent = readBoolean();
-        return isPresent ? Optional.of(valueReader.apply(this)) : Optional.empty();
+        return reader().readOptional(ignored -> valueReader.apply(this));
     }
 
     /**
      * Writes a byte array to the output buffer.
-     * The length of the array is written first as an integer, followed by each byte
+     * The length of the array is written first as a length prefix, followed by each byte
      * in the array.
      * <p>
      * Example usage:
@@ -665,18 +877,12 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in writing mode
      */
     public void writeByteArray(byte[] bytes) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        writeInt(bytes.length);
-        try {
-            output.write(bytes);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().writeByteArray(bytes);
     }
 
     /**
      * Reads a byte array from the input buffer.
-     * The length of the array is read first as an integer, followed by each byte
+     * The length of the array is read first as a length prefix, followed by each byte
      * in the array.
      * <p>
      * Example usage:
@@ -689,26 +895,308 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in reading mode
      */
     public byte[] readByteArray() throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        int length = readInt();
-        if (length < 0) {
-            throw new PacketSerializationException("Invalid byte array length: " + length);
-        }
-        byte[] bytes = new byte[length];
-        try {
-            input.readFully(bytes);
-        } catch (Exception e) {
-            if (e instanceof EOFException) {
-                throw new PacketSerializationException("Unexpected end of input while reading byte array", e);
-            }
-            throw new PacketSerializationException("Error reading byte array", e);
-        }
-        return bytes;
+        return reader().readByteArray();
+    }
+
+    /**
+     * Writes a short array: its length as a length prefix, followed by every element.
+     * With a {@link ByteBufferDataOutput} engine the whole array is copied in bulk.
+     *
+     * @param values The array to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeShortArray(short[] values) {
+        writer().writeShortArray(values);
+    }
+
+    /**
+     * Reads a short array written by {@link #writeShortArray(short[])}.
+     *
+     * @return The array read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public short[] readShortArray() throws PacketSerializationException {
+        return reader().readShortArray();
+    }
+
+    /**
+     * Writes a int array: its length as a length prefix, followed by every element.
+     * With a {@link ByteBufferDataOutput} engine the whole array is copied in bulk.
+     *
+     * @param values The array to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeIntArray(int[] values) {
+        writer().writeIntArray(values);
+    }
+
+    /**
+     * Reads an int array written by {@link #writeIntArray(int[])}.
+     *
+     * @return The array read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public int[] readIntArray() throws PacketSerializationException {
+        return reader().readIntArray();
+    }
+
+    /**
+     * Writes a long array: its length as a length prefix, followed by every element.
+     * With a {@link ByteBufferDataOutput} engine the whole array is copied in bulk.
+     *
+     * @param values The array to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeLongArray(long[] values) {
+        writer().writeLongArray(values);
+    }
+
+    /**
+     * Reads a long array written by {@link #writeLongArray(long[])}.
+     *
+     * @return The array read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public long[] readLongArray() throws PacketSerializationException {
+        return reader().readLongArray();
+    }
+
+    /**
+     * Writes a float array: its length as a length prefix, followed by every element.
+     * With a {@link ByteBufferDataOutput} engine the whole array is copied in bulk.
+     *
+     * @param values The array to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeFloatArray(float[] values) {
+        writer().writeFloatArray(values);
+    }
+
+    /**
+     * Reads a float array written by {@link #writeFloatArray(float[])}.
+     *
+     * @return The array read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public float[] readFloatArray() throws PacketSerializationException {
+        return reader().readFloatArray();
+    }
+
+    /**
+     * Writes a double array: its length as a length prefix, followed by every element.
+     * With a {@link ByteBufferDataOutput} engine the whole array is copied in bulk.
+     *
+     * @param values The array to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeDoubleArray(double[] values) {
+        writer().writeDoubleArray(values);
+    }
+
+    /**
+     * Reads a double array written by {@link #writeDoubleArray(double[])}.
+     *
+     * @return The array read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public double[] readDoubleArray() throws PacketSerializationException {
+        return reader().readDoubleArray();
+    }
+
+    /**
+     * Writes an {@link IntList}, using the same format as {@link #writeIntArray(int[])}.
+     *
+     * @param list The list to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeIntList(IntList list) {
+        writer().writeIntList(list);
+    }
+
+    /**
+     * Reads an {@link IntList} written by {@link #writeIntList(IntList)} or {@link #writeIntArray(int[])}.
+     *
+     * @return The list read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public IntList readIntList() throws PacketSerializationException {
+        return reader().readIntList();
+    }
+
+    /**
+     * Writes a {@link LongList}, using the same format as {@link #writeLongArray(long[])}.
+     *
+     * @param list The list to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeLongList(LongList list) {
+        writer().writeLongList(list);
+    }
+
+    /**
+     * Reads a {@link LongList} written by {@link #writeLongList(LongList)} or {@link #writeLongArray(long[])}.
+     *
+     * @return The list read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public LongList readLongList() throws PacketSerializationException {
+        return reader().readLongList();
+    }
+
+    /**
+     * Writes an int array with a delta encoding: its length as a length prefix, followed by
+     * every encoded value as a ZigZag VarInt. Differences wrap around on overflow, so any array can be written.
+     *
+     * @param values   The array to write
+     * @param encoding The delta encoding, which must be the same when reading
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeDeltaIntArray(int[] values, DeltaEncoding encoding) {
+        writer().writeDeltaIntArray(values, encoding);
+    }
+
+    /**
+     * Reads an int array written by {@link #writeDeltaIntArray(int[], DeltaEncoding)}
+     * or {@link #writeDeltaIntList(IntList, DeltaEncoding)}.
+     *
+     * @param encoding The delta encoding used when writing
+     * @return The array read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public int[] readDeltaIntArray(DeltaEncoding encoding) throws PacketSerializationException {
+        return reader().readDeltaIntArray(encoding);
+    }
+
+    /**
+     * Writes an {@link IntList}, using the same format as {@link #writeDeltaIntArray(int[], DeltaEncoding)}.
+     *
+     * @param list     The list to write
+     * @param encoding The delta encoding, which must be the same when reading
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeDeltaIntList(IntList list, DeltaEncoding encoding) {
+        writer().writeDeltaIntList(list, encoding);
+    }
+
+    /**
+     * Reads an {@link IntList} written by {@link #writeDeltaIntList(IntList, DeltaEncoding)}
+     * or {@link #writeDeltaIntArray(int[], DeltaEncoding)}.
+     *
+     * @param encoding The delta encoding used when writing
+     * @return The list read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public IntList readDeltaIntList(DeltaEncoding encoding) throws PacketSerializationException {
+        return reader().readDeltaIntList(encoding);
+    }
+
+    /**
+     * Writes a long array with a delta encoding: its length as a length prefix, followed by
+     * every encoded value as a ZigZag VarLong. Differences wrap around on overflow, so any array can be written.
+     *
+     * @param values   The array to write
+     * @param encoding The delta encoding, which must be the same when reading
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeDeltaLongArray(long[] values, DeltaEncoding encoding) {
+        writer().writeDeltaLongArray(values, encoding);
+    }
+
+    /**
+     * Reads a long array written by {@link #writeDeltaLongArray(long[], DeltaEncoding)}
+     * or {@link #writeDeltaLongList(LongList, DeltaEncoding)}.
+     *
+     * @param encoding The delta encoding used when writing
+     * @return The array read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public long[] readDeltaLongArray(DeltaEncoding encoding) throws PacketSerializationException {
+        return reader().readDeltaLongArray(encoding);
+    }
+
+    /**
+     * Writes a {@link LongList}, using the same format as {@link #writeDeltaLongArray(long[], DeltaEncoding)}.
+     *
+     * @param list     The list to write
+     * @param encoding The delta encoding, which must be the same when reading
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeDeltaLongList(LongList list, DeltaEncoding encoding) {
+        writer().writeDeltaLongList(list, encoding);
+    }
+
+    /**
+     * Reads a {@link LongList} written by {@link #writeDeltaLongList(LongList, DeltaEncoding)}
+     * or {@link #writeDeltaLongArray(long[], DeltaEncoding)}.
+     *
+     * @param encoding The delta encoding used when writing
+     * @return The list read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public LongList readDeltaLongList(DeltaEncoding encoding) throws PacketSerializationException {
+        return reader().readDeltaLongList(encoding);
+    }
+
+    /**
+     * Writes an {@link IntSet}: its size as a length prefix, followed by every value.
+     *
+     * @param set The set to write
+     * @throws IllegalStateException if not in writing mode
+     */
+    public void writeIntSet(IntSet set) {
+        writer().writeIntSet(set);
+    }
+
+    /**
+     * Reads an {@link IntSet} written by {@link #writeIntSet(IntSet)}.
+     *
+     * @return The set read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public IntSet readIntSet() throws PacketSerializationException {
+        return reader().readIntSet();
+    }
+
+    /**
+     * Writes a {@link LongObjectMap}: its size as a length prefix, followed by each key and its value.
+     *
+     * @param map         The map to write
+     * @param valueWriter A function to write each value
+     * @param <V>         The type of the values
+     * @throws IllegalStateException if not in writing mode
+     */
+    public <V> void writeLongObjectMap(LongObjectMap<V> map, BiConsumer<PacketDataSerializer, V> valueWriter) {
+        writer().writeLongObjectMap(map, (ignored, element) -> valueWriter.accept(this, element));
+    }
+
+    /**
+     * Reads a {@link LongObjectMap} written by {@link #writeLongObjectMap(LongObjectMap, BiConsumer)}.
+     *
+     * @param valueReader A function to read each value
+     * @param <V>         The type of the values
+     * @return The map read
+     * @throws IllegalStateException        if not in reading mode
+     * @throws PacketSerializationException if a value is null or an error occurs during reading
+     */
+    public <V> LongObjectMap<V> readLongObjectMap(ThrowingFunction<PacketDataSerializer, V> valueReader) throws PacketSerializationException {
+        return reader().readLongObjectMap(ignored -> valueReader.apply(this));
     }
 
     /**
      * Writes a queue to the output buffer using the provided element writer.
-     * The size of the queue is written first as an integer, followed by each element
+     * The size of the queue is written first as a length prefix, followed by each element
      * serialized using the provided {@code elementWriter} in the order they are polled.
      * <p>
      * Example usage:
@@ -723,16 +1211,12 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in writing mode
      */
     public <T> void writeQueue(Queue<T> queue, BiConsumer<PacketDataSerializer, T> elementWriter) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        writeInt(queue.size());
-        for (T element : queue) {
-            elementWriter.accept(this, element);
-        }
+        writer().writeQueue(queue, (ignored, element) -> elementWriter.accept(this, element));
     }
 
     /**
      * Reads a queue from the input buffer using the provided element reader.
-     * The size of the queue is read first as an integer, followed by each element
+     * The size of the queue is read first as a length prefix, followed by each element
      * deserialized using the provided {@code elementReader} and added to the queue.
      * <p>
      * Example usage:
@@ -747,16 +1231,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in reading mode
      */
     public <T> Queue<T> readQueue(ThrowingFunction<PacketDataSerializer, T> elementReader) throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        int size = readInt();
-        if (size < 0) {
-            throw new PacketSerializationException("Invalid queue size: " + size);
-        }
-        Queue<T> queue = new ArrayDeque<>(size);
-        for (int i = 0; i < size; i++) {
-            queue.add(elementReader.apply(this));
-        }
-        return queue;
+        return reader().readQueue(ignored -> elementReader.apply(this));
     }
 
     /**
@@ -777,15 +1252,7 @@ public class PacketDataSerializer {
      * @throws IllegalStateException if the serializer is not in writing mode
      */
     public <T> void writeNullable(T value, ThrowingBiConsumer<PacketDataSerializer, T> valueWriter) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        writeBoolean(value != null);
-        if (value != null) {
-            try {
-                valueWriter.accept(this, value);
-            } catch (PacketSerializationException e) {
-                e.printStackTrace(System.out);
-            }
-        }
+        writer().writeNullable(value, (ignored, element) -> valueWriter.accept(this, element));
     }
 
     /**
@@ -806,9 +1273,7 @@ public class PacketDataSerializer {
      * @throws PacketSerializationException if an error occurs during deserialization
      */
     public <T> T readNullable(ThrowingFunction<PacketDataSerializer, T> valueReader) throws PacketSerializationException {
-        if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
-        boolean isPresent = readBoolean();
-        return isPresent ? valueReader.apply(this) : null;
+        return reader().readNullable(ignored -> valueReader.apply(this));
     }
 
     /**
@@ -837,9 +1302,7 @@ public class PacketDataSerializer {
     public <T extends CustomSerializable> T readCustom(Class<T> clazz) throws PacketSerializationException {
         if (isNotReading()) throw new IllegalStateException(NOT_READING_ERROR);
         try {
-            Constructor<T> constructor = clazz.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            T instance = constructor.newInstance();
+            T instance = InstanceFactory.of(clazz).newInstance();
             instance.deserialize(this);
             return instance;
         } catch (ReflectiveOperationException e) {
@@ -848,11 +1311,14 @@ public class PacketDataSerializer {
     }
 
     public void write(byte[] content) {
-        if (isNotWriting()) throw new IllegalStateException(NOT_WRITING_ERROR);
-        try {
-            output.write(content);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
-        }
+        writer().write(content);
+    }
+
+    private boolean isNotWriting() {
+        return writer == null;
+    }
+
+    private boolean isNotReading() {
+        return reader == null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,1115 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.compression.InflaterDataInput;
+import com.github.razorplay.packet_handler.util.collection.IntList;
+import com.github.razorplay.packet_handler.util.collection.IntSet;
+import com.github.razorplay.packet_handler.util.collection.LongList;
+import com.github.razorplay.packet_handler.util.collection.LongObjectMap;
+import lombok.Getter;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Decodes packet data from a {@link DataInput}. This is the read half of {@link PacketDataSerializer}:
+ * it holds no output and performs no mode checks, so that decoding loops only ever call this final class
+ * and every primitive can be inlined down to the underlying {@link java.nio.ByteBuffer} access when the
+ * engine is a {@link ByteBufferDataInput}.
+ *
+ * <p>Every length prefix is checked against the {@link ReadLimits} of the reader before anything is
+ * allocated, and collections start no larger than the remaining input, growing as elements are actually read.</p>
+ */
+public final class PacketReader {
+    // Largest buffer or collection allocated up front when the remaining input is unknown
+    private static final int MAX_INITIAL_CAPACITY = 4096;
+    private final DataInput input;
+    // Direct reference to the ByteBuffer engine, used to skip the DataInput indirection
+    private final ByteBufferDataInput bufferInput;
+    // Streaming decompression input, whose maximum length bounds what is left to read
+    private final InflaterDataInput inflaterInput;
+    @Getter
+    private final WireProfile wireProfile;
+    private StringTable stringTable;
+    private ReadLimits readLimits = ReadLimits.UNLIMITED;
+    private long allocatedBytes;
+
+    public PacketReader(DataInput input) {
+        this(input, WireProfile.FIXED);
+    }
+
+    public PacketReader(DataInput input, WireProfile wireProfile) {
+        this.input = Objects.requireNonNull(input, "Input cannot be null");
+        this.bufferInput = input instanceof ByteBufferDataInput ? (ByteBufferDataInput) input : null;
+        this.inflaterInput = input instanceof InflaterDataInput ? (InflaterDataInput) input : null;
+        this.wireProfile = Objects.requireNonNull(wireProfile, "Wire profile cannot be null");
+    }
+
+    /**
+     * Returns the string table used to resolve string references, if any.
+     *
+     * @return The string table, or {@code null} if strings are always read as literals
+     */
+    public StringTable getStringTable() {
+        return stringTable;
+    }
+
+    /**
+     * Enables or disables string deduplication, see {@link PacketDataSerializer#setStringTable(StringTable)}.
+     *
+     * @param stringTable The string table to use, or {@code null} to read plain literals
+     */
+    public void setStringTable(StringTable stringTable) {
+        this.stringTable = stringTable;
+    }
+
+    /**
+     * Returns the limits checked while reading.
+     *
+     * @return The read limits, {@link ReadLimits#UNLIMITED} by default
+     */
+    public ReadLimits getReadLimits() {
+        return readLimits;
+    }
+
+    /**
+     * Sets the limits checked while reading. The allocation budget covers everything read by this reader
+     * from now on.
+     *
+     * @param readLimits The read limits to apply
+     */
+    public void setReadLimits(ReadLimits readLimits) {
+        this.readLimits = Objects.requireNonNull(readLimits, "Read limits cannot be null");
+        this.allocatedBytes = 0;
+    }
+
+    /**
+     * Charges the allocation of {@code count} elements of {@code elementSize} bytes against the read limits.
+     * Readers of custom structures should call this before allocating anything sized by a length read from the input.
+     *
+     * @param count       The number of elements about to be allocated
+     * @param elementSize The estimated size of one element, in bytes
+     * @param description What is being read, for the error message
+     * @throws PacketSerializationException if the count or the total allocation exceeds the read limits
+     */
+    public void checkAllocation(long count, int elementSize, String description) throws PacketSerializationException {
+        if (count > readLimits.maxElements()) {
+            throw new PacketSerializationException("Too many elements in " + description + ": " + count + " (limit " + readLimits.maxElements() + ")");
+        }
+        long bytes = count * elementSize;
+        if (bytes > readLimits.maxAllocatedBytes() - allocatedBytes) {
+            throw new PacketSerializationException("Allocation budget exceeded while reading " + description + ": " + bytes
+                    + " more bytes requested, " + (readLimits.maxAllocatedBytes() - allocatedBytes) + " left");
+        }
+        allocatedBytes += bytes;
+    }
+
+    /**
+     * Returns how many of the given elements to allocate room for up front. With a known remaining input the
+     * capacity never exceeds it, otherwise it is capped, so that a forged size cannot allocate more than the
+     * data actually sent.
+     */
+    private int initialCapacity(int size) {
+        return Math.min(size, bufferInput != null ? bufferInput.remaining() : MAX_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns how many bytes are at most left to read: the remaining input of a {@link ByteBufferDataInput},
+     * or the remaining decompression budget of an {@link InflaterDataInput}.
+     *
+     * @return The bound, or {@code -1} if the input does not tell
+     */
+    private long maxRemaining() {
+        if (bufferInput != null) {
+            return bufferInput.remaining();
+        }
+        return inflaterInput != null ? inflaterInput.maxRemaining() : -1;
+    }
+
+    /**
+     * Reads the given number of bytes from a generic input, growing the array as data arrives rather than
+     * trusting the length up front.
+     */
+    private byte[] readBytes(int length) throws IOException {
+        byte[] bytes = new byte[Math.min(length, MAX_INITIAL_CAPACITY)];
+        int read = 0;
+        while (true) {
+            input.readFully(bytes, read, bytes.length - read);
+            read = bytes.length;
+            if (read == length) {
+                return bytes;
+            }
+            bytes = Arrays.copyOf(bytes, grownCapacity(read, length));
+        }
+    }
+
+    /**
+     * Returns the capacity a full array read from a generic input grows to: twice its size, up to the length.
+     */
+    private static int grownCapacity(int capacity, int length) {
+        return (int) Math.min(length, (long) capacity << 1);
+    }
+
+    /**
+     * Reads a byte value from the input buffer.
+     *
+     * @return The byte value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public byte readByte() throws PacketSerializationException {
+        if (bufferInput != null) {
+            try {
+                return bufferInput.readByte();
+            } catch (BufferUnderflowException e) {
+                throw new PacketSerializationException("Unexpected end of input while reading byte", e);
+            }
+        }
+        try {
+            return input.readByte();
+        } catch (Exception e) {
+            if (e instanceof EOFException) {
+                throw new PacketSerializationException("Unexpected end of input while reading byte", e);
+            }
+            throw new PacketSerializationException("Error reading byte", e);
+        }
+    }
+
+    /**
+     * Reads a short value from the input buffer.
+     *
+     * @return The short value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public short readShort() throws PacketSerializationException {
+        if (bufferInput != null) {
+            try {
+                return bufferInput.readShort();
+            } catch (BufferUnderflowException e) {
+                throw new PacketSerializationException("Unexpected end of input while reading short", e);
+            }
+        }
+        try {
+            return input.readShort();
+        } catch (Exception e) {
+            if (e instanceof EOFException) {
+                throw new PacketSerializationException("Unexpected end of input while reading short", e);
+            }
+            throw new PacketSerializationException("Error reading short", e);
+        }
+    }
+
+    /**
+     * Reads an int value from the input buffer.
+     *
+     * @return The int value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public int readInt() throws PacketSerializationException {
+        if (bufferInput != null) {
+            try {
+                return bufferInput.readInt();
+            } catch (BufferUnderflowException e) {
+                throw new PacketSerializationException("Unexpected end of input while reading int", e);
+            }
+        }
+        try {
+            return input.readInt();
+        } catch (Exception e) {
+            if (e instanceof EOFException) {
+                throw new PacketSerializationException("Unexpected end of input while reading int", e);
+            }
+            throw new PacketSerializationException("Error reading int", e);
+        }
+    }
+
+    /**
+     * Reads a long value from the input buffer.
+     *
+     * @return The long value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public long readLong() throws PacketSerializationException {
+        if (bufferInput != null) {
+            try {
+                return bufferInput.readLong();
+            } catch (BufferUnderflowException e) {
+                throw new PacketSerializationException("Unexpected end of input while reading long", e);
+            }
+        }
+        try {
+            return input.readLong();
+        } catch (Exception e) {
+            if (e instanceof EOFException) {
+                throw new PacketSerializationException("Unexpected end of input while reading long", e);
+            }
+            throw new PacketSerializationException("Error reading long", e);
+        }
+    }
+
+    /**
+     * Reads a float value from the input buffer.
+     *
+     * @return The float value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public float readFloat() throws PacketSerializationException {
+        if (bufferInput != null) {
+            try {
+                return bufferInput.readFloat();
+            } catch (BufferUnderflowException e) {
+                throw new PacketSerializationException("Unexpected end of input while reading float", e);
+            }
+        }
+        try {
+            return input.readFloat();
+        } catch (Exception e) {
+            if (e instanceof EOFException) {
+                throw new PacketSerializationException("Unexpected end of input while reading float", e);
+            }
+            throw new PacketSerializationException("Error reading float", e);
+        }
+    }
+
+    /**
+     * Reads a double value from the input buffer.
+     *
+     * @return The double value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public double readDouble() throws PacketSerializationException {
+        if (bufferInput != null) {
+            try {
+                return bufferInput.readDouble();
+            } catch (BufferUnderflowException e) {
+                throw new PacketSerializationException("Unexpected end of input while reading double", e);
+            }
+        }
+        try {
+            return input.readDouble();
+        } catch (Exception e) {
+            if (e instanceof EOFException) {
+                throw new PacketSerializationException("Unexpected end of input while reading double", e);
+            }
+            throw new PacketSerializationException("Error reading double", e);
+        }
+    }
+
+    /**
+     * Reads a char value from the input buffer.
+     *
+     * @return The char value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public char readChar() throws PacketSerializationException {
+        if (bufferInput != null) {
+            try {
+                return bufferInput.readChar();
+            } catch (BufferUnderflowException e) {
+                throw new PacketSerializationException("Unexpected end of input while reading char", e);
+            }
+        }
+        try {
+            return input.readChar();
+        } catch (Exception e) {
+            if (e instanceof EOFException) {
+                throw new PacketSerializationException("Unexpected end of input while reading char", e);
+            }
+            throw new PacketSerializationException("Error reading char", e);
+        }
+    }
+
+    /**
+     * Reads a boolean value from the input buffer.
+     *
+     * @return The boolean value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public boolean readBoolean() throws PacketSerializationException {
+        if (bufferInput != null) {
+            try {
+                return bufferInput.readBoolean();
+            } catch (BufferUnderflowException e) {
+                throw new PacketSerializationException("Unexpected end of input while reading boolean", e);
+            }
+        }
+        try {
+            return input.readBoolean();
+        } catch (Exception e) {
+            if (e instanceof EOFException) {
+                throw new PacketSerializationException("Unexpected end of input while reading boolean", e);
+            }
+            throw new PacketSerializationException("Error reading boolean", e);
+        }
+    }
+
+    /**
+     * Starts reading a block of bit-packed values written by a {@link BitWriter}.
+     *
+     * @return A new bit reader
+     */
+    public BitReader bitReader() {
+        return new BitReader(this);
+    }
+
+    /**
+     * Reads a variable-length int written by {@link PacketWriter#writeVarInt(int)}.
+     *
+     * @return The int value read
+     * @throws PacketSerializationException if the input ends early or the value is longer than 5 bytes
+     */
+    public int readVarInt() throws PacketSerializationException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte current = readByte();
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new PacketSerializationException("VarInt is too big");
+    }
+
+    /**
+     * Reads a variable-length long written by {@link PacketWriter#writeVarLong(long)}.
+     *
+     * @return The long value read
+     * @throws PacketSerializationException if the input ends early or the value is longer than 10 bytes
+     */
+    public long readVarLong() throws PacketSerializationException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte current = readByte();
+            value |= (long) (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new PacketSerializationException("VarLong is too big");
+    }
+
+    /**
+     * Reads a signed int written by {@link PacketWriter#writeZigZagVarInt(int)}.
+     *
+     * @return The int value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public int readZigZagVarInt() throws PacketSerializationException {
+        int encoded = readVarInt();
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    /**
+     * Reads a signed long written by {@link PacketWriter#writeZigZagVarLong(long)}.
+     *
+     * @return The long value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public long readZigZagVarLong() throws PacketSerializationException {
+        long encoded = readVarLong();
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    /**
+     * Reads a fixed-point number written by {@link PacketWriter#writeFixedPoint(double, double)}.
+     *
+     * @param scale The number of steps per unit used when writing
+     * @return The value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public double readFixedPoint(double scale) throws PacketSerializationException {
+        return readZigZagVarLong() / scale;
+    }
+
+    /**
+     * Reads a half-precision float written by {@link PacketWriter#writeHalfFloat(float)}.
+     *
+     * @return The value read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public float readHalfFloat() throws PacketSerializationException {
+        return Float16.toFloat(readShort());
+    }
+
+    /**
+     * Reads an angle written by {@link PacketWriter#writeAngle(float)}, normalized to [-180, 180) degrees.
+     *
+     * @return The angle read, in degrees
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public float readAngle() throws PacketSerializationException {
+        return readByte() * (360f / 256f);
+    }
+
+    /**
+     * Reads a size or count prefix written by {@link PacketWriter#writeLength(int)}.
+     *
+     * @return The length read, which may be negative if the data is corrupted
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public int readLength() throws PacketSerializationException {
+        return wireProfile == WireProfile.COMPACT ? readVarInt() : readInt();
+    }
+
+    /**
+     * Reads a string from the input buffer.
+     *
+     * @return The string read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public String readString() throws PacketSerializationException {
+        if (stringTable != null) {
+            int tag = readVarInt();
+            if (tag == 0) {
+                String value = readStringLiteral();
+                stringTable.add(value);
+                return value;
+            }
+            String value = tag > 0 ? stringTable.get(tag - 1) : null;
+            if (value == null) {
+                throw new PacketSerializationException("Invalid string table reference: " + tag);
+            }
+            return value;
+        }
+        return readStringLiteral();
+    }
+
+    private String readStringLiteral() throws PacketSerializationException {
+        int length = readLength();
+        if (length < 0) {
+            throw new PacketSerializationException("Invalid string length: " + length);
+        }
+        checkAllocation(length, Byte.BYTES, "string");
+        if (bufferInput != null) {
+            try {
+                return bufferInput.readUtf8(length);
+            } catch (BufferUnderflowException e) {
+                throw new PacketSerializationException("Unexpected end of input while reading string", e);
+            }
+        }
+        byte[] bytes;
+        try {
+            bytes = readBytes(length);
+        } catch (Exception e) {
+            if (e instanceof EOFException || e instanceof BufferUnderflowException) {
+                throw new PacketSerializationException("Unexpected end of input while reading string", e);
+            }
+            throw new PacketSerializationException("Error reading string", e);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads an enum value from the input buffer by deserializing its name and converting it back to the enum type.
+     *
+     * @param enumClass The class of the enum to read
+     * @param <T>       The type of the enum
+     * @return The enum value read from the buffer, or null if "null" was written
+     * @throws IllegalArgumentException if the enum name is invalid for the provided enum class
+     */
+    public <T extends Enum<T>> T readEnum(Class<T> enumClass) throws PacketSerializationException {
+        String name = readString();
+        if ("null".equals(name)) {
+            return null; // Maneja el caso de null
+        }
+        try {
+            return Enum.valueOf(enumClass, name);
+        } catch (IllegalArgumentException e) {
+            throw new PacketSerializationException("Invalid enum value '" + name + "' for " + enumClass.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Reads an enum value written by {@link PacketWriter#writeEnumOrdinal(Enum)}.
+     *
+     * @param enumClass The class of the enum
+     * @param <T>       The type of the enum
+     * @return The enum value read, or null
+     * @throws PacketSerializationException if the ordinal is out of range or an error occurs during reading
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Enum<T>> T readEnumOrdinal(Class<T> enumClass) throws PacketSerializationException {
+        int value = readVarInt();
+        if (value == 0) {
+            return null;
+        }
+        Object[] constants = EnumConstants.get(enumClass);
+        if (value < 0 || value > constants.length) {
+            throw new PacketSerializationException("Invalid enum ordinal " + (value - 1) + " for " + enumClass.getSimpleName());
+        }
+        return (T) constants[value - 1];
+    }
+
+    /**
+     * Reads a set of enum values written by {@link PacketWriter#writeEnumSet(Set, Class)}.
+     *
+     * @param enumClass The class of the enum
+     * @param <T>       The type of the enum
+     * @return A new {@link EnumSet} with the values read
+     * @throws PacketSerializationException if the bitmask refers to unknown constants or an error occurs during reading
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Enum<T>> EnumSet<T> readEnumSet(Class<T> enumClass) throws PacketSerializationException {
+        Object[] constants = EnumConstants.get(enumClass);
+        EnumSet<T> set = EnumSet.noneOf(enumClass);
+        int wordCount = 1;
+        if (constants.length > Long.SIZE) {
+            wordCount = readVarInt();
+            if (wordCount < 0 || wordCount > (constants.length + Long.SIZE - 1) / Long.SIZE) {
+                throw new PacketSerializationException("Invalid enum set size " + wordCount + " for " + enumClass.getSimpleName());
+            }
+        }
+        for (int word = 0; word < wordCount; word++) {
+            long mask = readVarLong();
+            while (mask != 0) {
+                int ordinal = (word << 6) + Long.numberOfTrailingZeros(mask);
+                if (ordinal >= constants.length) {
+                    throw new PacketSerializationException("Invalid enum ordinal " + ordinal + " for " + enumClass.getSimpleName());
+                }
+                set.add((T) constants[ordinal]);
+                mask &= mask - 1;
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Reads a list from the input buffer using the provided element reader.
+     * The size of the list is read first as a length prefix, followed by each element
+     * deserialized using the provided {@code elementReader}.
+     * <p>
+     * Example usage:
+     * <pre>
+     * List<String> names = reader.readList(PacketReader::readString);
+     * // names will contain the deserialized list of strings
+     * </pre>
+     *
+     * @param elementReader The reader function for deserializing individual elements of the list
+     * @param <T>           The type of elements in the list
+     * @return The list read from the input buffer
+     */
+    public <T> List<T> readList(ThrowingFunction<PacketReader, T> elementReader) throws PacketSerializationException {
+        int size = readLength();
+        if (size < 0) {
+            throw new PacketSerializationException("Invalid list size: " + size);
+        }
+        checkAllocation(size, ReadLimits.REFERENCE_SIZE, "list");
+        List<T> list = new ArrayList<>(initialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            list.add(elementReader.apply(this));
+        }
+        return list;
+    }
+
+    /**
+     * Reads a set from the input buffer using the provided element reader.
+     * The size of the set is read first as a length prefix, followed by each element
+     * deserialized using the provided {@code elementReader}.
+     * <p>
+     * Example usage:
+     * <pre>
+     * Set<String> roles = reader.readSet(PacketReader::readString);
+     * // roles will contain the deserialized set of strings
+     * </pre>
+     *
+     * @param elementReader The reader function for deserializing individual elements of the set
+     * @param <T>           The type of elements in the set
+     * @return The set read from the input buffer, implemented as a {@link HashSet}
+     */
+    public <T> Set<T> readSet(ThrowingFunction<PacketReader, T> elementReader) throws PacketSerializationException {
+        int size = readLength();
+        if (size < 0) {
+            throw new PacketSerializationException("Invalid set size: " + size);
+        }
+        checkAllocation(size, ReadLimits.REFERENCE_SIZE, "set");
+        Set<T> set = new HashSet<>(initialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            set.add(elementReader.apply(this));
+        }
+        return set;
+    }
+
+    /**
+     * Reads a map from the input buffer using the provided key and value readers.
+     * The size of the map is read first as a length prefix, followed by each key-value pair
+     * deserialized using the provided {@code keyReader} and {@code valueReader}.
+     * <p>
+     * Example usage:
+     * <pre>
+     * Map<String, Integer> scores = reader.readMap(
+     *     PacketReader::readString,
+     *     PacketReader::readInt);
+     * // scores will contain the deserialized map of strings to integers
+     * </pre>
+     *
+     * @param keyReader   The reader function for deserializing map keys
+     * @param valueReader The reader function for deserializing map values
+     * @param <K>         The type of keys in the map
+     * @param <V>         The type of values in the map
+     * @return The map read from the input buffer
+     */
+    public <K, V> Map<K, V> readMap(ThrowingFunction<PacketReader, K> keyReader,
+                                    ThrowingFunction<PacketReader, V> valueReader) throws PacketSerializationException {
+        int size = readLength();
+        if (size < 0) {
+            throw new PacketSerializationException("Invalid map size: " + size);
+        }
+        checkAllocation(size, 2 * ReadLimits.REFERENCE_SIZE, "map");
+        Map<K, V> map = new HashMap<>(initialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            K key = keyReader.apply(this);
+            V value = valueReader.apply(this);
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    /**
+     * Reads a UUID from the input buffer.
+     * The UUID is deserialized by reading its most significant bits and least significant bits
+     * as two long values and reconstructing the UUID.
+     * <p>
+     * Example usage:
+     * <pre>
+     * UUID playerId = reader.readUUID();
+     * // playerId will contain the deserialized UUID
+     * </pre>
+     *
+     * @return The UUID read from the input buffer
+     */
+    public UUID readUUID() throws PacketSerializationException {
+        long mostSigBits = readLong();
+        long leastSigBits = readLong();
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Reads an Optional value from the input buffer using the provided value reader.
+     * A boolean is read first to determine whether the value is present. If the value
+     * is present, it is deserialized using the provided {@code valueReader}.
+     * <p>
+     * Example usage:
+     * <pre>
+     * Optional<String> nickname = reader.readOptional(PacketReader::readString);
+     * // nickname will contain the deserialized Optional value
+     * </pre>
+     *
+     * @param valueReader The reader function for deserializing the value, if present
+     * @param <T>         The type of the value in the Optional
+     * @return The Optional value read from the input buffer
+     */
+    public <T> Optional<T> readOptional(ThrowingFunction<PacketReader, T> valueReader) throws PacketSerializationException {
+        boolean isPresent = readBoolean();
+        return isPresent ? Optional.of(valueReader.apply(this)) : Optional.empty();
+    }
+
+    /**
+     * Reads a byte array from the input buffer.
+     * The length of the array is read first as a length prefix, followed by each byte
+     * in the array.
+     * <p>
+     * Example usage:
+     * <pre>
+     * byte[] data = reader.readByteArray();
+     * // data will contain the deserialized byte array
+     * </pre>
+     *
+     * @return The byte array read from the input buffer
+     */
+    public byte[] readByteArray() throws PacketSerializationException {
+        int length = readArrayLength(Byte.BYTES, "byte array");
+        byte[] bytes;
+        try {
+            if (bufferInput != null) {
+                bytes = new byte[length];
+                bufferInput.readFully(bytes);
+            } else {
+                bytes = readBytes(length);
+            }
+        } catch (Exception e) {
+            if (e instanceof EOFException || e instanceof BufferUnderflowException) {
+                throw new PacketSerializationException("Unexpected end of input while reading byte array", e);
+            }
+            throw new PacketSerializationException("Error reading byte array", e);
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads the length prefix of an array and checks it against the remaining input, when known,
+     * so that a corrupted length cannot trigger a huge allocation. When it is not known, the array
+     * is grown in chunks as its elements arrive instead.
+     *
+     * @param elementSize The size of an element, in bytes
+     * @param description The kind of array being read, for error messages
+     * @return The validated length
+     * @throws PacketSerializationException if the length is negative or exceeds the remaining input
+     */
+    private int readArrayLength(int elementSize, String description) throws PacketSerializationException {
+        return readArrayLength(elementSize, elementSize, description);
+    }
+
+    /**
+     * Reads the length prefix of an array whose elements take a variable number of bytes on the wire.
+     *
+     * @param minWireSize The minimum size of an encoded element, in bytes
+     * @param elementSize The size of a decoded element, in bytes
+     * @param description The kind of array being read, for error messages
+     * @return The validated length
+     * @throws PacketSerializationException if the length is negative or exceeds the remaining input
+     */
+    private int readArrayLength(int minWireSize, int elementSize, String description) throws PacketSerializationException {
+        int length = readLength();
+        if (length < 0) {
+            throw new PacketSerializationException("Invalid " + description + " length: " + length);
+        }
+        long remaining = maxRemaining();
+        if (remaining >= 0 && (long) length * minWireSize > remaining) {
+            throw new PacketSerializationException("Unexpected end of input while reading " + description);
+        }
+        checkAllocation(length, elementSize, description);
+        return length;
+    }
+
+    /**
+     * Reads a short array written by {@link PacketWriter#writeShortArray(short[])}.
+     *
+     * @return The array read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public short[] readShortArray() throws PacketSerializationException {
+        int length = readArrayLength(Short.BYTES, "short array");
+        short[] values;
+        try {
+            if (bufferInput != null) {
+                values = new short[length];
+                bufferInput.readShorts(values, 0, length);
+                return values;
+            }
+            values = new short[Math.min(length, MAX_INITIAL_CAPACITY)];
+            for (int i = 0; i < length; i++) {
+                if (i == values.length) {
+                    values = Arrays.copyOf(values, grownCapacity(i, length));
+                }
+                values[i] = input.readShort();
+            }
+        } catch (Exception e) {
+            if (e instanceof EOFException || e instanceof BufferUnderflowException) {
+                throw new PacketSerializationException("Unexpected end of input while reading short array", e);
+            }
+            throw new PacketSerializationException("Error reading short array", e);
+        }
+        return values;
+    }
+
+    /**
+     * Reads an int array written by {@link PacketWriter#writeIntArray(int[])}.
+     *
+     * @return The array read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public int[] readIntArray() throws PacketSerializationException {
+        int length = readArrayLength(Integer.BYTES, "int array");
+        int[] values;
+        try {
+            if (bufferInput != null) {
+                values = new int[length];
+                bufferInput.readInts(values, 0, length);
+                return values;
+            }
+            values = new int[Math.min(length, MAX_INITIAL_CAPACITY)];
+            for (int i = 0; i < length; i++) {
+                if (i == values.length) {
+                    values = Arrays.copyOf(values, grownCapacity(i, length));
+                }
+                values[i] = input.readInt();
+            }
+        } catch (Exception e) {
+            if (e instanceof EOFException || e instanceof BufferUnderflowException) {
+                throw new PacketSerializationException("Unexpected end of input while reading int array", e);
+            }
+            throw new PacketSerializationException("Error reading int array", e);
+        }
+        return values;
+    }
+
+    /**
+     * Reads a long array written by {@link PacketWriter#writeLongArray(long[])}.
+     *
+     * @return The array read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public long[] readLongArray() throws PacketSerializationException {
+        int length = readArrayLength(Long.BYTES, "long array");
+        long[] values;
+        try {
+            if (bufferInput != null) {
+                values = new long[length];
+                bufferInput.readLongs(values, 0, length);
+                return values;
+            }
+            values = new long[Math.min(length, MAX_INITIAL_CAPACITY)];
+            for (int i = 0; i < length; i++) {
+                if (i == values.length) {
+                    values = Arrays.copyOf(values, grownCapacity(i, length));
+                }
+                values[i] = input.readLong();
+            }
+        } catch (Exception e) {
+            if (e instanceof EOFException || e instanceof BufferUnderflowException) {
+                throw new PacketSerializationException("Unexpected end of input while reading long array", e);
+            }
+            throw new PacketSerializationException("Error reading long array", e);
+        }
+        return values;
+    }
+
+    /**
+     * Reads a float array written by {@link PacketWriter#writeFloatArray(float[])}.
+     *
+     * @return The array read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public float[] readFloatArray() throws PacketSerializationException {
+        int length = readArrayLength(Float.BYTES, "float array");
+        float[] values;
+        try {
+            if (bufferInput != null) {
+                values = new float[length];
+                bufferInput.readFloats(values, 0, length);
+                return values;
+            }
+            values = new float[Math.min(length, MAX_INITIAL_CAPACITY)];
+            for (int i = 0; i < length; i++) {
+                if (i == values.length) {
+                    values = Arrays.copyOf(values, grownCapacity(i, length));
+                }
+                values[i] = input.readFloat();
+            }
+        } catch (Exception e) {
+            if (e instanceof EOFException || e instanceof BufferUnderflowException) {
+                throw new PacketSerializationException("Unexpected end of input while reading float array", e);
+            }
+            throw new PacketSerializationException("Error reading float array", e);
+        }
+        return values;
+    }
+
+    /**
+     * Reads a double array written by {@link PacketWriter#writeDoubleArray(double[])}.
+     *
+     * @return The array read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public double[] readDoubleArray() throws PacketSerializationException {
+        int length = readArrayLength(Double.BYTES, "double array");
+        double[] values;
+        try {
+            if (bufferInput != null) {
+                values = new double[length];
+                bufferInput.readDoubles(values, 0, length);
+                return values;
+            }
+            values = new double[Math.min(length, MAX_INITIAL_CAPACITY)];
+            for (int i = 0; i < length; i++) {
+                if (i == values.length) {
+                    values = Arrays.copyOf(values, grownCapacity(i, length));
+                }
+                values[i] = input.readDouble();
+            }
+        } catch (Exception e) {
+            if (e instanceof EOFException || e instanceof BufferUnderflowException) {
+                throw new PacketSerializationException("Unexpected end of input while reading double array", e);
+            }
+            throw new PacketSerializationException("Error reading double array", e);
+        }
+        return values;
+    }
+
+    /**
+     * Reads an {@link IntList} written by {@link PacketWriter#writeIntList(IntList)} or {@link PacketWriter#writeIntArray(int[])}.
+     *
+     * @return The list read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public IntList readIntList() throws PacketSerializationException {
+        return IntList.wrap(readIntArray());
+    }
+
+    /**
+     * Reads a {@link LongList} written by {@link PacketWriter#writeLongList(LongList)} or {@link PacketWriter#writeLongArray(long[])}.
+     *
+     * @return The list read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public LongList readLongList() throws PacketSerializationException {
+        return LongList.wrap(readLongArray());
+    }
+
+    /**
+     * Reads an int array written by {@link PacketWriter#writeDeltaIntArray(int[], DeltaEncoding)}
+     * or {@link PacketWriter#writeDeltaIntList(IntList, DeltaEncoding)}.
+     *
+     * @param encoding The delta encoding used when writing
+     * @return The array read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public int[] readDeltaIntArray(DeltaEncoding encoding) throws PacketSerializationException {
+        boolean ofDelta = encoding == DeltaEncoding.DELTA_OF_DELTA;
+        int length = readArrayLength(Byte.BYTES, Integer.BYTES, "delta int array");
+        int[] values = new int[initialCapacity(length)];
+        int previous = 0;
+        int previousDelta = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == values.length) {
+                values = Arrays.copyOf(values, grownCapacity(i, length));
+            }
+            int encoded = readZigZagVarInt();
+            int delta = ofDelta && i > 1 ? previousDelta + encoded : encoded;
+            previous += delta;
+            previousDelta = delta;
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    /**
+     * Reads an {@link IntList} written by {@link PacketWriter#writeDeltaIntList(IntList, DeltaEncoding)}
+     * or {@link PacketWriter#writeDeltaIntArray(int[], DeltaEncoding)}.
+     *
+     * @param encoding The delta encoding used when writing
+     * @return The list read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public IntList readDeltaIntList(DeltaEncoding encoding) throws PacketSerializationException {
+        return IntList.wrap(readDeltaIntArray(encoding));
+    }
+
+    /**
+     * Reads a long array written by {@link PacketWriter#writeDeltaLongArray(long[], DeltaEncoding)}
+     * or {@link PacketWriter#writeDeltaLongList(LongList, DeltaEncoding)}.
+     *
+     * @param encoding The delta encoding used when writing
+     * @return The array read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public long[] readDeltaLongArray(DeltaEncoding encoding) throws PacketSerializationException {
+        boolean ofDelta = encoding == DeltaEncoding.DELTA_OF_DELTA;
+        int length = readArrayLength(Byte.BYTES, Long.BYTES, "delta long array");
+        long[] values = new long[initialCapacity(length)];
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == values.length) {
+                values = Arrays.copyOf(values, grownCapacity(i, length));
+            }
+            long encoded = readZigZagVarLong();
+            long delta = ofDelta && i > 1 ? previousDelta + encoded : encoded;
+            previous += delta;
+            previousDelta = delta;
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    /**
+     * Reads a {@link LongList} written by {@link PacketWriter#writeDeltaLongList(LongList, DeltaEncoding)}
+     * or {@link PacketWriter#writeDeltaLongArray(long[], DeltaEncoding)}.
+     *
+     * @param encoding The delta encoding used when writing
+     * @return The list read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public LongList readDeltaLongList(DeltaEncoding encoding) throws PacketSerializationException {
+        return LongList.wrap(readDeltaLongArray(encoding));
+    }
+
+    /**
+     * Reads an {@link IntSet} written by {@link PacketWriter#writeIntSet(IntSet)}.
+     *
+     * @return The set read
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    public IntSet readIntSet() throws PacketSerializationException {
+        int size = readArrayLength(Integer.BYTES, "int set");
+        IntSet set = new IntSet(initialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            set.add(readInt());
+        }
+        return set;
+    }
+
+    /**
+     * Reads a {@link LongObjectMap} written by {@link PacketWriter#writeLongObjectMap(LongObjectMap, java.util.function.BiConsumer)}.
+     *
+     * @param valueReader A function to read each value
+     * @param <V>         The type of the values
+     * @return The map read
+     * @throws PacketSerializationException if a value is null or an error occurs during reading
+     */
+    public <V> LongObjectMap<V> readLongObjectMap(ThrowingFunction<PacketReader, V> valueReader) throws PacketSerializationException {
+        int size = readArrayLength(Long.BYTES, "long map");
+        LongObjectMap<V> map = new LongObjectMap<>(initialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            long key = readLong();
+            V value = valueReader.apply(this);
+            if (value == null) {
+                throw new PacketSerializationException("Null value for key " + key + " in long map");
+            }
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    /**
+     * Reads a queue from the input buffer using the provided element reader.
+     * The size of the queue is read first as a length prefix, followed by each element
+     * deserialized using the provided {@code elementReader} and added to the queue.
+     * <p>
+     * Example usage:
+     * <pre>
+     * Queue<String> messages = reader.readQueue(PacketReader::readString);
+     * // messages will contain the deserialized queue of strings
+     * </pre>
+     *
+     * @param elementReader The reader function for deserializing individual elements of the queue
+     * @param <T>           The type of elements in the queue
+     * @return The queue read from the input buffer, implemented as an {@link ArrayDeque}
+     */
+    public <T> Queue<T> readQueue(ThrowingFunction<PacketReader, T> elementReader) throws PacketSerializationException {
+        int size = readLength();
+        if (size < 0) {
+            throw new PacketSerializationException("Invalid queue size: " + size);
+        }
+        checkAllocation(size, ReadLimits.REFERENCE_SIZE, "queue");
+        Queue<T> queue = new ArrayDeque<>(initialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            queue.add(elementReader.apply(this));
+        }
+        return queue;
+    }
+
+    /**
+     * Reads a nullable value from the input buffer using the provided value reader.
+     * A boolean is read first to determine whether the value is present (true) or null (false).
+     * If the value is present, it is deserialized using the provided {@code valueReader}; otherwise, null is returned.
+     * <p>
+     * Example usage:
+     * <pre>
+     * String nickname = reader.readNullable(PacketReader::readString);
+     * // nickname will be the deserialized value or null
+     * </pre>
+     *
+     * @param valueReader The reader function for deserializing the value, if present
+     * @param <T>         The type of the value
+     * @return The nullable value read from the input buffer, or null if no value was written
+     * @throws PacketSerializationException if an error occurs during deserialization
+     */
+    public <T> T readNullable(ThrowingFunction<PacketReader, T> valueReader) throws PacketSerializationException {
+        boolean isPresent = readBoolean();
+        return isPresent ? valueReader.apply(this) : null;
+    }
+}
@@ -0,0 +1,872 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.util.collection.IntList;
+import com.github.razorplay.packet_handler.util.collection.IntSet;
+import com.github.razorplay.packet_handler.util.collection.LongList;
+import com.github.razorplay.packet_handler.util.collection.LongObjectMap;
+import lombok.Getter;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Encodes packet data into a {@link DataOutput}. This is the write half of {@link PacketDataSerializer}:
+ * it holds no input and performs no mode checks, so that encoding loops only ever call this final class
+ * and every primitive can be inlined down to the underlying {@link java.nio.ByteBuffer} access when the
+ * engine is a {@link ByteBufferDataOutput}.
+ *
+ * <pre>{@code
+ * PacketWriter writer = new PacketWriter(new ByteBufferDataOutput(), WireProfile.COMPACT);
+ * for (Entity entity : entities) {
+ *     writer.writeVarInt(entity.getId());
+ *     writer.writeDouble(entity.getX());
+ * }
+ * }</pre>
+ *
+ * <p>Over a {@link CountingDataOutput} nothing is produced and only the encoded size is computed.</p>
+ */
+public final class PacketWriter {
+    private final DataOutput output;
+    // Direct reference to the ByteBuffer engine, used to skip the DataOutput indirection
+    private final ByteBufferDataOutput bufferOutput;
+    // Set when only the encoded size is being computed, so that bulk data can be counted without being produced
+    private final CountingDataOutput countingOutput;
+    @Getter
+    private final WireProfile wireProfile;
+    private StringTable stringTable;
+
+    public PacketWriter(DataOutput output) {
+        this(output, WireProfile.FIXED);
+    }
+
+    public PacketWriter(DataOutput output, WireProfile wireProfile) {
+        this.output = Objects.requireNonNull(output, "Output cannot be null");
+        this.bufferOutput = output instanceof ByteBufferDataOutput ? (ByteBufferDataOutput) output : null;
+        this.countingOutput = output instanceof CountingDataOutput ? (CountingDataOutput) output : null;
+        this.wireProfile = Objects.requireNonNull(wireProfile, "Wire profile cannot be null");
+    }
+
+    /**
+     * Returns the string table used to deduplicate strings, if any.
+     *
+     * @return The string table, or {@code null} if strings are always written as literals
+     */
+    public StringTable getStringTable() {
+        return stringTable;
+    }
+
+    /**
+     * Enables or disables string deduplication, see {@link PacketDataSerializer#setStringTable(StringTable)}.
+     *
+     * @param stringTable The string table to use, or {@code null} to write plain literals
+     */
+    public void setStringTable(StringTable stringTable) {
+        this.stringTable = stringTable;
+    }
+
+    /**
+     * Writes a byte value to the output buffer.
+     *
+     * @param value The byte value to write
+     */
+    public void writeByte(byte value) {
+        if (bufferOutput != null) {
+            bufferOutput.writeByte(value);
+            return;
+        }
+        try {
+            output.writeByte(value);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a short value to the output buffer.
+     *
+     * @param value The short value to write
+     */
+    public void writeShort(short value) {
+        if (bufferOutput != null) {
+            bufferOutput.writeShort(value);
+            return;
+        }
+        try {
+            output.writeShort(value);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes an int value to the output buffer.
+     *
+     * @param value The int value to write
+     */
+    public void writeInt(int value) {
+        if (bufferOutput != null) {
+            bufferOutput.writeInt(value);
+            return;
+        }
+        try {
+            output.writeInt(value);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a long value to the output buffer.
+     *
+     * @param value The long value to write
+     */
+    public void writeLong(long value) {
+        if (bufferOutput != null) {
+            bufferOutput.writeLong(value);
+            return;
+        }
+        try {
+            output.writeLong(value);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a float value to the output buffer.
+     *
+     * @param value The float value to write
+     */
+    public void writeFloat(float value) {
+        if (bufferOutput != null) {
+            bufferOutput.writeFloat(value);
+            return;
+        }
+        try {
+            output.writeFloat(value);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a double value to the output buffer.
+     *
+     * @param value The double value to write
+     */
+    public void writeDouble(double value) {
+        if (bufferOutput != null) {
+            bufferOutput.writeDouble(value);
+            return;
+        }
+        try {
+            output.writeDouble(value);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a char value to the output buffer.
+     *
+     * @param value The char value to write
+     */
+    public void writeChar(char value) {
+        if (bufferOutput != null) {
+            bufferOutput.writeChar(value);
+            return;
+        }
+        try {
+            output.writeChar(value);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a boolean value to the output buffer.
+     *
+     * @param value The boolean value to write
+     */
+    public void writeBoolean(boolean value) {
+        if (bufferOutput != null) {
+            bufferOutput.writeBoolean(value);
+            return;
+        }
+        try {
+            output.writeBoolean(value);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Starts a block of bit-packed values, such as flags or small counters, written to this writer.
+     * The returned {@link BitWriter} must be flushed before anything else is written.
+     *
+     * @return A new bit writer
+     */
+    public BitWriter bitWriter() {
+        return new BitWriter(this);
+    }
+
+    /**
+     * Writes an int as a variable-length integer: 7 bits per byte, least significant group first,
+     * with the high bit of each byte set when more bytes follow. Values below 128 take a single byte,
+     * negative values always take 5 bytes (use {@link #writeZigZagVarInt(int)} for signed values).
+     *
+     * @param value The int value to write
+     */
+    public void writeVarInt(int value) {
+        if (bufferOutput != null) {
+            bufferOutput.writeVarInt(value);
+            return;
+        }
+        while ((value & ~0x7F) != 0) {
+            writeByte((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((byte) value);
+    }
+
+    /**
+     * Returns the number of bytes {@link #writeVarInt(int)} uses to encode a value.
+     *
+     * @param value The value to encode
+     * @return the encoded size, from 1 to 5 bytes
+     */
+    public static int varIntSize(int value) {
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Returns the number of bytes {@link #writeVarLong(long)} uses to encode a value.
+     *
+     * @param value The value to encode
+     * @return the encoded size, from 1 to 10 bytes
+     */
+    public static int varLongSize(long value) {
+        return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    /**
+     * Writes a long as a variable-length integer, using the same layout as {@link #writeVarInt(int)}.
+     * Values below 128 take a single byte, negative values always take 10 bytes.
+     *
+     * @param value The long value to write
+     */
+    public void writeVarLong(long value) {
+        if (bufferOutput != null) {
+            bufferOutput.writeVarLong(value);
+            return;
+        }
+        while ((value & ~0x7FL) != 0) {
+            writeByte((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((byte) value);
+    }
+
+    /**
+     * Writes a signed int as a ZigZag-encoded variable-length integer, so that values close to zero
+     * (positive or negative) take few bytes: 0 → 0, -1 → 1, 1 → 2, -2 → 3, ...
+     *
+     * @param value The int value to write
+     */
+    public void writeZigZagVarInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes a signed long as a ZigZag-encoded variable-length integer.
+     *
+     * @param value The long value to write
+     */
+    public void writeZigZagVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a decimal value as a fixed-point number: {@code Math.round(value * scale)} is written as a ZigZag VarLong.
+     * With a scale of 4096, a coordinate keeps a precision of 1/4096 and a small value such as a velocity
+     * takes 2 or 3 bytes. Values beyond the range of a long after scaling are clamped, and NaN becomes zero.
+     *
+     * @param value The value to write
+     * @param scale The number of steps per unit, which must be the same when reading
+     */
+    public void writeFixedPoint(double value, double scale) {
+        writeZigZagVarLong(Math.round(value * scale));
+    }
+
+    /**
+     * Writes a float as an IEEE 754 half-precision value, in 2 bytes. About 3 significant decimal digits are kept,
+     * and magnitudes above 65504 become infinite, see {@link Float16}.
+     *
+     * @param value The value to write
+     */
+    public void writeHalfFloat(float value) {
+        writeShort(Float16.fromFloat(value));
+    }
+
+    /**
+     * Writes an angle in degrees as a single byte, in steps of 360/256 degrees. Any angle is accepted
+     * and wrapped around a full turn.
+     *
+     * @param degrees The angle to write, in degrees
+     */
+    public void writeAngle(float degrees) {
+        writeByte((byte) Math.round(degrees * (256f / 360f)));
+    }
+
+    /**
+     * Writes a size or count prefix using the encoding of the {@link WireProfile} of this writer:
+     * a fixed 4-byte int for {@link WireProfile#FIXED}, a VarInt for {@link WireProfile#COMPACT}.
+     *
+     * @param length The non-negative length to write
+     */
+    public void writeLength(int length) {
+        if (wireProfile == WireProfile.COMPACT) {
+            writeVarInt(length);
+        } else {
+            writeInt(length);
+        }
+    }
+
+    /**
+     * Writes a String value to the output buffer.
+     * The length of the string's UTF-8 encoded bytes is written as a length prefix,
+     * followed by the raw bytes of the string. With a {@link ByteBufferDataOutput} engine the
+     * bytes are encoded straight into the buffer, without an intermediate array.
+     * If a {@link StringTable} is set, strings already in the table are written as a slot reference instead.
+     *
+     * @param value The String value to write
+     */
+    public void writeString(String value) {
+        if (stringTable != null) {
+            int slot = stringTable.lookup(value);
+            if (slot >= 0) {
+                writeVarInt(slot + 1);
+                return;
+            }
+            writeVarInt(0);
+            writeStringLiteral(value);
+            stringTable.add(value);
+            return;
+        }
+        writeStringLiteral(value);
+    }
+
+    private void writeStringLiteral(String value) {
+        if (bufferOutput != null) {
+            int length = Utf8.encodedLength(value);
+            writeLength(length);
+            bufferOutput.writeUtf8(value, length);
+            return;
+        }
+        if (countingOutput != null) {
+            int length = Utf8.encodedLength(value);
+            writeLength(length);
+            countingOutput.skip(length);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeLength(bytes.length);
+        try {
+            output.write(bytes);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes an enum value to the output buffer by serializing its name as a UTF-8 string.
+     *
+     * @param enumValue The enum value to write
+     * @param <T>       The type of the enum
+     */
+    public <T extends Enum<T>> void writeEnum(T enumValue) {
+        writeString(enumValue != null ? enumValue.name() : "null");
+    }
+
+    /**
+     * Writes an enum value as a VarInt holding its ordinal plus one, {@code 0} being {@code null}.
+     * Most enums take a single byte. Both sides must declare the enum constants in the same order,
+     * which can be checked with {@link com.github.razorplay.packet_handler.network.reflection.util.SchemaFingerprint}.
+     *
+     * @param enumValue The enum value to write, may be null
+     * @param <T>       The type of the enum
+     */
+    public <T extends Enum<T>> void writeEnumOrdinal(T enumValue) {
+        writeVarInt(enumValue != null ? enumValue.ordinal() + 1 : 0);
+    }
+
+    /**
+     * Writes a set of enum values as a bitmask indexed by ordinal. Enums with up to 64 constants use a
+     * single VarLong; larger enums write the number of 64-bit words followed by each word as a VarLong.
+     *
+     * @param values    The set to write
+     * @param enumClass The class of the enum
+     * @param <T>       The type of the enum
+     */
+    public <T extends Enum<T>> void writeEnumSet(Set<T> values, Class<T> enumClass) {
+        int universe = EnumConstants.get(enumClass).length;
+        if (universe <= Long.SIZE) {
+            long mask = 0;
+            for (T value : values) {
+                mask |= 1L << value.ordinal();
+            }
+            writeVarLong(mask);
+            return;
+        }
+
+        long[] words = new long[(universe + Long.SIZE - 1) / Long.SIZE];
+        int used = 0;
+        for (T value : values) {
+            int ordinal = value.ordinal();
+            words[ordinal >>> 6] |= 1L << ordinal;
+            used = Math.max(used, (ordinal >>> 6) + 1);
+        }
+        writeVarInt(used);
+        for (int i = 0; i < used; i++) {
+            writeVarLong(words[i]);
+        }
+    }
+
+    /**
+     * Writes a list to the output buffer using the provided element writer.
+     * The size of the list is written first as a length prefix, followed by each element
+     * serialized using the provided {@code elementWriter}.
+     * <p>
+     * Example usage:
+     * <pre>
+     * List<String> names = Arrays.asList("Alice", "Bob", "Charlie");
+     * writer.writeList(names, PacketWriter::writeString);
+     * </pre>
+     *
+     * @param list          The list to write to the output buffer
+     * @param elementWriter The writer function for serializing individual elements of the list
+     * @param <T>           The type of elements in the list
+     */
+    public <T> void writeList(List<T> list, BiConsumer<PacketWriter, T> elementWriter) {
+        writeLength(list.size());
+        for (T element : list) {
+            elementWriter.accept(this, element);
+        }
+    }
+
+    /**
+     * Writes a set to the output buffer using the provided element writer.
+     * The size of the set is written first as a length prefix, followed by each element
+     * serialized using the provided {@code elementWriter}.
+     * <p>
+     * Example usage:
+     * <pre>
+     * Set<String> roles = Set.of("ADMIN", "USER", "GUEST");
+     * writer.writeSet(roles, PacketWriter::writeString);
+     * </pre>
+     *
+     * @param set           The set to write to the output buffer
+     * @param elementWriter The writer function for serializing individual elements of the set
+     * @param <T>           The type of elements in the set
+     */
+    public <T> void writeSet(Set<T> set, BiConsumer<PacketWriter, T> elementWriter) {
+        writeLength(set.size());
+        for (T element : set) {
+            elementWriter.accept(this, element);
+        }
+    }
+
+    /**
+     * Writes a map to the output buffer using the provided key and value writers.
+     * The size of the map is written first as a length prefix, followed by each key-value pair
+     * serialized using the provided {@code keyWriter} and {@code valueWriter}.
+     * <p>
+     * Example usage:
+     * <pre>
+     * Map<String, Integer> scores = Map.of("Alice", 100, "Bob", 200);
+     * writer.writeMap(scores,
+     *     PacketWriter::writeString,
+     *     PacketWriter::writeInt);
+     * </pre>
+     *
+     * @param map         The map to write to the output buffer
+     * @param keyWriter   The writer function for serializing map keys
+     * @param valueWriter The writer function for serializing map values
+     * @param <K>         The type of keys in the map
+     * @param <V>         The type of values in the map
+     */
+    public <K, V> void writeMap(Map<K, V> map,
+                                BiConsumer<PacketWriter, K> keyWriter,
+                                BiConsumer<PacketWriter, V> valueWriter) {
+        writeLength(map.size());
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            keyWriter.accept(this, entry.getKey());
+            valueWriter.accept(this, entry.getValue());
+        }
+    }
+
+    /**
+     * Writes a UUID to the output buffer.
+     * The UUID is serialized by writing its most significant bits and least significant bits
+     * as two long values.
+     * <p>
+     * Example usage:
+     * <pre>
+     * UUID playerId = UUID.randomUUID();
+     * writer.writeUUID(playerId);
+     * </pre>
+     *
+     * @param uuid The UUID to write to the output buffer
+     */
+    public void writeUUID(UUID uuid) {
+        writeLong(uuid.getMostSignificantBits());
+        writeLong(uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Writes an Optional value to the output buffer using the provided value writer.
+     * A boolean is written first to indicate whether the value is present. If the value
+     * is present, it is serialized using the provided {@code valueWriter}.
+     * <p>
+     * Example usage:
+     * <pre>
+     * Optional<String> nickname = Optional.of("Alice");
+     * writer.writeOptional(nickname, PacketWriter::writeString);
+     * </pre>
+     *
+     * @param optional    The Optional value to write to the output buffer
+     * @param valueWriter The writer function for serializing the value, if present
+     * @param <T>         The type of the value in the Optional
+     */
+    public <T> void writeOptional(@SuppressWarnings("all") Optional<T> optional, BiConsumer<PacketWriter, T> valueWriter) {
+        writeBoolean(optional.isPresent());
+        optional.ifPresent(t -> valueWriter.accept(this, t));
+    }
+
+    /**
+     * Writes a byte array to the output buffer.
+     * The length of the array is written first as a length prefix, followed by each byte
+     * in the array.
+     * <p>
+     * Example usage:
+     * <pre>
+     * byte[] data = new byte[] { 0x01, 0x02, 0x03 };
+     * writer.writeByteArray(data);
+     * </pre>
+     *
+     * @param bytes The byte array to write to the output buffer
+     */
+    public void writeByteArray(byte[] bytes) {
+        writeLength(bytes.length);
+        try {
+            output.write(bytes);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a short array: its length as a length prefix, followed by every element.
+     * With a {@link ByteBufferDataOutput} engine the whole array is copied in bulk.
+     *
+     * @param values The array to write
+     */
+    public void writeShortArray(short[] values) {
+        writeLength(values.length);
+        if (bufferOutput != null) {
+            bufferOutput.writeShorts(values, 0, values.length);
+            return;
+        }
+        if (countingOutput != null) {
+            countingOutput.skip(Math.multiplyExact(values.length, Short.BYTES));
+            return;
+        }
+        try {
+            for (short value : values) {
+                output.writeShort(value);
+            }
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a int array: its length as a length prefix, followed by every element.
+     * With a {@link ByteBufferDataOutput} engine the whole array is copied in bulk.
+     *
+     * @param values The array to write
+     */
+    public void writeIntArray(int[] values) {
+        writeIntElements(values, values.length);
+    }
+
+    private void writeIntElements(int[] values, int length) {
+        writeLength(length);
+        if (bufferOutput != null) {
+            bufferOutput.writeInts(values, 0, length);
+            return;
+        }
+        if (countingOutput != null) {
+            countingOutput.skip(Math.multiplyExact(length, Integer.BYTES));
+            return;
+        }
+        try {
+            for (int i = 0; i < length; i++) {
+                output.writeInt(values[i]);
+            }
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a long array: its length as a length prefix, followed by every element.
+     * With a {@link ByteBufferDataOutput} engine the whole array is copied in bulk.
+     *
+     * @param values The array to write
+     */
+    public void writeLongArray(long[] values) {
+        writeLongElements(values, values.length);
+    }
+
+    private void writeLongElements(long[] values, int length) {
+        writeLength(length);
+        if (bufferOutput != null) {
+            bufferOutput.writeLongs(values, 0, length);
+            return;
+        }
+        if (countingOutput != null) {
+            countingOutput.skip(Math.multiplyExact(length, Long.BYTES));
+            return;
+        }
+        try {
+            for (int i = 0; i < length; i++) {
+                output.writeLong(values[i]);
+            }
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a float array: its length as a length prefix, followed by every element.
+     * With a {@link ByteBufferDataOutput} engine the whole array is copied in bulk.
+     *
+     * @param values The array to write
+     */
+    public void writeFloatArray(float[] values) {
+        writeLength(values.length);
+        if (bufferOutput != null) {
+            bufferOutput.writeFloats(values, 0, values.length);
+            return;
+        }
+        if (countingOutput != null) {
+            countingOutput.skip(Math.multiplyExact(values.length, Float.BYTES));
+            return;
+        }
+        try {
+            for (float value : values) {
+                output.writeFloat(value);
+            }
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes a double array: its length as a length prefix, followed by every element.
+     * With a {@link ByteBufferDataOutput} engine the whole array is copied in bulk.
+     *
+     * @param values The array to write
+     */
+    public void writeDoubleArray(double[] values) {
+        writeLength(values.length);
+        if (bufferOutput != null) {
+            bufferOutput.writeDoubles(values, 0, values.length);
+            return;
+        }
+        if (countingOutput != null) {
+            countingOutput.skip(Math.multiplyExact(values.length, Double.BYTES));
+            return;
+        }
+        try {
+            for (double value : values) {
+                output.writeDouble(value);
+            }
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Writes an {@link IntList}, using the same format as {@link #writeIntArray(int[])}.
+     *
+     * @param list The list to write
+     */
+    public void writeIntList(IntList list) {
+        writeIntElements(list.elements(), list.size());
+    }
+
+    /**
+     * Writes a {@link LongList}, using the same format as {@link #writeLongArray(long[])}.
+     *
+     * @param list The list to write
+     */
+    public void writeLongList(LongList list) {
+        writeLongElements(list.elements(), list.size());
+    }
+
+    /**
+     * Writes an int array with a delta encoding: its length as a length prefix, followed by
+     * every encoded value as a ZigZag VarInt. Differences wrap around on overflow, so any array can be written.
+     *
+     * @param values   The array to write
+     * @param encoding The delta encoding, which must be the same when reading
+     */
+    public void writeDeltaIntArray(int[] values, DeltaEncoding encoding) {
+        writeDeltaInts(values, values.length, encoding);
+    }
+
+    /**
+     * Writes an {@link IntList}, using the same format as {@link #writeDeltaIntArray(int[], DeltaEncoding)}.
+     *
+     * @param list     The list to write
+     * @param encoding The delta encoding, which must be the same when reading
+     */
+    public void writeDeltaIntList(IntList list, DeltaEncoding encoding) {
+        writeDeltaInts(list.elements(), list.size(), encoding);
+    }
+
+    private void writeDeltaInts(int[] values, int length, DeltaEncoding encoding) {
+        boolean ofDelta = encoding == DeltaEncoding.DELTA_OF_DELTA;
+        writeLength(length);
+        int previous = 0;
+        int previousDelta = 0;
+        for (int i = 0; i < length; i++) {
+            int delta = values[i] - previous;
+            writeZigZagVarInt(ofDelta && i > 1 ? delta - previousDelta : delta);
+            previous = values[i];
+            previousDelta = delta;
+        }
+    }
+
+    /**
+     * Writes a long array with a delta encoding: its length as a length prefix, followed by
+     * every encoded value as a ZigZag VarLong. Differences wrap around on overflow, so any array can be written.
+     *
+     * @param values   The array to write
+     * @param encoding The delta encoding, which must be the same when reading
+     */
+    public void writeDeltaLongArray(long[] values, DeltaEncoding encoding) {
+        writeDeltaLongs(values, values.length, encoding);
+    }
+
+    /**
+     * Writes a {@link LongList}, using the same format as {@link #writeDeltaLongArray(long[], DeltaEncoding)}.
+     *
+     * @param list     The list to write
+     * @param encoding The delta encoding, which must be the same when reading
+     */
+    public void writeDeltaLongList(LongList list, DeltaEncoding encoding) {
+        writeDeltaLongs(list.elements(), list.size(), encoding);
+    }
+
+    private void writeDeltaLongs(long[] values, int length, DeltaEncoding encoding) {
+        boolean ofDelta = encoding == DeltaEncoding.DELTA_OF_DELTA;
+        writeLength(length);
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < length; i++) {
+            long delta = values[i] - previous;
+            writeZigZagVarLong(ofDelta && i > 1 ? delta - previousDelta : delta);
+            previous = values[i];
+            previousDelta = delta;
+        }
+    }
+
+    /**
+     * Writes an {@link IntSet}: its size as a length prefix, followed by every value.
+     *
+     * @param set The set to write
+     */
+    public void writeIntSet(IntSet set) {
+        writeLength(set.size());
+        set.forEach(this::writeInt);
+    }
+
+    /**
+     * Writes a {@link LongObjectMap}: its size as a length prefix, followed by each key and its value.
+     *
+     * @param map         The map to write
+     * @param valueWriter A function to write each value
+     * @param <V>         The type of the values
+     */
+    public <V> void writeLongObjectMap(LongObjectMap<V> map, BiConsumer<PacketWriter, V> valueWriter) {
+        writeLength(map.size());
+        map.forEach((key, value) -> {
+            writeLong(key);
+            valueWriter.accept(this, value);
+        });
+    }
+
+    /**
+     * Writes a queue to the output buffer using the provided element writer.
+     * The size of the queue is written first as a length prefix, followed by each element
+     * serialized using the provided {@code elementWriter} in the order they are polled.
+     * <p>
+     * Example usage:
+     * <pre>
+     * Queue<String> messages = new ArrayDeque<>(Arrays.asList("First", "Second", "Third"));
+     * writer.writeQueue(messages, PacketWriter::writeString);
+     * </pre>
+     *
+     * @param queue         The queue to write to the output buffer
+     * @param elementWriter The writer function for serializing individual elements of the queue
+     * @param <T>           The type of elements in the queue
+     */
+    public <T> void writeQueue(Queue<T> queue, BiConsumer<PacketWriter, T> elementWriter) {
+        writeLength(queue.size());
+        for (T element : queue) {
+            elementWriter.accept(this, element);
+        }
+    }
+
+    /**
+     * Writes a nullable value to the output buffer using the provided value writer.
+     * A boolean is written first to indicate whether the value is present (true) or null (false).
+     * If the value is not null, it is serialized using the provided {@code valueWriter}.
+     * <p>
+     * Example usage:
+     * <pre>
+     * String nickname = "Alice";
+     * writer.writeNullable(nickname, PacketWriter::writeString);
+     * writer.writeNullable(null, PacketWriter::writeString);
+     * </pre>
+     *
+     * @param value       The nullable value to write to the output buffer
+     * @param valueWriter The writer function for serializing the value, if not null
+     * @param <T>         The type of the value
+     */
+    public <T> void writeNullable(T value, ThrowingBiConsumer<PacketWriter, T> valueWriter) {
+        writeBoolean(value != null);
+        if (value != null) {
+            try {
+                valueWriter.accept(this, value);
+            } catch (PacketSerializationException e) {
+                e.printStackTrace(System.out);
+            }
+        }
+    }
+
+    public void write(byte[] content) {
+        try {
+            output.write(content);
+        } catch (IOException e) {
+            e.printStackTrace(System.out);
+        }
+    }
+}
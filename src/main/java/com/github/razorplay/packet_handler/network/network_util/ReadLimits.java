@@ -0,0 +1,76 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+/**
+ * Bounds on what a {@link PacketDataSerializer} may allocate while decoding untrusted input.
+ *
+ * <p>Every length prefix is checked before anything is allocated: a string, array or collection may not declare
+ * more than {@link #maxElements()} elements, and the estimated memory of everything allocated by one serializer
+ * may not exceed {@link #maxAllocatedBytes()}. Strings and arrays are accounted at their size on the wire and
+ * collections at {@value #REFERENCE_SIZE} bytes per element, on top of whatever their elements allocate.</p>
+ *
+ * <pre>{@code
+ * // At most 4096 elements per collection and 256 KB per login packet
+ * PacketTCP.setReadLimits("login_packet", new ReadLimits(4096, 256 * 1024));
+ * }</pre>
+ */
+public final class ReadLimits {
+    /**
+     * The estimated cost, in bytes, of one element reference in a decoded collection.
+     */
+    public static final int REFERENCE_SIZE = 8;
+
+    /**
+     * No limits. Allocations are still capped by the remaining input when it is known.
+     */
+    public static final ReadLimits UNLIMITED = new ReadLimits(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    /**
+     * The limits applied by {@link com.github.razorplay.packet_handler.network.PacketTCP} to packets
+     * without limits of their own: any number of elements, and at most 64 MB allocated per packet.
+     */
+    public static final ReadLimits DEFAULT = new ReadLimits(Integer.MAX_VALUE, 64L * 1024 * 1024);
+
+    private final int maxElements;
+    private final long maxAllocatedBytes;
+
+    /**
+     * Creates read limits.
+     *
+     * @param maxElements       the maximum number of elements of a single string, array or collection
+     * @param maxAllocatedBytes the maximum number of bytes allocated by a single serializer
+     * @throws IllegalArgumentException if either limit is negative
+     */
+    public ReadLimits(int maxElements, long maxAllocatedBytes) {
+        if (maxElements < 0) {
+            throw new IllegalArgumentException("Invalid max elements: " + maxElements);
+        }
+        if (maxAllocatedBytes < 0) {
+            throw new IllegalArgumentException("Invalid max allocated bytes: " + maxAllocatedBytes);
+        }
+        this.maxElements = maxElements;
+        this.maxAllocatedBytes = maxAllocatedBytes;
+    }
+
+    /**
+     * Returns the maximum number of elements of a single string, array or collection.
+     *
+     * @return the element limit
+     */
+    public int maxElements() {
+        return maxElements;
+    }
+
+    /**
+     * Returns the maximum number of bytes allocated by a single serializer.
+     *
+     * @return the allocation budget
+     */
+    public long maxAllocatedBytes() {
+        return maxAllocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadLimits{maxElements=" + maxElements + ", maxAllocatedBytes=" + maxAllocatedBytes + "}";
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A bounded dictionary of recently transferred strings, used by a {@link PacketDataSerializer} to replace
+ * repeated strings with a small slot reference.
+ *
+ * <p>Each direction of a connection keeps its own table: the sender's table is fed by
+ * {@link PacketDataSerializer#writeString(String)} and the receiver's by {@link PacketDataSerializer#readString()}.
+ * Both tables see the same sequence of literals and references, so as long as they are created with the same
+ * capacity and maximum entry length, they assign and evict slots identically without any extra traffic.</p>
+ *
+ * <p>Once full, a new literal replaces the least recently used entry. Strings longer than the maximum entry
+ * length are always sent as literals and never stored.</p>
+ *
+ * <p>This class is not thread-safe.</p>
+ */
+public final class StringTable {
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_MAX_ENTRY_LENGTH = 256;
+    private static final int NONE = -1;
+
+    private final int maxEntryLength;
+    private final String[] entries;
+    // Doubly-linked recency list over the slots, from head (most recent) to tail (least recent)
+    private final int[] previous;
+    private final int[] next;
+    private final Map<String, Integer> slots;
+    private int size;
+    private int head = NONE;
+    private int tail = NONE;
+
+    /**
+     * Creates a table with the default capacity and maximum entry length.
+     */
+    public StringTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_ENTRY_LENGTH);
+    }
+
+    /**
+     * Creates a table with the given bounds. Both sides of a connection must use the same values.
+     *
+     * @param capacity       the maximum number of stored strings
+     * @param maxEntryLength the maximum length, in chars, of a stored string
+     * @throws IllegalArgumentException if capacity is not positive or maxEntryLength is negative
+     */
+    public StringTable(int capacity, int maxEntryLength) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (maxEntryLength < 0) {
+            throw new IllegalArgumentException("Invalid max entry length: " + maxEntryLength);
+        }
+        this.maxEntryLength = maxEntryLength;
+        this.entries = new String[capacity];
+        this.previous = new int[capacity];
+        this.next = new int[capacity];
+        this.slots = new HashMap<>();
+    }
+
+    /**
+     * Returns the maximum number of stored strings.
+     *
+     * @return the capacity of the table
+     */
+    public int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * Returns the number of stored strings.
+     *
+     * @return the size of the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up a string on the sending side. On a hit the entry becomes the most recently used.
+     *
+     * @param value the string to look up
+     * @return the slot of the string, or -1 if it is not stored
+     */
+    public int lookup(String value) {
+        Integer slot = slots.get(value);
+        if (slot == null) {
+            return NONE;
+        }
+        touch(slot);
+        return slot;
+    }
+
+    /**
+     * Resolves a slot reference on the receiving side. The entry becomes the most recently used.
+     *
+     * @param slot the slot to resolve
+     * @return the stored string, or {@code null} if the slot is not in use
+     */
+    public String get(int slot) {
+        if (slot < 0 || slot >= size) {
+            return null;
+        }
+        touch(slot);
+        return entries[slot];
+    }
+
+    /**
+     * Stores a string that was just transferred as a literal, evicting the least recently used entry if
+     * the table is full. Strings longer than the maximum entry length are ignored.
+     *
+     * @param value the string to store
+     */
+    public void add(String value) {
+        if (value.length() > maxEntryLength) {
+            return;
+        }
+
+        int slot;
+        if (size < entries.length) {
+            slot = size++;
+        } else {
+            slot = tail;
+            unlink(slot);
+            slots.remove(entries[slot], slot);
+        }
+        entries[slot] = value;
+        slots.put(value, slot);
+        linkFirst(slot);
+    }
+
+    /**
+     * Removes every stored string.
+     */
+    public void clear() {
+        Arrays.fill(entries, 0, size, null);
+        slots.clear();
+        size = 0;
+        head = NONE;
+        tail = NONE;
+    }
+
+    private void touch(int slot) {
+        if (slot != head) {
+            unlink(slot);
+            linkFirst(slot);
+        }
+    }
+
+    private void unlink(int slot) {
+        int before = previous[slot];
+        int after = next[slot];
+        if (before == NONE) {
+            head = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NONE) {
+            tail = before;
+        } else {
+            previous[after] = before;
+        }
+    }
+
+    private void linkFirst(int slot) {
+        previous[slot] = NONE;
+        next[slot] = head;
+        if (head != NONE) {
+            previous[head] = slot;
+        }
+        head = slot;
+        if (tail == NONE) {
+            tail = slot;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utility class encoding and decoding standard UTF-8 strings straight to and from {@link ByteBuffer}s,
+ * without the temporary arrays created by {@link String#getBytes(java.nio.charset.Charset)}.
+ * The produced bytes are identical to {@code value.getBytes(StandardCharsets.UTF_8)}, including the
+ * {@code '?'} replacement of unpaired surrogates.
+ */
+public final class Utf8 {
+    private static final int MAX_SCRATCH_SIZE = 64 * 1024;
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private Utf8() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Computes the number of bytes needed to encode the given string in UTF-8.
+     *
+     * @param value the string to measure
+     * @return the encoded length, in bytes
+     */
+    public static int encodedLength(String value) {
+        int length = value.length();
+        int index = 0;
+        // ASCII prefix: one byte per char
+        while (index < length && value.charAt(index) < 0x80) {
+            index++;
+        }
+
+        int bytes = length;
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && index + 1 < length && Character.isLowSurrogate(value.charAt(index + 1))) {
+                bytes += 2; // 4 bytes for 2 chars
+                index++;
+            }
+            // An unpaired surrogate is replaced by '?', a single byte
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes the given string in UTF-8 into the buffer, advancing its position.
+     * Leading ASCII characters are copied one byte per char before falling back to the general encoder.
+     *
+     * @param value         the string to encode
+     * @param encodedLength the result of {@link #encodedLength(String)} for the string
+     * @param target        the buffer to write into, which must have at least encodedLength bytes remaining
+     */
+    public static void encode(String value, int encodedLength, ByteBuffer target) {
+        int length = value.length();
+        if (target.hasArray()) {
+            byte[] array = target.array();
+            int offset = target.arrayOffset() + target.position();
+            int index = 0;
+            for (char c; index < length && (c = value.charAt(index)) < 0x80; index++) {
+                array[offset + index] = (byte) c;
+            }
+            for (offset += index; index < length; index++) {
+                char c = value.charAt(index);
+                if (c < 0x80) {
+                    array[offset++] = (byte) c;
+                } else if (c < 0x800) {
+                    array[offset++] = (byte) (0xC0 | (c >> 6));
+                    array[offset++] = (byte) (0x80 | (c & 0x3F));
+                } else if (!Character.isSurrogate(c)) {
+                    array[offset++] = (byte) (0xE0 | (c >> 12));
+                    array[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    array[offset++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && index + 1 < length && Character.isLowSurrogate(value.charAt(index + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++index));
+                    array[offset++] = (byte) (0xF0 | (codePoint >> 18));
+                    array[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    array[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    array[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    array[offset++] = (byte) '?';
+                }
+            }
+            target.position(target.position() + encodedLength);
+            return;
+        }
+
+        int index = 0;
+        for (char c; index < length && (c = value.charAt(index)) < 0x80; index++) {
+            target.put((byte) c);
+        }
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+            if (c < 0x80) {
+                target.put((byte) c);
+            } else if (c < 0x800) {
+                target.put((byte) (0xC0 | (c >> 6)));
+                target.put((byte) (0x80 | (c & 0x3F)));
+            } else if (!Character.isSurrogate(c)) {
+                target.put((byte) (0xE0 | (c >> 12)));
+                target.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                target.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && index + 1 < length && Character.isLowSurrogate(value.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++index));
+                target.put((byte) (0xF0 | (codePoint >> 18)));
+                target.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                target.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                target.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                target.put((byte) '?');
+            }
+        }
+    }
+
+    /**
+     * Decodes {@code length} UTF-8 bytes from the buffer into a string, advancing its position.
+     * Heap buffers are decoded in place; direct buffers are copied through a reusable per-thread scratch array.
+     *
+     * @param source the buffer to read from, which must have at least length bytes remaining
+     * @param length the number of bytes to decode
+     * @return the decoded string
+     */
+    public static String decode(ByteBuffer source, int length) {
+        int position = source.position();
+        if (source.hasArray()) {
+            String value = new String(source.array(), source.arrayOffset() + position, length, StandardCharsets.UTF_8);
+            source.position(position + length);
+            return value;
+        }
+
+        byte[] scratch = length <= MAX_SCRATCH_SIZE ? scratch(length) : new byte[length];
+        source.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] scratch(int length) {
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.min(MAX_SCRATCH_SIZE, Math.max(length, scratch.length << 1))];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+/**
+ * Defines how a {@link PacketDataSerializer} encodes sizes and counts, such as the length prefixes
+ * of strings, byte arrays and collections. Both sides of a connection must use the same profile.
+ */
+public enum WireProfile {
+
+    /**
+     * Every length prefix is a fixed 4-byte int and stream counts are fixed 8-byte longs.
+     * This is the original wire format and the default.
+     */
+    FIXED,
+
+    /**
+     * Every length prefix and stream count is a variable-length integer (1 byte for values below 128).
+     */
+    COMPACT
+}
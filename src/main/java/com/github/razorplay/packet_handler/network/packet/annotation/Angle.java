@@ -0,0 +1,26 @@
+package com.github.razorplay.packet_handler.network.packet.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to mark {@code float} or {@code double} fields holding an angle in degrees
+ * that should be serialized as a single byte, in steps of 360/256 degrees.<br>
+ * Decoded angles are normalized to [-180, 180).
+ *
+ * <pre>{@code
+ * public class EntityLookPacket implements SimplePacket {
+ *     @Angle
+ *     private float yaw;
+ *
+ *     @Angle
+ *     private float pitch;
+ * }
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+public @interface Angle {
+}
@@ -0,0 +1,28 @@
+package com.github.razorplay.packet_handler.network.packet.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to mark classes whose {@code boolean} fields, and integer fields annotated with {@link Bits},
+ * should be packed together into as few bytes as possible.<br>
+ * The packed fields are written first, as one block of bits in declaration order padded to a whole byte,
+ * followed by the other fields as usual. Only primitive fields are packed.
+ *
+ * <pre>{@code
+ * @BitPacked
+ * public class PlayerStatePacket implements SimplePacket {
+ *     private boolean sneaking;
+ *     private boolean sprinting;
+ *     @Bits(4)
+ *     private int hotbarSlot;
+ *     private String world; // not packed
+ * }
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface BitPacked {
+}
@@ -0,0 +1,38 @@
+package com.github.razorplay.packet_handler.network.packet.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to set the number of bits used by a {@code byte}, {@code short}, {@code int} or {@code long}
+ * field of a {@link BitPacked} class.<br>
+ * Encoding fails if the value does not fit in the given width.
+ *
+ * <pre>{@code
+ * @Bits(5)
+ * private int level;          // 0 to 31
+ *
+ * @Bits(value = 8, signed = true)
+ * private int offset;         // -128 to 127
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Bits {
+
+    /**
+     * The number of bits of the value, from 1 to the size of the field type.
+     *
+     * @return the bit width
+     */
+    int value();
+
+    /**
+     * Whether the value may be negative, in which case it is written in two's complement.
+     *
+     * @return {@code true} if the value is signed
+     */
+    boolean signed() default false;
+}
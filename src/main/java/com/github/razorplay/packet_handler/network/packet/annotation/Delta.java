@@ -0,0 +1,36 @@
+package com.github.razorplay.packet_handler.network.packet.annotation;
+
+import com.github.razorplay.packet_handler.network.network_util.DeltaEncoding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to mark sequences of integers that should be serialized as differences between
+ * consecutive values, each written as a ZigZag VarInt or VarLong, instead of fixed 4 or 8 bytes per value.<br>
+ * Applies to {@code int[]}, {@code long[]}, {@code IntList}, {@code LongList} and {@code List<Integer>}
+ * or {@code List<Long>} fields. Sorted or steadily growing sequences shrink to one or two bytes per value.
+ *
+ * <pre>{@code
+ * public class ReplayChunkPacket implements SimplePacket {
+ *     @Delta
+ *     private IntList entityIds;
+ *
+ *     @Delta(DeltaEncoding.DELTA_OF_DELTA)
+ *     private long[] timestamps;
+ * }
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+public @interface Delta {
+
+    /**
+     * The delta encoding of the sequence.
+     *
+     * @return the delta encoding
+     */
+    DeltaEncoding value() default DeltaEncoding.DELTA;
+}
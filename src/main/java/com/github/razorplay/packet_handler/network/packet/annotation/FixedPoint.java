@@ -0,0 +1,34 @@
+package com.github.razorplay.packet_handler.network.packet.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to mark {@code float} or {@code double} fields that should be serialized as
+ * fixed-point numbers instead of fixed 4 or 8 bytes.<br>
+ * The value is multiplied by {@link #scale()}, rounded, and written as a ZigZag VarLong, so the precision
+ * is {@code 1 / scale} and small values take few bytes.
+ *
+ * <pre>{@code
+ * public class EntityMovePacket implements SimplePacket {
+ *     @FixedPoint(scale = 4096)
+ *     private double deltaX;
+ *
+ *     @FixedPoint(scale = 100)
+ *     private float speed;
+ * }
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+public @interface FixedPoint {
+
+    /**
+     * The number of steps per unit. Must be positive and finite.
+     *
+     * @return the scale of the fixed-point value
+     */
+    double scale();
+}
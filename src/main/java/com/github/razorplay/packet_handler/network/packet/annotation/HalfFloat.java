@@ -0,0 +1,24 @@
+package com.github.razorplay.packet_handler.network.packet.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to mark {@code float} or {@code double} fields that should be serialized as
+ * IEEE 754 half-precision values, in 2 bytes.<br>
+ * About 3 significant decimal digits are kept and magnitudes above 65504 become infinite,
+ * which suits values such as colors, scales or particle parameters.
+ *
+ * <pre>{@code
+ * public class ParticlePacket implements SimplePacket {
+ *     @HalfFloat
+ *     private float size;
+ * }
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+public @interface HalfFloat {
+}
@@ -0,0 +1,34 @@
+package com.github.razorplay.packet_handler.network.packet.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation to mark {@code int} or {@code long} fields that should be serialized as
+ * variable-length integers instead of fixed 4 or 8 bytes.<br>
+ * Small non-negative values take a single byte. Fields that often hold negative values should
+ * enable {@link #zigZag()}.
+ *
+ * <pre>{@code
+ * public class PlayerStatsPacket implements SimplePacket {
+ *     @VarInt
+ *     private int kills;
+ *
+ *     @VarInt(zigZag = true)
+ *     private long balanceDelta;
+ * }
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+public @interface VarInt {
+
+    /**
+     * Whether the value should be ZigZag-encoded, so that small negative values are also short.
+     *
+     * @return {@code true} to use ZigZag encoding
+     */
+    boolean zigZag() default false;
+}
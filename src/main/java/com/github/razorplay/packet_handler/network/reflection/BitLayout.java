@@ -0,0 +1,193 @@
+package com.github.razorplay.packet_handler.network.reflection;
+
+import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.network_util.BitReader;
+import com.github.razorplay.packet_handler.network.network_util.BitWriter;
+import com.github.razorplay.packet_handler.network.network_util.PacketDataSerializer;
+import com.github.razorplay.packet_handler.network.packet.annotation.BitPacked;
+import com.github.razorplay.packet_handler.network.packet.annotation.Bits;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The bit-packed fields of a class, see {@link BitPacked}. Layouts are computed once per class and cached.
+ */
+final class BitLayout {
+    private static final BitLayout EMPTY = new BitLayout(new Field[0], new int[0], new boolean[0]);
+
+    private static final ClassValue<BitLayout> LAYOUTS = new ClassValue<BitLayout>() {
+        @Override
+        protected BitLayout computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    private final Field[] fields;
+    private final int[] widths;
+    private final boolean[] signed;
+
+    private BitLayout(Field[] fields, int[] widths, boolean[] signed) {
+        this.fields = fields;
+        this.widths = widths;
+        this.signed = signed;
+    }
+
+    /**
+     * Returns the bit layout of a class, which is empty unless the class is annotated with {@link BitPacked}.
+     *
+     * @param type the class to inspect
+     * @return the bit layout of the class
+     * @throws PacketSerializationException if a {@link Bits} annotation is invalid
+     */
+    static BitLayout of(Class<?> type) throws PacketSerializationException {
+        try {
+            return LAYOUTS.get(type);
+        } catch (IllegalArgumentException e) {
+            throw new PacketSerializationException("Invalid bit-packed layout for " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the position of a field in this layout.
+     *
+     * @param field the field to look for
+     * @return the index of the field in the values of {@link #read(PacketDataSerializer)}, or -1 if it is not packed
+     */
+    int indexOf(Field field) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the packed fields of an object as one block of bits.
+     *
+     * @param writer   the serializer to write to
+     * @param instance the object to read the fields from
+     * @throws PacketSerializationException if a value does not fit in its bit width
+     */
+    void write(PacketDataSerializer writer, Object instance) throws PacketSerializationException {
+        if (fields.length == 0) {
+            return;
+        }
+        BitWriter bits = writer.bitWriter();
+        try {
+            for (int i = 0; i < fields.length; i++) {
+                Field field = fields[i];
+                if (field.getType() == boolean.class) {
+                    bits.writeBoolean(field.getBoolean(instance));
+                    continue;
+                }
+                long value = field.getLong(instance);
+                if (!fits(value, widths[i], signed[i])) {
+                    throw new PacketSerializationException("Value " + value + " of field " + field.getName() + " does not fit in " + widths[i] + " bits");
+                }
+                bits.writeBits(value, widths[i]);
+            }
+        } catch (IllegalAccessException e) {
+            throw new PacketSerializationException("Failed to access bit-packed field", e);
+        }
+        bits.flush();
+    }
+
+    /**
+     * Reads a block of bits written by {@link #write(PacketDataSerializer, Object)}.
+     *
+     * @param reader the serializer to read from
+     * @return the boxed values of the packed fields, in layout order
+     * @throws PacketSerializationException if an error occurs during reading
+     */
+    Object[] read(PacketDataSerializer reader) throws PacketSerializationException {
+        Object[] values = new Object[fields.length];
+        if (fields.length == 0) {
+            return values;
+        }
+        BitReader bits = reader.bitReader();
+        for (int i = 0; i < fields.length; i++) {
+            Class<?> type = fields[i].getType();
+            if (type == boolean.class) {
+                values[i] = bits.readBoolean();
+                continue;
+            }
+            long value = signed[i] ? bits.readSignedBits(widths[i]) : bits.readBits(widths[i]);
+            if (type == byte.class) {
+                values[i] = (byte) value;
+            } else if (type == short.class) {
+                values[i] = (short) value;
+            } else if (type == int.class) {
+                values[i] = (int) value;
+            } else {
+                values[i] = value;
+            }
+        }
+        return values;
+    }
+
+    private static boolean fits(long value, int width, boolean signed) {
+        if (width == Long.SIZE) {
+            return true;
+        }
+        if (signed) {
+            long limit = 1L << (width - 1);
+            return value >= -limit && value < limit;
+        }
+        return value >= 0 && value < 1L << width;
+    }
+
+    private static BitLayout create(Class<?> type) {
+        boolean packed = type.isAnnotationPresent(BitPacked.class);
+        List<Field> fields = new ArrayList<>();
+        List<Integer> widths = new ArrayList<>();
+        List<Boolean> signed = new ArrayList<>();
+
+        for (Field field : type.getDeclaredFields()) {
+            if (!ClassSerializer.isFieldValid(field)) continue;
+
+            Bits bits = field.getAnnotation(Bits.class);
+            if (bits != null && !packed) {
+                throw new IllegalArgumentException("@Bits field " + field.getName() + " requires the class to be annotated with @BitPacked");
+            }
+            if (bits != null) {
+                int maxWidth = integerSize(field.getType());
+                if (maxWidth == 0) {
+                    throw new IllegalArgumentException("@Bits only applies to byte, short, int and long fields, found: " + field.getName());
+                }
+                if (bits.value() < 1 || bits.value() > maxWidth) {
+                    throw new IllegalArgumentException("Invalid bit width " + bits.value() + " for field " + field.getName());
+                }
+                fields.add(field);
+                widths.add(bits.value());
+                signed.add(bits.signed());
+            } else if (packed && field.getType() == boolean.class) {
+                fields.add(field);
+                widths.add(1);
+                signed.add(false);
+            }
+        }
+
+        if (fields.isEmpty()) {
+            return EMPTY;
+        }
+        int[] widthArray = new int[widths.size()];
+        boolean[] signedArray = new boolean[signed.size()];
+        for (int i = 0; i < widthArray.length; i++) {
+            fields.get(i).setAccessible(true);
+            widthArray[i] = widths.get(i);
+            signedArray[i] = signed.get(i);
+        }
+        return new BitLayout(fields.toArray(new Field[0]), widthArray, signedArray);
+    }
+
+    private static int integerSize(Class<?> type) {
+        if (type == byte.class) return Byte.SIZE;
+        if (type == short.class) return Short.SIZE;
+        if (type == int.class) return Integer.SIZE;
+        if (type == long.class) return Long.SIZE;
+        return 0;
+    }
+}
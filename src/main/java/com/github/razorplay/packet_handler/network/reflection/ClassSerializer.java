@@ -7,12 +7,14 @@ import com.github.razorplay.packet_handler.network.reflection.element.AnnotatedE
 import com.github.razorplay.packet_handler.network.reflection.element.BuiltInCodecs;
 import com.github.razorplay.packet_handler.network.reflection.element.codec.PrioritizedCodecResolver;
 import com.github.razorplay.packet_handler.network.reflection.element.codec.type.PacketTypeCodec;
+import com.github.razorplay.packet_handler.network.reflection.util.InstanceFactory;
 
 import javax.annotation.Nullable;
-import java.lang.reflect.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * Utility class for serializing and deserializing objects to/from a {@link PacketDataSerializer}.
@@ -34,20 +36,17 @@ public final class ClassSerializer {
      */
     @SuppressWarnings("unchecked")
     public static <T> T tryDecodeFromCustomSerializable(PacketDataSerializer reader, AnnotatedElementContext context) throws PacketSerializationException {
-        Constructor<?>[] constructors = context.getUnwrappedType().getDeclaredConstructors();
-        for (Constructor<?> constructor : constructors) {
-            if (constructor.getParameterCount() == 0) {
-                constructor.setAccessible(true);
-                try {
-                    CustomSerializable customSerializable = (CustomSerializable) constructor.newInstance();
-                    customSerializable.deserialize(reader);
-                    return (T) customSerializable;
-                } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                    throw new PacketSerializationException("Failed to instantiate custom serializable", e);
-                }
-            }
+        InstanceFactory<?> factory = InstanceFactory.of(context.getUnwrappedType());
+        if (!factory.isAvailable()) {
+            throw new PacketSerializationException("No default constructor found for custom serializable. There must be a constructor with any parameters.");
+        }
+        try {
+            CustomSerializable customSerializable = (CustomSerializable) factory.newInstance();
+            customSerializable.deserialize(reader);
+            return (T) customSerializable;
+        } catch (ReflectiveOperationException e) {
+            throw new PacketSerializationException("Failed to instantiate custom serializable", e);
         }
-        throw new PacketSerializationException("No default constructor found for custom serializable. There must be a constructor with any parameters.");
     }
 
     /**
@@ -113,8 +112,10 @@ public final class ClassSerializer {
         }
 
         inputCache.add(elementContext.getUnwrappedType().hashCode());
-        for (Field field : elementContext.getUnwrappedType().getDeclaredFields()) {
-            if (!ClassSerializer.isFieldValid(field)) continue;
+        BitLayout bitLayout = BitLayout.of(elementContext.getUnwrappedType());
+        bitLayout.write(writer, input);
+        for (Field field : ClassShape.of(elementContext.getUnwrappedType()).fields()) {
+            if (bitLayout.indexOf(field) >= 0) continue;
 
             elementContext = AnnotatedElementContext.of(field, input);
             ClassSerializer.tryEncodeWithCodecsRecursively(writer, elementContext, inputCache);
@@ -124,22 +125,38 @@ public final class ClassSerializer {
 
     /**
      * Creates an instance using a constructor matching the number of fields and populates its parameters.
+     * Parameters without annotations are resolved through the field at the same position when both have
+     * the same type, so that field annotations (such as {@code @VarInt}) are honored on decoding too.
+     * Parameters of bit-packed fields take the values already read from the bit block.
      *
      * @param <T>             the type of the object to create
-     * @param fullConstructor the constructor to use
+     * @param factory         the factory of the constructor to use
+     * @param parameters      the parameters of the constructor
+     * @param fields          the serializable fields of the class, in declaration order
+     * @param bitLayout       the bit-packed fields of the class
+     * @param packedValues    the values of the bit-packed fields
      * @param reader          the serializer to read data from
      * @param inputCache      a list of class hash codes to detect circular references
      * @return the created and populated instance
      * @throws PacketSerializationException if parameter decoding or instantiation fails
      */
-    private static <T> T createFullConstructor(Constructor<T> fullConstructor, PacketDataSerializer reader, List<Integer> inputCache) throws PacketSerializationException {
-        Parameter[] parameters = fullConstructor.getParameters();
+    private static <T> T createFullConstructor(InstanceFactory<T> factory, Parameter[] parameters, Field[] fields, BitLayout bitLayout, Object[] packedValues, PacketDataSerializer reader, List<Integer> inputCache) throws PacketSerializationException {
         Object[] instances = new Object[parameters.length];
 
         AnnotatedElementContext context;
         for (int i = 0; i < parameters.length; i++) {
+            int packedIndex = bitLayout.indexOf(fields[i]);
+            if (packedIndex >= 0) {
+                if (parameters[i].getType() != fields[i].getType()) {
+                    throw new PacketSerializationException("Parameter " + i + " does not match bit-packed field " + fields[i].getName());
+                }
+                instances[i] = packedValues[packedIndex];
+                continue;
+            }
             try {
-                context = AnnotatedElementContext.of(parameters[i]);
+                context = parameters[i].getAnnotations().length == 0 && parameters[i].getType() == fields[i].getType()
+                        ? AnnotatedElementContext.of(fields[i])
+                        : AnnotatedElementContext.of(parameters[i]);
                 instances[i] = ClassSerializer.tryDecodeWithCodecsRecursively(reader, context, inputCache);
             } catch (PacketSerializationException e) {
                 throw new PacketSerializationException("Failed to decode parameter " + i + " " + parameters[i].getType().getName(), e);
@@ -147,9 +164,8 @@ public final class ClassSerializer {
         }
 
         try {
-            fullConstructor.setAccessible(true);
-            return fullConstructor.newInstance(instances);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            return factory.newInstance(instances);
+        } catch (ReflectiveOperationException e) {
             throw new PacketSerializationException("Failed to instantiate custom serializable", e);
         }
     }
@@ -166,41 +182,38 @@ public final class ClassSerializer {
      *                                      or field population fails
      */
     private static <T> T createAndPopulateInstance(PacketDataSerializer reader, Class<T> output, List<Integer> inputCache) throws PacketSerializationException {
-        Field[] fields = Stream.of(output.getDeclaredFields()).filter(ClassSerializer::isFieldValid).toArray(Field[]::new);
-
-        Constructor<T>[] constructors = ClassSerializer.getConstructors(output);
-        Constructor<T> emptyConstructor = null;
-
-        for (Constructor<T> constructor : constructors) {
-            if (constructor.getParameterCount() == fields.length) {
-                try {
-                    return ClassSerializer.createFullConstructor(constructor, reader, inputCache);
-                } catch (PacketSerializationException ignored) {
-                }
-            }
+        ClassShape shape = ClassShape.of(output);
+        Field[] fields = shape.fields();
+        BitLayout bitLayout = BitLayout.of(output);
+        Object[] packedValues = bitLayout.read(reader);
 
-            if (constructor.getParameterCount() == 0) {
-                emptyConstructor = constructor;
+        for (int i = 0; i < shape.fullConstructorCount(); i++) {
+            try {
+                return ClassSerializer.createFullConstructor(shape.<T>fullFactory(i), shape.fullParameters(i), fields, bitLayout, packedValues, reader, inputCache);
+            } catch (PacketSerializationException ignored) {
             }
         }
 
-        if (emptyConstructor == null) {
+        InstanceFactory<T> emptyFactory = shape.emptyFactory();
+        if (emptyFactory == null) {
             throw new PacketSerializationException("No default constructor found for custom serializable");
         }
 
         T out;
         try {
-            out = emptyConstructor.newInstance();
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            out = emptyFactory.newInstance();
+        } catch (ReflectiveOperationException e) {
             throw new PacketSerializationException("Failed to instantiate custom serializable", e);
         }
 
         AnnotatedElementContext elementContext;
         for (Field field : fields) {
+            int packedIndex = bitLayout.indexOf(field);
             elementContext = AnnotatedElementContext.of(field);
             try {
-                field.setAccessible(true);
-                field.set(out, ClassSerializer.tryDecodeWithCodecsRecursively(reader, elementContext, inputCache));
+                field.set(out, packedIndex >= 0
+                        ? packedValues[packedIndex]
+                        : ClassSerializer.tryDecodeWithCodecsRecursively(reader, elementContext, inputCache));
             } catch (IllegalAccessException e) {
                 e.printStackTrace(System.out);
             }
@@ -264,19 +277,7 @@ public final class ClassSerializer {
      * @param field the field to check
      * @return true if the field is valid, false otherwise
      */
-    private static boolean isFieldValid(Field field) {
+    static boolean isFieldValid(Field field) {
         return !field.isSynthetic() && !Modifier.isStatic(field.getModifiers());
     }
-
-    /**
-     * Retrieves all public constructors for the given class.
-     *
-     * @param <T>   the type of the class
-     * @param clazz the class to retrieve constructors for
-     * @return an array of public constructors
-     */
-    @SuppressWarnings("unchecked")
-    private static <T> Constructor<T>[] getConstructors(Class<T> clazz) {
-        return (Constructor<T>[]) clazz.getConstructors();
-    }
 }
\ No newline at end of file
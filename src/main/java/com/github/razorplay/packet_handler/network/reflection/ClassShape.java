@@ -0,0 +1,124 @@
+package com.github.razorplay.packet_handler.network.reflection;
+
+import com.github.razorplay.packet_handler.network.reflection.util.InstanceFactory;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The serializable fields and public constructors of a class, resolved once per class and cached so that
+ * decoding does not look them up reflectively for every instance.
+ */
+final class ClassShape {
+    private static final ClassValue<ClassShape> SHAPES = new ClassValue<ClassShape>() {
+        @Override
+        protected ClassShape computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    private final Field[] fields;
+    private final Parameter[][] fullParameters;
+    private final InstanceFactory<?>[] fullFactories;
+    @Nullable
+    private final InstanceFactory<?> emptyFactory;
+
+    private ClassShape(Field[] fields, Parameter[][] fullParameters, InstanceFactory<?>[] fullFactories, @Nullable InstanceFactory<?> emptyFactory) {
+        this.fields = fields;
+        this.fullParameters = fullParameters;
+        this.fullFactories = fullFactories;
+        this.emptyFactory = emptyFactory;
+    }
+
+    /**
+     * Returns the shape of a class.
+     *
+     * @param type the class to inspect
+     * @return the cached shape of the class
+     */
+    static ClassShape of(Class<?> type) {
+        return SHAPES.get(type);
+    }
+
+    /**
+     * Returns the serializable fields of the class, in declaration order and already made accessible.
+     * The returned array must not be modified.
+     *
+     * @return the serializable fields
+     */
+    Field[] fields() {
+        return fields;
+    }
+
+    /**
+     * Returns the number of public constructors taking one parameter per serializable field.
+     *
+     * @return the number of full constructors
+     */
+    int fullConstructorCount() {
+        return fullFactories.length;
+    }
+
+    /**
+     * Returns the parameters of a full constructor. The returned array must not be modified.
+     *
+     * @param index the index of the full constructor
+     * @return the parameters of the constructor
+     */
+    Parameter[] fullParameters(int index) {
+        return fullParameters[index];
+    }
+
+    /**
+     * Returns the factory of a full constructor.
+     *
+     * @param <T>   the type of the class
+     * @param index the index of the full constructor
+     * @return the factory calling the constructor
+     */
+    @SuppressWarnings("unchecked")
+    <T> InstanceFactory<T> fullFactory(int index) {
+        return (InstanceFactory<T>) fullFactories[index];
+    }
+
+    /**
+     * Returns the factory of the public no-argument constructor.
+     *
+     * @param <T> the type of the class
+     * @return the factory calling the constructor, or {@code null} if there is no such constructor
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    <T> InstanceFactory<T> emptyFactory() {
+        return (InstanceFactory<T>) emptyFactory;
+    }
+
+    private static ClassShape create(Class<?> type) {
+        Field[] fields = Stream.of(type.getDeclaredFields()).filter(ClassSerializer::isFieldValid).toArray(Field[]::new);
+        for (Field field : fields) {
+            field.setAccessible(true);
+        }
+
+        List<Parameter[]> fullParameters = new ArrayList<>();
+        List<InstanceFactory<?>> fullFactories = new ArrayList<>();
+        InstanceFactory<?> emptyFactory = null;
+        for (Constructor<?> constructor : type.getConstructors()) {
+            InstanceFactory<?> factory = null;
+            if (constructor.getParameterCount() == fields.length) {
+                factory = InstanceFactory.of(constructor);
+                fullParameters.add(constructor.getParameters());
+                fullFactories.add(factory);
+            }
+            if (constructor.getParameterCount() == 0) {
+                emptyFactory = factory != null ? factory : InstanceFactory.of(constructor);
+            }
+        }
+        return new ClassShape(fields, fullParameters.toArray(new Parameter[0][]),
+                fullFactories.toArray(new InstanceFactory<?>[0]), emptyFactory);
+    }
+}
@@ -3,15 +3,22 @@ package com.github.razorplay.packet_handler.network.reflection.element;
 import com.github.razorplay.packet_handler.network.network_util.PacketDataSerializer;
 import com.github.razorplay.packet_handler.network.reflection.element.codec.PrioritizedCodecResolver;
 import com.github.razorplay.packet_handler.network.reflection.element.codec.TypeMatchCodecResolver;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.impl.DeltaCodecResolver;
 import com.github.razorplay.packet_handler.network.reflection.element.codec.impl.EnumCodecResolver;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.impl.EnumSetCodecResolver;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.impl.LongObjectMapCodecResolver;
 import com.github.razorplay.packet_handler.network.reflection.element.codec.impl.StreamableCodecResolver;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.impl.VarIntCodecResolver;
 import com.github.razorplay.packet_handler.network.reflection.element.codec.type.PacketTypeCodec;
+import com.github.razorplay.packet_handler.util.collection.IntList;
+import com.github.razorplay.packet_handler.util.collection.IntSet;
+import com.github.razorplay.packet_handler.util.collection.LongList;
 
 /**
  * Provides a set of built-in {@link PacketTypeCodec} instances and corresponding
  * resolvers implementations for common types.
  *
- * <p>This class defines codecs and resolvers for primitive types, and
+ * <p>This class defines codecs and resolvers for primitive types, primitive arrays and primitive collections, and
  * provides them in a statically sorted array based on their priority.</p>
  */
 public final class BuiltInCodecs {
@@ -43,6 +50,34 @@ public final class BuiltInCodecs {
     private static final PacketTypeCodec<Character> CHAR_CODEC = new PacketTypeCodec<Character>(PacketDataSerializer::writeChar, PacketDataSerializer::readChar);
     public static final PrioritizedCodecResolver CHAR_RESOLVER = new TypeMatchCodecResolver<>(char.class, BuiltInCodecs.CHAR_CODEC);
 
+    // Primitive arrays take precedence over the element-by-element stream resolver
+    private static final PacketTypeCodec<byte[]> BYTE_ARRAY_CODEC = new PacketTypeCodec<byte[]>(PacketDataSerializer::writeByteArray, PacketDataSerializer::readByteArray);
+    public static final PrioritizedCodecResolver BYTE_ARRAY_RESOLVER = new TypeMatchCodecResolver<>(1, byte[].class, BuiltInCodecs.BYTE_ARRAY_CODEC);
+
+    private static final PacketTypeCodec<short[]> SHORT_ARRAY_CODEC = new PacketTypeCodec<short[]>(PacketDataSerializer::writeShortArray, PacketDataSerializer::readShortArray);
+    public static final PrioritizedCodecResolver SHORT_ARRAY_RESOLVER = new TypeMatchCodecResolver<>(1, short[].class, BuiltInCodecs.SHORT_ARRAY_CODEC);
+
+    private static final PacketTypeCodec<int[]> INT_ARRAY_CODEC = new PacketTypeCodec<int[]>(PacketDataSerializer::writeIntArray, PacketDataSerializer::readIntArray);
+    public static final PrioritizedCodecResolver INT_ARRAY_RESOLVER = new TypeMatchCodecResolver<>(1, int[].class, BuiltInCodecs.INT_ARRAY_CODEC);
+
+    private static final PacketTypeCodec<long[]> LONG_ARRAY_CODEC = new PacketTypeCodec<long[]>(PacketDataSerializer::writeLongArray, PacketDataSerializer::readLongArray);
+    public static final PrioritizedCodecResolver LONG_ARRAY_RESOLVER = new TypeMatchCodecResolver<>(1, long[].class, BuiltInCodecs.LONG_ARRAY_CODEC);
+
+    private static final PacketTypeCodec<float[]> FLOAT_ARRAY_CODEC = new PacketTypeCodec<float[]>(PacketDataSerializer::writeFloatArray, PacketDataSerializer::readFloatArray);
+    public static final PrioritizedCodecResolver FLOAT_ARRAY_RESOLVER = new TypeMatchCodecResolver<>(1, float[].class, BuiltInCodecs.FLOAT_ARRAY_CODEC);
+
+    private static final PacketTypeCodec<double[]> DOUBLE_ARRAY_CODEC = new PacketTypeCodec<double[]>(PacketDataSerializer::writeDoubleArray, PacketDataSerializer::readDoubleArray);
+    public static final PrioritizedCodecResolver DOUBLE_ARRAY_RESOLVER = new TypeMatchCodecResolver<>(1, double[].class, BuiltInCodecs.DOUBLE_ARRAY_CODEC);
+
+    private static final PacketTypeCodec<IntList> INT_LIST_CODEC = new PacketTypeCodec<IntList>(PacketDataSerializer::writeIntList, PacketDataSerializer::readIntList);
+    public static final PrioritizedCodecResolver INT_LIST_RESOLVER = new TypeMatchCodecResolver<>(IntList.class, BuiltInCodecs.INT_LIST_CODEC);
+
+    private static final PacketTypeCodec<LongList> LONG_LIST_CODEC = new PacketTypeCodec<LongList>(PacketDataSerializer::writeLongList, PacketDataSerializer::readLongList);
+    public static final PrioritizedCodecResolver LONG_LIST_RESOLVER = new TypeMatchCodecResolver<>(LongList.class, BuiltInCodecs.LONG_LIST_CODEC);
+
+    private static final PacketTypeCodec<IntSet> INT_SET_CODEC = new PacketTypeCodec<IntSet>(PacketDataSerializer::writeIntSet, PacketDataSerializer::readIntSet);
+    public static final PrioritizedCodecResolver INT_SET_RESOLVER = new TypeMatchCodecResolver<>(IntSet.class, BuiltInCodecs.INT_SET_CODEC);
+
     private static final PrioritizedCodecResolver[] RESOLVERS = new PrioritizedCodecResolver[]{
             BuiltInCodecs.BYTE_RESOLVER,
             BuiltInCodecs.LONG_RESOLVER,
@@ -53,9 +88,22 @@ public final class BuiltInCodecs {
             BuiltInCodecs.BOOLEAN_RESOLVER,
             BuiltInCodecs.INTEGER_RESOLVER,
             BuiltInCodecs.CHAR_RESOLVER,
+            BuiltInCodecs.BYTE_ARRAY_RESOLVER,
+            BuiltInCodecs.SHORT_ARRAY_RESOLVER,
+            BuiltInCodecs.INT_ARRAY_RESOLVER,
+            BuiltInCodecs.LONG_ARRAY_RESOLVER,
+            BuiltInCodecs.FLOAT_ARRAY_RESOLVER,
+            BuiltInCodecs.DOUBLE_ARRAY_RESOLVER,
+            BuiltInCodecs.INT_LIST_RESOLVER,
+            BuiltInCodecs.LONG_LIST_RESOLVER,
+            BuiltInCodecs.INT_SET_RESOLVER,
 
             EnumCodecResolver.INSTANCE,
-            StreamableCodecResolver.INSTANCE
+            StreamableCodecResolver.INSTANCE,
+            VarIntCodecResolver.INSTANCE,
+            EnumSetCodecResolver.INSTANCE,
+            LongObjectMapCodecResolver.INSTANCE,
+            DeltaCodecResolver.INSTANCE
     };
 
     /**
@@ -2,6 +2,7 @@ package com.github.razorplay.packet_handler.network.reflection.element.codec;
 
 import com.github.razorplay.packet_handler.network.reflection.element.AnnotatedElementContext;
 import com.github.razorplay.packet_handler.network.reflection.element.codec.impl.NullableCodecTransform;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.impl.QuantizedCodecTransform;
 import com.github.razorplay.packet_handler.network.reflection.element.codec.type.PacketTypeCodec;
 
 /**
@@ -13,6 +14,7 @@ import com.github.razorplay.packet_handler.network.reflection.element.codec.type
 public interface CodecResolver {
 
     CodecTransform[] DEFAULTED_TRANSFORMS = {
+            new QuantizedCodecTransform(),
             new NullableCodecTransform()
     };
 
@@ -21,7 +21,19 @@ public final class TypeMatchCodecResolver<T> extends PrioritizedCodecResolver {
      * @param codec the codec to use when the type matches.
      */
     public TypeMatchCodecResolver(Class<T> type, PacketTypeCodec<T> codec) {
+        this(0, type, codec);
+    }
+
+    /**
+     * Constructs a {@code TypeMatchCodecResolver} with the given priority, type and codec.
+     *
+     * @param priority the priority of the resolver; higher values are considered first.
+     * @param type     the base type to match against the context's unwrapped type.
+     * @param codec    the codec to use when the type matches.
+     */
+    public TypeMatchCodecResolver(int priority, Class<T> type, PacketTypeCodec<T> codec) {
         super(
+                priority,
                 context -> codec, // Static codec resolve function
                 context -> type.isAssignableFrom(context.getUnwrappedType())
         );
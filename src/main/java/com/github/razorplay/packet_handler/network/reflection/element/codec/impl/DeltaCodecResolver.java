@@ -0,0 +1,108 @@
+package com.github.razorplay.packet_handler.network.reflection.element.codec.impl;
+
+import com.github.razorplay.packet_handler.network.network_util.DeltaEncoding;
+import com.github.razorplay.packet_handler.network.packet.annotation.Delta;
+import com.github.razorplay.packet_handler.network.reflection.element.AnnotatedElementContext;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.PrioritizedCodecResolver;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.type.PacketTypeCodec;
+import com.github.razorplay.packet_handler.network.reflection.util.ReflectionUtil;
+import com.github.razorplay.packet_handler.util.collection.IntList;
+import com.github.razorplay.packet_handler.util.collection.LongList;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A final class that resolves delta codecs for integer sequences annotated with {@link Delta},
+ * extending {@link PrioritizedCodecResolver}.
+ * It takes precedence over the array and primitive list codecs, which have a priority of 1.
+ */
+public final class DeltaCodecResolver extends PrioritizedCodecResolver {
+
+    /**
+     * Singleton instance of {@link DeltaCodecResolver} for global access.
+     */
+    public static final DeltaCodecResolver INSTANCE = new DeltaCodecResolver();
+
+    /**
+     * Private constructor to enforce singleton pattern and initialize the resolver with
+     * a priority above the built-in array, primitive list and stream resolvers.
+     */
+    private DeltaCodecResolver() {
+        super(
+                2,
+                DeltaCodecResolver::createDeltaCodec,
+                context -> context.getAnnotatedElement().isAnnotationPresent(Delta.class)
+        );
+    }
+
+    /**
+     * Selects the delta codec matching the element type.
+     *
+     * @param context the context containing the annotated element and its type
+     * @return the codec to use for the element
+     * @throws IllegalArgumentException if the element is not a supported integer sequence
+     */
+    private static PacketTypeCodec<?> createDeltaCodec(AnnotatedElementContext context) {
+        DeltaEncoding encoding = context.getAnnotatedElement().getAnnotation(Delta.class).value();
+        Class<?> type = context.getUnwrappedType();
+
+        if (type == int[].class) {
+            return new PacketTypeCodec<int[]>(
+                    (writer, values) -> writer.writeDeltaIntArray(values, encoding),
+                    reader -> reader.readDeltaIntArray(encoding)
+            );
+        }
+        if (type == long[].class) {
+            return new PacketTypeCodec<long[]>(
+                    (writer, values) -> writer.writeDeltaLongArray(values, encoding),
+                    reader -> reader.readDeltaLongArray(encoding)
+            );
+        }
+        if (type == IntList.class) {
+            return new PacketTypeCodec<IntList>(
+                    (writer, list) -> writer.writeDeltaIntList(list, encoding),
+                    reader -> reader.readDeltaIntList(encoding)
+            );
+        }
+        if (type == LongList.class) {
+            return new PacketTypeCodec<LongList>(
+                    (writer, list) -> writer.writeDeltaLongList(list, encoding),
+                    reader -> reader.readDeltaLongList(encoding)
+            );
+        }
+        if (type.isAssignableFrom(ArrayList.class)) {
+            Type elementType = ReflectionUtil.getParameterizedType(context.getAnnotatedElement());
+            if (elementType == Integer.class) {
+                return new PacketTypeCodec<List<Integer>>(
+                        (writer, list) -> writer.writeDeltaIntArray(list.stream().mapToInt(Integer::intValue).toArray(), encoding),
+                        reader -> toList(reader.readDeltaIntArray(encoding))
+                );
+            }
+            if (elementType == Long.class) {
+                return new PacketTypeCodec<List<Long>>(
+                        (writer, list) -> writer.writeDeltaLongArray(list.stream().mapToLong(Long::longValue).toArray(), encoding),
+                        reader -> toList(reader.readDeltaLongArray(encoding))
+                );
+            }
+        }
+        throw new IllegalArgumentException("Cannot create delta codec for " + type.getName());
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static List<Long> toList(long[] values) {
+        List<Long> list = new ArrayList<>(values.length);
+        for (long value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -7,6 +7,7 @@ import com.github.razorplay.packet_handler.network.reflection.element.codec.type
 /**
  * A final class that resolves codecs for enum types, extending {@link PrioritizedCodecResolver}.
  * Provides a singleton instance for encoding and decoding enum types in packet data serialization.
+ * Enum values are written as VarInt ordinals, see {@link PacketDataSerializer#writeEnumOrdinal(Enum)}.
  */
 public final class EnumCodecResolver extends PrioritizedCodecResolver {
 
@@ -57,7 +58,7 @@ public final class EnumCodecResolver extends PrioritizedCodecResolver {
          * @param enumClass The class of the enum to encode and decode.
          */
         public EnumCodec(Class<T> enumClass) {
-            super(PacketDataSerializer::writeEnum, reader -> reader.readEnum(enumClass));
+            super(PacketDataSerializer::writeEnumOrdinal, reader -> reader.readEnumOrdinal(enumClass));
         }
     }
 }
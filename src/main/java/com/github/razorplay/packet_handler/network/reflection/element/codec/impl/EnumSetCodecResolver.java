@@ -0,0 +1,89 @@
+package com.github.razorplay.packet_handler.network.reflection.element.codec.impl;
+
+import com.github.razorplay.packet_handler.network.network_util.PacketDataSerializer;
+import com.github.razorplay.packet_handler.network.reflection.element.AnnotatedElementContext;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.PrioritizedCodecResolver;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.type.PacketTypeCodec;
+import com.github.razorplay.packet_handler.network.reflection.util.ReflectionUtil;
+
+import java.lang.reflect.Type;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A final class that resolves bitmask codecs for {@link EnumSet} and {@code Set<E extends Enum>} elements,
+ * extending {@link PrioritizedCodecResolver}. It takes precedence over {@link StreamableCodecResolver},
+ * which would otherwise write every element separately.
+ */
+public final class EnumSetCodecResolver extends PrioritizedCodecResolver {
+
+    /**
+     * Singleton instance of {@link EnumSetCodecResolver} for global access.
+     */
+    public static final EnumSetCodecResolver INSTANCE = new EnumSetCodecResolver();
+
+    /**
+     * Private constructor to enforce singleton pattern and initialize the resolver with
+     * a priority above the stream resolver.
+     */
+    private EnumSetCodecResolver() {
+        super(
+                1,
+                context -> EnumSetCodecResolver.createEnumSetCodec(getEnumType(context)),
+                context -> getEnumType(context) != null
+        );
+    }
+
+    /**
+     * Returns the enum type of the set declared by the element, if it is a set of enums.
+     *
+     * @param context the context containing the annotated element and its type
+     * @return the enum class, or null if the element is not a set of a known enum type
+     */
+    private static Class<?> getEnumType(AnnotatedElementContext context) {
+        Class<?> type = context.getUnwrappedType();
+        if (type != Set.class && !EnumSet.class.isAssignableFrom(type)) {
+            return null;
+        }
+        Type elementType;
+        try {
+            elementType = ReflectionUtil.getParameterizedType(context.getAnnotatedElement());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (elementType instanceof Class && ((Class<?>) elementType).isEnum()) {
+            return (Class<?>) elementType;
+        }
+        return null;
+    }
+
+    /**
+     * Creates an {@link EnumSetCodec} for the provided enum type.
+     *
+     * @param enumType The enum class of the set elements.
+     * @param <T>      The enum type extending {@link Enum}.
+     * @return An {@link EnumSetCodec} for the specified enum type.
+     */
+    private static <T extends Enum<T>> EnumSetCodec<T> createEnumSetCodec(Class<?> enumType) {
+        @SuppressWarnings("unchecked")
+        Class<T> enumClass = (Class<T>) enumType;
+        return new EnumSetCodec<>(enumClass);
+    }
+
+    /**
+     * A static inner class for encoding and decoding sets of enum values as bitmasks.
+     *
+     * @param <T> The enum type extending {@link Enum}.
+     */
+    static final class EnumSetCodec<T extends Enum<T>> extends PacketTypeCodec<Set<T>> {
+
+        /**
+         * Constructs an {@link EnumSetCodec} for the specified enum class.
+         *
+         * @param enumClass The class of the enum to encode and decode.
+         */
+        public EnumSetCodec(Class<T> enumClass) {
+            super((writer, value) -> writer.writeEnumSet(value, enumClass), reader -> reader.readEnumSet(enumClass));
+        }
+    }
+}
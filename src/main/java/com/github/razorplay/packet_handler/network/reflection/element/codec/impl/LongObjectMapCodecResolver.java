@@ -0,0 +1,76 @@
+package com.github.razorplay.packet_handler.network.reflection.element.codec.impl;
+
+import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.reflection.ClassSerializer;
+import com.github.razorplay.packet_handler.network.reflection.element.AnnotatedElementContext;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.PrioritizedCodecResolver;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.type.PacketTypeCodec;
+import com.github.razorplay.packet_handler.network.reflection.util.ReflectionUtil;
+import com.github.razorplay.packet_handler.util.collection.LongObjectMap;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Type;
+
+/**
+ * A final class that resolves codecs for {@link LongObjectMap} elements, extending {@link PrioritizedCodecResolver}.
+ * Keys are written as raw longs and each value is encoded with the codec of the map's value type.
+ */
+public final class LongObjectMapCodecResolver extends PrioritizedCodecResolver {
+
+    /**
+     * Singleton instance of {@link LongObjectMapCodecResolver} for global access.
+     */
+    public static final LongObjectMapCodecResolver INSTANCE = new LongObjectMapCodecResolver();
+
+    /**
+     * Private constructor to enforce singleton pattern and initialize the resolver with
+     * a codec factory and type predicate for {@link LongObjectMap} types.
+     */
+    private LongObjectMapCodecResolver() {
+        super(
+                context -> new LongObjectMapCodec<>(retrieveValueType(context.getAnnotatedElement())),
+                context -> LongObjectMap.class.isAssignableFrom(context.getUnwrappedType())
+        );
+    }
+
+    /**
+     * Retrieves the value type declared by the element's generic type.
+     *
+     * @param element the annotated element (e.g., Field or Parameter) to inspect
+     * @return the value class of the map
+     * @throws IllegalArgumentException if the value type is not a concrete class
+     */
+    private static Class<?> retrieveValueType(AnnotatedElement element) {
+        Type valueType = ReflectionUtil.getParameterizedType(element);
+        if (valueType instanceof Class) {
+            return (Class<?>) valueType;
+        }
+        throw new IllegalArgumentException("Cannot create long map codec for " + element);
+    }
+
+    /**
+     * A static inner class for encoding and decoding {@link LongObjectMap} instances.
+     *
+     * @param <V> The type of the map values.
+     */
+    static final class LongObjectMapCodec<V> extends PacketTypeCodec<LongObjectMap<V>> {
+
+        /**
+         * Constructs a {@link LongObjectMapCodec} for the specified value class.
+         *
+         * @param valueClass The class of the map values.
+         */
+        public LongObjectMapCodec(Class<V> valueClass) {
+            super(
+                    (writer, map) -> writer.writeLongObjectMap(map, (valueWriter, value) -> {
+                        try {
+                            ClassSerializer.encode(valueWriter, AnnotatedElementContext.ofClass(value));
+                        } catch (PacketSerializationException e) {
+                            e.printStackTrace(System.out);
+                        }
+                    }),
+                    reader -> reader.readLongObjectMap(valueReader -> ClassSerializer.decode(valueReader, valueClass))
+            );
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.razorplay.packet_handler.network.reflection.element.codec.impl;
+
+import com.github.razorplay.packet_handler.network.packet.annotation.Angle;
+import com.github.razorplay.packet_handler.network.packet.annotation.FixedPoint;
+import com.github.razorplay.packet_handler.network.packet.annotation.HalfFloat;
+import com.github.razorplay.packet_handler.network.reflection.element.AnnotatedElementContext;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.CodecTransform;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.type.PacketTypeCodec;
+
+import java.lang.reflect.AnnotatedElement;
+
+/**
+ * A codec transform that replaces the fixed-size codec of {@code float} and {@code double} elements
+ * annotated with {@link FixedPoint}, {@link HalfFloat} or {@link Angle} by a quantized, lossy codec.
+ * Extends {@link CodecTransform} and runs before {@link NullableCodecTransform}, so that quantized
+ * elements may also be nullable.
+ */
+public class QuantizedCodecTransform extends CodecTransform {
+
+    private static final PacketTypeCodec<Float> HALF_FLOAT_CODEC = new PacketTypeCodec<Float>(
+            (writer, value) -> writer.writeHalfFloat(value),
+            reader -> reader.readHalfFloat()
+    );
+    private static final PacketTypeCodec<Double> HALF_DOUBLE_CODEC = new PacketTypeCodec<Double>(
+            (writer, value) -> writer.writeHalfFloat(value.floatValue()),
+            reader -> (double) reader.readHalfFloat()
+    );
+    private static final PacketTypeCodec<Float> ANGLE_FLOAT_CODEC = new PacketTypeCodec<Float>(
+            (writer, value) -> writer.writeAngle(value),
+            reader -> reader.readAngle()
+    );
+    private static final PacketTypeCodec<Double> ANGLE_DOUBLE_CODEC = new PacketTypeCodec<Double>(
+            (writer, value) -> writer.writeAngle(value.floatValue()),
+            reader -> (double) reader.readAngle()
+    );
+
+    /**
+     * Constructs a QuantizedCodecTransform that applies to elements annotated with
+     * {@link FixedPoint}, {@link HalfFloat} or {@link Angle}.
+     */
+    public QuantizedCodecTransform() {
+        super(QuantizedCodecTransform::isQuantized);
+    }
+
+    /**
+     * Replaces the codec of a matching element by the quantized codec selected by its annotation.
+     *
+     * @param <T>     the type of the codec
+     * @param context the annotated element context
+     * @param codec   the original codec, ignored if the element is quantized
+     * @return the quantized codec if the context matches, otherwise the original codec
+     * @throws IllegalArgumentException if the element is not a {@code float} or {@code double},
+     *                                  or if the scale of a {@link FixedPoint} is not positive and finite
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> PacketTypeCodec<T> applyCodec(AnnotatedElementContext context, PacketTypeCodec<T> codec) {
+        if (!this.matches(context)) {
+            return codec;
+        }
+
+        Class<?> type = context.getUnwrappedType();
+        if (type != float.class && type != double.class) {
+            throw new IllegalArgumentException("Quantized encodings only apply to float and double elements, found: " + type.getName());
+        }
+        boolean isFloat = type == float.class;
+
+        AnnotatedElement element = context.getAnnotatedElement();
+        FixedPoint fixedPoint = element.getAnnotation(FixedPoint.class);
+        if (fixedPoint != null) {
+            return (PacketTypeCodec<T>) createFixedPointCodec(fixedPoint.scale(), isFloat);
+        }
+        if (element.isAnnotationPresent(HalfFloat.class)) {
+            return (PacketTypeCodec<T>) (isFloat ? HALF_FLOAT_CODEC : HALF_DOUBLE_CODEC);
+        }
+        return (PacketTypeCodec<T>) (isFloat ? ANGLE_FLOAT_CODEC : ANGLE_DOUBLE_CODEC);
+    }
+
+    /**
+     * Checks whether the element carries one of the quantization annotations.
+     *
+     * @param context the context containing the annotated element and its type
+     * @return true if a quantized codec should be used
+     */
+    private static boolean isQuantized(AnnotatedElementContext context) {
+        AnnotatedElement element = context.getAnnotatedElement();
+        return element.isAnnotationPresent(FixedPoint.class)
+                || element.isAnnotationPresent(HalfFloat.class)
+                || element.isAnnotationPresent(Angle.class);
+    }
+
+    /**
+     * Creates a fixed-point codec for the given scale.
+     *
+     * @param scale   the number of steps per unit
+     * @param isFloat whether the element is a {@code float} rather than a {@code double}
+     * @return the fixed-point codec
+     * @throws IllegalArgumentException if the scale is not positive and finite
+     */
+    private static PacketTypeCodec<?> createFixedPointCodec(double scale, boolean isFloat) {
+        if (!(scale > 0) || Double.isInfinite(scale)) {
+            throw new IllegalArgumentException("Invalid fixed-point scale: " + scale);
+        }
+        if (isFloat) {
+            return new PacketTypeCodec<Float>(
+                    (writer, value) -> writer.writeFixedPoint(value, scale),
+                    reader -> (float) reader.readFixedPoint(scale)
+            );
+        }
+        return new PacketTypeCodec<Double>(
+                (writer, value) -> writer.writeFixedPoint(value, scale),
+                reader -> reader.readFixedPoint(scale)
+        );
+    }
+}
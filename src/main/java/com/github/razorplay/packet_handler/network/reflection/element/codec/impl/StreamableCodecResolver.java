@@ -2,6 +2,8 @@ package com.github.razorplay.packet_handler.network.reflection.element.codec.imp
 
 import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
 import com.github.razorplay.packet_handler.network.network_util.PacketDataSerializer;
+import com.github.razorplay.packet_handler.network.network_util.ReadLimits;
+import com.github.razorplay.packet_handler.network.network_util.WireProfile;
 import com.github.razorplay.packet_handler.network.packet.annotation.ParallelStreamable;
 import com.github.razorplay.packet_handler.network.packet.annotation.Streamable;
 import com.github.razorplay.packet_handler.network.reflection.ClassSerializer;
@@ -10,15 +12,10 @@ import com.github.razorplay.packet_handler.network.reflection.element.codec.Prio
 import com.github.razorplay.packet_handler.network.reflection.element.codec.type.PacketTypeCodec;
 import com.github.razorplay.packet_handler.network.reflection.util.ReflectionUtil;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Array;
 import java.lang.reflect.Type;
-import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -166,44 +163,38 @@ public final class StreamableCodecResolver extends PrioritizedCodecResolver {
 
     /**
      * Writes a stream to a PacketDataSerializer.
+     * The stream is collected first, in encounter order, so that the element count can be written before the
+     * elements: as a fixed 8-byte long for {@link WireProfile#FIXED} or as a VarLong for {@link WireProfile#COMPACT}.
+     * The elements are then encoded directly into the writer. An element that cannot be encoded, for instance
+     * because no codec can be resolved for it, fails the whole stream rather than leaving the count out of sync.
      *
      * @param <T>    the type of elements in the stream
      * @param writer the serializer to write to
      * @param stream the stream to serialize
+     * @throws PacketSerializationException if an element fails to encode
      */
-    public static <T> void writeStream(PacketDataSerializer writer, Stream<T> stream) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        DataOutputStream dataOutput = new DataOutputStream(baos);
-        AtomicInteger count = new AtomicInteger();
-
+    public static <T> void writeStream(PacketDataSerializer writer, Stream<T> stream) throws PacketSerializationException {
+        List<T> elements;
         try {
-            // Write placeholder for element count
-            dataOutput.writeLong(0L);
-        } catch (IOException e) {
-            e.printStackTrace(System.out);
+            elements = stream.collect(Collectors.toList());
+        } finally {
+            stream.close();
         }
 
-        // Serialize each element
-        PacketDataSerializer internalSerializer = new PacketDataSerializer(dataOutput);
-        stream.forEach(element -> {
-            try {
-                ClassSerializer.encode(
-                        internalSerializer,
-                        AnnotatedElementContext.ofClass(element)
-                );
-                count.incrementAndGet();
-            } catch (PacketSerializationException e) {
-                e.printStackTrace(System.out);
-            }
-        });
-
-        // Update count and write data
-        byte[] data = baos.toByteArray();
-        ByteBuffer.wrap(data).putLong(0, count.longValue());
-        writer.write(data);
+        // Write count
+        if (writer.getWireProfile() == WireProfile.COMPACT) {
+            writer.writeVarLong(elements.size());
+        } else {
+            writer.writeLong(elements.size());
+        }
 
-        // Clean up stream
-        stream.close();
+        // Serialize each element
+        for (T element : elements) {
+            ClassSerializer.encode(
+                    writer,
+                    AnnotatedElementContext.ofClass(element)
+            );
+        }
     }
 
     /**
@@ -213,10 +204,14 @@ public final class StreamableCodecResolver extends PrioritizedCodecResolver {
      * @param reader      the serializer to read from
      * @param streamClass the class of the stream elements
      * @return a Stream of type T
-     * @throws PacketSerializationException if deserialization fails
+     * @throws PacketSerializationException if deserialization fails or the element count exceeds the read limits
      */
     public static <T> Stream<T> readStream(PacketDataSerializer reader, Class<T> streamClass) throws PacketSerializationException {
-        long count = reader.readLong();
+        long count = reader.getWireProfile() == WireProfile.COMPACT ? reader.readVarLong() : reader.readLong();
+        if (count < 0 || count > Integer.MAX_VALUE) {
+            throw new PacketSerializationException("Invalid stream size: " + count);
+        }
+        reader.checkAllocation(count, ReadLimits.REFERENCE_SIZE, "stream");
         Stream.Builder<T> builder = Stream.builder();
 
         // Deserialize each element
@@ -248,7 +243,7 @@ public final class StreamableCodecResolver extends PrioritizedCodecResolver {
             );
         }
 
-        private static void writeStream(PacketDataSerializer writer, Object value, boolean parallel) {
+        private static void writeStream(PacketDataSerializer writer, Object value, boolean parallel) throws PacketSerializationException {
             StreamableCodecResolver.writeStream(writer, StreamableCodecResolver.toStream(value, parallel));
         }
 
@@ -0,0 +1,63 @@
+package com.github.razorplay.packet_handler.network.reflection.element.codec.impl;
+
+import com.github.razorplay.packet_handler.network.network_util.PacketDataSerializer;
+import com.github.razorplay.packet_handler.network.packet.annotation.VarInt;
+import com.github.razorplay.packet_handler.network.reflection.element.AnnotatedElementContext;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.PrioritizedCodecResolver;
+import com.github.razorplay.packet_handler.network.reflection.element.codec.type.PacketTypeCodec;
+
+/**
+ * A final class that resolves variable-length codecs for {@code int} and {@code long} elements
+ * annotated with {@link VarInt}, extending {@link PrioritizedCodecResolver}.
+ * It takes precedence over the fixed-size primitive codecs.
+ */
+public final class VarIntCodecResolver extends PrioritizedCodecResolver {
+
+    /**
+     * Singleton instance of {@link VarIntCodecResolver} for global access.
+     */
+    public static final VarIntCodecResolver INSTANCE = new VarIntCodecResolver();
+
+    private static final PacketTypeCodec<Integer> VAR_INT_CODEC = new PacketTypeCodec<Integer>(PacketDataSerializer::writeVarInt, PacketDataSerializer::readVarInt);
+    private static final PacketTypeCodec<Integer> ZIGZAG_VAR_INT_CODEC = new PacketTypeCodec<Integer>(PacketDataSerializer::writeZigZagVarInt, PacketDataSerializer::readZigZagVarInt);
+    private static final PacketTypeCodec<Long> VAR_LONG_CODEC = new PacketTypeCodec<Long>(PacketDataSerializer::writeVarLong, PacketDataSerializer::readVarLong);
+    private static final PacketTypeCodec<Long> ZIGZAG_VAR_LONG_CODEC = new PacketTypeCodec<Long>(PacketDataSerializer::writeZigZagVarLong, PacketDataSerializer::readZigZagVarLong);
+
+    /**
+     * Private constructor to enforce singleton pattern and initialize the resolver with
+     * a priority above the built-in primitive resolvers.
+     */
+    private VarIntCodecResolver() {
+        super(
+                1,
+                VarIntCodecResolver::createVarIntCodec,
+                VarIntCodecResolver::isVarInt
+        );
+    }
+
+    /**
+     * Checks whether the element is an {@code int} or {@code long} annotated with {@link VarInt}.
+     *
+     * @param context the context containing the annotated element and its type
+     * @return true if a variable-length codec should be used
+     */
+    private static boolean isVarInt(AnnotatedElementContext context) {
+        Class<?> type = context.getUnwrappedType();
+        return (type == int.class || type == long.class)
+                && context.getAnnotatedElement().isAnnotationPresent(VarInt.class);
+    }
+
+    /**
+     * Selects the variable-length codec matching the element type and the {@link VarInt#zigZag()} setting.
+     *
+     * @param context the context containing the annotated element and its type
+     * @return the codec to use for the element
+     */
+    private static PacketTypeCodec<?> createVarIntCodec(AnnotatedElementContext context) {
+        boolean zigZag = context.getAnnotatedElement().getAnnotation(VarInt.class).zigZag();
+        if (context.getUnwrappedType() == long.class) {
+            return zigZag ? ZIGZAG_VAR_LONG_CODEC : VAR_LONG_CODEC;
+        }
+        return zigZag ? ZIGZAG_VAR_INT_CODEC : VAR_INT_CODEC;
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.razorplay.packet_handler.network.reflection.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+/**
+ * Creates instances of a class through a {@link MethodHandle} resolved once, instead of looking up and
+ * invoking a {@link Constructor} reflectively for every instance.
+ *
+ * <p>The factories of no-argument constructors are cached per class, see {@link #of(Class)}. Like
+ * {@link Constructor#newInstance(Object...)}, {@link #newInstance(Object...)} wraps anything thrown by the
+ * constructor in an {@link InvocationTargetException}.</p>
+ *
+ * <pre>{@code
+ * IPacket packet = InstanceFactory.of(packetClass).newInstance();
+ * }</pre>
+ *
+ * @param <T> the type of the instances created
+ */
+public final class InstanceFactory<T> {
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private static final ClassValue<InstanceFactory<?>> NO_ARGUMENT_FACTORIES = new ClassValue<InstanceFactory<?>>() {
+        @Override
+        protected InstanceFactory<?> computeValue(Class<?> type) {
+            if (Modifier.isAbstract(type.getModifiers())) {
+                return new InstanceFactory<>(null, new InstantiationException(type.getName() + " cannot be instantiated"));
+            }
+            try {
+                return of(type.getDeclaredConstructor());
+            } catch (NoSuchMethodException e) {
+                return new InstanceFactory<>(null, e);
+            } catch (RuntimeException e) {
+                // Not accessible, for instance in a module that is not open to this library
+                return new InstanceFactory<>(null, new IllegalAccessException(e.getMessage()));
+            }
+        }
+    };
+
+    private final MethodHandle handle;
+    private final ReflectiveOperationException failure;
+
+    private InstanceFactory(MethodHandle handle, ReflectiveOperationException failure) {
+        this.handle = handle;
+        this.failure = failure;
+    }
+
+    /**
+     * Returns the cached factory calling the no-argument constructor of a class, whatever its visibility.
+     *
+     * @param <T>  the type of the class
+     * @param type the class to instantiate
+     * @return the factory of the class, which fails on use if the class has no usable no-argument constructor
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> InstanceFactory<T> of(Class<T> type) {
+        return (InstanceFactory<T>) NO_ARGUMENT_FACTORIES.get(type);
+    }
+
+    /**
+     * Creates a factory calling the given constructor, whatever its visibility. The factory is not cached,
+     * so callers should keep it.
+     *
+     * @param <T>         the type of the class
+     * @param constructor the constructor to call
+     * @return the factory of the constructor
+     */
+    public static <T> InstanceFactory<T> of(Constructor<T> constructor) {
+        try {
+            constructor.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+            return new InstanceFactory<>(handle.asSpreader(Object[].class, constructor.getParameterCount()).asType(SPREAD_TYPE), null);
+        } catch (IllegalAccessException e) {
+            return new InstanceFactory<>(null, e);
+        }
+    }
+
+    /**
+     * Returns whether this factory can create instances.
+     *
+     * @return {@code false} if every call to {@link #newInstance(Object...)} fails
+     */
+    public boolean isAvailable() {
+        return handle != null;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param arguments the constructor arguments, none for a no-argument constructor
+     * @return the new instance
+     * @throws NoSuchMethodException     if the class has no no-argument constructor
+     * @throws InstantiationException    if the class is abstract
+     * @throws IllegalAccessException    if the constructor cannot be made accessible
+     * @throws InvocationTargetException if the constructor throws an exception
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance(Object... arguments) throws ReflectiveOperationException {
+        if (handle == null) {
+            throw failure;
+        }
+        try {
+            return (T) handle.invokeExact(arguments.length == 0 ? NO_ARGUMENTS : arguments);
+        } catch (Throwable throwable) {
+            throw new InvocationTargetException(throwable);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.razorplay.packet_handler.network.reflection.util;
+
+import java.lang.reflect.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Computes 64-bit fingerprints describing the layout of enums, so that two peers can detect
+ * that they encode enum ordinals differently before exchanging any packet.
+ *
+ * <p>The fingerprint of an enum covers the names of its constants in declaration order, so adding,
+ * removing, renaming or reordering a constant changes it. The fingerprint of a class combines the
+ * fingerprints of every enum reachable from its non-static, non-transient fields, including generic
+ * type arguments, array components and nested non-JDK classes.</p>
+ */
+public final class SchemaFingerprint {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final ClassValue<Long> ENUM_FINGERPRINTS = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long hash = FNV_OFFSET_BASIS;
+            for (Object constant : type.getEnumConstants()) {
+                hash = mix(hash, ((Enum<?>) constant).name());
+            }
+            return hash;
+        }
+    };
+
+    private static final ClassValue<Long> CLASS_FINGERPRINTS = new ClassValue<Long>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            long[] hash = {FNV_OFFSET_BASIS};
+            visitClass(type, hash, new HashSet<>());
+            return hash[0];
+        }
+    };
+
+    private SchemaFingerprint() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Returns the fingerprint of an enum, based on the names of its constants in declaration order.
+     *
+     * @param enumClass the enum class
+     * @return the fingerprint of the enum
+     * @throws IllegalArgumentException if the class is not an enum
+     */
+    public static long ofEnum(Class<?> enumClass) {
+        if (!enumClass.isEnum()) {
+            throw new IllegalArgumentException("The provided type is not an enum: " + enumClass.getName());
+        }
+        return ENUM_FINGERPRINTS.get(enumClass);
+    }
+
+    /**
+     * Returns the combined fingerprint of every enum reachable from the fields of a class.
+     * The result is cached per class.
+     *
+     * @param type the class to inspect
+     * @return the fingerprint of the class
+     */
+    public static long ofClass(Class<?> type) {
+        return CLASS_FINGERPRINTS.get(type);
+    }
+
+    /**
+     * Mixes a string into a fingerprint using the 64-bit FNV-1a hash of its UTF-8 bytes.
+     *
+     * @param hash  the current fingerprint
+     * @param value the string to mix in
+     * @return the updated fingerprint
+     */
+    public static long mix(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        // Separator, so that ("ab", "c") and ("a", "bc") differ
+        return (hash ^ 0xFF) * FNV_PRIME;
+    }
+
+    /**
+     * Mixes a long into a fingerprint using the 64-bit FNV-1a hash of its bytes.
+     *
+     * @param hash  the current fingerprint
+     * @param value the value to mix in
+     * @return the updated fingerprint
+     */
+    public static long mix(long hash, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static void visitClass(Class<?> type, long[] hash, Set<Class<?>> visited) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isEnum()) {
+            hash[0] = mix(hash[0], ofEnum(type));
+            return;
+        }
+        if (type.isPrimitive() || type.isInterface() || isJdkType(type) || !visited.add(type)) {
+            return;
+        }
+
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                visitType(field.getGenericType(), hash, visited);
+            }
+        }
+    }
+
+    private static void visitType(Type type, long[] hash, Set<Class<?>> visited) {
+        if (type instanceof Class) {
+            visitClass((Class<?>) type, hash, visited);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            visitType(parameterizedType.getRawType(), hash, visited);
+            for (Type argument : parameterizedType.getActualTypeArguments()) {
+                visitType(argument, hash, visited);
+            }
+        } else if (type instanceof GenericArrayType) {
+            visitType(((GenericArrayType) type).getGenericComponentType(), hash, visited);
+        } else if (type instanceof WildcardType) {
+            for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                visitType(bound, hash, visited);
+            }
+        }
+    }
+
+    private static boolean isJdkType(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.") || name.startsWith("jdk.");
+    }
+}
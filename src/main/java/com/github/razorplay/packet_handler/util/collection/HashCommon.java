@@ -0,0 +1,51 @@
+package com.github.razorplay.packet_handler.util.collection;
+
+/**
+ * Hashing helpers shared by the open-addressing collections of this package.
+ */
+final class HashCommon {
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_TABLE_SIZE = 4;
+    private static final int MAX_TABLE_SIZE = 1 << 30;
+    private static final int INT_PHI = 0x9E3779B9;
+    private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+    private HashCommon() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Scrambles the bits of an int so that consecutive values spread over the table.
+     */
+    static int mix(int value) {
+        int hash = value * INT_PHI;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Scrambles the bits of a long so that consecutive values spread over the table.
+     */
+    static int mix(long value) {
+        long hash = value * LONG_PHI;
+        hash ^= hash >>> 32;
+        return (int) (hash ^ (hash >>> 16));
+    }
+
+    /**
+     * Returns the power-of-two table size needed to hold the given number of entries.
+     */
+    static int tableSize(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1;
+        if (needed >= MAX_TABLE_SIZE) {
+            return MAX_TABLE_SIZE;
+        }
+        return Math.max(MIN_TABLE_SIZE, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    /**
+     * Returns the number of entries at which a table of the given size must grow.
+     */
+    static int maxFill(int tableSize) {
+        return Math.min((int) Math.ceil(tableSize * LOAD_FACTOR), tableSize - 1);
+    }
+}
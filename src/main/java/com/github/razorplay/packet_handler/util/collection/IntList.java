@@ -0,0 +1,245 @@
+package com.github.razorplay.packet_handler.util.collection;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A growable list of {@code int} values backed by an {@code int[]}, without boxing.
+ *
+ * <p>On the wire an {@code IntList} is identical to an {@code int[]} written with
+ * {@link com.github.razorplay.packet_handler.network.network_util.PacketDataSerializer#writeIntArray(int[])}.</p>
+ *
+ * <pre>{@code
+ * IntList entityIds = new IntList();
+ * entityIds.add(42);
+ * serializer.writeIntList(entityIds);
+ * }</pre>
+ */
+public final class IntList {
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int[] EMPTY = new int[0];
+
+    private int[] elements;
+    private int size;
+
+    /**
+     * Creates an empty list.
+     */
+    public IntList() {
+        this.elements = EMPTY;
+    }
+
+    /**
+     * Creates an empty list able to hold the given number of values without growing.
+     *
+     * @param capacity the initial capacity
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public IntList(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.elements = capacity == 0 ? EMPTY : new int[capacity];
+    }
+
+    private IntList(int[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    /**
+     * Creates a list backed by the given array, without copying it. The array must not be modified afterward.
+     *
+     * @param elements the values of the list
+     * @return a list containing every value of the array
+     */
+    public static IntList wrap(int[] elements) {
+        return new IntList(elements, elements.length);
+    }
+
+    /**
+     * Creates a list containing the given values.
+     *
+     * @param values the values of the list
+     * @return a new list
+     */
+    public static IntList of(int... values) {
+        return wrap(values.clone());
+    }
+
+    /**
+     * Returns the number of values in this list.
+     *
+     * @return the size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether this list contains no values.
+     *
+     * @return {@code true} if the list is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value at the given index.
+     *
+     * @param index the index of the value
+     * @return the value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Replaces the value at the given index.
+     *
+     * @param index the index of the value
+     * @param value the new value
+     * @return the previous value
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    /**
+     * Appends a value to the end of this list.
+     *
+     * @param value the value to append
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Appends every value of the given array to the end of this list.
+     *
+     * @param values the values to append
+     */
+    public void addAll(int[] values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+    }
+
+    /**
+     * Returns whether this list contains the given value.
+     *
+     * @param value the value to look for
+     * @return {@code true} if the value is present
+     */
+    public boolean contains(int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every value from this list, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Makes sure this list can hold the given number of values without growing.
+     *
+     * @param capacity the minimum capacity
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            grow(capacity);
+        }
+    }
+
+    /**
+     * Performs the given action for each value, in order.
+     *
+     * @param action the action to perform
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[i]);
+        }
+    }
+
+    /**
+     * Returns the array backing this list. Only the first {@link #size()} values are part of the list,
+     * and the array is replaced when the list grows.
+     *
+     * @return the backing array
+     */
+    public int[] elements() {
+        return elements;
+    }
+
+    /**
+     * Copies the values of this list into a new array.
+     *
+     * @return an array containing the values of the list
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, elements.length == 0 ? DEFAULT_CAPACITY : elements.length + (elements.length >> 1));
+        elements = Arrays.copyOf(elements, newCapacity < 0 ? minCapacity : newCapacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof IntList)) {
+            return false;
+        }
+        IntList list = (IntList) other;
+        if (size != list.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (elements[i] != list.elements[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + elements[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,273 @@
+package com.github.razorplay.packet_handler.util.collection;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A hash set of {@code int} values using open addressing with linear probing, without boxing.
+ * Iteration order is unspecified.
+ *
+ * <pre>{@code
+ * IntSet visible = new IntSet();
+ * visible.add(entity.getId());
+ * serializer.writeIntSet(visible);
+ * }</pre>
+ */
+public final class IntSet {
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    // 0 marks a free slot, so the value 0 itself is tracked separately
+    private int[] keys;
+    private boolean containsZero;
+    private int size;
+    private int mask;
+    private int maxFill;
+
+    /**
+     * Creates an empty set.
+     */
+    public IntSet() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty set able to hold the given number of values without rehashing.
+     *
+     * @param expectedSize the expected number of values
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public IntSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Invalid expected size: " + expectedSize);
+        }
+        allocate(HashCommon.tableSize(expectedSize));
+    }
+
+    /**
+     * Creates a set containing the given values.
+     *
+     * @param values the values of the set
+     * @return a new set
+     */
+    public static IntSet of(int... values) {
+        IntSet set = new IntSet(values.length);
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    /**
+     * Returns the number of values in this set.
+     *
+     * @return the size of the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether this set contains no values.
+     *
+     * @return {@code true} if the set is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds a value to this set.
+     *
+     * @param value the value to add
+     * @return {@code true} if the value was not already present
+     */
+    public boolean add(int value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int slot = HashCommon.mix(value) & mask;
+        for (int key; (key = keys[slot]) != 0; slot = (slot + 1) & mask) {
+            if (key == value) {
+                return false;
+            }
+        }
+        keys[slot] = value;
+        if (++size >= maxFill) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether this set contains the given value.
+     *
+     * @param value the value to look for
+     * @return {@code true} if the value is present
+     */
+    public boolean contains(int value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int slot = HashCommon.mix(value) & mask;
+        for (int key; (key = keys[slot]) != 0; slot = (slot + 1) & mask) {
+            if (key == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a value from this set.
+     *
+     * @param value the value to remove
+     * @return {@code true} if the value was present
+     */
+    public boolean remove(int value) {
+        if (value == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+
+        int slot = HashCommon.mix(value) & mask;
+        for (int key; (key = keys[slot]) != 0; slot = (slot + 1) & mask) {
+            if (key == value) {
+                size--;
+                shiftKeys(slot);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every value from this set, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * Performs the given action for each value, in no particular order.
+     *
+     * @param action the action to perform
+     */
+    public void forEach(IntConsumer action) {
+        if (containsZero) {
+            action.accept(0);
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * Copies the values of this set into a new array, in no particular order.
+     *
+     * @return an array containing the values of the set
+     */
+    public int[] toArray() {
+        int[] values = new int[size];
+        int index = 0;
+        if (containsZero) {
+            values[index++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                values[index++] = key;
+            }
+        }
+        return values;
+    }
+
+    private void allocate(int tableSize) {
+        keys = new int[tableSize];
+        mask = tableSize - 1;
+        maxFill = HashCommon.maxFill(tableSize);
+    }
+
+    private void rehash(int tableSize) {
+        int[] oldKeys = keys;
+        allocate(tableSize);
+        for (int key : oldKeys) {
+            if (key != 0) {
+                int slot = HashCommon.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    /**
+     * Closes the gap left at the given slot by moving back the following entries of the probe sequence.
+     */
+    private void shiftKeys(int position) {
+        while (true) {
+            int last = position;
+            position = (position + 1) & mask;
+            int key;
+            while (true) {
+                if ((key = keys[position]) == 0) {
+                    keys[last] = 0;
+                    return;
+                }
+                int slot = HashCommon.mix(key) & mask;
+                if (last <= position ? last >= slot || slot > position : last >= slot && slot > position) {
+                    break;
+                }
+                position = (position + 1) & mask;
+            }
+            keys[last] = key;
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof IntSet)) {
+            return false;
+        }
+        IntSet set = (IntSet) other;
+        if (size != set.size || containsZero != set.containsZero) {
+            return false;
+        }
+        for (int key : keys) {
+            if (key != 0 && !set.contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int key : keys) {
+            hash += key;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,294 @@
+package com.github.razorplay.packet_handler.util.collection;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A hash map from {@code long} keys to non-null object values, using open addressing with linear probing
+ * and no boxing of the keys. Iteration order is unspecified.
+ *
+ * <pre>{@code
+ * LongObjectMap<String> blocks = new LongObjectMap<>();
+ * blocks.put(packedPosition, "minecraft:stone");
+ * serializer.writeLongObjectMap(blocks, PacketDataSerializer::writeString);
+ * }</pre>
+ *
+ * @param <V> the type of the values
+ */
+public final class LongObjectMap<V> {
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    // 0 marks a free slot, so the entry for key 0 is stored separately
+    private long[] keys;
+    private V[] values;
+    private V zeroValue;
+    private int size;
+    private int mask;
+    private int maxFill;
+
+    /**
+     * A callback receiving the entries of a {@link LongObjectMap}.
+     *
+     * @param <V> the type of the values
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * Receives an entry.
+         *
+         * @param key   the key of the entry
+         * @param value the value of the entry
+         */
+        void accept(long key, V value);
+    }
+
+    /**
+     * Creates an empty map.
+     */
+    public LongObjectMap() {
+        this(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty map able to hold the given number of entries without rehashing.
+     *
+     * @param expectedSize the expected number of entries
+     * @throws IllegalArgumentException if expectedSize is negative
+     */
+    public LongObjectMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Invalid expected size: " + expectedSize);
+        }
+        allocate(HashCommon.tableSize(expectedSize));
+    }
+
+    /**
+     * Returns the number of entries in this map.
+     *
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether this map contains no entries.
+     *
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the value, which must not be null
+     * @return the previous value, or {@code null} if there was none
+     * @throws NullPointerException if the value is null
+     */
+    public V put(long key, V value) {
+        Objects.requireNonNull(value, "Value cannot be null");
+        if (key == 0) {
+            V previous = zeroValue;
+            zeroValue = value;
+            if (previous == null) {
+                size++;
+            }
+            return previous;
+        }
+
+        int slot = HashCommon.mix(key) & mask;
+        for (long current; (current = keys[slot]) != 0; slot = (slot + 1) & mask) {
+            if (current == key) {
+                V previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= maxFill) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value associated with a key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if the key is not present
+     */
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int slot = HashCommon.mix(key) & mask;
+        for (long current; (current = keys[slot]) != 0; slot = (slot + 1) & mask) {
+            if (current == key) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether this map contains the given key.
+     *
+     * @param key the key to look for
+     * @return {@code true} if the key is present
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Removes the entry for a key.
+     *
+     * @param key the key
+     * @return the removed value, or {@code null} if the key was not present
+     */
+    public V remove(long key) {
+        if (key == 0) {
+            V previous = zeroValue;
+            if (previous != null) {
+                zeroValue = null;
+                size--;
+            }
+            return previous;
+        }
+
+        int slot = HashCommon.mix(key) & mask;
+        for (long current; (current = keys[slot]) != 0; slot = (slot + 1) & mask) {
+            if (current == key) {
+                V previous = values[slot];
+                size--;
+                shiftKeys(slot);
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes every entry from this map, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, null);
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * Performs the given action for each entry, in no particular order.
+     *
+     * @param action the action to perform
+     */
+    public void forEach(EntryConsumer<? super V> action) {
+        if (zeroValue != null) {
+            action.accept(0L, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = (V[]) new Object[tableSize];
+        mask = tableSize - 1;
+        maxFill = HashCommon.maxFill(tableSize);
+    }
+
+    private void rehash(int tableSize) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(tableSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int slot = HashCommon.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Closes the gap left at the given slot by moving back the following entries of the probe sequence.
+     */
+    private void shiftKeys(int position) {
+        while (true) {
+            int last = position;
+            position = (position + 1) & mask;
+            long key;
+            while (true) {
+                if ((key = keys[position]) == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                int slot = HashCommon.mix(key) & mask;
+                if (last <= position ? last >= slot || slot > position : last >= slot && slot > position) {
+                    break;
+                }
+                position = (position + 1) & mask;
+            }
+            keys[last] = key;
+            values[last] = values[position];
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof LongObjectMap)) {
+            return false;
+        }
+        LongObjectMap<?> map = (LongObjectMap<?>) other;
+        if (size != map.size || !Objects.equals(zeroValue, map.zeroValue)) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && !values[i].equals(map.get(keys[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = zeroValue != null ? zeroValue.hashCode() : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                hash += Long.hashCode(keys[i]) ^ values[i].hashCode();
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+}
@@ -3,15 +3,39 @@ package com.github.razorplay.packet_handler.network;
 import com.github.razorplay.packet_handler.exceptions.PacketInstantiationException;
 import com.github.razorplay.packet_handler.exceptions.PacketRegistrationException;
 import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.compression.CompressionCodec;
+import com.github.razorplay.packet_handler.network.compression.CompressionDictionary;
+import com.github.razorplay.packet_handler.network.compression.DeflateCodec;
+import com.github.razorplay.packet_handler.network.compression.DictionaryTrainer;
+import com.github.razorplay.packet_handler.network.compression.GzipCodec;
+import com.github.razorplay.packet_handler.network.compression.LzCodec;
+import com.github.razorplay.packet_handler.network.compression.ParallelCodec;
 import com.github.razorplay.packet_handler.network.network_util.PacketDataSerializer;
+import com.github.razorplay.packet_handler.network.network_util.ReadLimits;
+import com.github.razorplay.packet_handler.network.network_util.WireProfile;
 import com.github.razorplay.packet_handler.network.packet.EmptyPacket;
+import com.github.razorplay.packet_handler.network.packet.SimplePacket;
+import com.github.razorplay.packet_handler.network.reflection.util.SchemaFingerprint;
 import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,6 +44,11 @@ public class PacketTCPTest {
     @BeforeEach
     public void setup() {
         PacketTCP.PACKET_REGISTRY.clear();
+        PacketTCP.setWireProfile(WireProfile.FIXED);
+        PacketTCP.setPacketIdMode(PacketIdMode.STRING);
+        PacketTCP.setCompressionThreshold(-1);
+        PacketTCP.setMaxDecompressedSize(PacketTCP.DEFAULT_MAX_DECOMPRESSED_SIZE);
+        PacketTCP.setMaxFragmentSize(PacketTCP.DEFAULT_MAX_FRAGMENT_SIZE);
     }
 
     @Test
@@ -35,6 +64,285 @@ public class PacketTCPTest {
         assertTrue(result instanceof EmptyPacket);
     }
 
+    @Test
+    public void testReadFromDirectByteBuffer() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+
+        byte[] data = PacketTCP.write(new TestPacket("DirectData"));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data).flip();
+
+        IPacket result = PacketTCP.read(buffer);
+
+        assertTrue(result instanceof TestPacket);
+        assertEquals("DirectData", ((TestPacket) result).getData());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testWireCompatibleWithDataOutput() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF(PacketTCP.getPacketId(TestPacket.class));
+        new PacketDataSerializer(out).writeString("Legacy");
+
+        assertArrayEquals(out.toByteArray(), PacketTCP.write(new TestPacket("Legacy")));
+        assertEquals("Legacy", ((TestPacket) PacketTCP.read(ByteStreams.newDataInput(out.toByteArray()))).getData());
+    }
+
+    @Test
+    public void testPacketConnectionStringTable() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+        PacketConnection sender = new PacketConnection();
+        PacketConnection receiver = new PacketConnection();
+
+        byte[] first = sender.write(new TestPacket("minecraft:overworld"));
+        byte[] second = sender.write(new TestPacket("minecraft:overworld"));
+        assertTrue(second.length < first.length);
+
+        assertEquals("minecraft:overworld", ((TestPacket) receiver.read(first)).getData());
+        assertEquals("minecraft:overworld", ((TestPacket) receiver.read(second)).getData());
+
+        sender.reset();
+        receiver.reset();
+        byte[] afterReset = sender.write(new TestPacket("minecraft:overworld"));
+        assertArrayEquals(first, afterReset);
+        assertEquals("minecraft:overworld", ((TestPacket) receiver.read(ByteBuffer.wrap(afterReset))).getData());
+    }
+
+    @Test
+    public void testPacketConnectionCompression() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+        try (PacketConnection sender = new PacketConnection(); PacketConnection receiver = new PacketConnection()) {
+            int streamSize = 0;
+            int standaloneSize = 0;
+            for (int i = 0; i < 50; i++) {
+                String update = "{\"entity\":" + (1000 + i) + ",\"type\":\"minecraft:zombie\",\"x\":" + (i * 0.5) + ",\"y\":64.0,\"z\":-12.25}";
+                byte[] data = sender.writeCompressed(new TestPacket(update));
+                streamSize += data.length;
+                standaloneSize += PacketTCP.writeCompressed(new TestPacket(update)).length;
+                assertEquals(update, ((TestPacket) receiver.readCompressed(data)).getData());
+            }
+            // Later packets refer back to the earlier ones
+            assertTrue(streamSize * 3 < standaloneSize, streamSize + " vs " + standaloneSize);
+
+            // Larger than the initial buffers, interleaved with uncompressed packets
+            StringBuilder large = new StringBuilder();
+            for (int i = 0; i < 20000; i++) {
+                large.append(Integer.toHexString(i * 7919));
+            }
+            byte[] plain = sender.write(new TestPacket("plain"));
+            byte[] compressed = sender.writeCompressed(new TestPacket(large.toString()));
+            assertEquals("plain", ((TestPacket) receiver.read(plain)).getData());
+            assertEquals(large.toString(), ((TestPacket) receiver.readCompressed(compressed)).getData());
+
+            sender.reset();
+            receiver.reset();
+            byte[] afterReset = sender.writeCompressed(new TestPacket("minecraft:overworld"));
+            assertEquals("minecraft:overworld", ((TestPacket) receiver.readCompressed(afterReset)).getData());
+
+            // A packet too large to send resets the sender, so only the receiver still has to be reset
+            Random random = new Random(42);
+            StringBuilder incompressible = new StringBuilder();
+            for (int i = 0; i < 2 * PacketTCP.MAX_COMPRESSED_SIZE; i++) {
+                incompressible.append((char) ('!' + random.nextInt(94)));
+            }
+            assertThrows(PacketSerializationException.class, () -> sender.writeCompressed(new TestPacket(incompressible.toString())));
+            receiver.reset();
+            byte[] afterFailure = sender.writeCompressed(new TestPacket("minecraft:overworld"));
+            assertEquals("minecraft:overworld", ((TestPacket) receiver.readCompressed(afterFailure)).getData());
+
+            PacketTCP.setMaxDecompressedSize(1024);
+            byte[] tooLarge = sender.writeCompressed(new TestPacket(large.toString()));
+            assertThrows(PacketSerializationException.class, () -> receiver.readCompressed(tooLarge));
+
+            try (PacketConnection fresh = new PacketConnection()) {
+                byte[] corrupted = sender.writeCompressed(new TestPacket("minecraft:the_end"));
+                Arrays.fill(corrupted, (byte) 0xFF);
+                assertThrows(PacketSerializationException.class, () -> fresh.readCompressed(corrupted));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PacketConnection(16, 16, 10));
+    }
+
+    @Test
+    public void testSchemaFingerprint() {
+        long empty = PacketTCP.getSchemaFingerprint();
+        PacketTCP.registerPackets(TestPacket.class);
+        long registered = PacketTCP.getSchemaFingerprint();
+
+        assertNotEquals(empty, registered);
+        assertDoesNotThrow(() -> PacketTCP.verifySchemaFingerprint(registered));
+        assertThrows(PacketRegistrationException.class, () -> PacketTCP.verifySchemaFingerprint(empty));
+
+        assertNotEquals(SchemaFingerprint.ofEnum(WireProfile.class), SchemaFingerprint.ofEnum(java.util.concurrent.TimeUnit.class));
+        // The enum is only reachable through a generic type argument
+        assertNotEquals(SchemaFingerprint.ofClass(Object.class), SchemaFingerprint.ofClass(ProfiledObject.class));
+    }
+
+    @Test
+    public void testSimplePacketPrimitiveArrays() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(HeightmapPacket.class);
+        int[] heights = new int[256];
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = 64 + i % 17;
+        }
+        HeightmapPacket packet = new HeightmapPacket(heights, new long[]{1L, 2L}, new byte[]{3, 4});
+
+        byte[] data = PacketTCP.write(packet);
+        HeightmapPacket result = PacketTCP.read(ByteBuffer.wrap(data));
+
+        assertArrayEquals(heights, result.heights);
+        assertArrayEquals(new long[]{1L, 2L}, result.sections);
+        assertArrayEquals(new byte[]{3, 4}, result.biomes);
+    }
+
+    @Test
+    public void testSizeOf() throws PacketSerializationException {
+        PacketTCP.registerPackets(TestPacket.class, HeightmapPacket.class);
+        IPacket[] packets = {
+                new TestPacket("Size \u00e9\u20ac\ud83d\ude00"),
+                new HeightmapPacket(new int[]{1, 2, 3}, new long[]{4L}, new byte[]{5, 6})
+        };
+
+        for (WireProfile profile : WireProfile.values()) {
+            PacketTCP.setWireProfile(profile);
+            for (IPacket packet : packets) {
+                int size = PacketTCP.sizeOf(packet);
+                assertEquals(PacketTCP.write(packet).length, size);
+
+                ByteBuffer buffer = ByteBuffer.allocate(size);
+                PacketTCP.write(packet, buffer);
+                assertFalse(buffer.hasRemaining());
+            }
+        }
+    }
+
+    @Test
+    public void testReadLimitsPerPacket() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+        String packetId = PacketTCP.getPacketId(TestPacket.class);
+        byte[] data = PacketTCP.write(new TestPacket("A string longer than the budget"));
+
+        PacketTCP.setReadLimits(packetId, new ReadLimits(Integer.MAX_VALUE, 16));
+        try {
+            assertEquals(16, PacketTCP.getReadLimits(packetId).maxAllocatedBytes());
+            assertThrows(PacketSerializationException.class, () -> PacketTCP.read(ByteBuffer.wrap(data)));
+        } finally {
+            PacketTCP.setReadLimits(packetId, null);
+        }
+
+        assertSame(ReadLimits.DEFAULT, PacketTCP.getReadLimits(packetId));
+        assertEquals("A string longer than the budget", ((TestPacket) PacketTCP.read(ByteBuffer.wrap(data))).getData());
+    }
+
+    @Test
+    public void testNumericPacketIds() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class, HeightmapPacket.class);
+        assertEquals(0, PacketTCP.getNumericPacketId("heightmap_packet"));
+        assertEquals(1, PacketTCP.getNumericPacketId("test_packet"));
+
+        TestPacket packet = new TestPacket("Numeric");
+        byte[] stringData = PacketTCP.write(packet);
+
+        PacketTCP.setPacketIdMode(PacketIdMode.NUMERIC);
+        byte[] numericData = PacketTCP.write(packet);
+        assertEquals(stringData.length - (2 + "test_packet".length()) + 1, numericData.length);
+        assertEquals(1, numericData[0]);
+        assertEquals(numericData.length, PacketTCP.sizeOf(packet));
+        assertEquals("Numeric", ((TestPacket) PacketTCP.read(ByteBuffer.wrap(numericData))).getData());
+
+        HeightmapPacket heightmap = PacketTCP.read(ByteBuffer.wrap(PacketTCP.write(new HeightmapPacket(new int[]{1}, new long[0], new byte[0]))));
+        assertArrayEquals(new int[]{1}, heightmap.heights);
+
+        // A packet registered later shifts the IDs sorted after it
+        PacketTCP.registerPacket("a_first_packet", EmptyPacket.class);
+        assertEquals(2, PacketTCP.write(packet)[0]);
+        assertThrows(PacketInstantiationException.class, () -> PacketTCP.read(ByteBuffer.wrap(new byte[]{5})));
+    }
+
+    @Test
+    public void testStringPacketIdMatching() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPacket("example:packet", TestPacket.class);
+        PacketTCP.registerPacket("example:packet_heightmap", HeightmapPacket.class);
+        PacketTCP.registerPacket("example:\u00e9v\u00e9nement", EmptyPacket.class);
+
+        byte[] data = PacketTCP.write(new TestPacket("Trie"));
+        ByteArrayDataOutput expected = ByteStreams.newDataOutput();
+        expected.writeUTF("example:packet");
+        assertArrayEquals(expected.toByteArray(), Arrays.copyOf(data, expected.toByteArray().length));
+        assertEquals("Trie", ((TestPacket) PacketTCP.read(ByteBuffer.wrap(data))).getData());
+        assertInstanceOf(HeightmapPacket.class, PacketTCP.read(ByteBuffer.wrap(PacketTCP.write(new HeightmapPacket(new int[0], new long[0], new byte[0])))));
+        assertInstanceOf(EmptyPacket.class, PacketTCP.read(ByteBuffer.wrap(PacketTCP.write(new EmptyPacket()))));
+
+        for (String unknownId : new String[]{"example:pack", "example:packet_", "example:packet_heightmaps", "example:\u00e9", "", "other"}) {
+            ByteArrayDataOutput out = ByteStreams.newDataOutput();
+            out.writeUTF(unknownId);
+            out.writeInt(42);
+            ByteArrayDataInput in = ByteStreams.newDataInput(out.toByteArray());
+            PacketInstantiationException exception = assertThrows(PacketInstantiationException.class, () -> PacketTCP.read(in));
+            assertEquals("Could not find packet with ID " + unknownId, exception.getMessage());
+            assertEquals(42, in.readInt(), "The whole ID should be consumed");
+        }
+    }
+
+    @Test
+    public void testCompactWireProfile() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+        byte[] fixedData = PacketTCP.write(new TestPacket("Compact"));
+
+        PacketTCP.setWireProfile(WireProfile.COMPACT);
+        byte[] compactData = PacketTCP.write(new TestPacket("Compact"));
+        assertEquals(fixedData.length - 3, compactData.length);
+
+        IPacket result = PacketTCP.read(ByteBuffer.wrap(compactData));
+        assertEquals("Compact", ((TestPacket) result).getData());
+    }
+
+    @Test
+    public void testWriteIntoCallerBuffer() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+        int first = PacketTCP.write(new TestPacket("First"), buffer);
+        int second = PacketTCP.write(new TestPacket("Second"), buffer);
+
+        assertEquals(PacketTCP.write(new TestPacket("First")).length, first);
+        assertEquals(first + second, buffer.position());
+
+        buffer.flip();
+        assertEquals("First", ((TestPacket) PacketTCP.read(buffer)).getData());
+        assertEquals("Second", ((TestPacket) PacketTCP.read(buffer)).getData());
+    }
+
+    @Test
+    public void testWriteIntoSmallCallerBuffer() {
+        PacketTCP.registerPackets(TestPacket.class);
+
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.put((byte) 1);
+        assertThrows(PacketSerializationException.class, () -> PacketTCP.write(new TestPacket("Too long for the buffer"), buffer));
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    public void testWriteToPooledBuffer() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+
+        byte[] expected = PacketTCP.write(new TestPacket("Pooled"));
+        List<byte[]> received = new ArrayList<>();
+        PacketTCP.writeTo(new TestPacket("Pooled"), buffer -> {
+            byte[] copy = new byte[buffer.remaining()];
+            buffer.get(copy);
+            received.add(copy);
+        });
+
+        assertEquals(1, received.size());
+        assertArrayEquals(expected, received.get(0));
+        assertEquals("Pooled", ((TestPacket) PacketTCP.read(ByteBuffer.wrap(received.get(0)))).getData());
+    }
+
     @Test
     public void testDuplicateRegistration() {
         PacketTCP.registerPackets(EmptyPacket.class);
@@ -42,6 +350,56 @@ public class PacketTCPTest {
                 PacketTCP.registerPacket("EmptyPacket", EmptyPacket.class));
     }
 
+    @Test
+    public void testRegistrySnapshot() throws Exception {
+        PacketTCP.registerPackets(TestPacket.class);
+
+        // A failed batch registers nothing
+        assertThrows(PacketRegistrationException.class, () -> PacketTCP.registerPackets(HeightmapPacket.class, TestPacket.class));
+        assertFalse(PacketTCP.PACKET_REGISTRY.containsValue(HeightmapPacket.class));
+        assertThrows(UnsupportedOperationException.class, () -> PacketTCP.PACKET_REGISTRY.remove("test_packet"));
+        assertThrows(PacketRegistrationException.class, () -> PacketTCP.PACKET_REGISTRY.put("other_id", TestPacket.class));
+
+        // So does a failed putAll on the view
+        Map<String, Class<? extends IPacket>> batch = new LinkedHashMap<>();
+        batch.put("heightmap", HeightmapPacket.class);
+        batch.put("test_packet", TestPacket.class);
+        assertThrows(PacketRegistrationException.class, () -> PacketTCP.PACKET_REGISTRY.putAll(batch));
+        batch.remove("test_packet");
+        batch.put("empty", EmptyPacket.class);
+        batch.put("other_heightmap", HeightmapPacket.class);
+        assertThrows(PacketRegistrationException.class, () -> PacketTCP.PACKET_REGISTRY.putAll(batch));
+        assertFalse(PacketTCP.PACKET_REGISTRY.containsValue(HeightmapPacket.class));
+        batch.remove("other_heightmap");
+        PacketTCP.PACKET_REGISTRY.putAll(batch);
+        assertEquals(3, PacketTCP.PACKET_REGISTRY.size());
+        PacketTCP.clearRegisteredPackets();
+        PacketTCP.registerPackets(TestPacket.class);
+
+        byte[] data = PacketTCP.write(new TestPacket("Concurrent"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(executor.submit(() -> {
+                    for (int j = 0; j < 2000; j++) {
+                        assertEquals("Concurrent", ((TestPacket) PacketTCP.read(ByteBuffer.wrap(data))).getData());
+                    }
+                    return null;
+                }));
+            }
+            PacketTCP.registerPackets(HeightmapPacket.class);
+            PacketTCP.registerPacket("empty", EmptyPacket.class);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(3, PacketTCP.PACKET_REGISTRY.size());
+        assertEquals("empty", PacketTCP.PACKET_REGISTRY.inverse().get(EmptyPacket.class));
+    }
+
     @Test
     public void testCustomPacket() throws PacketSerializationException, PacketInstantiationException {
         PacketTCP.registerPackets(TestPacket.class);
@@ -212,6 +570,197 @@ public class PacketTCPTest {
         assertThrows(PacketSerializationException.class, () -> PacketTCP.readCompressed(compressedData));
     }
 
+    @Test
+    public void testCompressionCodecs() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            data.append("entity-").append(i % 10).append(';');
+        }
+        TestPacket original = new TestPacket(data.toString());
+
+        try {
+            for (CompressionCodec codec : new CompressionCodec[]{new DeflateCodec(Deflater.BEST_SPEED), new LzCodec(3), new GzipCodec(), new ParallelCodec(new DeflateCodec(), 1024)}) {
+                PacketTCP.setCompressionCodec(codec);
+                byte[] compressedData = PacketTCP.writeCompressed(original);
+                assertTrue(compressedData.length < data.length() / 4, codec + " should compress repeated data");
+
+                IPacket result = PacketTCP.readCompressed(compressedData);
+                assertEquals(original.getData(), ((TestPacket) result).getData());
+            }
+        } finally {
+            PacketTCP.setCompressionCodec(new GzipCodec());
+        }
+        assertThrows(NullPointerException.class, () -> PacketTCP.setCompressionCodec(null));
+    }
+
+    @Test
+    public void testFragmentation() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+        Random random = new Random(7);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2_000_000; i++) {
+            builder.append((char) ('0' + random.nextInt(64)));
+        }
+        String large = builder.toString();
+        assertThrows(PacketSerializationException.class, () -> PacketTCP.writeCompressed(new TestPacket(large)));
+
+        PacketTCP.setMaxFragmentSize(64 * 1024);
+        List<byte[]> first = PacketTCP.writeFragmented(new TestPacket(large));
+        List<byte[]> second = PacketTCP.writeFragmented(new TestPacket(large.substring(1000)));
+        List<byte[]> small = PacketTCP.writeFragmented(new TestPacket("tiny"));
+        assertTrue(first.size() > 1);
+        assertEquals(1, small.size());
+        for (byte[] frame : first) {
+            assertTrue(frame.length <= 64 * 1024);
+        }
+
+        // Small packets and other fragmented packets go through between the fragments
+        PacketReassembler reassembler = new PacketReassembler();
+        List<String> received = new ArrayList<>();
+        for (int i = 0; i < Math.max(first.size(), second.size()); i++) {
+            for (byte[] frame : new byte[][]{i < first.size() ? first.get(i) : null, small.get(0), i < second.size() ? second.get(i) : null}) {
+                IPacket packet = frame != null ? reassembler.read(frame) : null;
+                if (packet != null) {
+                    received.add(((TestPacket) packet).getData());
+                }
+            }
+        }
+        assertEquals(Math.max(first.size(), second.size()) + 2, received.size());
+        assertTrue(received.contains(large));
+        assertTrue(received.contains(large.substring(1000)));
+        assertEquals(0, reassembler.pendingPackets());
+
+        // Fragments must stay in order
+        assertNull(reassembler.read(first.get(0)));
+        assertThrows(PacketSerializationException.class, () -> reassembler.read(first.get(2)));
+        assertEquals(0, reassembler.pendingPackets());
+        assertThrows(PacketSerializationException.class, () -> reassembler.read(first.get(1)));
+        assertThrows(PacketSerializationException.class, () -> reassembler.read(new byte[]{5}));
+
+        // Bounded number and size of incomplete packets
+        PacketReassembler bounded = new PacketReassembler(1, 100_000, 1000);
+        assertNull(bounded.read(first.get(0)));
+        assertThrows(PacketSerializationException.class, () -> bounded.read(second.get(0)));
+        assertThrows(PacketSerializationException.class, () -> bounded.read(first.get(1)));
+        assertEquals(0, bounded.pendingPackets());
+
+        // Incomplete packets are dropped after the timeout
+        long[] now = {0};
+        PacketReassembler timed = new PacketReassembler(4, Integer.MAX_VALUE, 1000, () -> now[0]);
+        assertNull(timed.read(first.get(0)));
+        now[0] += TimeUnit.MILLISECONDS.toNanos(999);
+        assertNull(timed.read(first.get(1)));
+        assertEquals(1, timed.pendingPackets());
+        now[0] += TimeUnit.MILLISECONDS.toNanos(1);
+        assertEquals(0, timed.pendingPackets());
+        assertThrows(PacketSerializationException.class, () -> timed.read(first.get(2)));
+
+        assertThrows(IllegalArgumentException.class, () -> PacketTCP.setMaxFragmentSize(PacketTCP.MIN_FRAGMENT_SIZE - 1));
+        assertThrows(IllegalArgumentException.class, () -> new PacketReassembler(0, 1, 1));
+    }
+
+    @Test
+    public void testCompressionThreshold() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+        PacketTCP.setCompressionThreshold(64);
+
+        // Below the threshold: sent as is after the flag
+        TestPacket small = new TestPacket("tiny");
+        byte[] smallData = PacketTCP.writeCompressed(small);
+        assertEquals(0, smallData[0]);
+        assertEquals(PacketTCP.write(small).length + 1, smallData.length);
+        assertEquals("tiny", ((TestPacket) PacketTCP.readCompressed(smallData)).getData());
+
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            repeated.append("scoreboard;");
+        }
+        TestPacket large = new TestPacket(repeated.toString());
+        byte[] largeData = PacketTCP.writeCompressed(large);
+        assertEquals(1, largeData[0]);
+        assertTrue(largeData.length < PacketTCP.write(large).length / 10);
+        assertEquals(repeated.toString(), ((TestPacket) PacketTCP.readCompressed(largeData)).getData());
+
+        // Above the threshold but incompressible: compression would only make it larger
+        Random random = new Random(7);
+        StringBuilder noise = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            noise.append((char) (random.nextInt(94) + 32));
+        }
+        TestPacket incompressible = new TestPacket(noise.toString());
+        byte[] noiseData = PacketTCP.writeCompressed(incompressible);
+        assertEquals(0, noiseData[0]);
+        assertEquals(noise.toString(), ((TestPacket) PacketTCP.readCompressed(noiseData)).getData());
+
+        smallData[0] = 5;
+        assertThrows(PacketSerializationException.class, () -> PacketTCP.readCompressed(smallData));
+        assertThrows(PacketSerializationException.class, () -> PacketTCP.readCompressed(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> PacketTCP.setCompressionThreshold(-2));
+    }
+
+    @Test
+    public void testDecompressedSizeLimit() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 200000; i++) {
+            data.append('A');
+        }
+        TestPacket packet = new TestPacket(data.toString());
+
+        try {
+            for (CompressionCodec codec : new CompressionCodec[]{new GzipCodec(), new DeflateCodec(), new LzCodec()}) {
+                PacketTCP.setCompressionCodec(codec);
+                byte[] compressedData = PacketTCP.writeCompressed(packet);
+                assertTrue(compressedData.length < 2000);
+
+                PacketTCP.setMaxDecompressedSize(100000);
+                PacketSerializationException exception = assertThrows(PacketSerializationException.class, () -> PacketTCP.readCompressed(compressedData));
+                assertEquals("Error decompressing packet data", exception.getMessage(), codec.toString());
+
+                PacketTCP.setMaxDecompressedSize(PacketTCP.DEFAULT_MAX_DECOMPRESSED_SIZE);
+                assertEquals(data.toString(), ((TestPacket) PacketTCP.readCompressed(compressedData)).getData());
+            }
+        } finally {
+            PacketTCP.setCompressionCodec(new GzipCodec());
+        }
+        assertThrows(IllegalArgumentException.class, () -> PacketTCP.setMaxDecompressedSize(-1));
+    }
+
+    @Test
+    public void testCompressionDictionary() throws PacketSerializationException, PacketInstantiationException {
+        PacketTCP.registerPackets(TestPacket.class);
+        PacketTCP.setCompressionThreshold(0);
+        String packetId = PacketTCP.getPacketId(TestPacket.class);
+
+        Random random = new Random(11);
+        DictionaryTrainer trainer = new DictionaryTrainer(2048);
+        for (int i = 0; i < 30; i++) {
+            trainer.addSample(PacketTCP.write(new TestPacket("objective=kills;player=Steve" + random.nextInt(100) + ";score=" + random.nextInt(1000))));
+        }
+        CompressionDictionary dictionary = trainer.train();
+        TestPacket packet = new TestPacket("objective=kills;player=Steve42;score=731");
+        long fingerprint = PacketTCP.getSchemaFingerprint();
+
+        try {
+            PacketTCP.setCompressionDictionary(packetId, dictionary);
+            assertSame(dictionary, PacketTCP.getCompressionDictionary(packetId));
+            assertNotEquals(fingerprint, PacketTCP.getSchemaFingerprint(), "Dictionaries should be part of the schema fingerprint");
+
+            byte[] compressedData = PacketTCP.writeCompressed(packet);
+            assertEquals(2, compressedData[0]);
+            assertTrue(compressedData.length < PacketTCP.write(packet).length / 2);
+            assertEquals(packet.getData(), ((TestPacket) PacketTCP.readCompressed(compressedData)).getData());
+
+            // A receiver without the dictionary cannot decode the packet
+            PacketTCP.setCompressionDictionary(packetId, null);
+            assertThrows(PacketSerializationException.class, () -> PacketTCP.readCompressed(compressedData));
+            assertEquals(fingerprint, PacketTCP.getSchemaFingerprint());
+        } finally {
+            PacketTCP.setCompressionDictionary(packetId, null);
+        }
+    }
+
     @Test
     public void testWriteCompressedNullPacket() {
         assertThrows(NullPointerException.class, () -> PacketTCP.writeCompressed(null));
@@ -242,4 +791,18 @@ class TestPacket implements IPacket {
     public String getData() {
         return data;
     }
-}
\ No newline at end of file
+}
+
+class ProfiledObject {
+    static WireProfile DEFAULT = WireProfile.FIXED;
+    List<WireProfile> profiles;
+    String name;
+}
+
+@AllArgsConstructor
+@NoArgsConstructor
+class HeightmapPacket implements SimplePacket {
+    int[] heights;
+    long[] sections;
+    byte[] biomes;
+}
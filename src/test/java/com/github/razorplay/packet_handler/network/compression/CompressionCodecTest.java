@@ -0,0 +1,387 @@
+package com.github.razorplay.packet_handler.network.compression;
+
+import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.network_util.PacketReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionCodecTest {
+    private static final CompressionCodec[] CODECS = {
+            new DeflateCodec(), new DeflateCodec(Deflater.BEST_SPEED), new GzipCodec(),
+            new LzCodec(), new LzCodec(4), new LzCodec(LzCodec.MAX_LEVEL),
+            new ParallelCodec(new DeflateCodec(), 4096), new ParallelCodec(new LzCodec(), 30000, Runnable::run)
+    };
+
+    private static byte[][] samples() {
+        Random random = new Random(42);
+        byte[] noise = new byte[70000];
+        random.nextBytes(noise);
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append("{\"slot\":").append(i % 36).append(",\"item\":\"minecraft:stone\",\"count\":").append(random.nextInt(64)).append('}');
+        }
+        // Repeats at distances beyond the 64 KB window of the LZ codec
+        byte[] farRepeats = new byte[200000];
+        for (int i = 0; i < farRepeats.length; i++) {
+            farRepeats[i] = noise[i % noise.length];
+        }
+        return new byte[][]{
+                new byte[0],
+                {7},
+                "hello hello hello hello".getBytes(StandardCharsets.UTF_8),
+                new byte[100000],
+                noise,
+                text.toString().getBytes(StandardCharsets.UTF_8),
+                farRepeats
+        };
+    }
+
+    @Test
+    public void testRoundTrip() throws DataFormatException {
+        for (CompressionCodec codec : CODECS) {
+            for (byte[] sample : samples()) {
+                byte[] compressed = codec.compress(sample, 0, sample.length);
+                assertArrayEquals(sample, codec.decompress(compressed, 0, compressed.length, sample.length), codec + " on " + sample.length + " bytes");
+            }
+        }
+    }
+
+    @Test
+    public void testRanges() throws DataFormatException {
+        byte[] data = "xxxxabcabcabcabcabcabcabcabcabcabcyyyy".getBytes(StandardCharsets.UTF_8);
+        for (CompressionCodec codec : CODECS) {
+            byte[] compressed = codec.compress(data, 4, data.length - 8);
+            byte[] framed = new byte[compressed.length + 6];
+            System.arraycopy(compressed, 0, framed, 3, compressed.length);
+
+            byte[] decompressed = codec.decompress(framed, 3, compressed.length, Integer.MAX_VALUE);
+            assertArrayEquals(Arrays.copyOfRange(data, 4, data.length - 4), decompressed, codec.toString());
+        }
+    }
+
+    @Test
+    public void testCompressionRatio() {
+        byte[] repetitive = new byte[100000];
+        for (CompressionCodec codec : CODECS) {
+            assertTrue(codec.compress(repetitive, 0, repetitive.length).length < 1000, codec.toString());
+        }
+        // Raw deflate drops the 18 bytes of GZIP framing
+        byte[] small = "small".getBytes(StandardCharsets.UTF_8);
+        assertEquals(new DeflateCodec().compress(small, 0, small.length).length + 18, new GzipCodec().compress(small, 0, small.length).length);
+    }
+
+    @Test
+    public void testGzipInterop() throws IOException, DataFormatException {
+        byte[] data = samples()[5];
+        GzipCodec codec = new GzipCodec();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        byte[] streamed = out.toByteArray();
+        assertArrayEquals(data, codec.decompress(streamed, 0, streamed.length, Integer.MAX_VALUE));
+
+        byte[] compressed = codec.compress(data, 0, data.length);
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[4096];
+            for (int read; (read = gzip.read(buffer)) > 0; ) {
+                inflated.write(buffer, 0, read);
+            }
+        }
+        assertArrayEquals(data, inflated.toByteArray());
+    }
+
+    @Test
+    public void testDecompressedSizeLimit() {
+        byte[] data = new byte[10000];
+        for (CompressionCodec codec : CODECS) {
+            byte[] compressed = codec.compress(data, 0, data.length);
+            assertThrows(DataFormatException.class, () -> codec.decompress(compressed, 0, compressed.length, data.length - 1), codec.toString());
+        }
+    }
+
+    @Test
+    public void testCorruptedData() {
+        byte[] data = samples()[5];
+        for (CompressionCodec codec : CODECS) {
+            byte[] compressed = codec.compress(data, 0, data.length);
+            assertThrows(DataFormatException.class, () -> codec.decompress(compressed, 0, compressed.length / 2, Integer.MAX_VALUE), codec + " truncated");
+
+            byte[] trailing = Arrays.copyOf(compressed, compressed.length + 1);
+            assertThrows(DataFormatException.class, () -> codec.decompress(trailing, 0, trailing.length, Integer.MAX_VALUE), codec + " with trailing data");
+        }
+
+        GzipCodec gzip = new GzipCodec();
+        byte[] compressed = gzip.compress(data, 0, data.length);
+        compressed[compressed.length - 5]++;
+        assertThrows(DataFormatException.class, () -> gzip.decompress(compressed, 0, compressed.length, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testLzSizeBound() throws DataFormatException {
+        LzCodec codec = new LzCodec();
+        // Five bytes claiming 16 MB are rejected before the output is allocated
+        byte[] forged = {(byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08, 0x00};
+        DataFormatException exception = assertThrows(DataFormatException.class, () -> codec.decompress(forged, 0, forged.length, Integer.MAX_VALUE));
+        assertTrue(exception.getMessage().contains("exceeds what"), exception.getMessage());
+
+        // Long runs compress close to the maximum ratio and still decode
+        byte[] zeros = new byte[1024 * 1024];
+        byte[] compressed = codec.compress(zeros, 0, zeros.length);
+        assertArrayEquals(zeros, codec.decompress(compressed, 0, compressed.length, zeros.length));
+    }
+
+    @Test
+    public void testParallelBlocks() throws DataFormatException {
+        byte[] data = samples()[5];
+        AtomicInteger tasks = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ParallelCodec parallel = new ParallelCodec(new GzipCodec(), 8192, task -> {
+                tasks.incrementAndGet();
+                executor.execute(task);
+            });
+            byte[] compressed = parallel.compress(data, 0, data.length);
+            int blocks = (data.length + 8191) / 8192;
+            // The calling thread handles the first block itself
+            assertEquals(blocks - 1, tasks.get());
+            // The output does not depend on the executor
+            assertArrayEquals(new ParallelCodec(new GzipCodec(), 8192, Runnable::run).compress(data, 0, data.length), compressed);
+
+            assertArrayEquals(data, parallel.decompress(compressed, 0, compressed.length, data.length));
+            assertEquals(2 * (blocks - 1), tasks.get());
+
+            // A corrupted block fails the whole packet
+            byte[] corrupted = compressed.clone();
+            corrupted[corrupted.length - 5]++;
+            assertThrows(DataFormatException.class, () -> parallel.decompress(corrupted, 0, corrupted.length, Integer.MAX_VALUE));
+            // The index is checked against the limit before anything is inflated
+            assertThrows(DataFormatException.class, () -> parallel.decompress(compressed, 0, compressed.length, data.length - 1));
+        } finally {
+            executor.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCodec(new DeflateCodec(), 0));
+        assertThrows(NullPointerException.class, () -> new ParallelCodec(null));
+    }
+
+    @Test
+    public void testParallelFailureCancelsBlocks() {
+        byte[] data = samples()[5];
+        AtomicInteger calls = new AtomicInteger();
+        // Fails on the first block, which runs on the calling thread
+        CompressionCodec failing = new CompressionCodec() {
+            @Override
+            public byte[] compress(byte[] data, int offset, int length) {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("Broken block");
+                }
+                return new DeflateCodec().compress(data, offset, length);
+            }
+
+            @Override
+            public byte[] decompress(byte[] data, int offset, int length, int maxLength) throws DataFormatException {
+                if (calls.incrementAndGet() == 1) {
+                    throw new DataFormatException("Broken block");
+                }
+                return new DeflateCodec().decompress(data, offset, length, maxLength);
+            }
+        };
+        List<Runnable> queued = new ArrayList<>();
+        ParallelCodec parallel = new ParallelCodec(failing, 1024, queued::add);
+
+        assertThrows(IllegalStateException.class, () -> parallel.compress(data, 0, data.length));
+        assertFalse(queued.isEmpty());
+        queued.forEach(Runnable::run);
+        assertEquals(1, calls.get());
+
+        byte[] compressed = new ParallelCodec(new DeflateCodec(), 1024).compress(data, 0, data.length);
+        calls.set(0);
+        queued.clear();
+        assertThrows(DataFormatException.class, () -> parallel.decompress(compressed, 0, compressed.length, data.length));
+        assertFalse(queued.isEmpty());
+        queued.forEach(Runnable::run);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testParallelBlockIndex() {
+        ParallelCodec parallel = new ParallelCodec(new DeflateCodec(), 1024, Runnable::run);
+        // Two blocks, the second larger than the first
+        assertThrows(DataFormatException.class, () -> parallel.decompress(new byte[]{2, 4, 1, 8, 1, 0, 0}, 0, 7, 100));
+        // An empty block
+        assertThrows(DataFormatException.class, () -> parallel.decompress(new byte[]{1, 0, 1, 0}, 0, 4, 100));
+        // A middle block smaller than the first
+        assertThrows(DataFormatException.class, () -> parallel.decompress(new byte[]{3, 8, 1, 4, 1, 8, 1, 0, 0, 0}, 0, 10, 100));
+    }
+
+    @Test
+    public void testStreamingInput() throws IOException, DataFormatException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        byte[] block = samples()[5];
+        for (int i = 0; i < 3000; i++) {
+            out.writeInt(i);
+            out.writeLong(-i * 31L);
+            out.writeShort(i);
+            out.writeDouble(i / 3.0);
+        }
+        out.writeUTF("end of samples");
+        out.write(block);
+        byte[] data = bytes.toByteArray();
+
+        for (StreamingCompressionCodec codec : new StreamingCompressionCodec[]{new DeflateCodec(), new GzipCodec()}) {
+            byte[] compressed = codec.compress(data, 0, data.length);
+            try (InflaterDataInput in = codec.openInput(compressed, 0, compressed.length, data.length)) {
+                // Values regularly straddle the boundaries of the window
+                for (int i = 0; i < 3000; i++) {
+                    assertEquals(i, in.readInt());
+                    assertEquals(-i * 31L, in.readLong());
+                    assertEquals((short) i, in.readShort());
+                    assertEquals(i / 3.0, in.readDouble());
+                }
+                assertEquals("end of samples", in.readUTF());
+                byte[] rest = new byte[block.length];
+                in.readFully(rest);
+                assertArrayEquals(block, rest);
+                assertThrows(BufferUnderflowException.class, in::readByte);
+                in.finish();
+                assertEquals(data.length, in.decompressedSize());
+            }
+
+            // Unread data is still decompressed and checked
+            try (InflaterDataInput in = codec.openInput(compressed, 0, compressed.length, data.length)) {
+                assertEquals(0, in.readInt());
+                in.finish();
+            }
+            try (InflaterDataInput in = codec.openInput(compressed, 0, compressed.length - 10, data.length)) {
+                assertThrows(DataFormatException.class, in::finish, codec + " truncated");
+            }
+        }
+    }
+
+    @Test
+    public void testStreamingSizeLimit() throws DataFormatException {
+        // 64 MB of zeros deflate to about 64 KB
+        byte[] bomb = new byte[64 * 1024 * 1024];
+        for (StreamingCompressionCodec codec : new StreamingCompressionCodec[]{new DeflateCodec(), new GzipCodec()}) {
+            byte[] compressed = codec.compress(bomb, 0, bomb.length);
+            try (InflaterDataInput in = codec.openInput(compressed, 0, compressed.length, 1024 * 1024)) {
+                IllegalStateException exception = assertThrows(IllegalStateException.class, () -> in.readFully(new byte[2 * 1024 * 1024]));
+                assertInstanceOf(DataFormatException.class, exception.getCause());
+                assertTrue(in.decompressedSize() <= 1024 * 1024 + 8192);
+            }
+            try (InflaterDataInput in = codec.openInput(compressed, 0, compressed.length, 1024 * 1024)) {
+                assertThrows(DataFormatException.class, in::finish);
+            }
+        }
+    }
+
+    @Test
+    public void testStreamingLengthBudget() throws IOException, DataFormatException {
+        // A few bytes of gzip claiming an array of 8M longs, that is 64 MB
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(raw);
+        out.writeInt(8 * 1024 * 1024);
+        out.writeLong(1L);
+        byte[] data = raw.toByteArray();
+        GzipCodec codec = new GzipCodec();
+        byte[] compressed = codec.compress(data, 0, data.length);
+
+        try (InflaterDataInput in = codec.openInput(compressed, 0, compressed.length, 1024 * 1024)) {
+            assertEquals(1024 * 1024, in.maxRemaining());
+            in.readInt();
+            assertEquals(1024 * 1024 - Integer.BYTES, in.maxRemaining());
+        }
+        try (InflaterDataInput in = codec.openInput(compressed, 0, compressed.length, 1024 * 1024)) {
+            PacketReader reader = new PacketReader(in);
+            PacketSerializationException exception = assertThrows(PacketSerializationException.class, reader::readLongArray);
+            assertEquals("Unexpected end of input while reading long array", exception.getMessage());
+        }
+    }
+
+    private static byte[] inventorySample(Random random) {
+        StringBuilder sample = new StringBuilder("{\"window\":").append(random.nextInt(5)).append(",\"slots\":[");
+        String[] items = {"minecraft:diamond_sword", "minecraft:cooked_beef", "minecraft:oak_planks", "minecraft:torch"};
+        for (int i = 0; i < 6; i++) {
+            sample.append("{\"slot\":").append(random.nextInt(36)).append(",\"item\":\"").append(items[random.nextInt(items.length)])
+                    .append("\",\"count\":").append(random.nextInt(64) + 1).append("},");
+        }
+        return sample.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testDictionary() throws DataFormatException {
+        Random random = new Random(3);
+        DictionaryTrainer trainer = new DictionaryTrainer(4096);
+        for (int i = 0; i < 50; i++) {
+            trainer.addSample(inventorySample(random));
+        }
+        assertEquals(50, trainer.sampleCount());
+        CompressionDictionary dictionary = trainer.train();
+        assertTrue(dictionary.size() <= 4096);
+        assertEquals(dictionary.getId(), new CompressionDictionary(dictionary.getContent()).getId());
+        assertEquals(dictionary, new CompressionDictionary(dictionary.getContent()));
+
+        DeflateCodec plain = new DeflateCodec();
+        DeflateCodec primed = new DeflateCodec(Deflater.DEFAULT_COMPRESSION, dictionary);
+        assertSame(dictionary, primed.getDictionary());
+        byte[] sample = inventorySample(random);
+        byte[] compressed = primed.compress(sample, 0, sample.length);
+        assertTrue(compressed.length * 2 < plain.compress(sample, 0, sample.length).length,
+                "A trained dictionary should at least halve the size of a small packet");
+
+        assertArrayEquals(sample, primed.decompress(compressed, 0, compressed.length, sample.length));
+        try (InflaterDataInput in = primed.openInput(compressed, 0, compressed.length, sample.length)) {
+            byte[] streamed = new byte[sample.length];
+            in.readFully(streamed);
+            in.finish();
+            assertArrayEquals(sample, streamed);
+        }
+        // Pooled deflaters keep working once reset
+        assertArrayEquals(compressed, primed.compress(sample, 0, sample.length));
+        assertThrows(DataFormatException.class, () -> plain.decompress(compressed, 0, compressed.length, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testDictionaryValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new CompressionDictionary(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> new CompressionDictionary(new byte[CompressionDictionary.MAX_SIZE + 1]));
+        assertThrows(IllegalArgumentException.class, () -> new DictionaryTrainer(0));
+
+        DictionaryTrainer trainer = new DictionaryTrainer();
+        trainer.addSample("first sample".getBytes(StandardCharsets.UTF_8));
+        trainer.addSample("nothing shared".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, trainer::train);
+    }
+
+    @Test
+    public void testInvalidLevels() {
+        assertThrows(IllegalArgumentException.class, () -> new DeflateCodec(10));
+        assertThrows(IllegalArgumentException.class, () -> new GzipCodec(-2));
+        assertThrows(IllegalArgumentException.class, () -> new LzCodec(0));
+        assertThrows(IllegalArgumentException.class, () -> new LzCodec(LzCodec.MAX_LEVEL + 1));
+        assertEquals(Deflater.BEST_SPEED, new DeflateCodec(Deflater.BEST_SPEED).getLevel());
+    }
+}
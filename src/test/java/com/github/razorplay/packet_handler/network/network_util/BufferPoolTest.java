@@ -0,0 +1,113 @@
+package com.github.razorplay.packet_handler.network.network_util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testSizeClasses() {
+        BufferPool pool = new BufferPool(false);
+
+        assertEquals(256, pool.acquire(0).capacity());
+        assertEquals(256, pool.acquire(256).capacity());
+        assertEquals(512, pool.acquire(257).capacity());
+        assertEquals(4 * 1024 * 1024, pool.acquire(3 * 1024 * 1024).capacity());
+
+        // Larger than the biggest class: exact, unpooled allocation
+        assertEquals(5 * 1024 * 1024, pool.acquire(5 * 1024 * 1024).capacity());
+    }
+
+    @Test
+    public void testBuffersAreReused() {
+        BufferPool pool = new BufferPool(true);
+
+        ByteBuffer first = pool.acquire(1000);
+        assertTrue(first.isDirect());
+        first.putInt(42);
+        pool.release(first);
+
+        ByteBuffer second = pool.acquire(700);
+        assertSame(first, second);
+        assertEquals(0, second.position());
+        assertEquals(second.capacity(), second.limit());
+    }
+
+    @Test
+    public void testRetentionIsBounded() {
+        BufferPool pool = new BufferPool(false, 1);
+
+        ByteBuffer first = pool.acquire(100);
+        ByteBuffer second = pool.acquire(100);
+        pool.release(first);
+        pool.release(second);
+
+        assertSame(first, pool.acquire(100));
+        assertNotSame(second, pool.acquire(100));
+    }
+
+    @Test
+    public void testRetainedBytesAreBounded() {
+        BufferPool pool = new BufferPool(false, 32, 8192);
+
+        ByteBuffer[] buffers = new ByteBuffer[3];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = pool.acquire(4096);
+        }
+        for (ByteBuffer buffer : buffers) {
+            pool.release(buffer);
+        }
+        assertEquals(8192, pool.pooledBytes());
+
+        // A large buffer does not fit once the smaller ones hold the budget
+        pool.release(pool.acquire(1024 * 1024));
+        assertEquals(8192, pool.pooledBytes());
+
+        assertSame(buffers[0], pool.acquire(4096));
+        assertSame(buffers[1], pool.acquire(4096));
+        assertNotSame(buffers[2], pool.acquire(4096));
+        assertEquals(0, pool.pooledBytes());
+
+        // The default pool keeps far less than 32 buffers of every class
+        BufferPool defaultPool = new BufferPool(false);
+        for (int i = 0; i < 8; i++) {
+            defaultPool.release(ByteBuffer.allocate(4 * 1024 * 1024));
+        }
+        assertEquals(BufferPool.DEFAULT_MAX_POOLED_BYTES, defaultPool.pooledBytes());
+        assertThrows(IllegalArgumentException.class, () -> new BufferPool(false, 1, -1));
+    }
+
+    @Test
+    public void testForeignBuffersAreIgnored() {
+        BufferPool pool = new BufferPool(false);
+
+        pool.release(ByteBuffer.allocate(300));
+        pool.release(ByteBuffer.allocateDirect(256));
+
+        ByteBuffer acquired = pool.acquire(300);
+        assertEquals(512, acquired.capacity());
+        assertFalse(acquired.isDirect());
+    }
+
+    @Test
+    public void testPooledOutputGrowsAndReleases() {
+        BufferPool pool = new BufferPool(false);
+        ByteBufferDataOutput out = new ByteBufferDataOutput(pool, 16);
+        ByteBuffer initial = out.buffer();
+
+        byte[] payload = new byte[1000];
+        out.write(payload);
+        assertEquals(1024, out.buffer().capacity());
+        assertEquals(1000, out.toByteArray().length);
+
+        // The outgrown buffer went back to the pool
+        assertSame(initial, pool.acquire(10));
+
+        ByteBuffer last = out.buffer();
+        out.close();
+        assertSame(last, pool.acquire(1000));
+    }
+}
@@ -1,15 +1,34 @@
 package com.github.razorplay.packet_handler.network.network_util;
 
 import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.packet.annotation.Angle;
+import com.github.razorplay.packet_handler.network.packet.annotation.BitPacked;
+import com.github.razorplay.packet_handler.network.packet.annotation.Bits;
+import com.github.razorplay.packet_handler.network.packet.annotation.Delta;
+import com.github.razorplay.packet_handler.network.packet.annotation.FixedPoint;
+import com.github.razorplay.packet_handler.network.packet.annotation.HalfFloat;
+import com.github.razorplay.packet_handler.network.packet.annotation.VarInt;
 import com.github.razorplay.packet_handler.network.reflection.ClassSerializer;
 import com.github.razorplay.packet_handler.network.reflection.element.AnnotatedElementContext;
+import com.github.razorplay.packet_handler.network.reflection.util.InstanceFactory;
+import com.github.razorplay.packet_handler.util.collection.IntList;
+import com.github.razorplay.packet_handler.util.collection.IntSet;
+import com.github.razorplay.packet_handler.util.collection.LongList;
+import com.github.razorplay.packet_handler.util.collection.LongObjectMap;
 import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.junit.jupiter.api.Test;
 
+import javax.annotation.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -33,6 +52,12 @@ public class PacketDataSerializerTest {
         return new PacketDataSerializer(in);
     }
 
+    private PacketDataSerializer unlimitedDeserializer(byte[] data) {
+        PacketDataSerializer deserializer = prepareDeserializer(data);
+        deserializer.setReadLimits(ReadLimits.UNLIMITED);
+        return deserializer;
+    }
+
     @Test
     public void testPrimitiveTypes() throws PacketSerializationException {
         ByteArrayDataOutput out = ByteStreams.newDataOutput();
@@ -153,6 +178,60 @@ public class PacketDataSerializerTest {
         assertThrows(PacketSerializationException.class, () -> deserializerInvalid.readEnum(TestEnum.class));
     }
 
+    @Test
+    public void testEnumOrdinal() throws PacketSerializationException {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+        serializer.writeEnumOrdinal(TestEnum.VALUE2);
+        serializer.writeEnumOrdinal(null);
+        assertEquals(2, out.size());
+
+        PacketDataSerializer deserializer = prepareDeserializer(out.toByteArray());
+        assertEquals(TestEnum.VALUE2, deserializer.readEnumOrdinal(TestEnum.class));
+        assertNull(deserializer.readEnumOrdinal(TestEnum.class));
+
+        ByteBufferDataOutput outInvalid = new ByteBufferDataOutput();
+        new PacketDataSerializer(outInvalid).writeVarInt(TestEnum.values().length + 1);
+        PacketDataSerializer deserializerInvalid = prepareDeserializer(outInvalid.toByteArray());
+        assertThrows(PacketSerializationException.class, () -> deserializerInvalid.readEnumOrdinal(TestEnum.class));
+    }
+
+    @Test
+    public void testEnumSet() throws PacketSerializationException {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+        serializer.writeEnumSet(EnumSet.of(TestEnum.VALUE2), TestEnum.class);
+        serializer.writeEnumSet(EnumSet.noneOf(TestEnum.class), TestEnum.class);
+        assertEquals(2, out.size());
+        // More than 64 constants
+        serializer.writeEnumSet(EnumSet.of(Character.UnicodeScript.LATIN, Character.UnicodeScript.UNKNOWN), Character.UnicodeScript.class);
+
+        PacketDataSerializer deserializer = prepareDeserializer(out.toByteArray());
+        assertEquals(EnumSet.of(TestEnum.VALUE2), deserializer.readEnumSet(TestEnum.class));
+        assertEquals(EnumSet.noneOf(TestEnum.class), deserializer.readEnumSet(TestEnum.class));
+        assertEquals(EnumSet.of(Character.UnicodeScript.LATIN, Character.UnicodeScript.UNKNOWN),
+                deserializer.readEnumSet(Character.UnicodeScript.class));
+
+        ByteBufferDataOutput outInvalid = new ByteBufferDataOutput();
+        new PacketDataSerializer(outInvalid).writeVarLong(1L << TestEnum.values().length);
+        PacketDataSerializer deserializerInvalid = prepareDeserializer(outInvalid.toByteArray());
+        assertThrows(PacketSerializationException.class, () -> deserializerInvalid.readEnumSet(TestEnum.class));
+    }
+
+    @Test
+    public void testEnumFieldCodecs() throws PacketSerializationException {
+        EnumObject object = new EnumObject(TestEnum.VALUE2, EnumSet.of(TestEnum.VALUE1, TestEnum.VALUE2), EnumSet.of(TestEnum.VALUE1));
+
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        ClassSerializer.encode(new PacketDataSerializer(out), AnnotatedElementContext.ofClass(object));
+        assertEquals(3, out.size());
+
+        EnumObject decoded = ClassSerializer.decode(prepareDeserializer(out.toByteArray()), EnumObject.class);
+        assertEquals(object.state, decoded.state);
+        assertEquals(object.flags, decoded.flags);
+        assertEquals(object.options, decoded.options);
+    }
+
     @Test
     public void testList() throws PacketSerializationException {
         ByteArrayDataOutput out = ByteStreams.newDataOutput();
@@ -347,6 +426,105 @@ public class PacketDataSerializerTest {
         assertArrayEquals(largeArray, deserializer.readByteArray());
     }
 
+    @Test
+    public void testPrimitiveArrays() throws PacketSerializationException {
+        short[] shorts = {Short.MIN_VALUE, 0, Short.MAX_VALUE};
+        int[] ints = new int[10_000];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i * 31 - 5000;
+        }
+        long[] longs = {Long.MIN_VALUE, -1L, Long.MAX_VALUE};
+        float[] floats = {Float.NaN, -0.0f, 1.5f};
+        double[] doubles = {Double.NEGATIVE_INFINITY, Math.PI};
+
+        ByteArrayDataOutput legacyOut = ByteStreams.newDataOutput();
+        ByteBufferDataOutput bufferOut = new ByteBufferDataOutput(8, true);
+        for (PacketDataSerializer serializer : Arrays.asList(prepareSerializer(legacyOut), new PacketDataSerializer(bufferOut))) {
+            serializer.writeShortArray(shorts);
+            serializer.writeIntArray(ints);
+            serializer.writeLongArray(longs);
+            serializer.writeFloatArray(floats);
+            serializer.writeDoubleArray(doubles);
+            serializer.writeIntArray(new int[0]);
+        }
+        byte[] data = bufferOut.toByteArray();
+        assertArrayEquals(legacyOut.toByteArray(), data);
+
+        for (PacketDataSerializer deserializer : Arrays.asList(prepareDeserializer(data), new PacketDataSerializer(new ByteBufferDataInput(data)))) {
+            assertArrayEquals(shorts, deserializer.readShortArray());
+            assertArrayEquals(ints, deserializer.readIntArray());
+            assertArrayEquals(longs, deserializer.readLongArray());
+            assertArrayEquals(floats, deserializer.readFloatArray());
+            assertArrayEquals(doubles, deserializer.readDoubleArray());
+            assertEquals(0, deserializer.readIntArray().length);
+        }
+    }
+
+    @Test
+    public void testPrimitiveArrayCorruptedLength() {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+        serializer.writeInt(Integer.MAX_VALUE);
+        serializer.writeLong(1L);
+
+        PacketDataSerializer deserializer = new PacketDataSerializer(new ByteBufferDataInput(out.toByteArray()));
+        assertThrows(PacketSerializationException.class, deserializer::readLongArray);
+
+        PacketDataSerializer legacyDeserializer = prepareDeserializer(new byte[]{0, 0, 0, 2, 0, 0, 0, 1});
+        assertThrows(PacketSerializationException.class, legacyDeserializer::readIntArray);
+    }
+
+    @Test
+    public void testPrimitiveArrayHugeLengthOnGenericInput() {
+        // A few bytes claiming a 2 GB array must fail on the missing data, not on the allocation
+        byte[] data = {0x20, 0, 0, 0, 0, 0, 0, 1};
+        assertThrows(PacketSerializationException.class, () -> unlimitedDeserializer(data).readIntArray());
+        assertThrows(PacketSerializationException.class, () -> unlimitedDeserializer(data).readLongArray());
+        assertThrows(PacketSerializationException.class, () -> unlimitedDeserializer(data).readDoubleArray());
+        assertThrows(PacketSerializationException.class, () -> unlimitedDeserializer(data).readDeltaIntArray(DeltaEncoding.DELTA));
+    }
+
+    @Test
+    public void testPrimitiveCollections() throws PacketSerializationException {
+        IntList ids = IntList.of(5, -7, 1 << 20);
+        LongList positions = LongList.of(Long.MIN_VALUE, 0L);
+        IntSet visible = IntSet.of(0, 3, 99, -1);
+        LongObjectMap<String> blocks = new LongObjectMap<>();
+        blocks.put(0L, "minecraft:air");
+        blocks.put(123456789L, "minecraft:stone");
+
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+        serializer.writeIntList(ids);
+        serializer.writeLongList(positions);
+        serializer.writeIntSet(visible);
+        serializer.writeLongObjectMap(blocks, PacketDataSerializer::writeString);
+        serializer.writeIntArray(new int[]{1, 2});
+
+        PacketDataSerializer deserializer = prepareDeserializer(out.toByteArray());
+        assertEquals(ids, deserializer.readIntList());
+        assertEquals(positions, deserializer.readLongList());
+        assertEquals(visible, deserializer.readIntSet());
+        assertEquals(blocks, deserializer.readLongObjectMap(PacketDataSerializer::readString));
+        assertEquals(IntList.of(1, 2), deserializer.readIntList()); // Same format as int arrays
+    }
+
+    @Test
+    public void testPrimitiveCollectionFields() throws PacketSerializationException {
+        LongObjectMap<Integer> states = new LongObjectMap<>();
+        states.put(42L, 7);
+        CollectionObject object = new CollectionObject(IntList.of(1, 2, 3), IntSet.of(4, 5), LongList.of(6L), states);
+
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        ClassSerializer.encode(new PacketDataSerializer(out), AnnotatedElementContext.ofClass(object));
+        CollectionObject decoded = ClassSerializer.decode(prepareDeserializer(out.toByteArray()), CollectionObject.class);
+
+        assertEquals(object.entityIds, decoded.entityIds);
+        assertEquals(object.visible, decoded.visible);
+        assertEquals(object.positions, decoded.positions);
+        assertEquals(object.states, decoded.states);
+    }
+
     @Test
     public void testQueue() throws PacketSerializationException {
         ByteArrayDataOutput out = ByteStreams.newDataOutput();
@@ -549,6 +727,421 @@ public class PacketDataSerializerTest {
         assertThrows(PacketSerializationException.class, () -> deserializerCorrupted.readNullable(PacketDataSerializer::readString));
     }
 
+    @Test
+    public void testByteBufferEngineWireCompatibility() {
+        ByteArrayDataOutput legacyOut = ByteStreams.newDataOutput();
+        ByteBufferDataOutput bufferOut = new ByteBufferDataOutput(4, false);
+
+        for (PacketDataSerializer serializer : Arrays.asList(prepareSerializer(legacyOut), new PacketDataSerializer(bufferOut))) {
+            serializer.writeByte((byte) -5);
+            serializer.writeShort(Short.MIN_VALUE);
+            serializer.writeInt(123456789);
+            serializer.writeLong(Long.MAX_VALUE);
+            serializer.writeFloat(1.5f);
+            serializer.writeDouble(-2.25);
+            serializer.writeChar('\u00F1');
+            serializer.writeBoolean(true);
+            serializer.writeString("Héllo, Minecraft!");
+            serializer.writeList(Arrays.asList(1, 2, 3), PacketDataSerializer::writeInt);
+            serializer.writeUUID(new UUID(1L, 2L));
+        }
+
+        assertArrayEquals(legacyOut.toByteArray(), bufferOut.toByteArray());
+    }
+
+    @Test
+    public void testDirectByteBufferRoundTrip() throws PacketSerializationException {
+        ByteBufferDataOutput out = new ByteBufferDataOutput(8, true);
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+
+        serializer.writeInt(Integer.MIN_VALUE);
+        serializer.writeLong(42L);
+        serializer.writeDouble(Math.PI);
+        serializer.writeString("Direct");
+        serializer.writeByteArray(new byte[]{1, 2, 3});
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(out.size());
+        direct.put(out.toByteArray()).flip();
+        PacketDataSerializer deserializer = new PacketDataSerializer(new ByteBufferDataInput(direct));
+
+        assertEquals(Integer.MIN_VALUE, deserializer.readInt());
+        assertEquals(42L, deserializer.readLong());
+        assertEquals(Math.PI, deserializer.readDouble());
+        assertEquals("Direct", deserializer.readString());
+        assertArrayEquals(new byte[]{1, 2, 3}, deserializer.readByteArray());
+        assertFalse(direct.hasRemaining());
+    }
+
+    @Test
+    public void testByteBufferEngineCorruptedData() {
+        PacketDataSerializer deserializer = new PacketDataSerializer(new ByteBufferDataInput(new byte[]{0x01}));
+        assertThrows(PacketSerializationException.class, deserializer::readInt);
+        assertThrows(PacketSerializationException.class, deserializer::readLong);
+
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        new PacketDataSerializer(out).writeInt(3);
+        out.writeByte(0x41);
+        PacketDataSerializer stringDeserializer = new PacketDataSerializer(new ByteBufferDataInput(out.toByteArray()));
+        assertThrows(PacketSerializationException.class, stringDeserializer::readString);
+    }
+
+    @Test
+    public void testFixedByteBufferOverflow() {
+        ByteBufferDataOutput out = new ByteBufferDataOutput(ByteBuffer.allocate(2));
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+        serializer.writeShort((short) 1);
+        assertThrows(BufferOverflowException.class, () -> serializer.writeInt(1));
+    }
+
+    @Test
+    public void testUtf8DirectEncoding() throws PacketSerializationException {
+        String[] values = {
+                "", "plain ascii", "ñandú", "日本語テキスト", "emoji \uD83D\uDE00 pair",
+                "unpaired \uD800 high", "unpaired \uDC00 low", "trailing \uD83D", "\u0000\u007F\u0080\u07FF\u0800\uFFFF"
+        };
+
+        for (boolean direct : new boolean[]{false, true}) {
+            for (String value : values) {
+                ByteArrayDataOutput legacyOut = ByteStreams.newDataOutput();
+                prepareSerializer(legacyOut).writeString(value);
+                ByteBufferDataOutput bufferOut = new ByteBufferDataOutput(1, direct);
+                new PacketDataSerializer(bufferOut).writeString(value);
+
+                byte[] data = bufferOut.toByteArray();
+                assertArrayEquals(legacyOut.toByteArray(), data, value);
+                assertEquals(value.getBytes(StandardCharsets.UTF_8).length, Utf8.encodedLength(value));
+
+                ByteBuffer in = direct ? ByteBuffer.allocateDirect(data.length) : ByteBuffer.allocate(data.length);
+                in.put(data).flip();
+                String expected = new String(value.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+                assertEquals(expected, new PacketDataSerializer(new ByteBufferDataInput(in)).readString());
+                assertFalse(in.hasRemaining());
+            }
+        }
+    }
+
+    @Test
+    public void testUtf8DecodeFromSlice() throws PacketSerializationException {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+        serializer.writeString("first");
+        serializer.writeString("segundo ñ");
+
+        byte[] data = out.toByteArray();
+        byte[] padded = new byte[data.length + 7];
+        System.arraycopy(data, 0, padded, 3, data.length);
+        ByteBuffer slice = ByteBuffer.wrap(padded, 3, data.length).slice();
+
+        PacketDataSerializer reader = new PacketDataSerializer(new ByteBufferDataInput(slice));
+        assertEquals("first", reader.readString());
+        assertEquals("segundo ñ", reader.readString());
+    }
+
+    @Test
+    public void testUtf8TruncatedString() {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        new PacketDataSerializer(out).writeString("truncated string");
+        byte[] data = Arrays.copyOf(out.toByteArray(), 8);
+
+        PacketDataSerializer reader = new PacketDataSerializer(new ByteBufferDataInput(data));
+        assertThrows(PacketSerializationException.class, reader::readString);
+    }
+
+    @Test
+    public void testStringTable() throws PacketSerializationException {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer writer = new PacketDataSerializer(out, WireProfile.COMPACT);
+        writer.setStringTable(new StringTable(2, 16));
+
+        List<String> values = Arrays.asList("minecraft:stone", "world", "minecraft:stone", "nether", "world",
+                "minecraft:stone", "world", "a string longer than sixteen chars", "a string longer than sixteen chars");
+        int[] sizes = new int[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            int before = out.size();
+            writer.writeString(values.get(i));
+            sizes[i] = out.size() - before;
+        }
+
+        assertEquals(1, sizes[2]); // reference to "minecraft:stone"
+        assertEquals(1 + 1 + "world".length(), sizes[4]); // "world" was evicted by "nether"
+        assertEquals(1 + 1 + "minecraft:stone".length(), sizes[5]); // evicted by "world"
+        assertEquals(1, sizes[6]);
+        assertEquals(sizes[7], sizes[8]); // too long to be stored
+
+        PacketDataSerializer reader = new PacketDataSerializer(new ByteBufferDataInput(out.toByteArray()), WireProfile.COMPACT);
+        reader.setStringTable(new StringTable(2, 16));
+        for (String value : values) {
+            assertEquals(value, reader.readString());
+        }
+    }
+
+    @Test
+    public void testStringTableInvalidReference() {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        new PacketDataSerializer(out).writeVarInt(5);
+
+        PacketDataSerializer reader = new PacketDataSerializer(new ByteBufferDataInput(out.toByteArray()));
+        reader.setStringTable(new StringTable());
+        assertThrows(PacketSerializationException.class, reader::readString);
+    }
+
+    @Test
+    public void testVarInt() throws PacketSerializationException {
+        int[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        int[] expectedSizes = {1, 1, 1, 2, 2, 3, 5, 5, 5};
+        long[] longValues = {0L, 127L, 128L, Long.MAX_VALUE, -1L, Long.MIN_VALUE};
+        int[] expectedLongSizes = {1, 1, 2, 9, 10, 10};
+
+        for (int i = 0; i < values.length; i++) {
+            ByteBufferDataOutput out = new ByteBufferDataOutput();
+            new PacketDataSerializer(out).writeVarInt(values[i]);
+            assertEquals(expectedSizes[i], out.size(), "Size of VarInt " + values[i]);
+            assertEquals(values[i], prepareDeserializer(out.toByteArray()).readVarInt());
+
+            // The DataOutput engine must produce the same bytes
+            ByteArrayDataOutput legacyOut = ByteStreams.newDataOutput();
+            prepareSerializer(legacyOut).writeVarInt(values[i]);
+            assertArrayEquals(out.toByteArray(), legacyOut.toByteArray());
+        }
+
+        for (int i = 0; i < longValues.length; i++) {
+            ByteBufferDataOutput out = new ByteBufferDataOutput();
+            new PacketDataSerializer(out).writeVarLong(longValues[i]);
+            assertEquals(expectedLongSizes[i], out.size(), "Size of VarLong " + longValues[i]);
+            assertEquals(longValues[i], prepareDeserializer(out.toByteArray()).readVarLong());
+        }
+    }
+
+    @Test
+    public void testZigZag() throws PacketSerializationException {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        PacketDataSerializer serializer = prepareSerializer(out);
+
+        serializer.writeZigZagVarInt(-1);
+        serializer.writeZigZagVarInt(63);
+        serializer.writeZigZagVarInt(-64);
+        serializer.writeZigZagVarInt(Integer.MIN_VALUE);
+        serializer.writeZigZagVarLong(-1L);
+        serializer.writeZigZagVarLong(Long.MIN_VALUE);
+        serializer.writeZigZagVarLong(Long.MAX_VALUE);
+
+        byte[] data = out.toByteArray();
+        assertEquals(1, data[0]); // -1 -> 1, one byte
+
+        PacketDataSerializer deserializer = prepareDeserializer(data);
+        assertEquals(-1, deserializer.readZigZagVarInt());
+        assertEquals(63, deserializer.readZigZagVarInt());
+        assertEquals(-64, deserializer.readZigZagVarInt());
+        assertEquals(Integer.MIN_VALUE, deserializer.readZigZagVarInt());
+        assertEquals(-1L, deserializer.readZigZagVarLong());
+        assertEquals(Long.MIN_VALUE, deserializer.readZigZagVarLong());
+        assertEquals(Long.MAX_VALUE, deserializer.readZigZagVarLong());
+    }
+
+    @Test
+    public void testCorruptedVarInt() {
+        byte[] tooLong = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01};
+        assertThrows(PacketSerializationException.class, () -> prepareDeserializer(tooLong).readVarInt());
+        assertThrows(PacketSerializationException.class, () -> prepareDeserializer(new byte[]{(byte) 0x80}).readVarLong());
+    }
+
+    @Test
+    public void testCompactWireProfile() throws PacketSerializationException {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(out, WireProfile.COMPACT);
+
+        serializer.writeString("Steve");
+        assertEquals(1 + 5, out.size(), "String length prefix should take one byte");
+
+        List<String> list = Arrays.asList("A", "B");
+        Set<Integer> set = new HashSet<>(Arrays.asList(1, 2, 3));
+        Map<String, Integer> map = Collections.singletonMap("key", 7);
+        Queue<String> queue = new ArrayDeque<>(Collections.singletonList("Q"));
+        serializer.writeList(list, PacketDataSerializer::writeString);
+        serializer.writeSet(set, PacketDataSerializer::writeInt);
+        serializer.writeMap(map, PacketDataSerializer::writeString, PacketDataSerializer::writeInt);
+        serializer.writeQueue(queue, PacketDataSerializer::writeString);
+        serializer.writeByteArray(new byte[300]);
+
+        PacketDataSerializer deserializer = new PacketDataSerializer(new ByteBufferDataInput(out.toByteArray()), WireProfile.COMPACT);
+        assertEquals("Steve", deserializer.readString());
+        assertEquals(list, deserializer.readList(PacketDataSerializer::readString));
+        assertEquals(set, deserializer.readSet(PacketDataSerializer::readInt));
+        assertEquals(map, deserializer.readMap(PacketDataSerializer::readString, PacketDataSerializer::readInt));
+        assertIterableEquals(queue, deserializer.readQueue(PacketDataSerializer::readString));
+        assertEquals(300, deserializer.readByteArray().length);
+    }
+
+    @Test
+    public void testVarIntAnnotation() throws PacketSerializationException {
+        VarIntObject object = new VarIntObject(5, -3L, 1000);
+
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        ClassSerializer.encode(new PacketDataSerializer(out), AnnotatedElementContext.ofClass(object));
+        assertEquals(1 + 1 + 4, out.size());
+
+        VarIntObject decoded = ClassSerializer.decode(prepareDeserializer(out.toByteArray()), VarIntObject.class);
+        assertEquals(5, decoded.count);
+        assertEquals(-3L, decoded.delta);
+        assertEquals(1000, decoded.fixed);
+    }
+
+    @Test
+    public void testStreamCountFollowsWireProfile() throws PacketSerializationException {
+        TextCustomNonSerializableObject customObject = new TextCustomNonSerializableObject(1, "S", new ArrayList<>(Collections.singletonList("L")), new String[]{"E"});
+
+        ByteBufferDataOutput fixedOut = new ByteBufferDataOutput();
+        ClassSerializer.encode(new PacketDataSerializer(fixedOut), AnnotatedElementContext.ofClass(customObject));
+        ByteBufferDataOutput compactOut = new ByteBufferDataOutput();
+        ClassSerializer.encode(new PacketDataSerializer(compactOut, WireProfile.COMPACT), AnnotatedElementContext.ofClass(customObject));
+
+        // 2 streams (8 -> 1 byte count) and 3 strings (4 -> 1 byte prefix)
+        assertEquals(fixedOut.size() - 2 * 7 - 3 * 3, compactOut.size());
+
+        PacketDataSerializer deserializer = new PacketDataSerializer(new ByteBufferDataInput(compactOut.toByteArray()), WireProfile.COMPACT);
+        TextCustomNonSerializableObject decoded = ClassSerializer.decode(deserializer, TextCustomNonSerializableObject.class);
+        assertEquals("S", decoded.stringValue);
+        assertIterableEquals(customObject.list, decoded.list);
+        assertArrayEquals(customObject.elements, decoded.elements);
+    }
+
+    @Test
+    public void testStreamFailsOnUnencodableElement() throws PacketSerializationException {
+        StreamHolderObject holder = new StreamHolderObject(new ArrayList<>(Arrays.asList(
+                new StreamElementObject("first"), new StreamElementObject("last"))), 1234);
+        StreamHolderObject broken = new StreamHolderObject(new ArrayList<>(Arrays.asList(
+                new StreamElementObject("first"), new CircularStreamElementObject(), new StreamElementObject("last"))), 1234);
+
+        for (WireProfile profile : WireProfile.values()) {
+            ByteBufferDataOutput out = new ByteBufferDataOutput();
+            ClassSerializer.encode(new PacketDataSerializer(out, profile), AnnotatedElementContext.ofClass(holder));
+
+            PacketDataSerializer deserializer = new PacketDataSerializer(new ByteBufferDataInput(out.toByteArray()), profile);
+            StreamHolderObject decoded = ClassSerializer.decode(deserializer, StreamHolderObject.class);
+            assertEquals(2, decoded.elements.size());
+            assertEquals("first", decoded.elements.get(0).name);
+            assertEquals("last", decoded.elements.get(1).name);
+            assertEquals(1234, decoded.after);
+
+            // The element whose codec cannot be resolved fails the packet instead of being dropped
+            PacketDataSerializer serializer = new PacketDataSerializer(new ByteBufferDataOutput(), profile);
+            assertThrows(PacketSerializationException.class, () -> ClassSerializer.encode(serializer, AnnotatedElementContext.ofClass(broken)));
+        }
+    }
+
+    @Test
+    public void testCountingDataOutput() throws PacketSerializationException {
+        TextCustomNonSerializableObject customObject = new TextCustomNonSerializableObject(7, "Caf\u00e9", new ArrayList<>(Arrays.asList("A", "\u20ac")), new String[]{"\ud83d\ude00"});
+
+        for (WireProfile profile : WireProfile.values()) {
+            ByteBufferDataOutput out = new ByteBufferDataOutput();
+            CountingDataOutput counter = new CountingDataOutput();
+            PacketDataSerializer serializer = new PacketDataSerializer(out, profile);
+            PacketDataSerializer counting = new PacketDataSerializer(counter, profile);
+
+            ClassSerializer.encode(serializer, AnnotatedElementContext.ofClass(customObject));
+            ClassSerializer.encode(counting, AnnotatedElementContext.ofClass(customObject));
+            serializer.writeIntArray(new int[]{1, 2, 3});
+            counting.writeIntArray(new int[]{1, 2, 3});
+            serializer.writeDoubleArray(new double[]{1.5});
+            counting.writeDoubleArray(new double[]{1.5});
+            serializer.writeVarLong(Long.MIN_VALUE);
+            counting.writeVarLong(Long.MIN_VALUE);
+
+            assertEquals(out.size(), counter.size());
+        }
+
+        for (long value : new long[]{0, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            ByteBufferDataOutput out = new ByteBufferDataOutput();
+            out.writeVarLong(value);
+            assertEquals(out.size(), PacketWriter.varLongSize(value));
+            out = new ByteBufferDataOutput();
+            out.writeVarInt((int) value);
+            assertEquals(out.size(), PacketWriter.varIntSize((int) value));
+        }
+
+        CountingDataOutput counter = new CountingDataOutput();
+        counter.skip(10);
+        assertEquals(10, counter.size());
+        counter.reset();
+        assertEquals(0, counter.size());
+    }
+
+    @Test
+    public void testReadLimits() throws PacketSerializationException {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+        // A forged list size followed by only two elements
+        serializer.writeInt(1_000_000);
+        serializer.writeString("A");
+        serializer.writeString("B");
+        byte[] forgedList = out.toByteArray();
+
+        PacketDataSerializer limited = new PacketDataSerializer(new ByteBufferDataInput(forgedList));
+        limited.setReadLimits(new ReadLimits(1000, Long.MAX_VALUE));
+        PacketSerializationException e = assertThrows(PacketSerializationException.class, () -> limited.readList(PacketDataSerializer::readString));
+        assertTrue(e.getMessage().contains("Too many elements"));
+
+        // Without limits the list is only allocated as far as the data goes
+        PacketDataSerializer unlimited = new PacketDataSerializer(new ByteBufferDataInput(forgedList));
+        assertThrows(PacketSerializationException.class, () -> unlimited.readList(PacketDataSerializer::readString));
+
+        ByteArrayDataOutput strings = ByteStreams.newDataOutput();
+        PacketDataSerializer stringWriter = prepareSerializer(strings);
+        stringWriter.writeString("0123456789");
+        stringWriter.writeString("0123456789");
+        PacketDataSerializer budgeted = prepareDeserializer(strings.toByteArray());
+        budgeted.setReadLimits(new ReadLimits(Integer.MAX_VALUE, 15));
+        assertEquals("0123456789", budgeted.readString());
+        e = assertThrows(PacketSerializationException.class, budgeted::readString);
+        assertTrue(e.getMessage().contains("Allocation budget exceeded"));
+
+        // A forged byte array length over a generic input fails once the data runs out
+        ByteArrayDataOutput bytes = ByteStreams.newDataOutput();
+        bytes.writeInt(Integer.MAX_VALUE - 8);
+        bytes.write(new byte[10_000]);
+        assertThrows(PacketSerializationException.class, () -> prepareDeserializer(bytes.toByteArray()).readByteArray());
+
+        assertThrows(IllegalArgumentException.class, () -> new ReadLimits(-1, 0));
+    }
+
+    @Test
+    public void testPacketWriterReader() throws PacketSerializationException {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketWriter writer = new PacketWriter(out, WireProfile.COMPACT);
+        writer.writeVarInt(300);
+        writer.writeString("Writer");
+        writer.writeList(Arrays.asList("A", "B"), PacketWriter::writeString);
+        writer.writeIntArray(new int[]{1, 2, 3});
+        writer.writeNullable(null, PacketWriter::writeString);
+
+        // The facade produces and accepts the same bytes
+        ByteBufferDataOutput facadeOut = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(facadeOut, WireProfile.COMPACT);
+        serializer.writeVarInt(300);
+        serializer.writeString("Writer");
+        serializer.writeList(Arrays.asList("A", "B"), PacketDataSerializer::writeString);
+        serializer.writeIntArray(new int[]{1, 2, 3});
+        serializer.writeNullable(null, PacketDataSerializer::writeString);
+        assertArrayEquals(out.toByteArray(), facadeOut.toByteArray());
+
+        PacketReader reader = new PacketReader(new ByteBufferDataInput(out.toByteArray()), WireProfile.COMPACT);
+        assertEquals(300, reader.readVarInt());
+        assertEquals("Writer", reader.readString());
+        assertEquals(Arrays.asList("A", "B"), reader.readList(PacketReader::readString));
+        assertArrayEquals(new int[]{1, 2, 3}, reader.readIntArray());
+        assertNull(reader.readNullable(PacketReader::readString));
+
+        PacketDataSerializer deserializer = new PacketDataSerializer(new PacketReader(new ByteBufferDataInput(out.toByteArray()), WireProfile.COMPACT));
+        assertEquals(300, deserializer.readVarInt());
+        assertEquals("Writer", deserializer.reader().readString());
+        assertEquals(Arrays.asList("A", "B"), deserializer.readList(PacketDataSerializer::readString));
+
+        assertThrows(IllegalStateException.class, serializer::reader);
+        assertThrows(IllegalStateException.class, deserializer::writer);
+        assertThrows(IllegalStateException.class, () -> serializer.readInt());
+    }
+
     @Test
     public void reflectionSerializer() throws PacketSerializationException, NoSuchMethodException {
         ByteArrayDataOutput out = ByteStreams.newDataOutput();
@@ -569,6 +1162,200 @@ public class PacketDataSerializerTest {
         assertArrayEquals(customObject.elements, deserializedObject.elements);
         assertIterableEquals(customObject.list, deserializedObject.list);
     }
+
+    @Test
+    public void testBitWriterReader() throws PacketSerializationException {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+
+        BitWriter bits = serializer.bitWriter();
+        bits.writeBoolean(true);
+        bits.writeBits(5, 3);
+        bits.writeBits(-3, 4);
+        bits.writeBits(Long.MIN_VALUE + 7, 64);
+        bits.writeBits(0x1FFFFFFFFL, 33);
+        bits.flush();
+        serializer.writeByte((byte) 42);
+        assertEquals(14 + 1, out.size(), "105 bits should take 14 bytes");
+
+        PacketDataSerializer deserializer = new PacketDataSerializer(new ByteBufferDataInput(out.toByteArray()));
+        BitReader reader = deserializer.bitReader();
+        assertTrue(reader.readBoolean());
+        assertEquals(5, reader.readBits(3));
+        assertEquals(-3, reader.readSignedBits(4));
+        assertEquals(Long.MIN_VALUE + 7, reader.readBits(64));
+        assertEquals(0x1FFFFFFFFL, reader.readBits(33));
+        assertEquals(42, deserializer.readByte(), "Padding bits should be skipped");
+
+        assertThrows(IllegalArgumentException.class, () -> serializer.bitWriter().writeBits(0, 65));
+    }
+
+    @Test
+    public void testBitPackedFields() throws PacketSerializationException {
+        BitPackedObject object = new BitPackedObject(true, false, 9, "world", true, (byte) -3, 1L << 40);
+
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        ClassSerializer.encode(new PacketDataSerializer(out), AnnotatedElementContext.ofClass(object));
+        assertEquals(7 + 4 + 5, out.size(), "The 52 packed bits should share 7 bytes");
+
+        BitPackedObject decoded = ClassSerializer.decode(prepareDeserializer(out.toByteArray()), BitPackedObject.class);
+        assertTrue(decoded.sneaking);
+        assertFalse(decoded.sprinting);
+        assertEquals(9, decoded.slot);
+        assertEquals("world", decoded.world);
+        assertTrue(decoded.flying);
+        assertEquals(-3, decoded.offset);
+        assertEquals(1L << 40, decoded.position);
+
+        object.slot = 16;
+        assertThrows(PacketSerializationException.class,
+                () -> ClassSerializer.encode(new PacketDataSerializer(new ByteBufferDataOutput()), AnnotatedElementContext.ofClass(object)));
+        assertThrows(PacketSerializationException.class,
+                () -> ClassSerializer.encode(new PacketDataSerializer(new ByteBufferDataOutput()), AnnotatedElementContext.ofClass(new UnpackedBitsObject(1))));
+    }
+
+    @Test
+    public void testDeltaEncodings() throws PacketSerializationException {
+        long[] timestamps = new long[1000];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = 1_700_000_000_000L + i * 50L + (i % 7 == 0 ? 1 : 0);
+        }
+        int[] ids = {3, 7, 8, 120, 5000, Integer.MAX_VALUE, Integer.MIN_VALUE, -1};
+
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+        serializer.writeDeltaLongArray(timestamps, DeltaEncoding.DELTA_OF_DELTA);
+        assertTrue(out.size() < 4 + 8 + 2 + 2 * timestamps.length, "Steady timestamps should take about a byte each: " + out.size());
+        serializer.writeDeltaLongArray(timestamps, DeltaEncoding.DELTA);
+        serializer.writeDeltaIntArray(ids, DeltaEncoding.DELTA);
+        serializer.writeDeltaIntList(IntList.wrap(ids), DeltaEncoding.DELTA_OF_DELTA);
+        serializer.writeDeltaLongList(new LongList(), DeltaEncoding.DELTA);
+        serializer.writeDeltaLongArray(new long[]{Long.MIN_VALUE, Long.MAX_VALUE, 0}, DeltaEncoding.DELTA_OF_DELTA);
+
+        PacketDataSerializer deserializer = new PacketDataSerializer(new ByteBufferDataInput(out.toByteArray()));
+        assertArrayEquals(timestamps, deserializer.readDeltaLongArray(DeltaEncoding.DELTA_OF_DELTA));
+        assertArrayEquals(timestamps, deserializer.readDeltaLongArray(DeltaEncoding.DELTA));
+        assertArrayEquals(ids, deserializer.readDeltaIntArray(DeltaEncoding.DELTA));
+        assertEquals(IntList.wrap(ids), deserializer.readDeltaIntList(DeltaEncoding.DELTA_OF_DELTA));
+        assertTrue(deserializer.readDeltaLongList(DeltaEncoding.DELTA).isEmpty());
+        assertArrayEquals(new long[]{Long.MIN_VALUE, Long.MAX_VALUE, 0}, deserializer.readDeltaLongArray(DeltaEncoding.DELTA_OF_DELTA));
+
+        ByteBufferDataOutput forged = new ByteBufferDataOutput();
+        new PacketDataSerializer(forged).writeInt(1_000_000);
+        assertThrows(PacketSerializationException.class,
+                () -> new PacketDataSerializer(new ByteBufferDataInput(forged.toByteArray())).readDeltaIntArray(DeltaEncoding.DELTA));
+    }
+
+    @Test
+    public void testDeltaAnnotation() throws PacketSerializationException {
+        DeltaObject object = new DeltaObject(
+                new long[]{1000, 2000, 3000, 4000},
+                IntList.wrap(new int[]{1, 2, 4, 8}),
+                Arrays.asList(10L, 11L, 12L),
+                new int[]{5, 6});
+
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        ClassSerializer.encode(new PacketDataSerializer(out), AnnotatedElementContext.ofClass(object));
+        assertEquals((4 + 2 + 2 + 1 + 1) + (4 + 4) + (4 + 3) + (4 + 8), out.size());
+
+        DeltaObject decoded = ClassSerializer.decode(prepareDeserializer(out.toByteArray()), DeltaObject.class);
+        assertArrayEquals(object.timestamps, decoded.timestamps);
+        assertEquals(object.ids, decoded.ids);
+        assertEquals(object.ticks, decoded.ticks);
+        assertArrayEquals(object.plain, decoded.plain);
+    }
+
+    @Test
+    public void testQuantizedEncodings() throws PacketSerializationException {
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        PacketDataSerializer serializer = new PacketDataSerializer(out);
+
+        serializer.writeFixedPoint(0.25, 4096);
+        assertEquals(2, out.size(), "0.25 at scale 4096 should take a 2 byte VarLong");
+        serializer.writeFixedPoint(-12345.678, 100);
+        serializer.writeHalfFloat(1.5f);
+        serializer.writeHalfFloat(0.1f);
+        serializer.writeAngle(90f);
+        serializer.writeAngle(270f);
+        serializer.writeAngle(-45f);
+
+        PacketDataSerializer deserializer = new PacketDataSerializer(new ByteBufferDataInput(out.toByteArray()));
+        assertEquals(0.25, deserializer.readFixedPoint(4096));
+        assertEquals(-12345.68, deserializer.readFixedPoint(100), 1e-9);
+        assertEquals(1.5f, deserializer.readHalfFloat());
+        assertEquals(0.1f, deserializer.readHalfFloat(), 0.0001f);
+        assertEquals(90f, deserializer.readAngle());
+        assertEquals(-90f, deserializer.readAngle(), "Angles should be normalized to [-180, 180)");
+        assertEquals(-45f, deserializer.readAngle());
+    }
+
+    @Test
+    public void testFloat16() {
+        assertEquals(0x3C00, Float16.fromFloat(1f));
+        assertEquals((short) 0xC000, Float16.fromFloat(-2f));
+        assertEquals(0x7BFF, Float16.fromFloat(65504f));
+        assertEquals(0x7C00, Float16.fromFloat(65520f), "Values rounding past the max should become infinite");
+        assertEquals(0x0001, Float16.fromFloat(0x1p-24f));
+        assertEquals(0x0000, Float16.fromFloat(0x1p-26f));
+        assertEquals((short) 0x8000, Float16.fromFloat(-0f));
+        assertEquals(0x3C00, Float16.fromFloat(1f + 0x1p-11f), "Ties should round to even");
+        assertEquals(0x3C02, Float16.fromFloat(1f + 3 * 0x1p-11f), "Ties should round to even");
+
+        assertEquals(Float.POSITIVE_INFINITY, Float16.toFloat(Float16.fromFloat(Float.POSITIVE_INFINITY)));
+        assertTrue(Float.isNaN(Float16.toFloat(Float16.fromFloat(Float.NaN))));
+        assertEquals(0x1p-24f, Float16.toFloat((short) 0x0001));
+        for (int bits = 0; bits < 0x10000; bits++) {
+            float value = Float16.toFloat((short) bits);
+            if (!Float.isNaN(value)) {
+                assertEquals((short) bits, Float16.fromFloat(value), "Round trip of half " + Integer.toHexString(bits));
+            }
+        }
+    }
+
+    @Test
+    public void testQuantizedAnnotations() throws PacketSerializationException {
+        QuantizedObject object = new QuantizedObject(1024.5, 0.3f, 180f, 1.75, null);
+
+        ByteBufferDataOutput out = new ByteBufferDataOutput();
+        ClassSerializer.encode(new PacketDataSerializer(out), AnnotatedElementContext.ofClass(object));
+        assertEquals(3 + 2 + 1 + 2 + 1, out.size());
+
+        QuantizedObject decoded = ClassSerializer.decode(prepareDeserializer(out.toByteArray()), QuantizedObject.class);
+        assertEquals(1024.5, decoded.x);
+        assertEquals(0.3f, decoded.scale, 0.001f);
+        assertEquals(-180f, decoded.yaw);
+        assertEquals(1.75, decoded.speed);
+        assertNull(decoded.pitch);
+
+        PacketSerializationException exception = assertThrows(PacketSerializationException.class,
+                () -> ClassSerializer.encode(new PacketDataSerializer(new ByteBufferDataOutput()), AnnotatedElementContext.ofClass(new InvalidQuantizedObject(1))));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    public void testInstanceFactory() throws Exception {
+        InstanceFactory<PrivateCustomObject> factory = InstanceFactory.of(PrivateCustomObject.class);
+        assertSame(factory, InstanceFactory.of(PrivateCustomObject.class), "Factories should be cached per class");
+        assertTrue(factory.isAvailable());
+        assertNotSame(factory.newInstance(), factory.newInstance());
+
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        prepareSerializer(out).writeCustom(new PrivateCustomObject(42));
+        assertEquals(42, prepareDeserializer(out.toByteArray()).readCustom(PrivateCustomObject.class).value);
+
+        InstanceFactory<TestCustomObject> full = InstanceFactory.of(TestCustomObject.class.getDeclaredConstructor(int.class, String.class));
+        TestCustomObject created = full.newInstance(7, "seven");
+        assertEquals(7, created.intValue);
+        assertEquals("seven", created.stringValue);
+
+        InstanceFactory<RequiredValueObject> missing = InstanceFactory.of(RequiredValueObject.class);
+        assertFalse(missing.isAvailable());
+        assertThrows(NoSuchMethodException.class, missing::newInstance);
+
+        InvocationTargetException failure = assertThrows(InvocationTargetException.class,
+                () -> InstanceFactory.of(FailingObject.class).newInstance());
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
 }
 
 @AllArgsConstructor
@@ -583,6 +1370,139 @@ class TextCustomNonSerializableObject {
     }
 }
 
+@AllArgsConstructor
+@NoArgsConstructor
+class StreamHolderObject {
+    List<StreamElementObject> elements;
+    int after;
+}
+
+@AllArgsConstructor
+@NoArgsConstructor
+class StreamElementObject {
+    String name;
+}
+
+class CircularStreamElementObject extends StreamElementObject {
+    CircularStreamElementObject next;
+
+    public CircularStreamElementObject() {
+        super("circular");
+    }
+}
+
+@AllArgsConstructor
+@NoArgsConstructor
+class EnumObject {
+    TestEnum state;
+    EnumSet<TestEnum> flags;
+    Set<TestEnum> options;
+}
+
+@AllArgsConstructor
+@NoArgsConstructor
+class CollectionObject {
+    IntList entityIds;
+    IntSet visible;
+    LongList positions;
+    LongObjectMap<Integer> states;
+}
+
+@AllArgsConstructor
+@NoArgsConstructor
+class DeltaObject {
+    @Delta(DeltaEncoding.DELTA_OF_DELTA)
+    long[] timestamps;
+    @Delta
+    IntList ids;
+    @Delta
+    List<Long> ticks;
+    int[] plain;
+}
+
+@BitPacked
+@AllArgsConstructor
+@NoArgsConstructor
+class BitPackedObject {
+    boolean sneaking;
+    boolean sprinting;
+    @Bits(4)
+    int slot;
+    String world;
+    boolean flying;
+    @Bits(value = 4, signed = true)
+    byte offset;
+    @Bits(41)
+    long position;
+}
+
+@AllArgsConstructor
+@NoArgsConstructor
+class UnpackedBitsObject {
+    @Bits(4)
+    int value;
+}
+
+@AllArgsConstructor
+@NoArgsConstructor
+class QuantizedObject {
+    @FixedPoint(scale = 32)
+    double x;
+    @HalfFloat
+    float scale;
+    @Angle
+    float yaw;
+    @HalfFloat
+    double speed;
+    @Nullable
+    @Angle
+    Float pitch;
+}
+
+@AllArgsConstructor
+@NoArgsConstructor
+class InvalidQuantizedObject {
+    @HalfFloat
+    int value;
+}
+
+@AllArgsConstructor
+@NoArgsConstructor
+class VarIntObject {
+    @VarInt
+    int count;
+    @VarInt(zigZag = true)
+    long delta;
+    int fixed;
+}
+
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class PrivateCustomObject implements CustomSerializable {
+    int value;
+
+    @Override
+    public void serialize(PacketDataSerializer serializer) {
+        serializer.writeInt(value);
+    }
+
+    @Override
+    public void deserialize(PacketDataSerializer serializer) throws PacketSerializationException {
+        this.value = serializer.readInt();
+    }
+}
+
+@AllArgsConstructor
+class RequiredValueObject {
+    int value;
+}
+
+class FailingObject {
+    FailingObject() {
+        throw new IllegalStateException("Cannot be created");
+    }
+}
+
 // Objeto personalizado para pruebas
 @AllArgsConstructor
 @NoArgsConstructor
@@ -0,0 +1,75 @@
+package com.github.razorplay.packet_handler.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimitiveCollectionTest {
+
+    @Test
+    public void testIntListGrowth() {
+        IntList list = new IntList();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i * 3);
+        }
+        assertEquals(1000, list.size());
+        assertEquals(2997, list.get(999));
+        assertEquals(3, list.set(1, -1));
+        assertTrue(list.contains(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1000));
+
+        assertEquals(IntList.of(1, 2, 3), IntList.wrap(new int[]{1, 2, 3}));
+        list.clear();
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void testIntSetMatchesHashSet() {
+        Random random = new Random(42);
+        IntSet set = new IntSet();
+        Set<Integer> expected = new HashSet<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(512) - 256; // Small range to force collisions, removals and zero
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for (int value = -256; value < 256; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "value " + value);
+        }
+
+        Set<Integer> iterated = new HashSet<>();
+        set.forEach(iterated::add);
+        assertEquals(expected, iterated);
+        assertEquals(expected.size(), set.toArray().length);
+    }
+
+    @Test
+    public void testLongObjectMapMatchesHashMap() {
+        Random random = new Random(7);
+        LongObjectMap<String> map = new LongObjectMap<>(0);
+        Map<Long, String> expected = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            long key = (random.nextInt(300) - 150) * 0x1_0000_0000L;
+            if (random.nextInt(3) > 0) {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        Map<Long, String> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+        assertThrows(NullPointerException.class, () -> map.put(1L, null));
+    }
+}